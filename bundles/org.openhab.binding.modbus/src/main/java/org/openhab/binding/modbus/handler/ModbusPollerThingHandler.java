@@ -12,9 +12,16 @@
  */
 package org.openhab.binding.modbus.handler;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import org.apache.commons.lang.StringUtils;
@@ -22,6 +29,8 @@ import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
 import org.openhab.binding.modbus.internal.AtomicStampedValue;
 import org.openhab.binding.modbus.internal.ModbusBindingConstantsInternal;
+import org.openhab.binding.modbus.internal.ReadRequestPlanner;
+import org.openhab.binding.modbus.internal.ReadRequestPlanner.Range;
 import org.openhab.binding.modbus.internal.config.ModbusPollerConfiguration;
 import org.openhab.binding.modbus.internal.handler.ModbusDataThingHandler;
 import org.openhab.core.io.transport.modbus.AsyncModbusFailure;
@@ -33,6 +42,7 @@ import org.openhab.core.io.transport.modbus.ModbusReadCallback;
 import org.openhab.core.io.transport.modbus.ModbusReadFunctionCode;
 import org.openhab.core.io.transport.modbus.ModbusReadRequestBlueprint;
 import org.openhab.core.io.transport.modbus.PollTask;
+import org.openhab.core.io.transport.modbus.exception.ModbusSlaveErrorResponseException;
 import org.openhab.core.thing.Bridge;
 import org.openhab.core.thing.ChannelUID;
 import org.openhab.core.thing.Thing;
@@ -49,6 +59,9 @@ import org.slf4j.LoggerFactory;
  * The {@link ModbusPollerThingHandler} is responsible for polling Modbus slaves. Errors and data is delegated to
  * child thing handlers inheriting from {@link ModbusReadCallback} -- in practice: {@link ModbusDataThingHandler}.
  *
+ * In smart mode, the poller doesn't poll the configured range but computes the read requests from the addresses read
+ * by the child things, see {@link ReadRequestPlanner}.
+ *
  * @author Sami Salonen - Initial contribution
  */
 @NonNullByDefault
@@ -69,11 +82,32 @@ public class ModbusPollerThingHandler extends BaseBridgeHandler {
 
         private volatile @Nullable AtomicStampedValue<PollResult> lastResult;
 
+        // Block read by this delegator in smart mode, null if it delegates the results of the configured request
+        private final @Nullable Range block;
+        private final @Nullable ModbusReadRequestBlueprint blockRequest;
+        private volatile @Nullable PollTask blockPollTask;
+        private volatile boolean lastFailed;
+
+        ReadCallbackDelegator() {
+            this.block = null;
+            this.blockRequest = null;
+        }
+
+        ReadCallbackDelegator(Range block, ModbusReadRequestBlueprint blockRequest) {
+            this.block = block;
+            this.blockRequest = blockRequest;
+        }
+
         public synchronized void handleResult(PollResult result) {
             // Ignore all incoming data and errors if configuration is not correct
             if (hasConfigurationError() || disposed) {
                 return;
             }
+            Range localBlock = block;
+            if (localBlock != null && isIllegalAddress(result.failure) && splitBlock(this, localBlock)) {
+                return;
+            }
+            lastFailed = result.failure != null;
             if (config.getCacheMillis() >= 0) {
                 AtomicStampedValue<PollResult> localLastResult = this.lastResult;
                 if (localLastResult == null) {
@@ -86,6 +120,10 @@ public class ModbusPollerThingHandler extends BaseBridgeHandler {
             logger.debug("Thing {} received response {}", thing.getUID(), result);
             notifyChildren(result);
             if (result.failure != null) {
+                if (localBlock != null && blockDelegators.stream().anyMatch(delegator -> !delegator.lastFailed)) {
+                    // Other blocks can be read, the children of this block are informed about the error
+                    return;
+                }
                 Exception error = result.failure.getCause();
                 assert error != null;
                 updateStatus(ThingStatus.OFFLINE, ThingStatusDetail.COMMUNICATION_ERROR,
@@ -134,7 +172,14 @@ public class ModbusPollerThingHandler extends BaseBridgeHandler {
             AsyncModbusReadResult result = pollResult.result;
             @Nullable
             AsyncModbusFailure<ModbusReadRequestBlueprint> failure = pollResult.failure;
+            Range localBlock = block;
             childCallbacks.forEach(handler -> {
+                if (localBlock != null) {
+                    Range readRange = handler.getReadRange();
+                    if (readRange == null || !localBlock.contains(readRange)) {
+                        return;
+                    }
+                }
                 if (result != null) {
                     handler.onReadResult(result);
                 } else if (failure != null) {
@@ -178,6 +223,9 @@ public class ModbusPollerThingHandler extends BaseBridgeHandler {
 
     private final Logger logger = LoggerFactory.getLogger(ModbusPollerThingHandler.class);
 
+    /** Delay after a change of the child things, before the read requests are computed in smart mode */
+    private static final long PLAN_DELAY_MILLIS = 1000;
+
     private final static List<String> SORTED_READ_FUNCTION_CODES = ModbusBindingConstantsInternal.READ_FUNCTION_CODES
             .keySet().stream().sorted().collect(Collectors.toList());
 
@@ -193,6 +241,11 @@ public class ModbusPollerThingHandler extends BaseBridgeHandler {
 
     private @Nullable ModbusReadFunctionCode functionCode;
 
+    // smart mode
+    private volatile List<ReadCallbackDelegator> blockDelegators = Collections.emptyList();
+    private final Set<Range> refusedBlocks = new HashSet<>();
+    private @Nullable ScheduledFuture<?> planJob;
+
     public ModbusPollerThingHandler(Bridge bridge) {
         super(bridge);
     }
@@ -239,6 +292,7 @@ public class ModbusPollerThingHandler extends BaseBridgeHandler {
         comms = null;
         request = null;
         disposed = false;
+        refusedBlocks.clear();
         logger.trace("Initializing {} from status {}", this.getThing().getUID(), this.getThing().getStatus());
         try {
             config = getConfigAs(ModbusPollerConfiguration.class);
@@ -307,6 +361,9 @@ public class ModbusPollerThingHandler extends BaseBridgeHandler {
             comms.unregisterRegularPoll(localPollTask);
         }
         this.pollTask = null;
+        cancelPlanJob();
+        unregisterBlockPolls(blockDelegators);
+        blockDelegators = Collections.emptyList();
         request = null;
         comms = null;
         updateStatus(ThingStatus.OFFLINE);
@@ -351,7 +408,11 @@ public class ModbusPollerThingHandler extends BaseBridgeHandler {
                 localFunctionCode, config.getStart(), config.getLength(), config.getMaxTries());
         this.request = localRequest;
 
-        if (config.getRefresh() <= 0L) {
+        if (config.isSmart()) {
+            logger.debug("Smart mode, read requests are computed from the child things");
+            updateStatus(ThingStatus.ONLINE);
+            schedulePlan();
+        } else if (config.getRefresh() <= 0L) {
             logger.debug("Not registering polling with ModbusManager since refresh disabled");
             updateStatus(ThingStatus.ONLINE, ThingStatusDetail.NONE, "Not polling");
         } else {
@@ -380,6 +441,9 @@ public class ModbusPollerThingHandler extends BaseBridgeHandler {
     public void childHandlerInitialized(ThingHandler childHandler, Thing childThing) {
         if (childHandler instanceof ModbusDataThingHandler) {
             this.childCallbacks.add((ModbusDataThingHandler) childHandler);
+            if (isSmart()) {
+                schedulePlan();
+            }
         }
     }
 
@@ -388,9 +452,154 @@ public class ModbusPollerThingHandler extends BaseBridgeHandler {
     public void childHandlerDisposed(ThingHandler childHandler, Thing childThing) {
         if (childHandler instanceof ModbusDataThingHandler) {
             this.childCallbacks.remove(childHandler);
+            if (isSmart()) {
+                schedulePlan();
+            }
+        }
+    }
+
+    /**
+     * Returns true if the read requests are computed from the child things
+     */
+    public boolean isSmart() {
+        ModbusPollerConfiguration localConfig = config;
+        return localConfig != null && localConfig.isSmart();
+    }
+
+    /**
+     * Return the read requests computed in smart mode.
+     *
+     * @return the read requests, empty if the poller is not in smart mode or the requests are not computed yet
+     */
+    public List<ModbusReadRequestBlueprint> getBlockRequests() {
+        return blockDelegators.stream().map(delegator -> delegator.blockRequest).filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    private synchronized void schedulePlan() {
+        cancelPlanJob();
+        planJob = scheduler.schedule(this::updateBlocks, PLAN_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    private synchronized void cancelPlanJob() {
+        ScheduledFuture<?> localPlanJob = planJob;
+        if (localPlanJob != null) {
+            localPlanJob.cancel(false);
+            planJob = null;
         }
     }
 
+    /**
+     * Computes the blocks read in smart mode and registers their polling, if they changed
+     */
+    private synchronized void updateBlocks() {
+        if (disposed || request == null || !isSmart()) {
+            return;
+        }
+        List<Range> blocks = ReadRequestPlanner.plan(getChildRanges(), getMaxBlockLength(), config.getMaxGap(),
+                refusedBlocks);
+        List<Range> currentBlocks = blockDelegators.stream().map(delegator -> delegator.block)
+                .collect(Collectors.toList());
+        if (blocks.equals(currentBlocks)) {
+            return;
+        }
+        logger.debug("Poller {} reads {} blocks: {}", getThing().getUID(), blocks.size(), blocks);
+        unregisterBlockPolls(blockDelegators);
+        List<ReadCallbackDelegator> delegators = new ArrayList<>();
+        blocks.forEach(block -> delegators.add(createBlockDelegator(block)));
+        blockDelegators = delegators;
+        registerBlockPolls(delegators);
+    }
+
+    /**
+     * Replaces a block refused by the slave with smaller blocks
+     *
+     * @return true if the block was split, false if it can't be split
+     */
+    private synchronized boolean splitBlock(ReadCallbackDelegator delegator, Range block) {
+        List<Range> parts = ReadRequestPlanner.split(block, getChildRanges(), getMaxBlockLength());
+        if (disposed || !blockDelegators.contains(delegator) || parts.size() == 1) {
+            return false;
+        }
+        logger.debug("Poller {} splits block {} refused by the slave into {}", getThing().getUID(), block, parts);
+        refusedBlocks.add(block);
+        List<ReadCallbackDelegator> partDelegators = new ArrayList<>();
+        parts.forEach(part -> partDelegators.add(createBlockDelegator(part)));
+        List<ReadCallbackDelegator> delegators = new ArrayList<>(blockDelegators);
+        delegators.remove(delegator);
+        delegators.addAll(partDelegators);
+        blockDelegators = delegators;
+        unregisterBlockPolls(Collections.singletonList(delegator));
+        registerBlockPolls(partDelegators);
+        return true;
+    }
+
+    private ReadCallbackDelegator createBlockDelegator(Range block) {
+        ModbusReadRequestBlueprint localRequest = request;
+        assert localRequest != null;
+        return new ReadCallbackDelegator(block, new ModbusReadRequestBlueprint(localRequest.getUnitID(),
+                localRequest.getFunctionCode(), block.getStart(), block.getLength(), config.getMaxTries()));
+    }
+
+    private void registerBlockPolls(List<ReadCallbackDelegator> delegators) {
+        ModbusCommunicationInterface localComms = comms;
+        if (localComms == null || config.getRefresh() <= 0L) {
+            return;
+        }
+        for (ReadCallbackDelegator delegator : delegators) {
+            ModbusReadRequestBlueprint blockRequest = delegator.blockRequest;
+            if (blockRequest != null) {
+                delegator.blockPollTask = localComms.registerRegularPoll(blockRequest, config.getRefresh(), 0,
+                        delegator, delegator);
+            }
+        }
+    }
+
+    private void unregisterBlockPolls(List<ReadCallbackDelegator> delegators) {
+        ModbusCommunicationInterface localComms = comms;
+        for (ReadCallbackDelegator delegator : delegators) {
+            PollTask blockPollTask = delegator.blockPollTask;
+            if (blockPollTask != null && localComms != null) {
+                localComms.unregisterRegularPoll(blockPollTask);
+            }
+            delegator.blockPollTask = null;
+        }
+    }
+
+    private List<Range> getChildRanges() {
+        List<Range> ranges = new ArrayList<>();
+        childCallbacks.forEach(handler -> {
+            Range readRange = handler.getReadRange();
+            if (readRange != null) {
+                ranges.add(readRange);
+            }
+        });
+        return ranges;
+    }
+
+    private int getMaxBlockLength() {
+        int maxLength;
+        switch (Objects.requireNonNull(functionCode)) {
+            case READ_COILS:
+            case READ_INPUT_DISCRETES:
+                maxLength = ModbusConstants.MAX_BITS_READ_COUNT;
+                break;
+            default:
+                maxLength = ModbusConstants.MAX_REGISTERS_READ_COUNT;
+                break;
+        }
+        return config.getLength() > 0 ? Math.min(config.getLength(), maxLength) : maxLength;
+    }
+
+    private static boolean isIllegalAddress(@Nullable AsyncModbusFailure<ModbusReadRequestBlueprint> failure) {
+        if (failure == null || !(failure.getCause() instanceof ModbusSlaveErrorResponseException)) {
+            return false;
+        }
+        int code = ((ModbusSlaveErrorResponseException) failure.getCause()).getExceptionCode();
+        return code == ModbusSlaveErrorResponseException.ILLEGAL_DATA_ACCESS
+                || code == ModbusSlaveErrorResponseException.ILLEGAL_DATA_VALUE;
+    }
+
     /**
      * Return {@link ModbusReadRequestBlueprint} represented by this thing.
      *
@@ -421,10 +630,22 @@ public class ModbusPollerThingHandler extends BaseBridgeHandler {
         if (localRequest == null) {
             return;
         }
+        if (isSmart()) {
+            blockDelegators.forEach(delegator -> {
+                ModbusReadRequestBlueprint blockRequest = delegator.blockRequest;
+                if (blockRequest != null) {
+                    refresh(blockRequest, delegator);
+                }
+            });
+        } else {
+            refresh(localRequest, callbackDelegator);
+        }
+    }
 
+    private void refresh(ModbusReadRequestBlueprint localRequest, ReadCallbackDelegator delegator) {
         long oldDataThreshold = System.currentTimeMillis() - cacheMillis;
         boolean cacheWasRecentEnoughForUpdate = cacheMillis > 0
-                && this.callbackDelegator.updateChildrenWithOldData(oldDataThreshold);
+                && delegator.updateChildrenWithOldData(oldDataThreshold);
         if (cacheWasRecentEnoughForUpdate) {
             logger.debug(
                     "Poller {} received refresh() and cache was recent enough (age at most {} ms). Reusing old response",
@@ -435,7 +656,7 @@ public class ModbusPollerThingHandler extends BaseBridgeHandler {
                     getThing().getUID());
             ModbusCommunicationInterface localComms = comms;
             if (localComms != null) {
-                localComms.submitOneTimePoll(localRequest, callbackDelegator, callbackDelegator);
+                localComms.submitOneTimePoll(localRequest, delegator, delegator);
             }
         }
     }
@@ -0,0 +1,190 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.modbus.internal;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * Computes the read requests of a smart poller from the ranges read by its data things.
+ *
+ * Ranges are merged into blocks which are read with one request each. A block never exceeds the maximum length of a
+ * request, and bridges at most {@code maxGap} elements which no data thing reads.
+ *
+ * @author Markus Vogler - Initial contribution
+ */
+@NonNullByDefault
+public class ReadRequestPlanner {
+
+    /**
+     * Immutable range of registers, coils or discrete inputs
+     */
+    public static class Range {
+        private final int start;
+        private final int length;
+
+        public Range(int start, int length) {
+            this.start = start;
+            this.length = length;
+        }
+
+        /**
+         * Get address of the first element. Input as zero-based index number.
+         */
+        public int getStart() {
+            return start;
+        }
+
+        /**
+         * Gets number of elements
+         */
+        public int getLength() {
+            return length;
+        }
+
+        /**
+         * Get address after the last element
+         */
+        public int getEnd() {
+            return start + length;
+        }
+
+        public boolean contains(Range other) {
+            return other.start >= start && other.getEnd() <= getEnd();
+        }
+
+        @Override
+        public boolean equals(@Nullable Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (obj == null || obj.getClass() != getClass()) {
+                return false;
+            }
+            Range other = (Range) obj;
+            return start == other.start && length == other.length;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(start, length);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Range(start=%d, length=%d)", start, length);
+        }
+    }
+
+    private static final Comparator<Range> BY_START = Comparator.comparingInt(Range::getStart)
+            .thenComparingInt(Range::getLength);
+
+    /**
+     * Merges ranges into blocks
+     *
+     * @param ranges the ranges read by the data things
+     * @param maxLength the maximum number of elements read by one request
+     * @param maxGap the maximum number of unread elements bridged within a block
+     * @return blocks covering all ranges, sorted by address
+     */
+    public static List<Range> plan(Collection<Range> ranges, int maxLength, int maxGap) {
+        List<Range> blocks = new ArrayList<>();
+        int blockStart = -1;
+        int blockEnd = -1;
+        for (Range range : sorted(ranges)) {
+            int end = Math.max(blockEnd, range.getEnd());
+            if (blockStart >= 0 && range.getStart() <= blockEnd + maxGap && end - blockStart <= maxLength) {
+                blockEnd = end;
+                continue;
+            }
+            if (blockStart >= 0) {
+                blocks.add(new Range(blockStart, blockEnd - blockStart));
+            }
+            blockStart = range.getStart();
+            blockEnd = range.getEnd();
+        }
+        if (blockStart >= 0) {
+            blocks.add(new Range(blockStart, blockEnd - blockStart));
+        }
+        return blocks;
+    }
+
+    /**
+     * Merges ranges into blocks, splitting the blocks which the slave refused to read before
+     *
+     * @param ranges the ranges read by the data things
+     * @param maxLength the maximum number of elements read by one request
+     * @param maxGap the maximum number of unread elements bridged within a block
+     * @param refusedBlocks the blocks refused by the slave
+     * @return blocks covering all ranges, sorted by address
+     */
+    public static List<Range> plan(Collection<Range> ranges, int maxLength, int maxGap, Set<Range> refusedBlocks) {
+        TreeSet<Range> blocks = new TreeSet<>(BY_START);
+        Deque<Range> pending = new ArrayDeque<>(plan(ranges, maxLength, maxGap));
+        while (!pending.isEmpty()) {
+            Range block = pending.poll();
+            List<Range> parts = refusedBlocks.contains(block) ? split(block, ranges, maxLength)
+                    : Collections.singletonList(block);
+            if (parts.size() == 1) {
+                blocks.add(block);
+            } else {
+                pending.addAll(parts);
+            }
+        }
+        return new ArrayList<>(blocks);
+    }
+
+    /**
+     * Splits a block which the slave refused to read, e.g. because it contains addresses which don't exist
+     *
+     * A block bridging gaps is split into blocks without gaps. A block without gaps is split into the ranges of the
+     * data things.
+     *
+     * @param block the block refused by the slave
+     * @param ranges the ranges read by the data things
+     * @param maxLength the maximum number of elements read by one request
+     * @return the smaller blocks, or the block itself if it can't be split
+     */
+    public static List<Range> split(Range block, Collection<Range> ranges, int maxLength) {
+        List<Range> contained = ranges.stream().filter(block::contains).collect(Collectors.toList());
+        List<Range> blocks = plan(contained, maxLength, 0);
+        if (blocks.size() > 1) {
+            return blocks;
+        }
+        blocks = new ArrayList<>(sorted(contained));
+        if (blocks.size() > 1) {
+            return blocks;
+        }
+        List<Range> unsplittable = new ArrayList<>();
+        unsplittable.add(block);
+        return unsplittable;
+    }
+
+    private static Collection<Range> sorted(Collection<Range> ranges) {
+        TreeSet<Range> sorted = new TreeSet<>(BY_START);
+        sorted.addAll(ranges);
+        return sorted;
+    }
+}
@@ -29,6 +29,8 @@ public class ModbusPollerConfiguration {
     private @Nullable String type;
     private int maxTries = 3;// backwards compatibility and tests
     private long cacheMillis = 50L;
+    private boolean smart;
+    private int maxGap = 10;
 
     /**
      * Gets refresh period in milliseconds
@@ -115,4 +117,36 @@ public class ModbusPollerConfiguration {
     public void setCacheMillis(long cacheMillis) {
         this.cacheMillis = cacheMillis;
     }
+
+    /**
+     * Gets whether the read requests are computed from the addresses read by the data things.
+     *
+     * In smart mode, start is ignored and length is the maximum number of elements read with one request.
+     */
+    public boolean isSmart() {
+        return smart;
+    }
+
+    /**
+     * Sets whether the read requests are computed from the addresses read by the data things.
+     */
+    public void setSmart(boolean smart) {
+        this.smart = smart;
+    }
+
+    /**
+     * Gets maximum number of unread registers, coils or discrete inputs between two data things read with one request
+     * in smart mode
+     */
+    public int getMaxGap() {
+        return maxGap;
+    }
+
+    /**
+     * Sets maximum number of unread registers, coils or discrete inputs between two data things read with one request
+     * in smart mode
+     */
+    public void setMaxGap(int maxGap) {
+        this.maxGap = maxGap;
+    }
 }
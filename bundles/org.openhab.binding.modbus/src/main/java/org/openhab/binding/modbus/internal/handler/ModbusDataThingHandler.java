@@ -29,6 +29,7 @@ import org.openhab.binding.modbus.handler.ModbusEndpointThingHandler;
 import org.openhab.binding.modbus.handler.ModbusPollerThingHandler;
 import org.openhab.binding.modbus.internal.ModbusBindingConstantsInternal;
 import org.openhab.binding.modbus.internal.ModbusConfigurationException;
+import org.openhab.binding.modbus.internal.ReadRequestPlanner.Range;
 import org.openhab.binding.modbus.internal.Transformation;
 import org.openhab.binding.modbus.internal.config.ModbusDataConfiguration;
 import org.openhab.core.io.transport.modbus.AsyncModbusFailure;
@@ -128,7 +129,7 @@ public class ModbusDataThingHandler extends BaseThingHandler {
     private volatile Optional<Integer> readIndex = Optional.empty();
     private volatile Optional<Integer> readSubIndex = Optional.empty();
     private volatile @Nullable Integer writeStart;
-    private volatile int pollStart;
+    private volatile boolean smartPoller;
     private volatile int slaveId;
     private volatile @Nullable ModbusReadFunctionCode functionCode;
     private volatile @Nullable ModbusReadRequestBlueprint readRequest;
@@ -366,7 +367,7 @@ public class ModbusDataThingHandler extends BaseThingHandler {
                 slaveId = localReadRequest.getUnitID();
                 functionCode = localReadRequest.getFunctionCode();
                 comms = localPollerHandler.getCommunicationInterface();
-                pollStart = localReadRequest.getReference();
+                smartPoller = localPollerHandler.isSmart();
                 childOfEndpoint = false;
             }
             validateAndParseReadParameters(localConfig);
@@ -393,7 +394,7 @@ public class ModbusDataThingHandler extends BaseThingHandler {
         readIndex = Optional.empty();
         readSubIndex = Optional.empty();
         writeStart = null;
-        pollStart = 0;
+        smartPoller = false;
         slaveId = 0;
         comms = null;
         functionCode = null;
@@ -623,6 +624,11 @@ public class ModbusDataThingHandler extends BaseThingHandler {
             throw new ModbusConfigurationException(errmsg);
         }
 
+        if (smartPoller) {
+            // The smart poller reads the addresses of this thing
+            return;
+        }
+
         // Determine bit positions polled, both start and end inclusive
         int pollStartBitIndex = readRequest.getReference() * dataElementBits;
         int pollEndBitIndex = pollStartBitIndex + readRequest.getDataLength() * dataElementBits - 1;
@@ -652,6 +658,20 @@ public class ModbusDataThingHandler extends BaseThingHandler {
         });
     }
 
+    /**
+     * Returns the registers, coils or discrete inputs read by this thing
+     *
+     * @return the range or null if this thing doesn't read
+     */
+    public @Nullable Range getReadRange() {
+        ValueType readValueType = this.readValueType;
+        Optional<Integer> readIndex = this.readIndex;
+        if (!isReadEnabled || readValueType == null || !readIndex.isPresent()) {
+            return null;
+        }
+        return new Range(readIndex.get(), Math.max(readValueType.getBits() / 16, 1));
+    }
+
     public synchronized void onReadResult(AsyncModbusReadResult result) {
         result.getRegisters().ifPresent(registers -> onRegisters(result.getRequest(), registers));
         result.getBits().ifPresent(bits -> onBits(result.getRequest(), bits));
@@ -690,11 +710,11 @@ public class ModbusDataThingHandler extends BaseThingHandler {
         if (readValueType.getBits() >= 16) {
             // Invariant, checked in initialize
             assert readSubIndex.orElse(0) == 0;
-            extractIndex = readIndex.get() - pollStart;
+            extractIndex = readIndex.get() - request.getReference();
         } else {
             int subIndex = readSubIndex.orElse(0);
             int itemsPerRegister = 16 / readValueType.getBits();
-            extractIndex = (readIndex.get() - pollStart) * itemsPerRegister + subIndex;
+            extractIndex = (readIndex.get() - request.getReference()) * itemsPerRegister + subIndex;
         }
         numericState = ModbusBitUtilities.extractStateFromRegisters(registers, extractIndex, readValueType)
                 .map(state -> (State) state).orElse(UnDefType.UNDEF);
@@ -712,7 +732,7 @@ public class ModbusDataThingHandler extends BaseThingHandler {
         } else if (!isReadEnabled) {
             return;
         }
-        boolean boolValue = bits.getBit(readIndex.get() - pollStart);
+        boolean boolValue = bits.getBit(readIndex.get() - request.getReference());
         DecimalType numericState = boolValue ? new DecimalType(BigDecimal.ONE) : DecimalType.ZERO;
         Map<ChannelUID, State> values = processUpdatedValue(numericState, boolValue);
         logger.debug(
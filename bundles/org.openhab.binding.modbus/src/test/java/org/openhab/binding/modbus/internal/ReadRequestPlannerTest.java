@@ -0,0 +1,87 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.modbus.internal;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.openhab.binding.modbus.internal.ReadRequestPlanner.Range;
+
+/**
+ * @author Markus Vogler - Initial contribution
+ */
+public class ReadRequestPlannerTest {
+
+    private static final List<Range> RANGES = Arrays.asList(new Range(10, 2), new Range(0, 1), new Range(1, 1),
+            new Range(14, 1), new Range(40, 4));
+
+    @Test
+    public void testAdjacentRangesAndSmallGapsAreMerged() {
+        assertThat(ReadRequestPlanner.plan(RANGES, 125, 3),
+                is(equalTo(Arrays.asList(new Range(0, 2), new Range(10, 5), new Range(40, 4)))));
+    }
+
+    @Test
+    public void testLargeGapsAreBridged() {
+        assertThat(ReadRequestPlanner.plan(RANGES, 125, 100),
+                is(equalTo(Collections.singletonList(new Range(0, 44)))));
+    }
+
+    @Test
+    public void testMaxLengthIsRespected() {
+        assertThat(ReadRequestPlanner.plan(RANGES, 15, 100),
+                is(equalTo(Arrays.asList(new Range(0, 15), new Range(40, 4)))));
+    }
+
+    @Test
+    public void testOverlappingRanges() {
+        List<Range> ranges = Arrays.asList(new Range(5, 2), new Range(5, 1), new Range(6, 1));
+        assertThat(ReadRequestPlanner.plan(ranges, 125, 0), is(equalTo(Collections.singletonList(new Range(5, 2)))));
+    }
+
+    @Test
+    public void testNoRanges() {
+        assertThat(ReadRequestPlanner.plan(Collections.emptyList(), 125, 10).isEmpty(), is(true));
+    }
+
+    @Test
+    public void testSplitAtGapsFirst() {
+        assertThat(ReadRequestPlanner.split(new Range(0, 15), RANGES, 125),
+                is(equalTo(Arrays.asList(new Range(0, 2), new Range(10, 2), new Range(14, 1)))));
+    }
+
+    @Test
+    public void testSplitIntoRangesWithoutGaps() {
+        assertThat(ReadRequestPlanner.split(new Range(0, 2), RANGES, 125),
+                is(equalTo(Arrays.asList(new Range(0, 1), new Range(1, 1)))));
+    }
+
+    @Test
+    public void testSingleRangeCannotBeSplit() {
+        assertThat(ReadRequestPlanner.split(new Range(40, 4), RANGES, 125),
+                is(equalTo(Collections.singletonList(new Range(40, 4)))));
+    }
+
+    @Test
+    public void testRefusedBlocksAreSplitWhenPlanning() {
+        HashSet<Range> refused = new HashSet<>(Arrays.asList(new Range(0, 15), new Range(0, 2)));
+        assertThat(ReadRequestPlanner.plan(RANGES, 125, 10, refused), is(equalTo(Arrays.asList(new Range(0, 1),
+                new Range(1, 1), new Range(10, 2), new Range(14, 1), new Range(40, 4)))));
+    }
+}
@@ -29,9 +29,12 @@ import org.eclipse.jdt.annotation.NonNull;
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
 import org.openhab.binding.mqtt.generic.utils.FutureCollector;
+import org.openhab.binding.mqtt.generic.utils.SerialExecutor;
 import org.openhab.binding.mqtt.generic.values.OnOffValue;
 import org.openhab.binding.mqtt.generic.values.Value;
 import org.openhab.binding.mqtt.handler.AbstractBrokerHandler;
+import org.openhab.binding.mqtt.handler.MqttPublishPipeline;
+import org.openhab.core.common.ThreadPoolManager;
 import org.openhab.core.io.transport.mqtt.MqttBrokerConnection;
 import org.openhab.core.library.types.OnOffType;
 import org.openhab.core.thing.Bridge;
@@ -78,18 +81,34 @@ import org.slf4j.LoggerFactory;
 @NonNullByDefault
 public abstract class AbstractMQTTThingHandler extends BaseThingHandler
         implements ChannelStateUpdateListener, AvailabilityTracker {
+    /** Thread pool shared by all things to process received messages */
+    public static final String MESSAGE_POOL_NAME = "mqtt-messages";
+
     private final Logger logger = LoggerFactory.getLogger(AbstractMQTTThingHandler.class);
     // Timeout for the entire tree parsing and subscription
     private final int subscribeTimeout;
 
     protected @Nullable MqttBrokerConnection connection;
+    /** Publishes the channel commands of all things of the broker */
+    protected @Nullable MqttPublishPipeline publishPipeline;
 
     private AtomicBoolean messageReceived = new AtomicBoolean(false);
     private Map<String, @Nullable ChannelState> availabilityStates = new ConcurrentHashMap<>();
 
+    /** Messages shared by the {@link ChannelState}s of this thing which are subscribed to the same topic */
+    protected final SharedPayloadCache payloadCache = new SharedPayloadCache();
+
+    /**
+     * Processes the received messages of this thing in order, in parallel to the messages of other things, so that a
+     * slow transformation doesn't delay all things of the broker connection
+     */
+    protected final SerialExecutor messageExecutor;
+
     public AbstractMQTTThingHandler(Thing thing, int subscribeTimeout) {
         super(thing);
         this.subscribeTimeout = subscribeTimeout;
+        messageExecutor = new SerialExecutor(ThreadPoolManager.getPool(MESSAGE_POOL_NAME),
+                String.valueOf(thing.getUID()), SerialExecutor.DEFAULT_CAPACITY);
     }
 
     /**
@@ -116,6 +135,12 @@ public abstract class AbstractMQTTThingHandler extends BaseThingHandler
     protected void stop() {
         clearAllAvailabilityTopics();
         resetMessageReceived();
+        payloadCache.clear();
+        // the channels are stopped, the messages received before are not processed anymore
+        int discarded = messageExecutor.clear();
+        if (discarded > 0) {
+            logger.debug("Discarded {} received messages of stopped thing {}", discarded, thing.getUID());
+        }
     }
 
     @Override
@@ -146,7 +171,7 @@ public abstract class AbstractMQTTThingHandler extends BaseThingHandler
             return;
         }
 
-        final CompletableFuture<Boolean> future = data.publishValue(command);
+        final CompletableFuture<Boolean> future = data.publishValue(command, publishPipeline);
         future.handle((v, ex) -> {
             if (ex != null) {
                 updateStatus(ThingStatus.OFFLINE, ThingStatusDetail.COMMUNICATION_ERROR, ex.getLocalizedMessage());
@@ -165,6 +190,7 @@ public abstract class AbstractMQTTThingHandler extends BaseThingHandler
             updateStatus(ThingStatus.OFFLINE, ThingStatusDetail.BRIDGE_OFFLINE);
             stop();
             connection = null;
+            publishPipeline = null;
             return;
         }
         if (bridgeStatusInfo.getStatus() != ThingStatus.ONLINE) {
@@ -190,6 +216,7 @@ public abstract class AbstractMQTTThingHandler extends BaseThingHandler
             return;
         }
         this.connection = connection;
+        this.publishPipeline = h.getPublishPipeline();
 
         // Start up (subscribe to MQTT topics). Limit with a timeout and catch exceptions.
         // We do not set the thing to ONLINE here in the AbstractBase, that is the responsibility of a derived
@@ -257,6 +284,7 @@ public abstract class AbstractMQTTThingHandler extends BaseThingHandler
             logger.warn("unsubscription on disposal failed for {}: ", thing.getUID(), e);
         }
         connection = null;
+        publishPipeline = null;
         super.dispose();
     }
 
@@ -57,4 +57,13 @@ public class ChannelConfig {
 
     public int onBrightness = 10;
     public String colorMode = "";
+
+    /** Minimum time in milliseconds between two values passed on to the framework, 0 for no limit. */
+    public int minInterval = 0;
+    /** If true, a received value which equals the current state is not passed on. */
+    public boolean onlyOnChange = false;
+    /** Numeric values which differ by at most this amount from the current state are not passed on. */
+    public @Nullable BigDecimal deadband;
+    /** If true, the {@link #deadband} is a percentage of the current state instead of an absolute amount. */
+    public boolean deadbandPercent = false;
 }
@@ -12,7 +12,6 @@
  */
 package org.openhab.binding.mqtt.generic;
 
-import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.IllegalFormatException;
 import java.util.List;
@@ -24,13 +23,17 @@ import java.util.concurrent.TimeUnit;
 import org.apache.commons.lang.StringUtils;
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.binding.mqtt.generic.ChannelStateFilter.Decision;
+import org.openhab.binding.mqtt.generic.utils.SerialExecutor;
 import org.openhab.binding.mqtt.generic.values.TextValue;
 import org.openhab.binding.mqtt.generic.values.Value;
+import org.openhab.binding.mqtt.handler.MqttPublishPipeline;
 import org.openhab.core.io.transport.mqtt.MqttBrokerConnection;
 import org.openhab.core.io.transport.mqtt.MqttMessageSubscriber;
 import org.openhab.core.library.types.StringType;
 import org.openhab.core.thing.ChannelUID;
 import org.openhab.core.types.Command;
+import org.openhab.core.types.State;
 import org.openhab.core.types.TypeParser;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -62,6 +65,14 @@ public class ChannelState implements MqttMessageSubscriber {
     private @Nullable ScheduledFuture<?> scheduledFuture;
     private CompletableFuture<@Nullable Void> future = CompletableFuture.completedFuture(null);
     private final Object futureLock = new Object();
+    private @Nullable SharedPayloadCache payloadCache;
+    private final @Nullable ChannelStateFilter filter;
+    private @Nullable SerialExecutor messageExecutor;
+    private @Nullable ScheduledExecutorService scheduler;
+    // the latest value received within the minimum interval, guarded by deferredLock
+    private @Nullable State deferredState;
+    private @Nullable ScheduledFuture<?> deferredFuture;
+    private final Object deferredLock = new Object();
 
     /**
      * Creates a new channel state.
@@ -79,6 +90,7 @@ public class ChannelState implements MqttMessageSubscriber {
         this.channelUID = channelUID;
         this.cachedValue = cachedValue;
         this.readOnly = StringUtils.isBlank(config.commandTopic);
+        this.filter = ChannelStateFilter.create(config);
     }
 
     public boolean isReadOnly() {
@@ -113,6 +125,26 @@ public class ChannelState implements MqttMessageSubscriber {
         transformationsOut.clear();
     }
 
+    /**
+     * Sets the cache used to share decoded and parsed messages with the other channels of the thing.
+     *
+     * @param payloadCache The cache of the thing
+     */
+    public void setPayloadCache(@Nullable SharedPayloadCache payloadCache) {
+        this.payloadCache = payloadCache;
+    }
+
+    /**
+     * Sets the executor received messages are processed on. By default they are processed on the thread of the
+     * broker connection, which delivers the messages of all things one after another.
+     *
+     * @param messageExecutor An executor which runs the messages of a thing in order, or null to process them on the
+     *            thread of the broker connection
+     */
+    public void setMessageExecutor(@Nullable SerialExecutor messageExecutor) {
+        this.messageExecutor = messageExecutor;
+    }
+
     /**
      * Returns the cached value state object of this message subscriber.
      * <p>
@@ -125,6 +157,15 @@ public class ChannelState implements MqttMessageSubscriber {
         return cachedValue;
     }
 
+    /**
+     * Returns the number of received values which were not passed on to the framework, because of the minimum
+     * interval, "only on change" or deadband configuration of the channel.
+     */
+    public long getSuppressedUpdates() {
+        final ChannelStateFilter filter = this.filter;
+        return filter != null ? filter.getSuppressedCount() : 0;
+    }
+
     /**
      * Return the channelUID
      */
@@ -140,6 +181,15 @@ public class ChannelState implements MqttMessageSubscriber {
      */
     @Override
     public void processMessage(String topic, byte[] payload) {
+        final SerialExecutor messageExecutor = this.messageExecutor;
+        if (messageExecutor != null) {
+            messageExecutor.execute(() -> handleMessage(topic, payload));
+        } else {
+            handleMessage(topic, payload);
+        }
+    }
+
+    private void handleMessage(String topic, byte[] payload) {
         final ChannelStateUpdateListener channelStateUpdateListener = this.channelStateUpdateListener;
         if (channelStateUpdateListener == null) {
             logger.warn("MQTT message received for topic {}, but MessageSubscriber object hasn't been started!", topic);
@@ -153,10 +203,15 @@ public class ChannelState implements MqttMessageSubscriber {
             return;
         }
 
-        // String value: Apply transformations
-        String strValue = new String(payload, StandardCharsets.UTF_8);
+        // String value: Apply transformations, the first one to the message shared with the other channels
+        final SharedPayloadCache payloadCache = this.payloadCache;
+        final SharedPayload sharedPayload = payloadCache != null ? payloadCache.get(topic, payload)
+                : new SharedPayload(payload);
+        String strValue = sharedPayload.getText();
+        boolean first = true;
         for (ChannelStateTransformation t : transformationsIn) {
-            String transformedValue = t.processValue(strValue);
+            String transformedValue = first ? t.processValue(sharedPayload) : t.processValue(strValue);
+            first = false;
             if (transformedValue != null) {
                 strValue = transformedValue;
             } else {
@@ -189,6 +244,7 @@ public class ChannelState implements MqttMessageSubscriber {
         }
 
         // Map the string to a command, update the cached value and post the command to the framework
+        final State previousState = cachedValue.getChannelState();
         try {
             cachedValue.update(command);
         } catch (IllegalArgumentException | IllegalStateException e) {
@@ -198,12 +254,97 @@ public class ChannelState implements MqttMessageSubscriber {
             return;
         }
 
+        // Filter: Keep the last value passed on in the cache, the next values are compared to it
+        final ChannelStateFilter filter = this.filter;
+        if (filter != null) {
+            final State state = cachedValue.getChannelState();
+            final Decision decision = filter.decide(previousState, state);
+            if (decision != Decision.ACCEPT) {
+                logger.trace("Value '{}' of channel {} {}", strValue, channelUID,
+                        decision == Decision.DEFER ? "deferred" : "suppressed");
+                cachedValue.restoreState(previousState);
+                if (decision == Decision.DEFER) {
+                    defer(state, filter);
+                } else {
+                    cancelDeferred();
+                }
+                receivedOrTimeout();
+                return;
+            }
+            cancelDeferred();
+        }
+
+        notifyListener(channelStateUpdateListener);
+        receivedOrTimeout();
+    }
+
+    private void notifyListener(ChannelStateUpdateListener channelStateUpdateListener) {
         if (config.postCommand) {
             channelStateUpdateListener.postChannelCommand(channelUID, (Command) cachedValue.getChannelState());
         } else {
             channelStateUpdateListener.updateChannelState(channelUID, cachedValue.getChannelState());
         }
-        receivedOrTimeout();
+    }
+
+    /**
+     * Keeps a value received within the minimum interval and passes it on when the interval has passed
+     */
+    private void defer(State state, ChannelStateFilter filter) {
+        synchronized (deferredLock) {
+            deferredState = state;
+            final ScheduledExecutorService scheduler = this.scheduler;
+            if (deferredFuture == null && scheduler != null) {
+                deferredFuture = scheduler.schedule(this::deferredIntervalPassed,
+                        filter.getRemainingIntervalNanos(), TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    private void cancelDeferred() {
+        synchronized (deferredLock) {
+            deferredState = null;
+            final ScheduledFuture<?> deferredFuture = this.deferredFuture;
+            if (deferredFuture != null) {
+                deferredFuture.cancel(false);
+                this.deferredFuture = null;
+            }
+        }
+    }
+
+    private void deferredIntervalPassed() {
+        // processed in order with the received messages, the deferred state is the last one of its interval and must
+        // not be dropped
+        final SerialExecutor messageExecutor = this.messageExecutor;
+        if (messageExecutor != null) {
+            messageExecutor.executeRequired(this::handleDeferred);
+        } else {
+            handleDeferred();
+        }
+    }
+
+    private void handleDeferred() {
+        final State state;
+        synchronized (deferredLock) {
+            state = deferredState;
+            deferredState = null;
+            deferredFuture = null;
+        }
+        final ChannelStateUpdateListener channelStateUpdateListener = this.channelStateUpdateListener;
+        final ChannelStateFilter filter = this.filter;
+        if (state == null || channelStateUpdateListener == null || filter == null) {
+            return;
+        }
+        switch (filter.decideDeferred(cachedValue.getChannelState(), state)) {
+            case ACCEPT:
+                cachedValue.restoreState(state);
+                notifyListener(channelStateUpdateListener);
+                break;
+            case DEFER:
+                defer(state, filter);
+                break;
+            default:
+                break;
+        }
     }
 
     /**
@@ -255,6 +396,7 @@ public class ChannelState implements MqttMessageSubscriber {
         this.connection = null;
         this.channelStateUpdateListener = null;
         hasSubscribed = false;
+        cancelDeferred();
         cachedValue.resetState();
     }
 
@@ -296,6 +438,7 @@ public class ChannelState implements MqttMessageSubscriber {
             hasSubscribed = false;
 
             this.connection = connection;
+            this.scheduler = scheduler;
 
             if (StringUtils.isBlank(config.stateTopic)) {
                 return CompletableFuture.completedFuture(null);
@@ -332,6 +475,19 @@ public class ChannelState implements MqttMessageSubscriber {
      *         and exceptionally otherwise.
      */
     public CompletableFuture<Boolean> publishValue(Command command) {
+        return publishValue(command, null);
+    }
+
+    /**
+     * Publishes a value on MQTT through the publish pipeline of the broker. A command topic needs to be set in the
+     * configuration.
+     *
+     * @param command The command to send
+     * @param publishPipeline The publish pipeline of the broker or null to publish on the connection directly
+     * @return A future that completes with true if the publishing worked and false if it is a readonly topic
+     *         and exceptionally otherwise.
+     */
+    public CompletableFuture<Boolean> publishValue(Command command, @Nullable MqttPublishPipeline publishPipeline) {
         cachedValue.update(command);
 
         Value mqttCommandValue = cachedValue;
@@ -383,6 +539,10 @@ public class ChannelState implements MqttMessageSubscriber {
 
         int qos = (config.qos != null) ? config.qos : connection.getQos();
 
+        if (publishPipeline != null) {
+            return publishPipeline.publish(connection, config.commandTopic, commandString.getBytes(), qos,
+                    config.retained);
+        }
         return connection.publish(config.commandTopic, commandString.getBytes(), qos, config.retained);
     }
 
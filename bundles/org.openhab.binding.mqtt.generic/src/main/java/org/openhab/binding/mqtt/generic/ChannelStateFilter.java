@@ -0,0 +1,200 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.mqtt.generic;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.core.library.types.DecimalType;
+import org.openhab.core.library.types.QuantityType;
+import org.openhab.core.types.State;
+import org.openhab.core.types.UnDefType;
+
+/**
+ * Decides whether a received value is passed on to the framework, depending on the minimum interval, "only on change"
+ * and deadband options of a {@link ChannelConfig}.
+ *
+ * Values are compared to the last value passed on, which is the one kept in the {@link ChannelState}'s value cache.
+ * A value suppressed by the deadband therefore doesn't move the reference, so that slow drifts are still reported.
+ *
+ * A value received within the minimum interval is deferred, not suppressed: the latest deferred value is passed on
+ * when the interval has passed, so that the last value of a burst isn't lost.
+ *
+ * @author Markus Vogler - Initial contribution
+ */
+@NonNullByDefault
+public class ChannelStateFilter {
+
+    private static final BigDecimal HUNDRED = BigDecimal.valueOf(100);
+
+    /**
+     * What happens to a received value
+     */
+    public enum Decision {
+        /** The value is passed on */
+        ACCEPT,
+        /** The value is dropped */
+        SUPPRESS,
+        /** The value is passed on when the minimum interval has passed, unless another value is received before */
+        DEFER
+    }
+
+    private final long minIntervalNanos;
+    private final boolean onlyOnChange;
+    private final @Nullable BigDecimal deadband;
+    private final boolean deadbandPercent;
+
+    private final LongAdder suppressed = new LongAdder();
+    // guarded by this
+    private long lastAccepted;
+    private boolean accepted;
+    private boolean deferred;
+
+    ChannelStateFilter(int minInterval, boolean onlyOnChange, @Nullable BigDecimal deadband, boolean deadbandPercent) {
+        this.minIntervalNanos = TimeUnit.MILLISECONDS.toNanos(minInterval);
+        this.onlyOnChange = onlyOnChange;
+        this.deadband = deadband;
+        this.deadbandPercent = deadbandPercent;
+    }
+
+    /**
+     * Creates the filter for a channel configuration
+     *
+     * @param config The channel configuration
+     * @return The filter or null if the configuration doesn't filter any values
+     */
+    public static @Nullable ChannelStateFilter create(ChannelConfig config) {
+        BigDecimal deadband = config.deadband;
+        if (deadband != null && deadband.signum() <= 0) {
+            deadband = null;
+        }
+        if (config.minInterval <= 0 && !config.onlyOnChange && deadband == null) {
+            return null;
+        }
+        return new ChannelStateFilter(Math.max(config.minInterval, 0), config.onlyOnChange, deadband,
+                config.deadbandPercent);
+    }
+
+    /**
+     * Decides about a received value. A value deferred before is replaced by it.
+     *
+     * @param previous The last value passed on
+     * @param next The received value
+     * @return whether the value is passed on, dropped or deferred
+     */
+    public Decision decide(State previous, State next) {
+        return decide(previous, next, System.nanoTime());
+    }
+
+    synchronized Decision decide(State previous, State next, long now) {
+        if (deferred) {
+            // the deferred value is replaced and never passed on
+            deferred = false;
+            suppressed.increment();
+        }
+        return doDecide(previous, next, now);
+    }
+
+    /**
+     * Decides about the deferred value when the minimum interval has passed
+     *
+     * @param previous The last value passed on
+     * @param next The deferred value
+     * @return whether the value is passed on, dropped or deferred again
+     */
+    public Decision decideDeferred(State previous, State next) {
+        return decideDeferred(previous, next, System.nanoTime());
+    }
+
+    synchronized Decision decideDeferred(State previous, State next, long now) {
+        deferred = false;
+        return doDecide(previous, next, now);
+    }
+
+    /**
+     * Returns the time until the minimum interval has passed
+     *
+     * @return the remaining time in nanoseconds, 0 if the interval has passed
+     */
+    public long getRemainingIntervalNanos() {
+        return getRemainingIntervalNanos(System.nanoTime());
+    }
+
+    synchronized long getRemainingIntervalNanos(long now) {
+        return accepted ? Math.max(0, minIntervalNanos - (now - lastAccepted)) : 0;
+    }
+
+    private Decision doDecide(State previous, State next, long now) {
+        if (!(previous instanceof UnDefType)) {
+            if (isUnchanged(previous, next)) {
+                suppressed.increment();
+                return Decision.SUPPRESS;
+            }
+            if (isWithinMinInterval(now)) {
+                deferred = true;
+                return Decision.DEFER;
+            }
+        }
+        accepted = true;
+        lastAccepted = now;
+        return Decision.ACCEPT;
+    }
+
+    /**
+     * Returns the number of values suppressed since the channel was created
+     */
+    public long getSuppressedCount() {
+        return suppressed.sum();
+    }
+
+    private boolean isWithinMinInterval(long now) {
+        return accepted && minIntervalNanos > 0 && now - lastAccepted < minIntervalNanos;
+    }
+
+    private boolean isUnchanged(State previous, State next) {
+        if (onlyOnChange && previous.equals(next)) {
+            return true;
+        }
+        BigDecimal deadband = this.deadband;
+        if (deadband == null) {
+            return false;
+        }
+        BigDecimal previousNumber = toBigDecimal(previous, previous);
+        BigDecimal nextNumber = toBigDecimal(next, previous);
+        if (previousNumber == null || nextNumber == null) {
+            return false;
+        }
+        BigDecimal threshold = deadbandPercent
+                ? previousNumber.abs().multiply(deadband).divide(HUNDRED, MathContext.DECIMAL64)
+                : deadband;
+        return nextNumber.subtract(previousNumber).abs().compareTo(threshold) <= 0;
+    }
+
+    /**
+     * Returns the number of a state, quantities converted to the unit of the reference
+     */
+    private static @Nullable BigDecimal toBigDecimal(State state, State reference) {
+        if (state instanceof DecimalType) {
+            return ((DecimalType) state).toBigDecimal();
+        }
+        if (state instanceof QuantityType<?> && reference instanceof QuantityType<?>) {
+            QuantityType<?> converted = ((QuantityType<?>) state).toUnit(((QuantityType<?>) reference).getUnit());
+            return converted != null ? converted.toBigDecimal() : null;
+        }
+        return null;
+    }
+}
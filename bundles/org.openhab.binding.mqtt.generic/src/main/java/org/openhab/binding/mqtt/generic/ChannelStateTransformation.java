@@ -16,11 +16,14 @@ import java.lang.ref.WeakReference;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.binding.mqtt.generic.tools.SimpleJsonPath;
 import org.openhab.core.transform.TransformationException;
 import org.openhab.core.transform.TransformationService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.google.gson.JsonElement;
+
 /**
  * A transformation for a {@link ChannelState}. It is applied for each received value on an MQTT topic.
  *
@@ -28,11 +31,15 @@ import org.slf4j.LoggerFactory;
  */
 @NonNullByDefault
 public class ChannelStateTransformation {
+    private static final String JSONPATH = "JSONPATH";
+
     private final Logger logger = LoggerFactory.getLogger(ChannelStateTransformation.class);
     private final TransformationServiceProvider provider;
     private WeakReference<@Nullable TransformationService> transformationService = new WeakReference<>(null);
     final String pattern;
     final String serviceName;
+    // for JSONPATH transformations which can be evaluated on a shared parsed payload
+    private final @Nullable SimpleJsonPath jsonPath;
 
     /**
      * Creates a new channel state transformer.
@@ -53,6 +60,7 @@ public class ChannelStateTransformation {
         String type = pattern.substring(0, index).toUpperCase();
         this.pattern = pattern.substring(index + 1);
         this.serviceName = type;
+        this.jsonPath = compileJsonPath(serviceName, this.pattern);
     }
 
     /**
@@ -68,6 +76,34 @@ public class ChannelStateTransformation {
         this.serviceName = serviceName;
         this.pattern = pattern;
         this.provider = provider;
+        this.jsonPath = compileJsonPath(serviceName, pattern);
+    }
+
+    private static @Nullable SimpleJsonPath compileJsonPath(String serviceName, String pattern) {
+        return JSONPATH.equals(serviceName) ? SimpleJsonPath.compile(pattern) : null;
+    }
+
+    /**
+     * Will be called by the {@link ChannelState} for each incoming MQTT message, if this is its first transformation.
+     *
+     * Simple JSONPATH expressions are evaluated on the JSON document parsed once for all channels of the topic.
+     * Otherwise the transformation service is called with the decoded payload.
+     *
+     * @param payload The incoming message
+     * @return The transformed value
+     */
+    protected @Nullable String processValue(SharedPayload payload) {
+        SimpleJsonPath jsonPath = this.jsonPath;
+        if (jsonPath != null && getTransformationService() != null) {
+            JsonElement json = payload.getJson();
+            if (json != null) {
+                String result = jsonPath.evaluate(json);
+                if (result != null) {
+                    return result;
+                }
+            }
+        }
+        return processValue(payload.getText());
     }
 
     /**
@@ -77,14 +113,10 @@ public class ChannelStateTransformation {
      * @return The transformed value
      */
     protected @Nullable String processValue(String value) {
-        TransformationService transformationService = this.transformationService.get();
+        TransformationService transformationService = getTransformationService();
         if (transformationService == null) {
-            transformationService = provider.getTransformationService(serviceName);
-            if (transformationService == null) {
-                logger.warn("Transformation service {} for pattern {} not found!", serviceName, pattern);
-                return value;
-            }
-            this.transformationService = new WeakReference<>(transformationService);
+            logger.warn("Transformation service {} for pattern {} not found!", serviceName, pattern);
+            return value;
         }
         String returnValue = null;
         try {
@@ -94,4 +126,15 @@ public class ChannelStateTransformation {
         }
         return returnValue;
     }
+
+    private @Nullable TransformationService getTransformationService() {
+        TransformationService transformationService = this.transformationService.get();
+        if (transformationService == null) {
+            transformationService = provider.getTransformationService(serviceName);
+            if (transformationService != null) {
+                this.transformationService = new WeakReference<>(transformationService);
+            }
+        }
+        return transformationService;
+    }
 }
@@ -0,0 +1,93 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.mqtt.generic;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+/**
+ * A received MQTT message, shared by all {@link ChannelState}s subscribed to its topic.
+ *
+ * The payload is decoded and parsed as JSON at most once, no matter how many channels use it.
+ *
+ * @author Markus Vogler - Initial contribution
+ */
+@NonNullByDefault
+public class SharedPayload {
+
+    private static final TypeAdapter<JsonElement> JSON_ADAPTER = new Gson().getAdapter(JsonElement.class);
+
+    private final byte[] payload;
+
+    // guarded by this
+    private @Nullable String text;
+    private @Nullable JsonElement json;
+    private boolean jsonParsed;
+
+    public SharedPayload(byte[] payload) {
+        this.payload = payload;
+    }
+
+    /**
+     * Returns true if this is the given payload instance
+     */
+    public boolean isFor(byte[] payload) {
+        return this.payload == payload;
+    }
+
+    /**
+     * Returns the payload decoded as UTF-8
+     */
+    public synchronized String getText() {
+        String text = this.text;
+        if (text == null) {
+            text = new String(payload, StandardCharsets.UTF_8);
+            this.text = text;
+        }
+        return text;
+    }
+
+    /**
+     * Returns the payload parsed as strict JSON
+     *
+     * @return the document or null if the payload is not valid JSON
+     */
+    public synchronized @Nullable JsonElement getJson() {
+        if (!jsonParsed) {
+            jsonParsed = true;
+            json = parse(getText());
+        }
+        return json;
+    }
+
+    private static @Nullable JsonElement parse(String text) {
+        try {
+            JsonReader reader = new JsonReader(new StringReader(text));
+            JsonElement element = JSON_ADAPTER.read(reader);
+            return reader.peek() == JsonToken.END_DOCUMENT ? element : null;
+        } catch (IOException | JsonParseException | IllegalStateException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.mqtt.generic;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+
+/**
+ * Keeps the last message of every topic of a thing, so that all {@link ChannelState}s subscribed to a topic share the
+ * decoded and parsed payload.
+ *
+ * The broker connection passes the same payload array to all subscribers of a topic, so a message is recognized by
+ * the identity of its payload. A message which is not recognized, e.g. because another message of the topic was
+ * received in between, is only decoded once more.
+ *
+ * @author Markus Vogler - Initial contribution
+ */
+@NonNullByDefault
+public class SharedPayloadCache {
+
+    private final Map<String, SharedPayload> lastPayloads = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the shared payload of a received message
+     *
+     * @param topic the topic of the message
+     * @param payload the payload of the message
+     * @return the shared payload
+     */
+    public SharedPayload get(String topic, byte[] payload) {
+        SharedPayload shared = lastPayloads.get(topic);
+        if (shared == null || !shared.isFor(payload)) {
+            shared = new SharedPayload(payload);
+            lastPayloads.put(topic, shared);
+        }
+        return shared;
+    }
+
+    public void clear() {
+        lastPayloads.clear();
+    }
+}
@@ -18,6 +18,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -52,10 +54,16 @@ import org.slf4j.LoggerFactory;
  */
 @NonNullByDefault
 public class GenericMQTTThingHandler extends AbstractMQTTThingHandler implements ChannelStateUpdateListener {
+    /** Thing property with the number of received values suppressed by the filter options of the channels */
+    public static final String PROPERTY_SUPPRESSED_UPDATES = "suppressedUpdates";
+    private static final int SUPPRESSED_UPDATES_INTERVAL_SEC = 60;
+
     private final Logger logger = LoggerFactory.getLogger(GenericMQTTThingHandler.class);
     final Map<ChannelUID, ChannelState> channelStateByChannelUID = new HashMap<>();
     protected final MqttChannelStateDescriptionProvider stateDescProvider;
     protected final TransformationServiceProvider transformationServiceProvider;
+    private @Nullable ScheduledFuture<?> suppressedUpdatesJob;
+    private long reportedSuppressedUpdates;
 
     /**
      * Creates a new Thing handler for generic MQTT channels.
@@ -85,16 +93,40 @@ public class GenericMQTTThingHandler extends AbstractMQTTThingHandler implements
      */
     @Override
     protected CompletableFuture<@Nullable Void> start(MqttBrokerConnection connection) {
+        stopSuppressedUpdatesJob();
+        suppressedUpdatesJob = scheduler.scheduleWithFixedDelay(this::updateSuppressedUpdates,
+                SUPPRESSED_UPDATES_INTERVAL_SEC, SUPPRESSED_UPDATES_INTERVAL_SEC, TimeUnit.SECONDS);
         return channelStateByChannelUID.values().stream().map(c -> c.start(connection, scheduler, 0))
                 .collect(FutureCollector.allOf()).thenRun(this::calculateThingStatus);
     }
 
     @Override
     protected void stop() {
+        stopSuppressedUpdatesJob();
         channelStateByChannelUID.values().forEach(c -> c.getCache().resetState());
         super.stop();
     }
 
+    private void stopSuppressedUpdatesJob() {
+        final ScheduledFuture<?> suppressedUpdatesJob = this.suppressedUpdatesJob;
+        if (suppressedUpdatesJob != null) {
+            suppressedUpdatesJob.cancel(false);
+            this.suppressedUpdatesJob = null;
+        }
+    }
+
+    /**
+     * Publishes the number of suppressed values of all channels as thing property, if it changed
+     */
+    void updateSuppressedUpdates() {
+        long suppressedUpdates = channelStateByChannelUID.values().stream()
+                .mapToLong(ChannelState::getSuppressedUpdates).sum();
+        if (suppressedUpdates != reportedSuppressedUpdates) {
+            reportedSuppressedUpdates = suppressedUpdates;
+            updateProperty(PROPERTY_SUPPRESSED_UPDATES, Long.toString(suppressedUpdates));
+        }
+    }
+
     @Override
     public void dispose() {
         // Remove all state descriptions of this handler
@@ -123,6 +155,8 @@ public class GenericMQTTThingHandler extends AbstractMQTTThingHandler implements
      */
     protected ChannelState createChannelState(ChannelConfig channelConfig, ChannelUID channelUID, Value valueState) {
         ChannelState state = new ChannelState(channelConfig, channelUID, valueState, this);
+        state.setPayloadCache(payloadCache);
+        state.setMessageExecutor(messageExecutor);
         String[] transformations;
 
         // Incoming value transformations
@@ -0,0 +1,134 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.mqtt.generic.tools;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+
+/**
+ * Evaluates definite JSONPath expressions like {@code $.ENERGY.Power}, {@code $.meters[0].power} or
+ * {@code $['temperature sensor'].value} on an already parsed JSON document.
+ *
+ * Only results which the JSONPATH transformation service converts to exactly the same string are returned: strings,
+ * booleans and numbers whose notation doesn't change when they are parsed. For everything else, like missing
+ * elements, null, objects, arrays or numbers like {@code 1.50}, null is returned and the transformation service has to
+ * be used.
+ *
+ * @author Markus Vogler - Initial contribution
+ */
+@NonNullByDefault
+public class SimpleJsonPath {
+
+    // .name, ['name'], ["name"] or [index]
+    private static final Pattern SEGMENT = Pattern.compile("\\.([A-Za-z_$][A-Za-z0-9_$\\-]*)"
+            + "|\\['([^'\\\\]*)'\\]|\\[\"([^\"\\\\]*)\"\\]|\\[(0|[1-9][0-9]{0,8})\\]");
+    private static final Pattern INTEGER = Pattern.compile("-?(0|[1-9][0-9]*)");
+
+    // either String for object members or Integer for array elements
+    private final Object[] segments;
+
+    private SimpleJsonPath(Object[] segments) {
+        this.segments = segments;
+    }
+
+    /**
+     * Compiles the expression
+     *
+     * @param expression a JSONPath expression
+     * @return the compiled path or null if the expression is not a definite path of member names and array indices
+     */
+    public static @Nullable SimpleJsonPath compile(String expression) {
+        if (!expression.startsWith("$")) {
+            return null;
+        }
+        List<Object> segments = new ArrayList<>();
+        Matcher matcher = SEGMENT.matcher(expression);
+        int position = 1;
+        while (position < expression.length()) {
+            matcher.region(position, expression.length());
+            if (!matcher.lookingAt()) {
+                return null;
+            }
+            if (matcher.group(4) != null) {
+                segments.add(Integer.valueOf(matcher.group(4)));
+            } else {
+                String name = matcher.group(1) != null ? matcher.group(1)
+                        : matcher.group(2) != null ? matcher.group(2) : matcher.group(3);
+                segments.add(name);
+            }
+            position = matcher.end();
+        }
+        return segments.isEmpty() ? null : new SimpleJsonPath(segments.toArray());
+    }
+
+    /**
+     * Evaluates the path
+     *
+     * @param document the parsed JSON document
+     * @return the string value of the selected element or null if it has to be evaluated by the transformation service
+     */
+    public @Nullable String evaluate(JsonElement document) {
+        JsonElement element = document;
+        for (Object segment : segments) {
+            if (segment instanceof String) {
+                if (!element.isJsonObject()) {
+                    return null;
+                }
+                element = ((JsonObject) element).get((String) segment);
+            } else {
+                if (!element.isJsonArray()) {
+                    return null;
+                }
+                JsonArray array = (JsonArray) element;
+                int index = (Integer) segment;
+                element = index < array.size() ? array.get(index) : null;
+            }
+            if (element == null) {
+                return null;
+            }
+        }
+        if (!element.isJsonPrimitive()) {
+            return null;
+        }
+        JsonPrimitive primitive = (JsonPrimitive) element;
+        String value = primitive.getAsString();
+        if (primitive.isNumber()) {
+            return isUnchangedByParsing(value) ? value : null;
+        }
+        return value;
+    }
+
+    private static boolean isUnchangedByParsing(String number) {
+        if (number.length() > 18) {
+            return false;
+        }
+        if (INTEGER.matcher(number).matches()) {
+            return !"-0".equals(number);
+        }
+        try {
+            return Double.toString(Double.parseDouble(number)).equals(number);
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,199 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.mqtt.generic.utils;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Runs tasks one after another in the order they were submitted, on the threads of a shared executor.
+ *
+ * Several serial executors can share one thread pool: the tasks of each serial executor are ordered, but tasks of
+ * different serial executors run in parallel. A serial executor occupies at most one thread of the pool, and only as
+ * long as it has tasks.
+ *
+ * The number of waiting tasks is limited. If a task is submitted while the limit is reached, the oldest waiting task
+ * is dropped, so that a stalled executor keeps the latest tasks. Tasks submitted with {@link #executeRequired(Runnable)}
+ * are never dropped. Dropped tasks are reported with a warning at most once per minute.
+ *
+ * @author Markus Vogler - Initial contribution
+ */
+@NonNullByDefault
+public class SerialExecutor implements Executor {
+    /** Default maximum number of waiting tasks */
+    public static final int DEFAULT_CAPACITY = 1000;
+
+    private static final long DROP_WARNING_INTERVAL_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private final Logger logger = LoggerFactory.getLogger(SerialExecutor.class);
+
+    private final Executor executor;
+    private final String name;
+    private final int capacity;
+    private final AtomicLong droppedTasks = new AtomicLong();
+
+    // guarded by tasks
+    private final Queue<Task> tasks = new ArrayDeque<>();
+    private boolean running;
+    private long droppedSinceWarning;
+    private long lastDropWarning;
+    private boolean dropWarned;
+
+    private static class Task {
+        final Runnable runnable;
+        final boolean required;
+
+        Task(Runnable runnable, boolean required) {
+            this.runnable = runnable;
+            this.required = required;
+        }
+    }
+
+    /**
+     * @param executor The shared executor running the tasks
+     */
+    public SerialExecutor(Executor executor) {
+        this(executor, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param executor The shared executor running the tasks
+     * @param capacity The maximum number of waiting tasks
+     */
+    public SerialExecutor(Executor executor, int capacity) {
+        this(executor, SerialExecutor.class.getSimpleName(), capacity);
+    }
+
+    /**
+     * @param executor The shared executor running the tasks
+     * @param name The name used in log messages, e.g. the UID of the thing whose messages are processed
+     * @param capacity The maximum number of waiting tasks
+     */
+    public SerialExecutor(Executor executor, String name, int capacity) {
+        this.executor = executor;
+        this.name = name;
+        this.capacity = Math.max(1, capacity);
+    }
+
+    /**
+     * Runs the task after the waiting tasks. The oldest waiting task is dropped if too many tasks are waiting.
+     */
+    @Override
+    public void execute(Runnable task) {
+        submit(task, false);
+    }
+
+    /**
+     * Runs the task after the waiting tasks. The task is never dropped, not even if too many tasks are waiting, so
+     * this must only be used for tasks that are submitted a limited number of times.
+     */
+    public void executeRequired(Runnable task) {
+        submit(task, true);
+    }
+
+    private void submit(Runnable task, boolean required) {
+        synchronized (tasks) {
+            if (!required && tasks.size() >= capacity && !dropOldest()) {
+                // only required tasks are waiting, the new task is dropped instead
+                countDrop();
+                return;
+            }
+            tasks.add(new Task(task, required));
+            if (running) {
+                return;
+            }
+            running = true;
+        }
+        try {
+            executor.execute(this::runTasks);
+        } catch (RuntimeException e) {
+            synchronized (tasks) {
+                tasks.clear();
+                running = false;
+            }
+            throw e;
+        }
+    }
+
+    // guarded by tasks
+    private boolean dropOldest() {
+        for (Iterator<Task> iterator = tasks.iterator(); iterator.hasNext();) {
+            if (!iterator.next().required) {
+                iterator.remove();
+                countDrop();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // guarded by tasks
+    private void countDrop() {
+        droppedTasks.incrementAndGet();
+        droppedSinceWarning++;
+        long now = System.nanoTime();
+        if (!dropWarned || now - lastDropWarning >= DROP_WARNING_INTERVAL_NANOS) {
+            logger.warn("{}: dropped {} tasks because more than {} tasks were waiting", name, droppedSinceWarning,
+                    capacity);
+            dropWarned = true;
+            lastDropWarning = now;
+            droppedSinceWarning = 0;
+        }
+    }
+
+    /**
+     * Removes the waiting tasks, a running task is not interrupted
+     *
+     * @return The number of removed tasks
+     */
+    public int clear() {
+        synchronized (tasks) {
+            int removed = tasks.size();
+            tasks.clear();
+            return removed;
+        }
+    }
+
+    /**
+     * Returns the number of tasks dropped because too many tasks were waiting
+     */
+    public long getDroppedTasks() {
+        return droppedTasks.get();
+    }
+
+    private void runTasks() {
+        while (true) {
+            Task task;
+            synchronized (tasks) {
+                task = tasks.poll();
+                if (task == null) {
+                    running = false;
+                    return;
+                }
+            }
+            try {
+                task.runnable.run();
+            } catch (RuntimeException e) {
+                logger.warn("Task failed", e);
+            }
+        }
+    }
+}
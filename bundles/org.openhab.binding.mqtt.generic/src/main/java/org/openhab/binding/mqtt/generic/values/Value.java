@@ -117,6 +117,14 @@ public abstract class Value {
         state = UnDefType.UNDEF;
     }
 
+    /**
+     * Restores a state previously returned by {@link #getChannelState()}, for example when a received value is
+     * discarded after it has been applied.
+     */
+    public final void restoreState(State state) {
+        this.state = state;
+    }
+
     /**
      * Updates the internal value state with the given command.
      *
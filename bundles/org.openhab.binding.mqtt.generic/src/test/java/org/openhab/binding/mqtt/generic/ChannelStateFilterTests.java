@@ -0,0 +1,120 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.mqtt.generic;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.Test;
+import org.openhab.binding.mqtt.generic.ChannelStateFilter.Decision;
+import org.openhab.core.library.types.DecimalType;
+import org.openhab.core.library.types.QuantityType;
+import org.openhab.core.library.types.StringType;
+import org.openhab.core.types.UnDefType;
+
+/**
+ * Tests the {@link ChannelStateFilter} class.
+ *
+ * @author Markus Vogler - Initial contribution
+ */
+@NonNullByDefault
+public class ChannelStateFilterTests {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    public void noFilterForDefaultConfig() {
+        assertThat(ChannelStateFilter.create(new ChannelConfig()), is(nullValue()));
+    }
+
+    @Test
+    public void minInterval() {
+        ChannelStateFilter filter = new ChannelStateFilter(1000, false, null, false);
+
+        assertThat(filter.decide(UnDefType.UNDEF, new DecimalType(1), 0), is(Decision.ACCEPT));
+        assertThat(filter.decide(new DecimalType(1), new DecimalType(2), SECOND / 2), is(Decision.DEFER));
+        assertThat(filter.decide(new DecimalType(1), new DecimalType(3), SECOND), is(Decision.ACCEPT));
+        assertThat(filter.decide(new DecimalType(3), new DecimalType(3), 2 * SECOND), is(Decision.ACCEPT));
+        assertThat(filter.getSuppressedCount(), is(1L));
+    }
+
+    @Test
+    public void onlyOnChange() {
+        ChannelStateFilter filter = new ChannelStateFilter(0, true, null, false);
+
+        assertThat(filter.decide(new StringType("A"), new StringType("A"), 0), is(Decision.SUPPRESS));
+        assertThat(filter.decide(new StringType("A"), new StringType("B"), 0), is(Decision.ACCEPT));
+        assertThat(filter.decide(UnDefType.UNDEF, new StringType("B"), 0), is(Decision.ACCEPT));
+        assertThat(filter.getSuppressedCount(), is(1L));
+    }
+
+    @Test
+    public void absoluteDeadband() {
+        ChannelStateFilter filter = new ChannelStateFilter(0, false, new BigDecimal("0.5"), false);
+
+        assertThat(filter.decide(new DecimalType(20), new DecimalType(20.5), 0), is(Decision.SUPPRESS));
+        assertThat(filter.decide(new DecimalType(20), new DecimalType(19.6), 0), is(Decision.SUPPRESS));
+        assertThat(filter.decide(new DecimalType(20), new DecimalType(20.6), 0), is(Decision.ACCEPT));
+        assertThat(filter.decide(new StringType("A"), new StringType("A"), 0), is(Decision.ACCEPT));
+    }
+
+    @Test
+    public void percentDeadband() {
+        ChannelStateFilter filter = new ChannelStateFilter(0, false, new BigDecimal(5), true);
+
+        assertThat(filter.decide(new DecimalType(-200), new DecimalType(-190), 0), is(Decision.SUPPRESS));
+        assertThat(filter.decide(new DecimalType(-200), new DecimalType(-189), 0), is(Decision.ACCEPT));
+        assertThat(filter.decide(new DecimalType(0), new DecimalType(0), 0), is(Decision.SUPPRESS));
+        assertThat(filter.decide(new DecimalType(0), new DecimalType(0.1), 0), is(Decision.ACCEPT));
+    }
+
+    @Test
+    public void deadbandConvertsQuantities() {
+        ChannelStateFilter filter = new ChannelStateFilter(0, false, new BigDecimal(50), false);
+
+        assertThat(filter.decide(new QuantityType<>("1000 W"), new QuantityType<>("1.04 kW"), 0), is(Decision.SUPPRESS));
+        assertThat(filter.decide(new QuantityType<>("1000 W"), new QuantityType<>("1.06 kW"), 0), is(Decision.ACCEPT));
+        assertThat(filter.decide(new QuantityType<>("1000 W"), new QuantityType<>("20 °C"), 0), is(Decision.ACCEPT));
+    }
+
+    @Test
+    public void latestValueWithinMinIntervalIsDeferred() {
+        ChannelStateFilter filter = new ChannelStateFilter(1000, false, null, false);
+
+        assertThat(filter.decide(UnDefType.UNDEF, new DecimalType(1), 0), is(Decision.ACCEPT));
+        assertThat(filter.decide(new DecimalType(1), new DecimalType(2), SECOND / 4), is(Decision.DEFER));
+        assertThat(filter.decide(new DecimalType(1), new DecimalType(3), SECOND / 2), is(Decision.DEFER));
+        assertThat(filter.getRemainingIntervalNanos(SECOND / 2), is(SECOND / 2));
+
+        // only the replaced value is suppressed, the latest one is passed on after the interval
+        assertThat(filter.getSuppressedCount(), is(1L));
+        assertThat(filter.decideDeferred(new DecimalType(1), new DecimalType(3), SECOND), is(Decision.ACCEPT));
+        assertThat(filter.getSuppressedCount(), is(1L));
+        assertThat(filter.getRemainingIntervalNanos(SECOND), is(SECOND));
+    }
+
+    @Test
+    public void deferredValueIsDroppedWhenUnchanged() {
+        ChannelStateFilter filter = new ChannelStateFilter(1000, true, null, false);
+
+        assertThat(filter.decide(UnDefType.UNDEF, new StringType("ON"), 0), is(Decision.ACCEPT));
+        assertThat(filter.decide(new StringType("ON"), new StringType("OFF"), SECOND / 4), is(Decision.DEFER));
+        // switched back before the interval passed, so nothing changed
+        assertThat(filter.decide(new StringType("ON"), new StringType("ON"), SECOND / 2), is(Decision.SUPPRESS));
+        assertThat(filter.getSuppressedCount(), is(2L));
+    }
+}
@@ -46,10 +46,12 @@ import org.openhab.binding.mqtt.generic.values.DateTimeValue;
 import org.openhab.binding.mqtt.generic.values.ImageValue;
 import org.openhab.binding.mqtt.generic.values.LocationValue;
 import org.openhab.binding.mqtt.generic.values.NumberValue;
+import org.openhab.binding.mqtt.generic.values.OnOffValue;
 import org.openhab.binding.mqtt.generic.values.PercentageValue;
 import org.openhab.binding.mqtt.generic.values.TextValue;
 import org.openhab.core.io.transport.mqtt.MqttBrokerConnection;
 import org.openhab.core.library.types.HSBType;
+import org.openhab.core.library.types.OnOffType;
 import org.openhab.core.library.types.RawType;
 import org.openhab.core.library.types.StringType;
 import org.openhab.core.thing.ChannelUID;
@@ -322,4 +324,45 @@ public class ChannelStateTests {
         assertThat(value.getChannelState(), is(instanceOf(RawType.class)));
         assertThat(((RawType) value.getChannelState()).getMimeType(), is("image/jpeg"));
     }
+
+    @Test
+    public void receiveFilteredDecimalTest() {
+        ChannelConfig filterConfig = ChannelConfigBuilder.create("state", "command").build();
+        filterConfig.onlyOnChange = true;
+        filterConfig.deadband = new BigDecimal(1);
+        NumberValue value = new NumberValue(null, null, null, null);
+        ChannelState c = spy(new ChannelState(filterConfig, channelUID, value, channelStateUpdateListener));
+        c.start(connection, mock(ScheduledExecutorService.class), 100);
+
+        c.processMessage("state", "15".getBytes());
+        c.processMessage("state", "15".getBytes());
+        c.processMessage("state", "15.5".getBytes());
+        assertThat(value.getChannelState().toString(), is("15"));
+
+        c.processMessage("state", "16.5".getBytes());
+        assertThat(value.getChannelState().toString(), is("16.5"));
+
+        verify(channelStateUpdateListener, times(2)).updateChannelState(eq(channelUID), any());
+        assertThat(c.getSuppressedUpdates(), is(2L));
+    }
+
+    @Test
+    public void valueWithinMinIntervalIsPassedOnLater() {
+        ChannelConfig filterConfig = ChannelConfigBuilder.create("state", "command").build();
+        filterConfig.minInterval = 200;
+        OnOffValue value = new OnOffValue();
+        ChannelState c = spy(new ChannelState(filterConfig, channelUID, value, channelStateUpdateListener));
+        c.start(connection, scheduler, 100);
+
+        c.processMessage("state", "ON".getBytes());
+        c.processMessage("state", "OFF".getBytes());
+        verify(channelStateUpdateListener).updateChannelState(eq(channelUID), eq(OnOffType.ON));
+        verify(channelStateUpdateListener, never()).updateChannelState(eq(channelUID), eq(OnOffType.OFF));
+        assertThat(value.getChannelState(), is(OnOffType.ON));
+
+        // the last value is not lost, but passed on when the interval has passed
+        verify(channelStateUpdateListener, timeout(2000)).updateChannelState(eq(channelUID), eq(OnOffType.OFF));
+        assertThat(value.getChannelState(), is(OnOffType.OFF));
+        assertThat(c.getSuppressedUpdates(), is(0L));
+    }
 }
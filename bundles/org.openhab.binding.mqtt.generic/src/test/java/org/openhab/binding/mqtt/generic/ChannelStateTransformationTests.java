@@ -120,4 +120,20 @@ public class ChannelStateTransformationTests {
         verify(callback).stateUpdated(eq(textChannelUID), argThat(arg -> "23.2".equals(arg.toString())));
         assertThat(channelConfig.getCache().getChannelState().toString(), is("23.2"));
     }
+
+    @Test
+    public void simpleJSONPathIsEvaluatedOnSharedPayload() throws Exception {
+        when(jsonPathService.transform("$..temperature", jsonPathJSON)).thenReturn("23.2");
+
+        ChannelStateTransformation simple = new ChannelStateTransformation("JSONPATH:" + jsonPathPattern,
+                transformationServiceProvider);
+        ChannelStateTransformation deepScan = new ChannelStateTransformation("JSONPATH:$..temperature",
+                transformationServiceProvider);
+        SharedPayload payload = new SharedPayload(jsonPathJSON.getBytes());
+
+        assertThat(simple.processValue(payload), is("23.2"));
+        assertThat(deepScan.processValue(payload), is("23.2"));
+        verify(jsonPathService, never()).transform(eq(jsonPathPattern), anyString());
+        verify(jsonPathService).transform("$..temperature", jsonPathJSON);
+    }
 }
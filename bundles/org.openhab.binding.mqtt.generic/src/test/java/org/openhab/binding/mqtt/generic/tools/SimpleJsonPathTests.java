@@ -0,0 +1,78 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.mqtt.generic.tools;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.junit.jupiter.api.Test;
+import org.openhab.binding.mqtt.generic.SharedPayload;
+
+import com.google.gson.JsonElement;
+
+/**
+ * Tests the {@link SimpleJsonPath} class.
+ *
+ * @author Markus Vogler - Initial contribution
+ */
+@NonNullByDefault
+public class SimpleJsonPathTests {
+
+    private static final String SHELLY = "{\"relays\":[{\"ison\":true}],\"meters\":[{\"power\":41.27,"
+            + "\"overpower\":0.00,\"counters\":[40.971,41]}],\"tmp\":{\"tC\":43.21},\"n\":null,"
+            + "\"big\":12345678901234567890,\"e\":1e3,\"a b\":{\"c\":\"x\"}}";
+
+    private @Nullable String evaluate(String path) {
+        SimpleJsonPath jsonPath = SimpleJsonPath.compile(path);
+        JsonElement json = new SharedPayload(SHELLY.getBytes()).getJson();
+        return jsonPath != null && json != null ? jsonPath.evaluate(json) : null;
+    }
+
+    @Test
+    public void definitePathsAreEvaluated() {
+        assertThat(evaluate("$.meters[0].power"), is("41.27"));
+        assertThat(evaluate("$.meters[0].counters[1]"), is("41"));
+        assertThat(evaluate("$.relays[0].ison"), is("true"));
+        assertThat(evaluate("$.tmp.tC"), is("43.21"));
+        assertThat(evaluate("$['a b'].c"), is("x"));
+        assertThat(evaluate("$[\"a b\"]['c']"), is("x"));
+    }
+
+    @Test
+    public void resultsFormattedDifferentlyByTheServiceAreLeftToIt() {
+        assertThat(evaluate("$.meters[0].overpower"), is(nullValue()));
+        assertThat(evaluate("$.big"), is(nullValue()));
+        assertThat(evaluate("$.e"), is(nullValue()));
+        assertThat(evaluate("$.n"), is(nullValue()));
+        assertThat(evaluate("$.tmp"), is(nullValue()));
+        assertThat(evaluate("$.missing"), is(nullValue()));
+        assertThat(evaluate("$.meters[5].power"), is(nullValue()));
+    }
+
+    @Test
+    public void indefinitePathsAreNotCompiled() {
+        assertThat(SimpleJsonPath.compile("$..power"), is(nullValue()));
+        assertThat(SimpleJsonPath.compile("$.meters[*].power"), is(nullValue()));
+        assertThat(SimpleJsonPath.compile("$.meters[-1]"), is(nullValue()));
+        assertThat(SimpleJsonPath.compile("$.meters[?(@.power > 1)]"), is(nullValue()));
+        assertThat(SimpleJsonPath.compile("$"), is(nullValue()));
+    }
+
+    @Test
+    public void invalidJsonIsNotParsed() {
+        assertThat(new SharedPayload("{\"a\":1} trailing".getBytes()).getJson(), is(nullValue()));
+        assertThat(new SharedPayload("{a:1}".getBytes()).getJson(), is(nullValue()));
+    }
+}
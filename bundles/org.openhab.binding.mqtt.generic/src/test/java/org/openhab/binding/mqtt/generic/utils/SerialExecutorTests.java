@@ -0,0 +1,229 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.mqtt.generic.utils;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the {@link SerialExecutor} class.
+ *
+ * @author Markus Vogler - Initial contribution
+ */
+public class SerialExecutorTests {
+
+    private final ExecutorService pool = Executors.newFixedThreadPool(4);
+
+    @AfterEach
+    public void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    public void tasksRunInOrder() throws InterruptedException {
+        SerialExecutor executor = new SerialExecutor(pool);
+        List<Integer> executed = new ArrayList<>();
+        CountDownLatch done = new CountDownLatch(1000);
+
+        for (int i = 0; i < 1000; i++) {
+            final int task = i;
+            executor.execute(() -> {
+                executed.add(task);
+                done.countDown();
+            });
+        }
+
+        assertThat(done.await(5, TimeUnit.SECONDS), is(true));
+        assertThat(executed, is(IntStream.range(0, 1000).boxed().collect(Collectors.toList())));
+    }
+
+    @Test
+    public void blockedExecutorDoesNotBlockOthers() throws InterruptedException {
+        SerialExecutor blocked = new SerialExecutor(pool);
+        SerialExecutor other = new SerialExecutor(pool);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch otherDone = new CountDownLatch(1);
+
+        blocked.execute(() -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        other.execute(otherDone::countDown);
+
+        assertThat(otherDone.await(5, TimeUnit.SECONDS), is(true));
+        release.countDown();
+    }
+
+    @Test
+    public void failingTaskDoesNotStopLaterTasks() throws InterruptedException {
+        SerialExecutor executor = new SerialExecutor(pool);
+        CountDownLatch done = new CountDownLatch(1);
+
+        executor.execute(() -> {
+            throw new IllegalStateException("test");
+        });
+        executor.execute(done::countDown);
+
+        assertThat(done.await(5, TimeUnit.SECONDS), is(true));
+    }
+
+    @Test
+    public void oldestWaitingTasksAreDroppedWhenFull() throws InterruptedException {
+        SerialExecutor executor = new SerialExecutor(pool, 3);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<Integer> executed = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch done = new CountDownLatch(4);
+
+        executor.execute(() -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            done.countDown();
+        });
+        assertThat(started.await(5, TimeUnit.SECONDS), is(true));
+        for (int i = 0; i < 5; i++) {
+            final int task = i;
+            executor.execute(() -> {
+                executed.add(task);
+                done.countDown();
+            });
+        }
+        release.countDown();
+
+        assertThat(done.await(5, TimeUnit.SECONDS), is(true));
+        assertThat(executed, is(List.of(2, 3, 4)));
+        assertThat(executor.getDroppedTasks(), is(2L));
+    }
+
+    @Test
+    public void requiredTasksAreNotDropped() throws InterruptedException {
+        SerialExecutor executor = new SerialExecutor(pool, "test", 2);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> executed = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch done = new CountDownLatch(3);
+
+        executor.execute(() -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        assertThat(started.await(5, TimeUnit.SECONDS), is(true));
+        executor.executeRequired(() -> {
+            executed.add("required1");
+            done.countDown();
+        });
+        for (int i = 0; i < 4; i++) {
+            final String task = "task" + i;
+            executor.execute(() -> {
+                executed.add(task);
+                done.countDown();
+            });
+        }
+        executor.executeRequired(() -> {
+            executed.add("required2");
+            done.countDown();
+        });
+        release.countDown();
+
+        assertThat(done.await(5, TimeUnit.SECONDS), is(true));
+        assertThat(executed, is(List.of("required1", "task3", "required2")));
+        assertThat(executor.getDroppedTasks(), is(3L));
+    }
+
+    @Test
+    public void newTaskIsDroppedIfOnlyRequiredTasksAreWaiting() throws InterruptedException {
+        SerialExecutor executor = new SerialExecutor(pool, "test", 1);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> executed = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch done = new CountDownLatch(1);
+
+        executor.execute(() -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        assertThat(started.await(5, TimeUnit.SECONDS), is(true));
+        executor.executeRequired(() -> {
+            executed.add("required");
+            done.countDown();
+        });
+        executor.execute(() -> executed.add("task"));
+        release.countDown();
+
+        assertThat(done.await(5, TimeUnit.SECONDS), is(true));
+        // the dropped task would have run before this one
+        CountDownLatch finished = new CountDownLatch(1);
+        executor.execute(finished::countDown);
+        assertThat(finished.await(5, TimeUnit.SECONDS), is(true));
+        assertThat(executed, is(List.of("required")));
+        assertThat(executor.getDroppedTasks(), is(1L));
+    }
+
+    @Test
+    public void clearRemovesWaitingTasks() throws InterruptedException {
+        SerialExecutor executor = new SerialExecutor(pool);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicBoolean cleared = new AtomicBoolean(true);
+
+        executor.execute(() -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        assertThat(started.await(5, TimeUnit.SECONDS), is(true));
+        executor.execute(() -> cleared.set(false));
+        executor.execute(() -> cleared.set(false));
+
+        assertThat(executor.clear(), is(2));
+        release.countDown();
+
+        // the executor is still usable
+        CountDownLatch done = new CountDownLatch(1);
+        executor.execute(done::countDown);
+        assertThat(done.await(5, TimeUnit.SECONDS), is(true));
+        assertThat(cleared.get(), is(true));
+    }
+}
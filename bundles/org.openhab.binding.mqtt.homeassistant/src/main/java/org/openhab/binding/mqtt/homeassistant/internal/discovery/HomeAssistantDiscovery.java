@@ -13,6 +13,8 @@
 package org.openhab.binding.mqtt.homeassistant.internal.discovery;
 
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -22,8 +24,11 @@ import java.util.Map;
 import java.util.Set;
 import java.util.TreeMap;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 import org.eclipse.jdt.annotation.NonNull;
@@ -32,15 +37,19 @@ import org.eclipse.jdt.annotation.Nullable;
 import org.openhab.binding.mqtt.discovery.AbstractMQTTDiscovery;
 import org.openhab.binding.mqtt.discovery.MQTTTopicDiscoveryService;
 import org.openhab.binding.mqtt.generic.MqttChannelTypeProvider;
+import org.openhab.binding.mqtt.generic.utils.SerialExecutor;
 import org.openhab.binding.mqtt.homeassistant.generic.internal.MqttBindingConstants;
 import org.openhab.binding.mqtt.homeassistant.internal.BaseChannelConfiguration;
 import org.openhab.binding.mqtt.homeassistant.internal.ChannelConfigurationTypeAdapterFactory;
 import org.openhab.binding.mqtt.homeassistant.internal.HaID;
 import org.openhab.binding.mqtt.homeassistant.internal.HandlerConfiguration;
+import org.openhab.core.common.ThreadPoolManager;
 import org.openhab.core.config.discovery.DiscoveryResult;
 import org.openhab.core.config.discovery.DiscoveryResultBuilder;
 import org.openhab.core.config.discovery.DiscoveryService;
 import org.openhab.core.io.transport.mqtt.MqttBrokerConnection;
+import org.openhab.core.storage.Storage;
+import org.openhab.core.storage.StorageService;
 import org.openhab.core.thing.ThingTypeUID;
 import org.openhab.core.thing.ThingUID;
 import org.openhab.core.thing.type.ThingType;
@@ -51,6 +60,7 @@ import org.slf4j.LoggerFactory;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
 
 /**
  * The {@link HomeAssistantDiscovery} is responsible for discovering device nodes that follow the
@@ -61,7 +71,6 @@ import com.google.gson.GsonBuilder;
 @Component(service = DiscoveryService.class, configurationPid = "discovery.mqttha")
 @NonNullByDefault
 public class HomeAssistantDiscovery extends AbstractMQTTDiscovery {
-    @SuppressWarnings("unused")
     private final Logger logger = LoggerFactory.getLogger(HomeAssistantDiscovery.class);
     protected final Map<String, Set<HaID>> componentsPerThingID = new TreeMap<>();
     protected final Map<String, ThingUID> thingIDPerTopic = new TreeMap<>();
@@ -70,6 +79,20 @@ public class HomeAssistantDiscovery extends AbstractMQTTDiscovery {
     private @Nullable ScheduledFuture<?> future;
     private final Gson gson;
 
+    // Parsed configurations by topic. Unchanged retained configurations are not parsed again, when they are received
+    // again because the discovery was restarted or the broker connection re-established. The configurations are also
+    // stored, so that they are not parsed again after a restart of openHAB either.
+    private final Map<String, ParsedConfig> parsedConfigs = new ConcurrentHashMap<>();
+    private @Nullable Storage<ParsedConfig> storedConfigs;
+    private final Executor[] parsers = new Executor[PARSER_COUNT];
+    private final AtomicLong processedConfigCount = new AtomicLong();
+    private final AtomicLong parsedConfigCount = new AtomicLong();
+
+    // Statistics of the configurations processed since the last results were published, guarded by this
+    private int configsSincePublish;
+    private int unchangedConfigsSincePublish;
+    private long firstConfigSincePublish;
+
     public static final Map<String, String> HA_COMP_TO_NAME = new TreeMap<>();
     {
         HA_COMP_TO_NAME.put("alarm_control_panel", "Alarm Control Panel");
@@ -86,6 +109,10 @@ public class HomeAssistantDiscovery extends AbstractMQTTDiscovery {
 
     static final String BASE_TOPIC = "homeassistant";
 
+    private static final String PARSER_POOL_NAME = "mqtt-homeassistant-discovery";
+    private static final String STORAGE_NAME = "mqtt.homeassistant.discovery";
+    private static final int PARSER_COUNT = 4;
+
     @NonNullByDefault({})
     protected MqttChannelTypeProvider typeProvider;
 
@@ -95,6 +122,10 @@ public class HomeAssistantDiscovery extends AbstractMQTTDiscovery {
     public HomeAssistantDiscovery() {
         super(null, 3, true, BASE_TOPIC + "/#");
         this.gson = new GsonBuilder().registerTypeAdapterFactory(new ChannelConfigurationTypeAdapterFactory()).create();
+        ExecutorService parserPool = ThreadPoolManager.getPool(PARSER_POOL_NAME);
+        for (int i = 0; i < parsers.length; i++) {
+            parsers[i] = new SerialExecutor(parserPool);
+        }
     }
 
     @Reference
@@ -121,6 +152,15 @@ public class HomeAssistantDiscovery extends AbstractMQTTDiscovery {
         this.typeProvider = null;
     }
 
+    @Reference
+    protected void setStorageService(StorageService storageService) {
+        this.storedConfigs = storageService.getStorage(STORAGE_NAME, ParsedConfig.class.getClassLoader());
+    }
+
+    protected void unsetStorageService(StorageService storageService) {
+        this.storedConfigs = null;
+    }
+
     @Override
     public Set<@NonNull ThingTypeUID> getSupportedThingTypes() {
         return typeProvider.getThingTypeUIDs();
@@ -139,6 +179,80 @@ public class HomeAssistantDiscovery extends AbstractMQTTDiscovery {
             return;
         }
 
+        // Configurations are parsed in parallel, the messages of a topic in order
+        parserFor(topic).execute(() -> processConfig(connectionBridge, topic, payload));
+    }
+
+    private Executor parserFor(String topic) {
+        return parsers[(topic.hashCode() & Integer.MAX_VALUE) % parsers.length];
+    }
+
+    private void processConfig(ThingUID connectionBridge, String topic, byte[] payload) {
+        try {
+            parseConfig(connectionBridge, topic, payload);
+        } finally {
+            processedConfigCount.incrementAndGet();
+        }
+    }
+
+    private void parseConfig(ThingUID connectionBridge, String topic, byte[] payload) {
+        final String payloadHash = hash(payload);
+        ParsedConfig parsedConfig = getParsedConfig(topic);
+        final boolean unchanged = parsedConfig != null && parsedConfig.payloadHash.equals(payloadHash);
+        if (parsedConfig == null || !unchanged) {
+            parsedConfigCount.incrementAndGet();
+            try {
+                parsedConfig = new ParsedConfig(payloadHash, BaseChannelConfiguration
+                        .fromString(new String(payload, StandardCharsets.UTF_8), gson), new HaID(topic));
+            } catch (JsonParseException e) {
+                logger.debug("Configuration on topic {} is invalid: {}", topic, e.getMessage());
+                return;
+            }
+            parsedConfigs.put(topic, parsedConfig);
+            final Storage<ParsedConfig> storedConfigs = this.storedConfigs;
+            if (storedConfigs != null) {
+                storedConfigs.put(topic, parsedConfig);
+            }
+        }
+        addComponent(connectionBridge, topic, parsedConfig, unchanged);
+    }
+
+    private @Nullable ParsedConfig getParsedConfig(String topic) {
+        ParsedConfig parsedConfig = parsedConfigs.get(topic);
+        final Storage<ParsedConfig> storedConfigs = this.storedConfigs;
+        if (parsedConfig == null && storedConfigs != null) {
+            parsedConfig = storedConfigs.get(topic);
+            if (parsedConfig != null) {
+                parsedConfigs.put(topic, parsedConfig);
+            }
+        }
+        return parsedConfig;
+    }
+
+    private static String hash(byte[] payload) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(payload);
+            StringBuilder hash = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                hash.append(String.format("%02x", b));
+            }
+            return hash.toString();
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform is required to support SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private synchronized void addComponent(ThingUID connectionBridge, String topic, ParsedConfig config,
+            boolean unchanged) {
+        if (configsSincePublish == 0) {
+            firstConfigSincePublish = System.nanoTime();
+        }
+        configsSincePublish++;
+        if (unchanged) {
+            unchangedConfigsSincePublish++;
+        }
+
         // Reset the found-component timer.
         // We will collect components for the thing label description for another 2 seconds.
         final ScheduledFuture<?> future = this.future;
@@ -147,15 +261,12 @@ public class HomeAssistantDiscovery extends AbstractMQTTDiscovery {
         }
         this.future = scheduler.schedule(this::publishResults, 2, TimeUnit.SECONDS);
 
-        BaseChannelConfiguration config = BaseChannelConfiguration
-                .fromString(new String(payload, StandardCharsets.UTF_8), gson);
-
         // We will of course find multiple of the same unique Thing IDs, for each different component another one.
         // Therefore the components are assembled into a list and given to the DiscoveryResult label for the user to
         // easily recognize object capabilities.
 
         HaID haID = new HaID(topic);
-        final String thingID = config.getThingId(haID.objectID);
+        final String thingID = config.thingID;
 
         final ThingTypeUID typeID = new ThingTypeUID(MqttBindingConstants.BINDING_ID,
                 MqttBindingConstants.HOMEASSISTANT_MQTT_THING.getId() + "_" + thingID);
@@ -176,22 +287,34 @@ public class HomeAssistantDiscovery extends AbstractMQTTDiscovery {
         Map<String, Object> properties = new HashMap<>();
         HandlerConfiguration handlerConfig = new HandlerConfiguration(haID.baseTopic, topics);
         properties = handlerConfig.appendToProperties(properties);
-        properties = config.appendToProperties(properties);
+        properties.putAll(config.deviceProperties);
         properties.put("deviceId", thingID);
 
         // Because we need the new properties map with the updated "components" list
         results.put(thingUID.getAsString(),
                 DiscoveryResultBuilder.create(thingUID).withProperties(properties)
                         .withRepresentationProperty("deviceId").withBridge(connectionBridge)
-                        .withLabel(config.getThingName() + " (" + componentNames + ")").build());
+                        .withLabel(config.thingName + " (" + componentNames + ")").build());
     }
 
     protected void publishResults() {
         Collection<DiscoveryResult> localResults;
 
-        localResults = new ArrayList<>(results.values());
-        results.clear();
-        componentsPerThingID.clear();
+        synchronized (this) {
+            localResults = new ArrayList<>(results.values());
+            results.clear();
+            componentsPerThingID.clear();
+
+            if (configsSincePublish > 0) {
+                logger.debug("Discovered {} things from {} configurations ({} unchanged) within {} ms",
+                        localResults.size(), configsSincePublish, unchangedConfigsSincePublish,
+                        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - firstConfigSincePublish));
+            }
+            configsSincePublish = 0;
+            unchangedConfigsSincePublish = 0;
+        }
+
+        // The results are published without holding the lock, so that the parsers are not blocked by the listeners
         for (DiscoveryResult result : localResults) {
             final ThingTypeUID typeID = result.getThingTypeUID();
             ThingType type = typeProvider.derive(typeID, MqttBindingConstants.HOMEASSISTANT_MQTT_THING).build();
@@ -201,11 +324,35 @@ public class HomeAssistantDiscovery extends AbstractMQTTDiscovery {
         }
     }
 
+    /**
+     * Returns the number of configuration messages processed since the service was created
+     */
+    public long getProcessedConfigCount() {
+        return processedConfigCount.get();
+    }
+
+    /**
+     * Returns the number of configuration messages parsed since the service was created. Configurations which were
+     * received unchanged are not parsed again.
+     */
+    public long getParsedConfigCount() {
+        return parsedConfigCount.get();
+    }
+
     @Override
     public void topicVanished(ThingUID connectionBridge, MqttBrokerConnection connection, String topic) {
         if (!topic.endsWith("/config")) {
             return;
         }
+        parserFor(topic).execute(() -> removeComponent(topic));
+    }
+
+    private synchronized void removeComponent(String topic) {
+        parsedConfigs.remove(topic);
+        final Storage<ParsedConfig> storedConfigs = this.storedConfigs;
+        if (storedConfigs != null) {
+            storedConfigs.remove(topic);
+        }
         if (thingIDPerTopic.containsKey(topic)) {
             ThingUID thingUID = thingIDPerTopic.remove(topic);
             final String thingID = thingUID.getId();
@@ -219,4 +366,23 @@ public class HomeAssistantDiscovery extends AbstractMQTTDiscovery {
             }
         }
     }
+
+    /**
+     * The parts of a configuration needed for the discovery result of its thing. It is stored as JSON, together with
+     * the SHA-256 hash of the payload it was parsed from.
+     */
+    static class ParsedConfig {
+        final String payloadHash;
+        final String thingID;
+        final String thingName;
+        final Map<String, String> deviceProperties = new HashMap<>();
+
+        ParsedConfig(String payloadHash, BaseChannelConfiguration config, HaID haID) {
+            this.payloadHash = payloadHash;
+            this.thingID = config.getThingId(haID.objectID);
+            this.thingName = config.getThingName();
+            config.appendToProperties(new HashMap<>())
+                    .forEach((key, value) -> deviceProperties.put(key, String.valueOf(value)));
+        }
+    }
 }
@@ -0,0 +1,156 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.mqtt.homeassistant.internal.discovery;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.when;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Answers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.openhab.binding.mqtt.discovery.MQTTTopicDiscoveryService;
+import org.openhab.binding.mqtt.generic.MqttChannelTypeProvider;
+import org.openhab.binding.mqtt.homeassistant.internal.discovery.HomeAssistantDiscovery.ParsedConfig;
+import org.openhab.core.io.transport.mqtt.MqttBrokerConnection;
+import org.openhab.core.storage.Storage;
+import org.openhab.core.storage.StorageService;
+import org.openhab.core.thing.ThingUID;
+
+/**
+ * Tests the {@link HomeAssistantDiscovery} class.
+ *
+ * @author Markus Vogler - Initial contribution
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.WARN)
+public class HomeAssistantDiscoveryTests {
+
+    private static final ThingUID BRIDGE_UID = new ThingUID("mqtt:broker:test");
+    private static final String TOPIC = "homeassistant/switch/node/object/config";
+
+    private @Mock(answer = Answers.RETURNS_DEEP_STUBS) MqttChannelTypeProvider typeProvider;
+    private @Mock MQTTTopicDiscoveryService topicDiscoveryService;
+    private @Mock MqttBrokerConnection connection;
+    private @Mock StorageService storageService;
+    private @Mock Storage<ParsedConfig> storage;
+
+    private final Map<String, ParsedConfig> storedConfigs = new HashMap<>();
+    private HomeAssistantDiscovery discovery;
+
+    @BeforeEach
+    public void setUp() {
+        when(storage.get(anyString())).then(invocation -> storedConfigs.get(invocation.getArgument(0)));
+        when(storage.put(anyString(), any())).then(
+                invocation -> storedConfigs.put(invocation.getArgument(0), invocation.getArgument(1)));
+        when(storage.remove(anyString())).then(invocation -> storedConfigs.remove(invocation.getArgument(0)));
+        when(storageService.<ParsedConfig> getStorage(anyString(), any())).thenReturn(storage);
+
+        discovery = createDiscovery();
+    }
+
+    private HomeAssistantDiscovery createDiscovery() {
+        HomeAssistantDiscovery discovery = new HomeAssistantDiscovery();
+        discovery.setTypeProvider(typeProvider);
+        discovery.setMQTTTopicDiscoveryService(topicDiscoveryService);
+        discovery.setStorageService(storageService);
+        return discovery;
+    }
+
+    private static byte[] config(String name) {
+        return ("{\"name\":\"" + name + "\",\"state_topic\":\"state\",\"command_topic\":\"command\"}")
+                .getBytes(StandardCharsets.UTF_8);
+    }
+
+    private void waitForProcessedConfigs(long count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (discovery.getProcessedConfigCount() < count && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(discovery.getProcessedConfigCount(), is(count));
+    }
+
+    @Test
+    public void unchangedConfigIsParsedOnce() throws InterruptedException {
+        discovery.receivedMessage(BRIDGE_UID, connection, TOPIC, config("A"));
+        discovery.receivedMessage(BRIDGE_UID, connection, TOPIC, config("A"));
+
+        waitForProcessedConfigs(2);
+        assertThat(discovery.getParsedConfigCount(), is(1L));
+    }
+
+    @Test
+    public void changedConfigIsParsedAgain() throws InterruptedException {
+        discovery.receivedMessage(BRIDGE_UID, connection, TOPIC, config("A"));
+        discovery.receivedMessage(BRIDGE_UID, connection, TOPIC, config("B"));
+        discovery.receivedMessage(BRIDGE_UID, connection, TOPIC, config("B"));
+
+        waitForProcessedConfigs(3);
+        assertThat(discovery.getParsedConfigCount(), is(2L));
+    }
+
+    @Test
+    public void vanishedConfigIsParsedAgain() throws InterruptedException {
+        discovery.receivedMessage(BRIDGE_UID, connection, TOPIC, config("A"));
+        discovery.topicVanished(BRIDGE_UID, connection, TOPIC);
+        discovery.receivedMessage(BRIDGE_UID, connection, TOPIC, config("A"));
+
+        waitForProcessedConfigs(2);
+        assertThat(discovery.getParsedConfigCount(), is(2L));
+    }
+
+    @Test
+    public void storedConfigIsNotParsedAfterRestart() throws InterruptedException {
+        discovery.receivedMessage(BRIDGE_UID, connection, TOPIC, config("A"));
+        waitForProcessedConfigs(1);
+
+        discovery = createDiscovery();
+        discovery.receivedMessage(BRIDGE_UID, connection, TOPIC, config("A"));
+
+        waitForProcessedConfigs(1);
+        assertThat(discovery.getParsedConfigCount(), is(0L));
+    }
+
+    @Test
+    public void vanishedConfigIsRemovedFromStorage() throws InterruptedException {
+        discovery.receivedMessage(BRIDGE_UID, connection, TOPIC, config("A"));
+        waitForProcessedConfigs(1);
+        assertThat(storedConfigs.containsKey(TOPIC), is(true));
+
+        discovery.topicVanished(BRIDGE_UID, connection, TOPIC);
+        discovery.receivedMessage(BRIDGE_UID, connection, TOPIC, config("A"));
+
+        waitForProcessedConfigs(2);
+        assertThat(discovery.getParsedConfigCount(), is(2L));
+    }
+
+    @Test
+    public void nonConfigTopicsAreIgnored() throws InterruptedException {
+        discovery.receivedMessage(BRIDGE_UID, connection, "homeassistant/switch/node/object/state", config("A"));
+        discovery.receivedMessage(BRIDGE_UID, connection, TOPIC, config("A"));
+
+        waitForProcessedConfigs(1);
+        assertThat(discovery.getParsedConfigCount(), is(1L));
+    }
+}
@@ -126,6 +126,24 @@ public class HomieThingHandler extends AbstractMQTTThingHandler implements Devic
                     "Homie devices require QoS 1 but Qos 0/2 is configured. Using override. Please check the configuration");
             connection.setQos(1);
         }
+        if (!device.isTreeKnown()) {
+            return subscribeDevice(connection);
+        }
+
+        // The device tree is known from the thing channels or a previous connection: Start the channels right away and
+        // reconcile the tree in the background, as soon as the device attributes have been received.
+        final CompletableFuture<@Nullable Void> restoredChannels = device.startChannels(connection, scheduler, 0, this)
+                .thenRun(() -> {
+                    logger.debug("Homie device {} attached from the known device tree", thing.getUID());
+                });
+        subscribeDevice(connection).exceptionally(e -> {
+            logger.debug("Homie device {} could not be reconciled: {}", thing.getUID(), e.getMessage());
+            return null;
+        });
+        return restoredChannels;
+    }
+
+    private CompletableFuture<@Nullable Void> subscribeDevice(MqttBrokerConnection connection) {
         return device.subscribe(connection, scheduler, attributeReceiveTimeout).thenCompose((Void v) -> {
             return device.startChannels(connection, scheduler, attributeReceiveTimeout, this);
         }).thenRun(() -> {
@@ -131,6 +131,8 @@ public class Device implements AbstractMqttAttributeClass.AttributeChanged {
     /**
      * Subscribe to all property state topics. The handler will receive an update call for each
      * received value. Therefore the thing channels should have been created before.
+     * This is possible before {@link #subscribe(MqttBrokerConnection, ScheduledExecutorService, int)} completed, if
+     * the device tree is already known.
      *
      * @param connection A broker connection
      * @param scheduler A scheduler to realize the timeout
@@ -140,7 +142,7 @@ public class Device implements AbstractMqttAttributeClass.AttributeChanged {
      */
     public CompletableFuture<@Nullable Void> startChannels(MqttBrokerConnection connection,
             ScheduledExecutorService scheduler, int timeout, HomieThingHandler handler) {
-        if (!isInitialized() || deviceID.isEmpty()) {
+        if ((!isInitialized() && !isTreeKnown()) || deviceID.isEmpty()) {
             CompletableFuture<@Nullable Void> c = new CompletableFuture<>();
             c.completeExceptionally(new Exception("Homie Device Tree not inialized yet."));
             return c;
@@ -192,6 +194,14 @@ public class Device implements AbstractMqttAttributeClass.AttributeChanged {
         return initialized;
     }
 
+    /**
+     * @return Return true if the device tree is known, because it has been restored from the thing channels or has
+     *         been received before
+     */
+    public boolean isTreeKnown() {
+        return nodes.size() > 0;
+    }
+
     /**
      * Restore Nodes and Properties from Thing channels after handler initalization.
      *
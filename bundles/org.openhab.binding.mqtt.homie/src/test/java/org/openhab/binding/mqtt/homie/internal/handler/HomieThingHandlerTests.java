@@ -22,6 +22,7 @@ import static org.openhab.binding.mqtt.homie.internal.handler.ThingChannelConsta
 
 import java.lang.reflect.Field;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
@@ -63,11 +64,13 @@ import org.openhab.core.config.core.Configuration;
 import org.openhab.core.io.transport.mqtt.MqttBrokerConnection;
 import org.openhab.core.library.types.StringType;
 import org.openhab.core.thing.Channel;
+import org.openhab.core.thing.ChannelUID;
 import org.openhab.core.thing.Thing;
 import org.openhab.core.thing.ThingStatus;
 import org.openhab.core.thing.ThingStatusDetail;
 import org.openhab.core.thing.ThingStatusInfo;
 import org.openhab.core.thing.binding.ThingHandlerCallback;
+import org.openhab.core.thing.binding.builder.ChannelBuilder;
 import org.openhab.core.thing.binding.builder.ThingBuilder;
 import org.openhab.core.thing.type.ChannelKind;
 import org.openhab.core.thing.type.ThingTypeRegistry;
@@ -203,6 +206,32 @@ public class HomieThingHandlerTests {
                 && arg.getStatusDetail().equals(ThingStatusDetail.GONE)));
     }
 
+    @Test
+    public void startFromRestoredDeviceTree() {
+        // Restore the device tree of the last run from a thing channel
+        final Configuration channelConfig = new Configuration();
+        channelConfig.put("name", "testprop");
+        channelConfig.put("datatype", "string_");
+        channelConfig.put("settable", false);
+        channelConfig.put("retained", true);
+        final Channel channel = ChannelBuilder.create(new ChannelUID(thing.getUID(), "node", "property"), "String")
+                .withConfiguration(channelConfig).build();
+        thingHandler.device.initialize("homie", deviceID, Collections.singletonList(channel));
+        assertThat(thingHandler.device.isTreeKnown(), is(true));
+
+        // The device attributes are never received
+        doReturn(new CompletableFuture<>()).when(thingHandler.device.attributes).subscribeAndReceive(any(), any(),
+                anyString(), any(), anyInt());
+
+        CompletableFuture<@Nullable Void> started = thingHandler.start(connection);
+
+        // The channels are started without waiting for the device attributes
+        assertTrue(started.isDone());
+        assertFalse(started.isCompletedExceptionally());
+        verify(connection).subscribe(eq(deviceTopic + "/node/property"), any());
+        verify(thingHandler.device).subscribe(any(), any(), anyInt());
+    }
+
     @SuppressWarnings("null")
     @Test
     public void handleCommandRefresh() {
@@ -15,8 +15,12 @@ package org.openhab.binding.mqtt.handler;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LongSummaryStatistics;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
@@ -45,13 +49,27 @@ import org.slf4j.LoggerFactory;
 @NonNullByDefault
 public abstract class AbstractBrokerHandler extends BaseBridgeHandler implements MqttConnectionObserver {
     public static final int TIMEOUT_DEFAULT = 1200; /* timeout in milliseconds */
+
+    // Properties with the statistics of the publish pipeline
+    public static final String PROPERTY_PUBLISHED_MESSAGES = "publishedMessages";
+    public static final String PROPERTY_COALESCED_MESSAGES = "coalescedMessages";
+    public static final String PROPERTY_PUBLISH_IN_FLIGHT = "publishInFlight";
+    public static final String PROPERTY_PUBLISH_QUEUED = "publishQueued";
+    public static final String PROPERTY_PUBLISH_LATENCY_AVG = "publishLatencyAvgMs";
+    public static final String PROPERTY_PUBLISH_LATENCY_MAX = "publishLatencyMaxMs";
+    private static final int PUBLISH_STATISTICS_INTERVAL_SEC = 60;
+
     private final Logger logger = LoggerFactory.getLogger(AbstractBrokerHandler.class);
 
     final Map<ChannelUID, PublishTriggerChannel> channelStateByChannelUID = new HashMap<>();
-    private final Map<String, @Nullable Map<MQTTTopicDiscoveryParticipant, @Nullable TopicSubscribe>> discoveryTopics = new HashMap<>();
+    // modified by the handler factory concurrently to initialize() and dispose()
+    private final Map<String, @Nullable Map<MQTTTopicDiscoveryParticipant, @Nullable TopicSubscribe>> discoveryTopics = new ConcurrentHashMap<>();
 
     protected @Nullable MqttBrokerConnection connection;
     protected CompletableFuture<MqttBrokerConnection> connectionFuture = new CompletableFuture<>();
+    protected MqttPublishPipeline publishPipeline = new MqttPublishPipeline(scheduler, 0,
+            MqttPublishPipeline.DEFAULT_MAX_IN_FLIGHT);
+    private @Nullable ScheduledFuture<?> publishStatisticsJob;
 
     public AbstractBrokerHandler(Bridge thing) {
         super(thing);
@@ -77,6 +95,13 @@ public abstract class AbstractBrokerHandler extends BaseBridgeHandler implements
         return connection;
     }
 
+    /**
+     * Returns the pipeline which things should use to publish on the {@link MqttBrokerConnection}.
+     */
+    public MqttPublishPipeline getPublishPipeline() {
+        return publishPipeline;
+    }
+
     /**
      * Does nothing in the base implementation.
      */
@@ -116,6 +141,10 @@ public abstract class AbstractBrokerHandler extends BaseBridgeHandler implements
         });
         connectionFuture.complete(connection);
 
+        stopPublishStatisticsJob();
+        publishStatisticsJob = scheduler.scheduleWithFixedDelay(this::updatePublishStatistics,
+                PUBLISH_STATISTICS_INTERVAL_SEC, PUBLISH_STATISTICS_INTERVAL_SEC, TimeUnit.SECONDS);
+
         discoveryTopics.forEach((topic, listenerMap) -> {
             listenerMap.replaceAll((listener, oldTopicSubscribe) -> {
                 if (oldTopicSubscribe.isStarted()) {
@@ -147,6 +176,8 @@ public abstract class AbstractBrokerHandler extends BaseBridgeHandler implements
             channelStateByChannelUID.values().forEach(PublishTriggerChannel::start);
         } else {
             channelStateByChannelUID.values().forEach(PublishTriggerChannel::stop);
+            publishPipeline.failPending(
+                    error != null ? error : new IllegalStateException("Not connected to the broker"));
             if (error == null) {
                 updateStatus(ThingStatus.OFFLINE);
             } else {
@@ -155,6 +186,40 @@ public abstract class AbstractBrokerHandler extends BaseBridgeHandler implements
         }
     }
 
+    private void stopPublishStatisticsJob() {
+        final ScheduledFuture<?> publishStatisticsJob = this.publishStatisticsJob;
+        if (publishStatisticsJob != null) {
+            publishStatisticsJob.cancel(false);
+            this.publishStatisticsJob = null;
+        }
+    }
+
+    /**
+     * Publishes the statistics of the publish pipeline as thing properties
+     */
+    void updatePublishStatistics() {
+        final MqttPublishPipeline publishPipeline = this.publishPipeline;
+        final LongSummaryStatistics latency = publishPipeline.takeLatency();
+        Map<String, String> properties = editProperties();
+        properties.put(PROPERTY_PUBLISHED_MESSAGES, String.valueOf(publishPipeline.getPublishedCount()));
+        properties.put(PROPERTY_COALESCED_MESSAGES, String.valueOf(publishPipeline.getCoalescedCount()));
+        properties.put(PROPERTY_PUBLISH_IN_FLIGHT, String.valueOf(publishPipeline.getInFlight()));
+        properties.put(PROPERTY_PUBLISH_QUEUED, String.valueOf(publishPipeline.getQueued()));
+        if (latency.getCount() > 0) {
+            properties.put(PROPERTY_PUBLISH_LATENCY_AVG, String.valueOf(Math.round(latency.getAverage())));
+            properties.put(PROPERTY_PUBLISH_LATENCY_MAX, String.valueOf(latency.getMax()));
+        } else if (properties.containsKey(PROPERTY_PUBLISH_LATENCY_AVG)
+                || properties.containsKey(PROPERTY_PUBLISH_LATENCY_MAX)) {
+            // No acknowledgements during the last interval. updateProperties() can't remove the stale latencies, so
+            // all properties are replaced.
+            properties.remove(PROPERTY_PUBLISH_LATENCY_AVG);
+            properties.remove(PROPERTY_PUBLISH_LATENCY_MAX);
+            updateThing(editThing().withProperties(properties).build());
+            return;
+        }
+        updateProperties(properties);
+    }
+
     @Override
     protected void triggerChannel(ChannelUID channelUID, String event) {
         super.triggerChannel(channelUID, event);
@@ -165,6 +230,8 @@ public abstract class AbstractBrokerHandler extends BaseBridgeHandler implements
      */
     @Override
     public void dispose() {
+        stopPublishStatisticsJob();
+        publishPipeline.failPending(new IllegalStateException("The broker handler is disposed"));
         channelStateByChannelUID.values().forEach(PublishTriggerChannel::stop);
         channelStateByChannelUID.clear();
 
@@ -194,7 +261,7 @@ public abstract class AbstractBrokerHandler extends BaseBridgeHandler implements
      */
     public final void registerDiscoveryListener(MQTTTopicDiscoveryParticipant listener, String topic) {
         Map<MQTTTopicDiscoveryParticipant, @Nullable TopicSubscribe> topicListeners = discoveryTopics
-                .computeIfAbsent(topic, t -> new HashMap<>());
+                .computeIfAbsent(topic, t -> new ConcurrentHashMap<>());
         topicListeners.compute(listener, (k, v) -> {
             if (v != null) {
                 logger.warn("Duplicate subscription for {} to discovery topic {} on broker {}. Check discovery logic!",
@@ -232,6 +232,10 @@ public class BrokerHandler extends AbstractBrokerHandler implements PinnedCallba
         final MqttBrokerConnection connection = createBrokerConnection();
         assignSSLContextProvider(config, connection, this);
         this.connection = connection;
+        final MqttPublishPipeline oldPipeline = publishPipeline;
+        publishPipeline = new MqttPublishPipeline(scheduler, config.coalesceWindow, config.maxInFlight,
+                config.ackTimeout);
+        oldPipeline.close();
 
         super.initialize();
     }
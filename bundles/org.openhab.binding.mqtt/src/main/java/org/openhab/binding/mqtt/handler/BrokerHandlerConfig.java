@@ -36,4 +36,10 @@ public class BrokerHandlerConfig extends MqttBrokerConnectionConfig {
     public String publickey = "";
 
     public boolean enableDiscovery = true;
+
+    // Publishing of channel commands
+
+    public int maxInFlight = MqttPublishPipeline.DEFAULT_MAX_IN_FLIGHT;
+    public int coalesceWindow = 0;
+    public int ackTimeout = MqttPublishPipeline.DEFAULT_ACK_TIMEOUT;
 }
@@ -0,0 +1,315 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.mqtt.handler;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.LongSummaryStatistics;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.core.io.transport.mqtt.MqttBrokerConnection;
+
+/**
+ * Publishes the messages of a broker connection, with a bounded number of messages in flight.
+ *
+ * Messages are passed to the connection without waiting for the previous ones to be acknowledged, until
+ * {@code maxInFlight} messages are unacknowledged. Further messages are queued and published in order as soon as
+ * acknowledgements arrive.
+ *
+ * If a coalesce window is configured, a message is held back for this time. Another message for the same topic,
+ * published before the first one was passed to the connection, replaces its payload (last write wins) and shares
+ * its result.
+ *
+ * A message which isn't acknowledged within {@code ackTimeout} fails with a {@link TimeoutException} and frees its
+ * slot. When the connection goes down or the pipeline is closed, all pending messages fail.
+ *
+ * @author Markus Vogler - Initial contribution
+ */
+@NonNullByDefault
+public class MqttPublishPipeline {
+    public static final int DEFAULT_MAX_IN_FLIGHT = 20;
+    public static final int DEFAULT_ACK_TIMEOUT = 10000;
+
+    private final ScheduledExecutorService scheduler;
+    private final int coalesceWindow;
+    private final int maxInFlight;
+    private final int ackTimeout;
+
+    // guarded by this
+    private final Map<String, PendingMessage> unsentByTopic = new HashMap<>();
+    private final Queue<PendingMessage> queue = new ArrayDeque<>();
+    private final Set<PendingMessage> inFlight = new LinkedHashSet<>();
+    private LongSummaryStatistics latency = new LongSummaryStatistics();
+    private boolean closed;
+
+    private final LongAdder published = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+
+    /**
+     * @param scheduler The scheduler for the coalesce window and for publishing queued messages
+     * @param coalesceWindow The time in ms a message is held back to be replaced by a newer one, 0 to disable
+     * @param maxInFlight The maximum number of unacknowledged messages
+     */
+    public MqttPublishPipeline(ScheduledExecutorService scheduler, int coalesceWindow, int maxInFlight) {
+        this(scheduler, coalesceWindow, maxInFlight, DEFAULT_ACK_TIMEOUT);
+    }
+
+    /**
+     * @param scheduler The scheduler for the coalesce window, the acknowledgement timeout and for publishing queued
+     *            messages
+     * @param coalesceWindow The time in ms a message is held back to be replaced by a newer one, 0 to disable
+     * @param maxInFlight The maximum number of unacknowledged messages
+     * @param ackTimeout The time in ms after which an unacknowledged message fails, 0 to wait forever
+     */
+    public MqttPublishPipeline(ScheduledExecutorService scheduler, int coalesceWindow, int maxInFlight,
+            int ackTimeout) {
+        this.scheduler = scheduler;
+        this.coalesceWindow = Math.max(coalesceWindow, 0);
+        this.maxInFlight = Math.max(maxInFlight, 1);
+        this.ackTimeout = Math.max(ackTimeout, 0);
+    }
+
+    /**
+     * Publishes a message
+     *
+     * @param connection The broker connection
+     * @param topic The topic
+     * @param payload The payload
+     * @param qos The quality of service
+     * @param retain True if the message should be retained
+     * @return A future that completes like the future of {@link MqttBrokerConnection#publish}, or exceptionally if
+     *         the message wasn't acknowledged in time, the connection went down or the pipeline was closed
+     */
+    public CompletableFuture<Boolean> publish(MqttBrokerConnection connection, String topic, byte[] payload, int qos,
+            boolean retain) {
+        final PendingMessage message;
+        synchronized (this) {
+            if (closed) {
+                CompletableFuture<Boolean> future = new CompletableFuture<>();
+                future.completeExceptionally(new IllegalStateException("The publish pipeline is closed"));
+                return future;
+            }
+            if (coalesceWindow > 0) {
+                PendingMessage unsent = unsentByTopic.get(topic);
+                if (unsent != null && unsent.connection == connection) {
+                    unsent.payload = payload;
+                    unsent.qos = qos;
+                    unsent.retain = retain;
+                    coalesced.increment();
+                    return unsent.future;
+                }
+            }
+            message = new PendingMessage(connection, topic, payload, qos, retain);
+            if (coalesceWindow > 0) {
+                unsentByTopic.put(topic, message);
+            } else {
+                queue.add(message);
+            }
+        }
+        if (coalesceWindow > 0) {
+            scheduler.schedule(() -> enqueue(message), coalesceWindow, TimeUnit.MILLISECONDS);
+        } else {
+            sendQueued();
+        }
+        return message.future;
+    }
+
+    /**
+     * Returns the number of messages passed to the connection
+     */
+    public long getPublishedCount() {
+        return published.sum();
+    }
+
+    /**
+     * Returns the number of messages replaced by a newer message for the same topic
+     */
+    public long getCoalescedCount() {
+        return coalesced.sum();
+    }
+
+    /**
+     * Returns the number of unacknowledged messages
+     */
+    public synchronized int getInFlight() {
+        return inFlight.size();
+    }
+
+    /**
+     * Returns the number of messages waiting for the coalesce window to pass or for acknowledgements
+     */
+    public synchronized int getQueued() {
+        return queue.size() + unsentByTopic.size();
+    }
+
+    /**
+     * Returns the latencies in ms between passing a message to the connection and its acknowledgement, since the last
+     * call of this method
+     */
+    public synchronized LongSummaryStatistics takeLatency() {
+        LongSummaryStatistics latency = this.latency;
+        this.latency = new LongSummaryStatistics();
+        return latency;
+    }
+
+    /**
+     * Fails all messages which are waiting for the coalesce window to pass, for a free slot or for their
+     * acknowledgement, e.g. because the connection went down. Messages published afterwards are handled as usual.
+     *
+     * @param error The error the messages fail with
+     */
+    public void failPending(Throwable error) {
+        final List<PendingMessage> pending;
+        synchronized (this) {
+            pending = new ArrayList<>(inFlight);
+            pending.addAll(queue);
+            pending.addAll(unsentByTopic.values());
+            inFlight.clear();
+            queue.clear();
+            unsentByTopic.clear();
+        }
+        for (PendingMessage message : pending) {
+            message.cancelTimeout();
+            message.future.completeExceptionally(error);
+        }
+    }
+
+    /**
+     * Fails all pending messages and all messages published afterwards. Called when the pipeline is replaced.
+     */
+    public void close() {
+        synchronized (this) {
+            closed = true;
+        }
+        failPending(new IllegalStateException("The publish pipeline is closed"));
+    }
+
+    private void enqueue(PendingMessage message) {
+        synchronized (this) {
+            if (unsentByTopic.get(message.topic) != message) {
+                // failed in the meantime
+                return;
+            }
+            queue.add(message);
+        }
+        sendQueued();
+    }
+
+    private void sendQueued() {
+        while (true) {
+            final PendingMessage message;
+            synchronized (this) {
+                if (inFlight.size() >= maxInFlight) {
+                    return;
+                }
+                message = queue.poll();
+                if (message == null) {
+                    return;
+                }
+                unsentByTopic.remove(message.topic, message);
+                inFlight.add(message);
+                if (ackTimeout > 0) {
+                    message.timeout = scheduler.schedule(() -> timeout(message), ackTimeout, TimeUnit.MILLISECONDS);
+                }
+            }
+            send(message);
+        }
+    }
+
+    private void send(PendingMessage message) {
+        final long start = System.nanoTime();
+        CompletableFuture<Boolean> future;
+        try {
+            future = message.connection.publish(message.topic, message.payload, message.qos, message.retain);
+        } catch (RuntimeException e) {
+            future = new CompletableFuture<>();
+            future.completeExceptionally(e);
+        }
+        published.increment();
+        future.whenComplete((result, error) -> {
+            final boolean hasQueued;
+            synchronized (this) {
+                if (!inFlight.remove(message)) {
+                    // timed out or failed before
+                    return;
+                }
+                latency.accept(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+                hasQueued = !queue.isEmpty();
+            }
+            message.cancelTimeout();
+            if (error != null) {
+                message.future.completeExceptionally(error);
+            } else {
+                message.future.complete(result);
+            }
+            if (hasQueued) {
+                scheduler.execute(this::sendQueued);
+            }
+        });
+    }
+
+    private void timeout(PendingMessage message) {
+        final boolean hasQueued;
+        synchronized (this) {
+            if (!inFlight.remove(message)) {
+                return;
+            }
+            hasQueued = !queue.isEmpty();
+        }
+        message.future.completeExceptionally(new TimeoutException(
+                "Message to " + message.topic + " not acknowledged within " + ackTimeout + " ms"));
+        if (hasQueued) {
+            sendQueued();
+        }
+    }
+
+    private static class PendingMessage {
+        final MqttBrokerConnection connection;
+        final String topic;
+        final CompletableFuture<Boolean> future = new CompletableFuture<>();
+        // guarded by the pipeline until the message is removed from the queue to be sent
+        byte[] payload;
+        int qos;
+        boolean retain;
+        // guarded by the pipeline
+        @Nullable ScheduledFuture<?> timeout;
+
+        PendingMessage(MqttBrokerConnection connection, String topic, byte[] payload, int qos, boolean retain) {
+            this.connection = connection;
+            this.topic = topic;
+            this.payload = payload;
+            this.qos = qos;
+            this.retain = retain;
+        }
+
+        void cancelTimeout() {
+            final ScheduledFuture<?> timeout = this.timeout;
+            if (timeout != null) {
+                timeout.cancel(false);
+            }
+        }
+    }
+}
@@ -19,10 +19,13 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
@@ -33,6 +36,9 @@ import org.openhab.core.io.transport.mqtt.MqttBrokerConnection;
 import org.openhab.core.io.transport.mqtt.MqttException;
 import org.openhab.core.io.transport.mqtt.MqttService;
 import org.openhab.core.thing.Bridge;
+import org.openhab.core.thing.Thing;
+import org.openhab.core.thing.ThingTypeUID;
+import org.openhab.core.thing.ThingUID;
 import org.openhab.core.thing.binding.ThingHandlerCallback;
 import org.osgi.service.cm.ConfigurationException;
 
@@ -97,4 +103,24 @@ public class AbstractBrokerHandlerTest {
         // First connecting then connected and another connected after the future completes
         verify(callback, times(3)).statusUpdated(any(), any());
     }
+
+    @Test
+    public void staleLatencyPropertiesAreRemoved() {
+        Map<String, String> properties = new HashMap<>();
+        properties.put(AbstractBrokerHandler.PROPERTY_PUBLISH_LATENCY_AVG, "5");
+        properties.put(AbstractBrokerHandler.PROPERTY_PUBLISH_LATENCY_MAX, "9");
+        doReturn(properties).when(thing).getProperties();
+        doReturn(new ThingTypeUID("mqtt", "systemBroker")).when(thing).getThingTypeUID();
+        doReturn(new ThingUID("mqtt", "systemBroker", "test")).when(thing).getUID();
+
+        // No message was acknowledged during the interval
+        handler.updatePublishStatistics();
+
+        ArgumentCaptor<Thing> updated = ArgumentCaptor.forClass(Thing.class);
+        verify(callback).thingUpdated(updated.capture());
+        Map<String, String> updatedProperties = updated.getValue().getProperties();
+        assertThat(updatedProperties.containsKey(AbstractBrokerHandler.PROPERTY_PUBLISH_LATENCY_AVG), is(false));
+        assertThat(updatedProperties.containsKey(AbstractBrokerHandler.PROPERTY_PUBLISH_LATENCY_MAX), is(false));
+        assertThat(updatedProperties.get(AbstractBrokerHandler.PROPERTY_PUBLISHED_MESSAGES), is("0"));
+    }
 }
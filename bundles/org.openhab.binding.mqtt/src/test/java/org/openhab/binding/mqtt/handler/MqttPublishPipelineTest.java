@@ -0,0 +1,188 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.mqtt.handler;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.openhab.core.io.transport.mqtt.MqttBrokerConnection;
+
+/**
+ * Tests cases for {@link MqttPublishPipeline}.
+ *
+ * @author Markus Vogler - Initial contribution
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.WARN)
+public class MqttPublishPipelineTest {
+    private @Mock MqttBrokerConnection connection;
+    private @Mock ScheduledExecutorService scheduler;
+
+    private final List<CompletableFuture<Boolean>> publishFutures = new ArrayList<>();
+
+    @BeforeEach
+    public void setUp() {
+        doAnswer(i -> {
+            CompletableFuture<Boolean> future = new CompletableFuture<>();
+            publishFutures.add(future);
+            return future;
+        }).when(connection).publish(any(), any(), anyInt(), anyBoolean());
+        // Run queued messages right away
+        doAnswer(i -> {
+            ((Runnable) i.getArgument(0)).run();
+            return null;
+        }).when(scheduler).execute(any());
+    }
+
+    @Test
+    public void limitsMessagesInFlight() {
+        MqttPublishPipeline pipeline = new MqttPublishPipeline(scheduler, 0, 2);
+
+        CompletableFuture<Boolean> first = pipeline.publish(connection, "a", "1".getBytes(), 1, false);
+        pipeline.publish(connection, "b", "2".getBytes(), 1, false);
+        CompletableFuture<Boolean> third = pipeline.publish(connection, "c", "3".getBytes(), 1, false);
+
+        verify(connection, times(2)).publish(any(), any(), anyInt(), anyBoolean());
+        assertThat(pipeline.getInFlight(), is(2));
+        assertThat(pipeline.getQueued(), is(1));
+
+        // An acknowledgement makes room for the queued message
+        publishFutures.get(0).complete(true);
+        assertTrue(first.join());
+        verify(connection).publish(eq("c"), any(), anyInt(), anyBoolean());
+        assertThat(pipeline.getQueued(), is(0));
+
+        publishFutures.get(2).complete(true);
+        assertTrue(third.join());
+        assertThat(pipeline.getPublishedCount(), is(3L));
+    }
+
+    @Test
+    public void coalescesMessagesForTheSameTopic() {
+        MqttPublishPipeline pipeline = new MqttPublishPipeline(scheduler, 100, 20);
+
+        CompletableFuture<Boolean> first = pipeline.publish(connection, "light", "10".getBytes(), 1, true);
+        CompletableFuture<Boolean> second = pipeline.publish(connection, "light", "20".getBytes(), 1, true);
+        CompletableFuture<Boolean> other = pipeline.publish(connection, "other", "ON".getBytes(), 1, true);
+
+        verify(connection, never()).publish(any(), any(), anyInt(), anyBoolean());
+        assertThat(pipeline.getCoalescedCount(), is(1L));
+
+        // The coalesce window passes
+        ArgumentCaptor<Runnable> windows = ArgumentCaptor.forClass(Runnable.class);
+        verify(scheduler, times(2)).schedule(windows.capture(), eq(100L), eq(TimeUnit.MILLISECONDS));
+        windows.getAllValues().forEach(Runnable::run);
+
+        // Only the last payload of the topic is published
+        verify(connection).publish(eq("light"), argThat(p -> Arrays.equals(p, "20".getBytes())), eq(1), eq(true));
+        verify(connection).publish(eq("other"), any(), anyInt(), anyBoolean());
+        verify(connection, times(2)).publish(any(), any(), anyInt(), anyBoolean());
+
+        publishFutures.forEach(f -> f.complete(true));
+        assertSame(first, second);
+        assertTrue(first.join());
+        assertTrue(other.join());
+    }
+
+    @Test
+    public void failedPublishFreesSlot() {
+        MqttPublishPipeline pipeline = new MqttPublishPipeline(scheduler, 0, 1);
+
+        CompletableFuture<Boolean> first = pipeline.publish(connection, "a", "1".getBytes(), 1, false);
+        pipeline.publish(connection, "b", "2".getBytes(), 1, false);
+
+        publishFutures.get(0).completeExceptionally(new IllegalStateException("disconnected"));
+        assertTrue(first.isCompletedExceptionally());
+        verify(connection).publish(eq("b"), any(), anyInt(), anyBoolean());
+        assertThat(pipeline.getInFlight(), is(1));
+    }
+
+    @Test
+    public void unacknowledgedMessageTimesOut() {
+        MqttPublishPipeline pipeline = new MqttPublishPipeline(scheduler, 0, 1, 500);
+
+        CompletableFuture<Boolean> first = pipeline.publish(connection, "a", "1".getBytes(), 1, false);
+        CompletableFuture<Boolean> second = pipeline.publish(connection, "b", "2".getBytes(), 1, false);
+
+        ArgumentCaptor<Runnable> timeouts = ArgumentCaptor.forClass(Runnable.class);
+        verify(scheduler).schedule(timeouts.capture(), eq(500L), eq(TimeUnit.MILLISECONDS));
+        timeouts.getValue().run();
+
+        CompletionException e = assertThrows(CompletionException.class, first::join);
+        assertThat(e.getCause() instanceof TimeoutException, is(true));
+        verify(connection).publish(eq("b"), any(), anyInt(), anyBoolean());
+        assertThat(pipeline.getInFlight(), is(1));
+
+        // A late acknowledgement doesn't free the slot of the next message
+        publishFutures.get(0).complete(true);
+        assertThat(pipeline.getInFlight(), is(1));
+        assertFalse(second.isDone());
+    }
+
+    @Test
+    public void failPendingFailsInFlightAndQueuedMessages() {
+        MqttPublishPipeline pipeline = new MqttPublishPipeline(scheduler, 0, 1);
+
+        CompletableFuture<Boolean> first = pipeline.publish(connection, "a", "1".getBytes(), 1, false);
+        CompletableFuture<Boolean> second = pipeline.publish(connection, "b", "2".getBytes(), 1, false);
+
+        pipeline.failPending(new IllegalStateException("disconnected"));
+        assertTrue(first.isCompletedExceptionally());
+        assertTrue(second.isCompletedExceptionally());
+        assertThat(pipeline.getInFlight(), is(0));
+        assertThat(pipeline.getQueued(), is(0));
+
+        // The failed messages aren't published any more, new ones are
+        publishFutures.get(0).complete(true);
+        verify(connection, never()).publish(eq("b"), any(), anyInt(), anyBoolean());
+        pipeline.publish(connection, "c", "3".getBytes(), 1, false);
+        verify(connection).publish(eq("c"), any(), anyInt(), anyBoolean());
+    }
+
+    @Test
+    public void closeFailsPendingAndLaterMessages() {
+        MqttPublishPipeline pipeline = new MqttPublishPipeline(scheduler, 100, 20);
+
+        CompletableFuture<Boolean> coalescing = pipeline.publish(connection, "light", "10".getBytes(), 1, true);
+        pipeline.close();
+        assertTrue(coalescing.isCompletedExceptionally());
+
+        // The coalesce window of the failed message passes
+        ArgumentCaptor<Runnable> windows = ArgumentCaptor.forClass(Runnable.class);
+        verify(scheduler).schedule(windows.capture(), eq(100L), eq(TimeUnit.MILLISECONDS));
+        windows.getValue().run();
+
+        assertTrue(pipeline.publish(connection, "light", "20".getBytes(), 1, true).isCompletedExceptionally());
+        verify(connection, never()).publish(any(), any(), anyInt(), anyBoolean());
+    }
+}
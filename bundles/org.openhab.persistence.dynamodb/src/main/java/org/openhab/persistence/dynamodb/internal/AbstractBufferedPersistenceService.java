@@ -15,10 +15,7 @@ package org.openhab.persistence.dynamodb.internal;
 import java.time.Instant;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
-import java.util.UUID;
-import java.util.concurrent.ArrayBlockingQueue;
-import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
@@ -32,6 +29,11 @@ import org.slf4j.LoggerFactory;
 /**
  * Abstract class for buffered persistence services
  *
+ * Stored items are added to a lock-free {@link MpscRingBuffer} and written by the implementation on its own thread, so
+ * {@link #store(Item, String)} usually doesn't wait for the database. A flush is requested as soon as the buffer holds
+ * {@code flushThreshold} items. If the buffer is full, the storing thread flushes the buffer itself and tries once
+ * more, the item is only discarded if the buffer is still full after that.
+ *
  * @param <T> Type of the state as accepted by the AWS SDK.
  *
  * @author Sami Salonen - Initial contribution
@@ -41,16 +43,23 @@ import org.slf4j.LoggerFactory;
 @NonNullByDefault
 public abstract class AbstractBufferedPersistenceService<T> implements PersistenceService {
 
-    private static final long BUFFER_OFFER_TIMEOUT_MILLIS = 500;
-
     private final Logger logger = LoggerFactory.getLogger(AbstractBufferedPersistenceService.class);
-    protected @Nullable BlockingQueue<T> buffer;
+    protected @Nullable MpscRingBuffer<T> buffer;
 
     private boolean writeImmediately;
+    private int flushThreshold;
+    private final AtomicLong discardedItems = new AtomicLong();
 
-    protected void resetWithBufferSize(int bufferSize) {
-        int capacity = Math.max(1, bufferSize);
-        buffer = new ArrayBlockingQueue<>(capacity, true);
+    /**
+     * Creates a new buffer
+     *
+     * @param bufferSize capacity of the buffer, 0 to write every item immediately on the storing thread
+     * @param flushThreshold number of buffered items that triggers a flush before the regular commit interval
+     */
+    protected void resetWithBufferSize(int bufferSize, int flushThreshold) {
+        MpscRingBuffer<T> buffer = new MpscRingBuffer<>(Math.max(1, bufferSize));
+        this.flushThreshold = Math.max(1, Math.min(flushThreshold, buffer.getCapacity() / 2));
+        this.buffer = buffer;
         writeImmediately = bufferSize == 0;
     }
 
@@ -58,8 +67,16 @@ public abstract class AbstractBufferedPersistenceService<T> implements Persisten
 
     protected abstract boolean isReadyToStore();
 
+    /**
+     * Writes the buffered data. Only called by one thread at a time.
+     */
     protected abstract void flushBufferedData();
 
+    /**
+     * Requests an asynchronous {@link #flushBufferedData()}, must not block
+     */
+    protected abstract void scheduleFlush();
+
     @Override
     public void store(Item item) {
         store(item, null);
@@ -68,7 +85,6 @@ public abstract class AbstractBufferedPersistenceService<T> implements Persisten
     @Override
     public void store(Item item, @Nullable String alias) {
         long storeStart = System.currentTimeMillis();
-        String uuid = UUID.randomUUID().toString();
         if (item.getState() instanceof UnDefType) {
             logger.debug("Undefined item state received. Not storing item {}.", item.getName());
             return;
@@ -76,6 +92,7 @@ public abstract class AbstractBufferedPersistenceService<T> implements Persisten
         if (!isReadyToStore()) {
             return;
         }
+        MpscRingBuffer<T> buffer = this.buffer;
         if (buffer == null) {
             throw new IllegalStateException("Buffer not initialized with resetWithBufferSize. Bug?");
         }
@@ -84,46 +101,51 @@ public abstract class AbstractBufferedPersistenceService<T> implements Persisten
         String name = (alias != null) ? alias : realName;
         State state = item.getState();
         T persistenceItem = persistenceItemFromState(name, state, time);
-        logger.trace("store() called with item {}, which was converted to {} [{}]", item, persistenceItem, uuid);
+        logger.trace("store() called with item {}, which was converted to {}", item, persistenceItem);
         if (writeImmediately) {
-            logger.debug("Writing immediately item {} [{}]", realName, uuid);
+            logger.debug("Writing immediately item {}", realName);
             // We want to write everything immediately
             // Synchronous behavior to ensure buffer does not get full.
             synchronized (this) {
-                boolean buffered = addToBuffer(persistenceItem);
+                boolean buffered = buffer.offer(persistenceItem);
                 assert buffered;
                 flushBufferedData();
             }
-        } else {
-            long bufferStart = System.currentTimeMillis();
-            boolean buffered = addToBuffer(persistenceItem);
-            if (buffered) {
-                logger.debug("Buffered item {} in {} ms. Total time for store(): {} [{}]", realName,
-                        System.currentTimeMillis() - bufferStart, System.currentTimeMillis() - storeStart, uuid);
+        } else if (buffer.offer(persistenceItem)) {
+            if (buffer.size() >= flushThreshold) {
+                scheduleFlush();
+            }
+        } else if (!flushAndRetry(buffer, persistenceItem)) {
+            if (discardedItems.getAndIncrement() == 0) {
+                logger.warn("Buffer is full, discarding data until buffered data is written. Consider increasing "
+                        + "bufferSize");
             } else {
-                logger.debug(
-                        "Buffer is full. Writing buffered data immediately and trying again. Consider increasing bufferSize");
-                // Buffer is full, commit it immediately
-                flushBufferedData();
-                boolean buffered2 = addToBuffer(persistenceItem);
-                if (buffered2) {
-                    logger.debug("Buffered item in {} ms (2nd try, flushed buffer in-between) [{}]",
-                            System.currentTimeMillis() - bufferStart, uuid);
-                } else {
-                    // The unlikely case happened -- buffer got full again immediately
-                    logger.warn("Buffering failed for the second time -- Too small bufferSize? Discarding data [{}]",
-                            uuid);
-                }
+                logger.debug("Buffer is full, discarding item {}", realName);
             }
+            scheduleFlush();
         }
     }
 
-    protected boolean addToBuffer(T persistenceItem) {
-        try {
-            return buffer != null && buffer.offer(persistenceItem, BUFFER_OFFER_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
-        } catch (InterruptedException e) {
-            logger.warn("Interrupted when trying to buffer data! Dropping data");
-            return false;
+    /**
+     * Writes the full buffer on the storing thread and adds the item again. At most one flush is done, so storing
+     * waits at most for the flush in progress and one more.
+     *
+     * @return false if the buffer is still full
+     */
+    private boolean flushAndRetry(MpscRingBuffer<T> buffer, T persistenceItem) {
+        logger.debug("Buffer is full, writing buffered data before storing more");
+        synchronized (this) {
+            flushBufferedData();
         }
+        return buffer.offer(persistenceItem);
+    }
+
+    /**
+     * Resets the number of items that were discarded because the buffer was full
+     *
+     * @return number of discarded items since the last call
+     */
+    protected long resetDiscardedItems() {
+        return discardedItems.getAndSet(0);
     }
 }
@@ -23,10 +23,16 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Function;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
@@ -76,6 +82,9 @@ import com.amazonaws.services.dynamodbv2.model.WriteRequest;
  *
  * The service creates tables automatically, one for numbers, and one for strings.
  *
+ * Buffered data is written by a dedicated flusher thread, which splits the data of each table into requests of at
+ * most {@value #MAX_BATCH_WRITE_ITEMS} items (the BatchWriteItem limit) and sends them in parallel.
+ *
  * @see AbstractDynamoDBItem.fromState for details how different items are persisted
  *
  * @author Sami Salonen - Initial contribution
@@ -163,6 +172,8 @@ public class DynamoDBPersistenceService extends AbstractBufferedPersistenceServi
     private static final int WAIT_ON_FIRST_RESOURCE_NOT_FOUND_MILLIS = 5000;
     private static final int[] WAIT_MILLIS_IN_RETRIES = new int[] { 100, 100, 200, 300, 500 };
     private static final String DYNAMODB_THREADPOOL_NAME = "dynamodbPersistenceService";
+    private static final String DYNAMODB_WRITE_THREADPOOL_NAME = "dynamodbPersistenceService-write";
+    static final int MAX_BATCH_WRITE_ITEMS = 25;
 
     private final ItemRegistry itemRegistry;
     private @Nullable DynamoDBClient db;
@@ -173,6 +184,9 @@ public class DynamoDBPersistenceService extends AbstractBufferedPersistenceServi
     private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(1,
             new NamedThreadFactory(DYNAMODB_THREADPOOL_NAME));
     private @Nullable ScheduledFuture<?> writeBufferedDataFuture;
+    private @Nullable ExecutorService writeExecutor;
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private final Object createTableLock = new Object();
 
     @Activate
     public DynamoDBPersistenceService(final @Reference ItemRegistry itemRegistry) {
@@ -211,7 +225,11 @@ public class DynamoDBPersistenceService extends AbstractBufferedPersistenceServi
         }
 
         writeBufferedDataFuture = null;
-        resetWithBufferSize(dbConfig.getBufferSize());
+        int writeParallelism = dbConfig.getWriteParallelism();
+        writeExecutor = Executors.newFixedThreadPool(writeParallelism,
+                new NamedThreadFactory(DYNAMODB_WRITE_THREADPOOL_NAME));
+        // flush early once there is enough data to keep all writer threads busy with full requests
+        resetWithBufferSize(dbConfig.getBufferSize(), MAX_BATCH_WRITE_ITEMS * writeParallelism);
         long commitIntervalMillis = dbConfig.getBufferCommitIntervalMillis();
         if (commitIntervalMillis > 0) {
             writeBufferedDataFuture = scheduler.scheduleWithFixedDelay(new Runnable() {
@@ -242,6 +260,19 @@ public class DynamoDBPersistenceService extends AbstractBufferedPersistenceServi
             writeBufferedDataFuture.cancel(false);
             writeBufferedDataFuture = null;
         }
+        if (isProperlyConfigured) {
+            // write what is left in the buffer
+            try {
+                flushBufferedData();
+            } catch (RuntimeException e) {
+                logger.warn("Writing buffered data failed on deactivation: {}", e.getMessage());
+            }
+        }
+        ExecutorService writeExecutor = this.writeExecutor;
+        if (writeExecutor != null) {
+            writeExecutor.shutdownNow();
+            this.writeExecutor = null;
+        }
         resetClient();
     }
 
@@ -272,13 +303,20 @@ public class DynamoDBPersistenceService extends AbstractBufferedPersistenceServi
     /**
      * Create table (if not present) and wait for table to become active.
      *
-     * Synchronized in order to ensure that at most single thread is creating the table at a time
+     * Synchronized in order to ensure that at most single thread is creating the table at a time. Uses its own lock
+     * since it is called by the writer threads while the flushing thread holds the lock of the service.
      *
      * @param mapper
      * @param dtoClass
      * @return whether table creation succeeded.
      */
-    private synchronized boolean createTable(DynamoDBMapper mapper, Class<?> dtoClass) {
+    private boolean createTable(DynamoDBMapper mapper, Class<?> dtoClass) {
+        synchronized (createTableLock) {
+            return createTableLocked(mapper, dtoClass);
+        }
+    }
+
+    private boolean createTableLocked(DynamoDBMapper mapper, Class<?> dtoClass) {
         if (db == null) {
             return false;
         }
@@ -389,32 +427,88 @@ public class DynamoDBPersistenceService extends AbstractBufferedPersistenceServi
     }
 
     @Override
-    protected void flushBufferedData() {
-        if (buffer != null && buffer.isEmpty()) {
+    protected void scheduleFlush() {
+        if (!flushScheduled.compareAndSet(false, true)) {
             return;
         }
+        try {
+            scheduler.execute(() -> {
+                flushScheduled.set(false);
+                try {
+                    flushBufferedData();
+                } catch (RuntimeException e) {
+                    logger.warn("Flushing buffered data failed unexpectedly", e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            flushScheduled.set(false);
+        }
+    }
+
+    @Override
+    protected synchronized void flushBufferedData() {
+        MpscRingBuffer<DynamoDBItem<?>> buffer = this.buffer;
+        if (buffer == null || buffer.isEmpty()) {
+            return;
+        }
+        long discarded = resetDiscardedItems();
+        if (discarded > 0) {
+            logger.warn("Discarded {} items since the last flush because the buffer was full", discarded);
+        }
         logger.debug("Writing buffered data. Buffer size: {}", buffer.size());
 
-        for (;;) {
-            Map<String, Deque<DynamoDBItem<?>>> itemsByTable = readBuffer();
-            // Write batch of data, one table at a time
+        // items added while writing are left for the next flush, so a busy buffer does not keep us here forever
+        int remaining = buffer.size();
+        while (remaining > 0) {
+            Map<String, Deque<DynamoDBItem<?>>> itemsByTable = readBuffer(buffer, remaining);
+            if (itemsByTable.isEmpty()) {
+                break;
+            }
+            List<Future<?>> writes = new ArrayList<>();
             for (Entry<String, Deque<DynamoDBItem<?>>> entry : itemsByTable.entrySet()) {
                 String tableName = entry.getKey();
-                Deque<DynamoDBItem<?>> batch = entry.getValue();
-                if (!batch.isEmpty()) {
-                    flushBatch(getDBMapper(tableName), batch);
+                Deque<DynamoDBItem<?>> items = entry.getValue();
+                remaining -= items.size();
+                DynamoDBMapper mapper = getDBMapper(tableName);
+                while (!items.isEmpty()) {
+                    Deque<DynamoDBItem<?>> batch = new ArrayDeque<>(MAX_BATCH_WRITE_ITEMS);
+                    while (batch.size() < MAX_BATCH_WRITE_ITEMS && !items.isEmpty()) {
+                        batch.add(items.poll());
+                    }
+                    writes.add(submitBatch(mapper, batch));
                 }
             }
-            if (buffer != null && buffer.isEmpty()) {
-                break;
+            for (Future<?> write : writes) {
+                try {
+                    write.get();
+                } catch (ExecutionException e) {
+                    logger.warn("Writing batch of data failed unexpectedly", e.getCause());
+                } catch (InterruptedException e) {
+                    logger.debug("Interrupted while waiting for batch writes to complete");
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private Future<?> submitBatch(DynamoDBMapper mapper, Deque<DynamoDBItem<?>> batch) {
+        ExecutorService writeExecutor = this.writeExecutor;
+        if (writeExecutor != null) {
+            try {
+                return writeExecutor.submit(() -> flushBatch(mapper, batch));
+            } catch (RejectedExecutionException e) {
+                // deactivated, write on this thread
             }
         }
+        flushBatch(mapper, batch);
+        return CompletableFuture.completedFuture(null);
     }
 
-    private Map<String, Deque<DynamoDBItem<?>>> readBuffer() {
+    private Map<String, Deque<DynamoDBItem<?>>> readBuffer(MpscRingBuffer<DynamoDBItem<?>> buffer, int maxItems) {
         Map<String, Deque<DynamoDBItem<?>>> batchesByTable = new HashMap<>(2);
         // Get batch of data
-        while (!buffer.isEmpty()) {
+        for (int i = 0; i < maxItems; i++) {
             DynamoDBItem<?> dynamoItem = buffer.poll();
             if (dynamoItem == null) {
                 break;
@@ -0,0 +1,124 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.dynamodb.internal;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * Bounded lock-free queue for many producers and a single consumer.
+ *
+ * Every slot carries a sequence number which tells producers whether the slot is free for the position they claimed
+ * and the consumer whether the element of its position has been published. Producers claim positions with a single
+ * CAS and never wait for each other or for the consumer; {@link #offer(Object)} returns false if the buffer is full.
+ *
+ * {@link #poll()} must only be called by one thread at a time.
+ *
+ * @param <T> Type of the buffered elements
+ *
+ * @author Markus Vogler - Initial contribution
+ */
+@NonNullByDefault
+public class MpscRingBuffer<T> {
+
+    private final int capacity;
+    private final int mask;
+    private final AtomicReferenceArray<@Nullable T> elements;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+    // only written by the consumer, volatile for size()
+    private volatile long head;
+
+    /**
+     * @param minCapacity the capacity is rounded up to the next power of two
+     */
+    public MpscRingBuffer(int minCapacity) {
+        int capacity = Integer.highestOneBit(Math.max(2, minCapacity) - 1) << 1;
+        this.capacity = capacity;
+        this.mask = capacity - 1;
+        this.elements = new AtomicReferenceArray<>(capacity);
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Adds an element without blocking
+     *
+     * @param element element to add
+     * @return false if the buffer is full
+     */
+    public boolean offer(T element) {
+        long position = tail.get();
+        while (true) {
+            int index = (int) position & mask;
+            long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    elements.lazySet(index, element);
+                    // publish the element to the consumer
+                    sequences.set(index, position + 1);
+                    return true;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                // the slot still holds the element of the previous round
+                return false;
+            } else {
+                // another producer claimed the position
+                position = tail.get();
+            }
+        }
+    }
+
+    /**
+     * Removes the oldest published element
+     *
+     * @return the element or null if the buffer is empty
+     */
+    public @Nullable T poll() {
+        long position = head;
+        int index = (int) position & mask;
+        if (sequences.get(index) != position + 1) {
+            // empty, or the producer of this position has not published its element yet
+            return null;
+        }
+        T element = elements.get(index);
+        elements.lazySet(index, null);
+        // release the slot for the producer of the next round
+        sequences.set(index, position + capacity);
+        head = position + 1;
+        return element;
+    }
+
+    /**
+     * @return number of buffered elements, including claimed positions whose elements are not published yet
+     */
+    public int size() {
+        long size = tail.get() - head;
+        return (int) Math.max(0, Math.min(size, capacity));
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+}
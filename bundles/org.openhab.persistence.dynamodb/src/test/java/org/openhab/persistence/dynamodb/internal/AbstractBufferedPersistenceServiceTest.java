@@ -0,0 +1,126 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.dynamodb.internal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.junit.jupiter.api.Test;
+import org.openhab.core.library.items.StringItem;
+import org.openhab.core.library.types.StringType;
+import org.openhab.core.persistence.strategy.PersistenceStrategy;
+import org.openhab.core.types.State;
+
+/**
+ *
+ * @author Markus Vogler - Initial contribution
+ *
+ */
+@NonNullByDefault
+public class AbstractBufferedPersistenceServiceTest {
+
+    private static class TestService extends AbstractBufferedPersistenceService<String> {
+        private final List<String> written = new ArrayList<>();
+        private int flushes;
+        private int scheduledFlushes;
+        private boolean failing;
+
+        @Override
+        protected String persistenceItemFromState(String name, State state, ZonedDateTime time) {
+            return name + "=" + state;
+        }
+
+        @Override
+        protected boolean isReadyToStore() {
+            return true;
+        }
+
+        @Override
+        protected synchronized void flushBufferedData() {
+            flushes++;
+            MpscRingBuffer<String> buffer = this.buffer;
+            if (buffer == null || failing) {
+                return;
+            }
+            for (String item = buffer.poll(); item != null; item = buffer.poll()) {
+                written.add(item);
+            }
+        }
+
+        @Override
+        protected void scheduleFlush() {
+            scheduledFlushes++;
+        }
+
+        @Override
+        public String getId() {
+            return "test";
+        }
+
+        @Override
+        public String getLabel(@Nullable Locale locale) {
+            return "Test";
+        }
+
+        @Override
+        public List<PersistenceStrategy> getDefaultStrategies() {
+            return List.of();
+        }
+    }
+
+    private static StringItem item(String name, String state) {
+        StringItem item = new StringItem(name);
+        item.setState(new StringType(state));
+        return item;
+    }
+
+    @Test
+    public void testFullBufferIsFlushedByStoringThread() {
+        TestService service = new TestService();
+        service.resetWithBufferSize(2, 100);
+
+        service.store(item("a", "1"));
+        service.store(item("b", "2"));
+        assertEquals(0, service.flushes);
+
+        service.store(item("c", "3"));
+
+        assertEquals(1, service.flushes);
+        assertEquals(List.of("a=1", "b=2"), service.written);
+        assertEquals(0, service.resetDiscardedItems());
+
+        service.flushBufferedData();
+        assertEquals(List.of("a=1", "b=2", "c=3"), service.written);
+    }
+
+    @Test
+    public void testItemIsDiscardedIfFlushDoesNotFreeBuffer() {
+        TestService service = new TestService();
+        service.resetWithBufferSize(2, 100);
+        service.failing = true;
+
+        service.store(item("a", "1"));
+        service.store(item("b", "2"));
+        service.store(item("c", "3"));
+
+        assertEquals(1, service.flushes);
+        assertEquals(1, service.resetDiscardedItems());
+        assertTrue(service.scheduledFlushes > 0);
+    }
+}
@@ -218,4 +218,12 @@ public class DynamoDBConfigTest {
         assertEquals(501L, fromConfig.getBufferCommitIntervalMillis());
         assertEquals(112, fromConfig.getBufferSize());
     }
+
+    @Test
+    public void testRegionWithAccessKeysWithWriteParallelism() throws Exception {
+        DynamoDBConfig fromConfig = DynamoDBConfig.fromConfig(mapFrom("region", "eu-west-1", "accessKey", "access1",
+                "secretKey", "secret1", "writeParallelism", "8"));
+        assertEquals(8, fromConfig.getWriteParallelism());
+        assertEquals(1000, fromConfig.getBufferSize());
+    }
 }
@@ -0,0 +1,97 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.dynamodb.internal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author Markus Vogler - Initial contribution
+ *
+ */
+@NonNullByDefault
+public class MpscRingBufferTest {
+
+    @Test
+    public void testCapacityIsRoundedToPowerOfTwo() {
+        assertEquals(2, new MpscRingBuffer<Integer>(1).getCapacity());
+        assertEquals(1024, new MpscRingBuffer<Integer>(1000).getCapacity());
+        assertEquals(1024, new MpscRingBuffer<Integer>(1024).getCapacity());
+    }
+
+    @Test
+    public void testElementsArePolledInOrderUntilEmpty() {
+        MpscRingBuffer<Integer> buffer = new MpscRingBuffer<>(4);
+        for (int round = 0; round < 3; round++) {
+            for (int i = 0; i < 4; i++) {
+                assertTrue(buffer.offer(i));
+            }
+            assertFalse(buffer.offer(4));
+            assertEquals(4, buffer.size());
+            for (int i = 0; i < 4; i++) {
+                assertEquals(i, buffer.poll());
+            }
+            assertNull(buffer.poll());
+            assertTrue(buffer.isEmpty());
+        }
+    }
+
+    @Test
+    public void testConcurrentProducers() throws InterruptedException {
+        int producers = 4;
+        int perProducer = 10000;
+        MpscRingBuffer<Integer> buffer = new MpscRingBuffer<>(64);
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            int offset = p * perProducer;
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < perProducer; i++) {
+                    while (!buffer.offer(offset + i)) {
+                        Thread.yield();
+                    }
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+
+        Set<Integer> received = new HashSet<>();
+        int[] lastPerProducer = new int[producers];
+        Arrays.fill(lastPerProducer, -1);
+        while (received.size() < producers * perProducer) {
+            Integer element = buffer.poll();
+            if (element == null) {
+                Thread.yield();
+                continue;
+            }
+            assertTrue(received.add(element));
+            // elements of one producer keep their order
+            int producer = element / perProducer;
+            assertTrue(element > lastPerProducer[producer]);
+            lastPerProducer[producer] = element;
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertTrue(buffer.isEmpty());
+    }
+}
@@ -15,10 +15,12 @@ package org.openhab.persistence.influxdb;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
@@ -44,6 +46,7 @@ import org.openhab.persistence.influxdb.internal.InfluxPoint;
 import org.openhab.persistence.influxdb.internal.InfluxRow;
 import org.openhab.persistence.influxdb.internal.ItemToStorePointCreator;
 import org.openhab.persistence.influxdb.internal.RepositoryFactory;
+import org.openhab.persistence.influxdb.internal.StreamingQueryResult;
 import org.osgi.framework.Constants;
 import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
@@ -130,9 +133,12 @@ public class InfluxDBPersistenceService implements QueryablePersistenceService {
         logger.debug("InfluxDB persistence service deactivated");
         if (influxDBRepository != null) {
             influxDBRepository.disconnect();
+            logger.debug("{} points written, {} points dropped", influxDBRepository.getWrittenPointsCount(),
+                    influxDBRepository.getDroppedPointsCount());
             influxDBRepository = null;
         }
         if (itemToStorePointCreator != null) {
+            itemToStorePointCreator.dispose();
             itemToStorePointCreator = null;
         }
     }
@@ -225,6 +231,11 @@ public class InfluxDBPersistenceService implements QueryablePersistenceService {
             String query = RepositoryFactory.createQueryCreator(configuration).createQuery(filter,
                     configuration.getRetentionPolicy());
             logger.trace("Query {}", query);
+            int chunkSize = configuration.getQueryChunkSize();
+            if (chunkSize > 0 && filter.getPageSize() == Integer.MAX_VALUE) {
+                // unpaged results can be large, they are read while the caller iterates
+                return new StreamedHistoricItems(influxDBRepository, query, chunkSize);
+            }
             List<InfluxRow> results = influxDBRepository.query(query);
             return results.stream().map(this::mapRow2HistoricItem).collect(Collectors.toList());
         } else {
@@ -239,6 +250,61 @@ public class InfluxDBPersistenceService implements QueryablePersistenceService {
                 ZonedDateTime.ofInstant(row.getTime(), ZoneId.systemDefault()));
     }
 
+    /**
+     * Runs the query each time it is iterated. Closing it cancels the queries that are still being read.
+     */
+    private class StreamedHistoricItems implements Iterable<HistoricItem>, AutoCloseable {
+        private final InfluxDBRepository repository;
+        private final String query;
+        private final int chunkSize;
+        private final Set<StreamingQueryResult> openResults = ConcurrentHashMap.newKeySet();
+
+        StreamedHistoricItems(InfluxDBRepository repository, String query, int chunkSize) {
+            this.repository = repository;
+            this.query = query;
+            this.chunkSize = chunkSize;
+        }
+
+        @Override
+        public Iterator<HistoricItem> iterator() {
+            StreamingQueryResult rows = repository.streamQuery(query, chunkSize);
+            openResults.add(rows);
+            return new MappingIterator(rows, openResults);
+        }
+
+        @Override
+        public void close() {
+            for (StreamingQueryResult rows : openResults) {
+                rows.close();
+            }
+            openResults.clear();
+        }
+    }
+
+    private class MappingIterator implements Iterator<HistoricItem> {
+        private final StreamingQueryResult rows;
+        private final Set<StreamingQueryResult> openResults;
+
+        MappingIterator(StreamingQueryResult rows, Set<StreamingQueryResult> openResults) {
+            this.rows = rows;
+            this.openResults = openResults;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (rows.hasNext()) {
+                return true;
+            }
+            openResults.remove(rows);
+            return false;
+        }
+
+        @Override
+        public HistoricItem next() {
+            return mapRow2HistoricItem(rows.next());
+        }
+    }
+
     @Override
     public List<PersistenceStrategy> getDefaultStrategies() {
         return List.of(PersistenceStrategy.Globals.RESTORE, PersistenceStrategy.Globals.CHANGE);
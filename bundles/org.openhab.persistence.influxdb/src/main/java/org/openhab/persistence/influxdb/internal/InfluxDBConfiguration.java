@@ -39,6 +39,12 @@ public class InfluxDBConfiguration {
     public static final String ADD_CATEGORY_TAG_PARAM = "addCategoryTag";
     public static final String ADD_LABEL_TAG_PARAM = "addLabelTag";
     public static final String ADD_TYPE_TAG_PARAM = "addTypeTag";
+    public static final String QUERY_CHUNK_SIZE_PARAM = "queryChunkSize";
+    public static final String BATCH_SIZE_PARAM = "batchSize";
+    public static final String FLUSH_INTERVAL_PARAM = "flushInterval";
+    public static final String JITTER_INTERVAL_PARAM = "jitterInterval";
+    public static final String RETRY_BUFFER_LIMIT_PARAM = "retryBufferLimit";
+    public static final String GZIP_PARAM = "gzip";
     public static InfluxDBConfiguration NO_CONFIGURATION = new InfluxDBConfiguration(Collections.emptyMap());
     private final Logger logger = LoggerFactory.getLogger(InfluxDBConfiguration.class);
     private final String url;
@@ -53,6 +59,12 @@ public class InfluxDBConfiguration {
     private final boolean addCategoryTag;
     private final boolean addTypeTag;
     private final boolean addLabelTag;
+    private final int queryChunkSize;
+    private final int batchSize;
+    private final int flushInterval;
+    private final int jitterInterval;
+    private final int retryBufferLimit;
+    private final boolean gzip;
 
     public InfluxDBConfiguration(Map<String, Object> config) {
         url = (String) config.getOrDefault(URL_PARAM, "http://127.0.0.1:8086");
@@ -67,6 +79,12 @@ public class InfluxDBConfiguration {
         addCategoryTag = getConfigBooleanValue(config, ADD_CATEGORY_TAG_PARAM, false);
         addLabelTag = getConfigBooleanValue(config, ADD_LABEL_TAG_PARAM, false);
         addTypeTag = getConfigBooleanValue(config, ADD_TYPE_TAG_PARAM, false);
+        queryChunkSize = getConfigIntValue(config, QUERY_CHUNK_SIZE_PARAM, 0);
+        batchSize = Math.max(1, getConfigIntValue(config, BATCH_SIZE_PARAM, 1000));
+        flushInterval = Math.max(1, getConfigIntValue(config, FLUSH_INTERVAL_PARAM, 1000));
+        jitterInterval = Math.max(0, getConfigIntValue(config, JITTER_INTERVAL_PARAM, 0));
+        retryBufferLimit = Math.max(batchSize, getConfigIntValue(config, RETRY_BUFFER_LIMIT_PARAM, 10000));
+        gzip = getConfigBooleanValue(config, GZIP_PARAM, false);
     }
 
     private static boolean getConfigBooleanValue(Map<String, Object> config, String key, boolean defaultValue) {
@@ -80,6 +98,20 @@ public class InfluxDBConfiguration {
         }
     }
 
+    private int getConfigIntValue(Map<String, Object> config, String key, int defaultValue) {
+        Object object = config.get(key);
+        if (object instanceof Number) {
+            return ((Number) object).intValue();
+        } else if (object instanceof String) {
+            try {
+                return Integer.parseInt(((String) object).trim());
+            } catch (NumberFormatException e) {
+                logger.warn("Invalid {} {}", key, object);
+            }
+        }
+        return defaultValue;
+    }
+
     private InfluxDBVersion parseInfluxVersion(@Nullable Object value) {
         try {
             return InfluxDBVersion.valueOf((String) value);
@@ -156,6 +188,30 @@ public class InfluxDBConfiguration {
         return addLabelTag;
     }
 
+    public int getQueryChunkSize() {
+        return queryChunkSize;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public int getFlushInterval() {
+        return flushInterval;
+    }
+
+    public int getJitterInterval() {
+        return jitterInterval;
+    }
+
+    public int getRetryBufferLimit() {
+        return retryBufferLimit;
+    }
+
+    public boolean isGzip() {
+        return gzip;
+    }
+
     public String getUser() {
         return user;
     }
@@ -174,7 +230,10 @@ public class InfluxDBConfiguration {
                 + password.length() + " chars" + '\'' + ", token='" + token.length() + " chars" + '\''
                 + ", databaseName='" + databaseName + '\'' + ", retentionPolicy='" + retentionPolicy + '\''
                 + ", version=" + version + ", replaceUnderscore=" + replaceUnderscore + ", addCategoryTag="
-                + addCategoryTag + ", addTypeTag=" + addTypeTag + ", addLabelTag=" + addLabelTag + '}';
+                + addCategoryTag + ", addTypeTag=" + addTypeTag + ", addLabelTag=" + addLabelTag + ", queryChunkSize="
+                + queryChunkSize + ", batchSize=" + batchSize + ", flushInterval=" + flushInterval
+                + ", jitterInterval=" + jitterInterval + ", retryBufferLimit=" + retryBufferLimit + ", gzip=" + gzip
+                + '}';
         return sb;
     }
 
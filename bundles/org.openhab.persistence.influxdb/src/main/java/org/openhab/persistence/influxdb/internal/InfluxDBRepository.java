@@ -66,9 +66,34 @@ public interface InfluxDBRepository {
     List<InfluxRow> query(String query);
 
     /**
-     * Write point to database
+     * Executes query returning the rows while they are received from the server
+     *
+     * @param query Query
+     * @param chunkSize Number of points the server sends at once, also the number of rows buffered
+     * @return Query results, to be iterated once and closed if not iterated to the end
+     */
+    StreamingQueryResult streamQuery(String query, int chunkSize);
+
+    /**
+     * Write point to database. Points are buffered and written in batches, see
+     * {@link InfluxDBConfiguration#getBatchSize()}.
      *
      * @param influxPoint Point to write
      */
     void write(InfluxPoint influxPoint);
+
+    /**
+     * Return the number of points written to the server since connecting
+     *
+     * @return Number of written points
+     */
+    long getWrittenPointsCount();
+
+    /**
+     * Return the number of points dropped since connecting because they couldn't be written and the retry buffer was
+     * full
+     *
+     * @return Number of dropped points, 0 if the client doesn't report dropped points
+     */
+    long getDroppedPointsCount();
 }
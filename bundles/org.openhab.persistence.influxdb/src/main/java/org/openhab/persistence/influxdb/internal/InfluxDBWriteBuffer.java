@@ -0,0 +1,200 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.influxdb.internal;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.openhab.core.common.NamedThreadFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Collects points and writes them in batches of at most {@code batchSize} points, every {@code flushInterval} ms
+ * plus a random jitter or as soon as a batch is full.
+ *
+ * Points that could not be written are kept and written again with the next flush. At most
+ * {@code retryBufferLimit} points are kept, the oldest points are dropped if more points are added while the
+ * database can't be reached.
+ *
+ * @author Markus Vogler - Initial contribution
+ */
+@NonNullByDefault
+public class InfluxDBWriteBuffer {
+    private static final long CLOSE_TIMEOUT_MILLIS = 5000;
+
+    private final Logger logger = LoggerFactory.getLogger(InfluxDBWriteBuffer.class);
+
+    private final Consumer<List<InfluxPoint>> writer;
+    private final int batchSize;
+    private final int flushInterval;
+    private final int jitterInterval;
+    private final int bufferLimit;
+
+    private final ScheduledExecutorService scheduler = Executors
+            .newSingleThreadScheduledExecutor(new NamedThreadFactory("influxdb-write"));
+
+    // guarded by itself
+    private final Deque<InfluxPoint> points = new ArrayDeque<>();
+    private boolean flushRequested = false;
+    private volatile boolean failing = false;
+
+    private final AtomicLong writtenPoints = new AtomicLong();
+    private final AtomicLong droppedPoints = new AtomicLong();
+
+    /**
+     * @param configuration Configuration containing the batch and buffer options
+     * @param writer Writes a batch of points, throws a {@link RuntimeException} if they couldn't be written
+     */
+    public InfluxDBWriteBuffer(InfluxDBConfiguration configuration, Consumer<List<InfluxPoint>> writer) {
+        this.writer = writer;
+        this.batchSize = configuration.getBatchSize();
+        this.flushInterval = configuration.getFlushInterval();
+        this.jitterInterval = configuration.getJitterInterval();
+        this.bufferLimit = configuration.getRetryBufferLimit();
+        scheduleFlush();
+    }
+
+    /**
+     * Add a point to be written with the next batch
+     *
+     * @param point Point to write
+     */
+    public void add(InfluxPoint point) {
+        synchronized (points) {
+            if (points.size() >= bufferLimit) {
+                points.removeFirst();
+                droppedPoints.incrementAndGet();
+            }
+            points.addLast(point);
+            if (points.size() < batchSize || flushRequested || failing) {
+                return;
+            }
+            flushRequested = true;
+        }
+        try {
+            scheduler.execute(this::flush);
+        } catch (RejectedExecutionException e) {
+            // closed, the point is written by close()
+        }
+    }
+
+    /**
+     * Write all points, stops at the first batch that couldn't be written
+     *
+     * @return True if all points were written
+     */
+    public boolean flush() {
+        while (true) {
+            List<InfluxPoint> batch;
+            synchronized (points) {
+                flushRequested = false;
+                if (points.isEmpty()) {
+                    return true;
+                }
+                batch = new ArrayList<>(Math.min(batchSize, points.size()));
+                while (batch.size() < batchSize && !points.isEmpty()) {
+                    batch.add(points.removeFirst());
+                }
+            }
+            try {
+                writer.accept(batch);
+                writtenPoints.addAndGet(batch.size());
+                if (failing) {
+                    failing = false;
+                    logger.info("Writing points to InfluxDB succeeded again");
+                }
+            } catch (RuntimeException e) {
+                requeue(batch);
+                if (!failing) {
+                    failing = true;
+                    logger.warn("Writing points to InfluxDB failed, keeping up to {} points to retry: {}", bufferLimit,
+                            e.getMessage());
+                } else {
+                    logger.debug("Writing points to InfluxDB failed again: {}", e.getMessage());
+                }
+                return false;
+            }
+        }
+    }
+
+    private void requeue(List<InfluxPoint> batch) {
+        synchronized (points) {
+            for (int i = batch.size() - 1; i >= 0; i--) {
+                points.addFirst(batch.get(i));
+            }
+            while (points.size() > bufferLimit) {
+                points.removeFirst();
+                droppedPoints.incrementAndGet();
+            }
+        }
+    }
+
+    private void scheduleFlush() {
+        long delay = flushInterval + (jitterInterval > 0 ? ThreadLocalRandom.current().nextInt(jitterInterval) : 0);
+        try {
+            scheduler.schedule(() -> {
+                flush();
+                scheduleFlush();
+            }, delay, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // closed
+        }
+    }
+
+    /**
+     * Stops the periodic flush and makes a last attempt to write the buffered points
+     */
+    public void close() {
+        scheduler.shutdownNow();
+        try {
+            scheduler.awaitTermination(CLOSE_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (!flush()) {
+            int remaining;
+            synchronized (points) {
+                remaining = points.size();
+                points.clear();
+            }
+            droppedPoints.addAndGet(remaining);
+            logger.warn("Dropped {} points that couldn't be written to InfluxDB", remaining);
+        }
+        logger.debug("Closed write buffer, {} points written, {} points dropped", writtenPoints, droppedPoints);
+    }
+
+    public long getWrittenPointsCount() {
+        return writtenPoints.get();
+    }
+
+    public long getDroppedPointsCount() {
+        return droppedPoints.get();
+    }
+
+    public int getBufferedPointsCount() {
+        synchronized (points) {
+            return points.size();
+        }
+    }
+}
@@ -15,10 +15,13 @@ package org.openhab.persistence.influxdb.internal;
 import static org.openhab.persistence.influxdb.internal.InfluxDBConstants.*;
 
 import java.time.Instant;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.core.common.registry.RegistryChangeListener;
 import org.openhab.core.items.Item;
 import org.openhab.core.items.Metadata;
 import org.openhab.core.items.MetadataKey;
@@ -30,16 +33,55 @@ import org.openhab.persistence.influxdb.InfluxDBPersistenceService;
 /**
  * Logic to create an InfluxDB {@link InfluxPoint} from an openHAB {@link Item}
  *
+ * The tags defined by item metadata are cached per item and updated when the metadata changes.
+ *
  * @author Joan Pujol Espinar - Initial contribution
  */
 @NonNullByDefault
-public class ItemToStorePointCreator {
+public class ItemToStorePointCreator implements RegistryChangeListener<Metadata> {
     private final InfluxDBConfiguration configuration;
     private final @Nullable MetadataRegistry metadataRegistry;
+    private final Map<String, Map<String, Object>> metadataTags = new ConcurrentHashMap<>();
 
     public ItemToStorePointCreator(InfluxDBConfiguration configuration, @Nullable MetadataRegistry metadataRegistry) {
         this.configuration = configuration;
         this.metadataRegistry = metadataRegistry;
+        if (metadataRegistry != null) {
+            metadataRegistry.addRegistryChangeListener(this);
+        }
+    }
+
+    /**
+     * Stop listening for metadata changes
+     */
+    public void dispose() {
+        final MetadataRegistry currentMetadataRegistry = metadataRegistry;
+        if (currentMetadataRegistry != null) {
+            currentMetadataRegistry.removeRegistryChangeListener(this);
+        }
+        metadataTags.clear();
+    }
+
+    @Override
+    public void added(Metadata element) {
+        invalidate(element);
+    }
+
+    @Override
+    public void removed(Metadata element) {
+        invalidate(element);
+    }
+
+    @Override
+    public void updated(Metadata oldElement, Metadata element) {
+        invalidate(element);
+    }
+
+    private void invalidate(Metadata metadata) {
+        MetadataKey key = metadata.getUID();
+        if (InfluxDBPersistenceService.SERVICE_NAME.equals(key.getNamespace())) {
+            metadataTags.remove(key.getItemName());
+        }
     }
 
     public @Nullable InfluxPoint convert(Item item, @Nullable String storeAlias) {
@@ -113,15 +155,20 @@ public class ItemToStorePointCreator {
             point.withTag(TAG_LABEL_NAME, labelName);
         }
 
+        getMetadataTags(item.getName()).forEach((tagName, tagValue) -> {
+            point.withTag(tagName, tagValue.toString());
+        });
+    }
+
+    private Map<String, Object> getMetadataTags(String itemName) {
         final MetadataRegistry currentMetadataRegistry = metadataRegistry;
-        if (currentMetadataRegistry != null) {
-            MetadataKey key = new MetadataKey(InfluxDBPersistenceService.SERVICE_NAME, item.getName());
-            Metadata metadata = currentMetadataRegistry.get(key);
-            if (metadata != null) {
-                metadata.getConfiguration().forEach((tagName, tagValue) -> {
-                    point.withTag(tagName, tagValue.toString());
-                });
-            }
+        if (currentMetadataRegistry == null) {
+            return Map.of();
         }
+        return metadataTags.computeIfAbsent(itemName, name -> {
+            MetadataKey key = new MetadataKey(InfluxDBPersistenceService.SERVICE_NAME, name);
+            Metadata metadata = currentMetadataRegistry.get(key);
+            return metadata != null ? Map.copyOf(metadata.getConfiguration()) : Map.of();
+        });
     }
 }
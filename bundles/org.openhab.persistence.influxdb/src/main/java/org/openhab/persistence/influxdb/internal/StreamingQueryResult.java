@@ -0,0 +1,171 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.influxdb.internal;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Hands out rows of an asynchronous query while they are received. The client callbacks add rows to a bounded
+ * queue and block while it is full, so at most {@code capacity} rows are held in memory.
+ *
+ * When the consumer closes the result, the query is cancelled and the queue is cleared so that a blocked producer
+ * continues. If the consumer stops iterating without closing the result, adding a row times out and the query is
+ * cancelled as well.
+ *
+ * @author Markus Vogler - Initial contribution
+ */
+@NonNullByDefault
+public class StreamingQueryResult implements Iterator<InfluxRow>, AutoCloseable {
+    public static final long TIMEOUT_MILLIS = 60000;
+
+    private final Logger logger = LoggerFactory.getLogger(StreamingQueryResult.class);
+
+    private static final Object END = new Object();
+
+    private final BlockingQueue<Object> queue;
+    private volatile boolean cancelled = false;
+    private volatile @Nullable Runnable cancelQuery;
+    private @Nullable InfluxRow next;
+    private volatile boolean done = false;
+
+    public StreamingQueryResult(int capacity) {
+        queue = new LinkedBlockingQueue<>(Math.max(1, capacity));
+    }
+
+    /**
+     * Set how the running query is cancelled when the consumer closes the result or stops iterating
+     *
+     * @param cancelQuery Cancels the query of the client
+     */
+    public void setCancelQuery(Runnable cancelQuery) {
+        this.cancelQuery = cancelQuery;
+        if (cancelled) {
+            cancelQuery.run();
+        }
+    }
+
+    /**
+     * Add a received row, blocking while the queue is full
+     *
+     * @param row Row to add
+     * @return False if the consumer closed the result or didn't take rows in time, the query has been cancelled then
+     */
+    public boolean add(InfluxRow row) {
+        if (cancelled) {
+            return false;
+        }
+        try {
+            if (queue.offer(row, TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+                if (!cancelled) {
+                    return true;
+                }
+                // closed while waiting, the row was added after the queue was cleared
+                queue.clear();
+                return false;
+            }
+            logger.debug("Query result isn't consumed, cancelling query");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        cancel();
+        return false;
+    }
+
+    /**
+     * Mark the end of the result
+     */
+    public void complete() {
+        if (!cancelled && !queue.offer(END)) {
+            try {
+                queue.offer(END, TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Mark the end of the result after a failed query, rows received before are still handed out
+     *
+     * @param error Error of the query
+     */
+    public void fail(Throwable error) {
+        logger.warn("Query failed: {}", error.getMessage());
+        complete();
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next != null) {
+            return true;
+        }
+        if (done) {
+            return false;
+        }
+        try {
+            Object element = queue.poll(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+            if (element instanceof InfluxRow) {
+                next = (InfluxRow) element;
+                return true;
+            } else if (element == END) {
+                done = true;
+                return false;
+            }
+            logger.warn("No query result received in {} ms, ignoring remaining points", TIMEOUT_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        close();
+        return false;
+    }
+
+    @Override
+    public InfluxRow next() {
+        InfluxRow row = hasNext() ? next : null;
+        if (row == null) {
+            throw new NoSuchElementException();
+        }
+        next = null;
+        return row;
+    }
+
+    /**
+     * Stop reading the result, rows that were not handed out yet are dropped and a running query is cancelled
+     */
+    @Override
+    public void close() {
+        done = true;
+        next = null;
+        cancel();
+        // wake up a consumer waiting in another thread
+        queue.offer(END);
+    }
+
+    private void cancel() {
+        cancelled = true;
+        queue.clear();
+        Runnable cancelQuery = this.cancelQuery;
+        if (cancelQuery != null) {
+            cancelQuery.run();
+        }
+    }
+}
@@ -27,14 +27,17 @@ import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
 import org.influxdb.InfluxDB;
 import org.influxdb.InfluxDBFactory;
+import org.influxdb.dto.BatchPoints;
 import org.influxdb.dto.Point;
 import org.influxdb.dto.Pong;
 import org.influxdb.dto.Query;
 import org.influxdb.dto.QueryResult;
 import org.openhab.persistence.influxdb.internal.InfluxDBConfiguration;
 import org.openhab.persistence.influxdb.internal.InfluxDBRepository;
+import org.openhab.persistence.influxdb.internal.InfluxDBWriteBuffer;
 import org.openhab.persistence.influxdb.internal.InfluxPoint;
 import org.openhab.persistence.influxdb.internal.InfluxRow;
+import org.openhab.persistence.influxdb.internal.StreamingQueryResult;
 import org.openhab.persistence.influxdb.internal.UnnexpectedConditionException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -51,6 +54,11 @@ public class InfluxDB1RepositoryImpl implements InfluxDBRepository {
     private InfluxDBConfiguration configuration;
     @Nullable
     private InfluxDB client;
+    @Nullable
+    private InfluxDBWriteBuffer writeBuffer;
+    // points counted by write buffers that have been closed
+    private long closedWrittenPoints;
+    private long closedDroppedPoints;
 
     public InfluxDB1RepositoryImpl(InfluxDBConfiguration configuration) {
         this.configuration = configuration;
@@ -67,13 +75,24 @@ public class InfluxDB1RepositoryImpl implements InfluxDBRepository {
                 configuration.getPassword());
         createdClient.setDatabase(configuration.getDatabaseName());
         createdClient.setRetentionPolicy(configuration.getRetentionPolicy());
-        createdClient.enableBatch(200, 100, TimeUnit.MILLISECONDS);
+        if (configuration.isGzip()) {
+            createdClient.enableGzip();
+        }
         this.client = createdClient;
+        // the client's own batching reports no written points, so batches are collected here
+        this.writeBuffer = new InfluxDBWriteBuffer(configuration, this::writeBatch);
         return checkConnectionStatus();
     }
 
     @Override
     public void disconnect() {
+        final InfluxDBWriteBuffer currentWriteBuffer = writeBuffer;
+        if (currentWriteBuffer != null) {
+            currentWriteBuffer.close();
+            closedWrittenPoints += currentWriteBuffer.getWrittenPointsCount();
+            closedDroppedPoints += currentWriteBuffer.getDroppedPointsCount();
+        }
+        this.writeBuffer = null;
         this.client = null;
     }
 
@@ -111,15 +130,37 @@ public class InfluxDB1RepositoryImpl implements InfluxDBRepository {
 
     @Override
     public void write(InfluxPoint point) {
-        final InfluxDB currentClient = this.client;
-        if (currentClient != null) {
-            Point clientPoint = convertPointToClientFormat(point);
-            currentClient.write(configuration.getDatabaseName(), configuration.getRetentionPolicy(), clientPoint);
+        final InfluxDBWriteBuffer currentWriteBuffer = writeBuffer;
+        if (client != null && currentWriteBuffer != null) {
+            currentWriteBuffer.add(point);
         } else {
             logger.warn("Write point {} ignored due to client isn't connected", point);
         }
     }
 
+    private void writeBatch(List<InfluxPoint> points) {
+        final InfluxDB currentClient = this.client;
+        if (currentClient == null) {
+            throw new IllegalStateException("client isn't connected");
+        }
+        BatchPoints.Builder batch = BatchPoints.database(configuration.getDatabaseName())
+                .retentionPolicy(configuration.getRetentionPolicy());
+        points.forEach(point -> batch.point(convertPointToClientFormat(point)));
+        currentClient.write(batch.build());
+    }
+
+    @Override
+    public long getWrittenPointsCount() {
+        final InfluxDBWriteBuffer currentWriteBuffer = writeBuffer;
+        return closedWrittenPoints + (currentWriteBuffer != null ? currentWriteBuffer.getWrittenPointsCount() : 0);
+    }
+
+    @Override
+    public long getDroppedPointsCount() {
+        final InfluxDBWriteBuffer currentWriteBuffer = writeBuffer;
+        return closedDroppedPoints + (currentWriteBuffer != null ? currentWriteBuffer.getDroppedPointsCount() : 0);
+    }
+
     private Point convertPointToClientFormat(InfluxPoint point) {
         Point.Builder clientPoint = Point.measurement(point.getMeasurementName()).time(point.getTime().toEpochMilli(),
                 TimeUnit.MILLISECONDS);
@@ -155,6 +196,30 @@ public class InfluxDB1RepositoryImpl implements InfluxDBRepository {
         }
     }
 
+    @Override
+    public StreamingQueryResult streamQuery(String query, int chunkSize) {
+        final InfluxDB currentClient = client;
+        StreamingQueryResult result = new StreamingQueryResult(chunkSize);
+        if (currentClient != null) {
+            Query parsedQuery = new Query(query, configuration.getDatabaseName());
+            currentClient.query(parsedQuery, chunkSize, (cancellable, queryResult) -> {
+                result.setCancelQuery(cancellable::cancel);
+                if (queryResult.getResults() == null) {
+                    return;
+                }
+                for (InfluxRow row : convertClientResutToRepository(queryResult.getResults())) {
+                    if (!result.add(row)) {
+                        return;
+                    }
+                }
+            }, result::complete, result::fail);
+        } else {
+            logger.warn("Returning empty result because queryAPI isn't present");
+            result.complete();
+        }
+        return result;
+    }
+
     private List<InfluxRow> convertClientResutToRepository(List<QueryResult.Result> results) {
         List<InfluxRow> rows = new ArrayList<>();
         for (QueryResult.Result result : results) {
@@ -190,8 +255,7 @@ public class InfluxDB1RepositoryImpl implements InfluxDBRepository {
                                 throw new IllegalStateException("missing column");
                             }
                             for (int i = 0; i < valuess.size(); i++) {
-                                Double rawTime = (Double) valuess.get(i).get(timestampColumn);
-                                Instant time = Instant.ofEpochMilli(rawTime.longValue());
+                                Instant time = parseTime(valuess.get(i).get(timestampColumn));
                                 Object value = valuess.get(i).get(valueColumn);
                                 logger.trace("adding historic item {}: time {} value {}", itemName, time, value);
                                 rows.add(new InfluxRow(time, itemName, value));
@@ -204,6 +268,14 @@ public class InfluxDB1RepositoryImpl implements InfluxDBRepository {
         return rows;
     }
 
+    private Instant parseTime(Object rawTime) {
+        // epoch milliseconds if the precision was requested, RFC3339 for chunked responses
+        if (rawTime instanceof Number) {
+            return Instant.ofEpochMilli(((Number) rawTime).longValue());
+        }
+        return Instant.parse(String.valueOf(rawTime));
+    }
+
     @Override
     public Map<String, Integer> getStoredItemsCount() {
         return Collections.emptyMap();
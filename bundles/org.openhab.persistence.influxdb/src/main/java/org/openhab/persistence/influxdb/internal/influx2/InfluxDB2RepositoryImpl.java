@@ -19,6 +19,7 @@ import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -29,6 +30,7 @@ import org.openhab.persistence.influxdb.internal.InfluxDBConstants;
 import org.openhab.persistence.influxdb.internal.InfluxDBRepository;
 import org.openhab.persistence.influxdb.internal.InfluxPoint;
 import org.openhab.persistence.influxdb.internal.InfluxRow;
+import org.openhab.persistence.influxdb.internal.StreamingQueryResult;
 import org.openhab.persistence.influxdb.internal.UnnexpectedConditionException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -38,9 +40,14 @@ import com.influxdb.client.InfluxDBClientFactory;
 import com.influxdb.client.InfluxDBClientOptions;
 import com.influxdb.client.QueryApi;
 import com.influxdb.client.WriteApi;
+import com.influxdb.client.WriteOptions;
 import com.influxdb.client.domain.Ready;
 import com.influxdb.client.domain.WritePrecision;
 import com.influxdb.client.write.Point;
+import com.influxdb.client.write.events.BackpressureEvent;
+import com.influxdb.client.write.events.WriteErrorEvent;
+import com.influxdb.client.write.events.WriteSuccessEvent;
+import com.influxdb.query.FluxRecord;
 import com.influxdb.query.FluxTable;
 
 /**
@@ -58,6 +65,8 @@ public class InfluxDB2RepositoryImpl implements InfluxDBRepository {
     private QueryApi queryAPI;
     @Nullable
     private WriteApi writeAPI;
+    private final AtomicLong writtenPoints = new AtomicLong();
+    private final AtomicLong backpressureEvents = new AtomicLong();
 
     public InfluxDB2RepositoryImpl(InfluxDBConfiguration configuration) {
         this.configuration = configuration;
@@ -91,23 +100,56 @@ public class InfluxDB2RepositoryImpl implements InfluxDBRepository {
         InfluxDBClientOptions clientOptions = optionsBuilder.build();
 
         final InfluxDBClient createdClient = InfluxDBClientFactory.create(clientOptions);
+        if (configuration.isGzip()) {
+            createdClient.enableGzip();
+        }
         this.client = createdClient;
         logger.debug("Succesfully connected to InfluxDB. Instance ready={}", createdClient.ready());
         queryAPI = createdClient.getQueryApi();
-        writeAPI = createdClient.getWriteApi();
+        writeAPI = createWriteApi(createdClient);
         return checkConnectionStatus();
     }
 
+    private WriteApi createWriteApi(InfluxDBClient createdClient) {
+        WriteOptions writeOptions = WriteOptions.builder().batchSize(configuration.getBatchSize())
+                .flushInterval(configuration.getFlushInterval()).jitterInterval(configuration.getJitterInterval())
+                .bufferLimit(configuration.getRetryBufferLimit()).build();
+        WriteApi createdWriteAPI = createdClient.getWriteApi(writeOptions);
+        createdWriteAPI.listenEvents(WriteSuccessEvent.class, event -> {
+            String lineProtocol = event.getLineProtocol();
+            if (lineProtocol != null) {
+                writtenPoints.addAndGet(lineProtocol.split("\n").length);
+            }
+        });
+        // the client retries failed batches and drops the oldest points when its buffer is full, it doesn't report
+        // how many points are dropped
+        createdWriteAPI.listenEvents(BackpressureEvent.class, event -> {
+            if (backpressureEvents.getAndIncrement() == 0) {
+                logger.warn("Write buffer is full, dropping oldest points");
+            }
+        });
+        createdWriteAPI.listenEvents(WriteErrorEvent.class,
+                event -> logger.warn("Writing points failed: {}", event.getThrowable().getMessage()));
+        return createdWriteAPI;
+    }
+
     /**
      * Disconnect from InfluxDB server
      */
     @Override
     public void disconnect() {
+        final WriteApi currentWriteAPI = writeAPI;
+        if (currentWriteAPI != null) {
+            // writes the buffered points
+            currentWriteAPI.close();
+            writeAPI = null;
+        }
         final InfluxDBClient currentClient = this.client;
         if (currentClient != null) {
             currentClient.close();
         }
         this.client = null;
+        logger.debug("Disconnected, {} points written, {} backpressure events", writtenPoints, backpressureEvents);
     }
 
     /**
@@ -148,6 +190,28 @@ public class InfluxDB2RepositoryImpl implements InfluxDBRepository {
         }
     }
 
+    @Override
+    public long getWrittenPointsCount() {
+        return writtenPoints.get();
+    }
+
+    /**
+     * The client doesn't report the number of points it drops, see {@link #getBackpressureEventsCount()}
+     */
+    @Override
+    public long getDroppedPointsCount() {
+        return 0;
+    }
+
+    /**
+     * Return the number of times the write buffer was full and points were dropped since connecting
+     *
+     * @return Number of backpressure events
+     */
+    public long getBackpressureEventsCount() {
+        return backpressureEvents.get();
+    }
+
     private Point convertPointToClientFormat(InfluxPoint point) {
         Point clientPoint = Point.measurement(point.getMeasurementName()).time(point.getTime(), WritePrecision.MS);
         setPointValue(point.getValue(), clientPoint);
@@ -187,17 +251,42 @@ public class InfluxDB2RepositoryImpl implements InfluxDBRepository {
         }
     }
 
+    /**
+     * Executes Flux query returning the records while they are received
+     *
+     * @param query Query
+     * @param chunkSize Number of rows buffered
+     * @return Query results
+     */
+    @Override
+    public StreamingQueryResult streamQuery(String query, int chunkSize) {
+        final QueryApi currentQueryAPI = queryAPI;
+        StreamingQueryResult result = new StreamingQueryResult(chunkSize);
+        if (currentQueryAPI != null) {
+            currentQueryAPI.query(query, (cancellable, record) -> {
+                result.setCancelQuery(cancellable::cancel);
+                result.add(mapRecordToRow(record));
+            }, result::fail, result::complete);
+        } else {
+            logger.warn("Returning empty result because queryAPI isn't present");
+            result.complete();
+        }
+        return result;
+    }
+
     private List<InfluxRow> convertClientResutToRepository(List<FluxTable> clientResult) {
         return clientResult.stream().flatMap(this::mapRawResultToHistoric).collect(Collectors.toList());
     }
 
     private Stream<InfluxRow> mapRawResultToHistoric(FluxTable rawRow) {
-        return rawRow.getRecords().stream().map(r -> {
-            String itemName = (String) r.getValueByKey(InfluxDBConstants.TAG_ITEM_NAME);
-            Object value = r.getValueByKey(COLUMN_VALUE_NAME_V2);
-            Instant time = (Instant) r.getValueByKey(COLUMN_TIME_NAME_V2);
-            return new InfluxRow(time, itemName, value);
-        });
+        return rawRow.getRecords().stream().map(this::mapRecordToRow);
+    }
+
+    private InfluxRow mapRecordToRow(FluxRecord r) {
+        String itemName = (String) r.getValueByKey(InfluxDBConstants.TAG_ITEM_NAME);
+        Object value = r.getValueByKey(COLUMN_VALUE_NAME_V2);
+        Instant time = (Instant) r.getValueByKey(COLUMN_TIME_NAME_V2);
+        return new InfluxRow(time, itemName, value);
     }
 
     /**
@@ -0,0 +1,113 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.influxdb.internal;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.openhab.persistence.influxdb.internal.InfluxDBConfiguration.*;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author Markus Vogler - Initial contribution
+ */
+@NonNullByDefault
+public class InfluxDBWriteBufferTest {
+    private final List<List<Object>> batches = new ArrayList<>();
+    private boolean failing = false;
+    private @NonNullByDefault({}) InfluxDBWriteBuffer instance;
+
+    @AfterEach
+    public void after() {
+        failing = false;
+        instance.close();
+    }
+
+    private void createInstance(int batchSize, int retryBufferLimit) {
+        Map<String, Object> config = ConfigurationTestHelper.createValidConfigurationParameters();
+        config.put(BATCH_SIZE_PARAM, batchSize);
+        config.put(RETRY_BUFFER_LIMIT_PARAM, retryBufferLimit);
+        // only flush when called by the test
+        config.put(FLUSH_INTERVAL_PARAM, 3600000);
+        instance = new InfluxDBWriteBuffer(new InfluxDBConfiguration(config), points -> {
+            if (failing) {
+                throw new IllegalStateException("database not reachable");
+            }
+            batches.add(points.stream().map(InfluxPoint::getValue).collect(Collectors.toList()));
+        });
+    }
+
+    private static InfluxPoint point(int value) {
+        return InfluxPoint.newBuilder("sampleItem").withTime(Instant.now()).withValue(value).build();
+    }
+
+    @Test
+    public void pointsAreWrittenInBatches() {
+        createInstance(2, 10);
+        // while writing fails, full batches don't trigger a flush
+        failing = true;
+        instance.add(point(0));
+        assertThat(instance.flush(), is(false));
+        for (int i = 1; i < 5; i++) {
+            instance.add(point(i));
+        }
+        failing = false;
+
+        assertThat(instance.flush(), is(true));
+        assertThat(batches, contains(List.of(0, 1), List.of(2, 3), List.of(4)));
+        assertThat(instance.getWrittenPointsCount(), is(5L));
+        assertThat(instance.getBufferedPointsCount(), is(0));
+    }
+
+    @Test
+    public void failedPointsAreRetried() {
+        createInstance(10, 10);
+        failing = true;
+        instance.add(point(1));
+        instance.add(point(2));
+
+        assertThat(instance.flush(), is(false));
+        assertThat(instance.getBufferedPointsCount(), is(2));
+
+        failing = false;
+        instance.add(point(3));
+
+        assertThat(instance.flush(), is(true));
+        assertThat(batches, contains(List.of(1, 2, 3)));
+        assertThat(instance.getDroppedPointsCount(), is(0L));
+    }
+
+    @Test
+    public void oldestPointsAreDroppedWhenBufferIsFull() {
+        createInstance(2, 3);
+        failing = true;
+        instance.add(point(0));
+        assertThat(instance.flush(), is(false));
+        for (int i = 1; i < 5; i++) {
+            instance.add(point(i));
+        }
+        failing = false;
+
+        assertThat(instance.flush(), is(true));
+        assertThat(batches, contains(List.of(2, 3), List.of(4)));
+        assertThat(instance.getDroppedPointsCount(), is(2L));
+    }
+}
@@ -0,0 +1,94 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.influxdb.internal;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author Markus Vogler - Initial contribution
+ */
+@NonNullByDefault
+public class StreamingQueryResultTest {
+
+    @Test
+    public void rowsAreHandedOutWhileProducerIsBlocked() throws InterruptedException {
+        StreamingQueryResult result = new StreamingQueryResult(2);
+        Thread producer = new Thread(() -> {
+            for (int i = 0; i < 10; i++) {
+                result.add(new InfluxRow(Instant.ofEpochSecond(i), "sampleItem", i));
+            }
+            result.complete();
+        });
+        producer.start();
+
+        List<Object> values = new ArrayList<>();
+        result.forEachRemaining(row -> values.add(row.getValue()));
+        producer.join();
+
+        assertThat(values, equalTo(List.of(0, 1, 2, 3, 4, 5, 6, 7, 8, 9)));
+        assertThat(result.hasNext(), is(false));
+    }
+
+    @Test
+    public void failedQueryKeepsReceivedRows() {
+        StreamingQueryResult result = new StreamingQueryResult(10);
+        result.add(new InfluxRow(Instant.EPOCH, "sampleItem", 1));
+        result.fail(new IllegalStateException("connection lost"));
+
+        assertThat(result.next().getValue(), equalTo(1));
+        assertThat(result.hasNext(), is(false));
+    }
+
+    @Test
+    public void closeCancelsQueryAndReleasesBlockedProducer() throws InterruptedException {
+        StreamingQueryResult result = new StreamingQueryResult(1);
+        AtomicInteger cancelled = new AtomicInteger();
+        result.setCancelQuery(cancelled::incrementAndGet);
+        AtomicBoolean added = new AtomicBoolean(true);
+        result.add(new InfluxRow(Instant.EPOCH, "sampleItem", 0));
+        Thread producer = new Thread(() -> added.set(result.add(new InfluxRow(Instant.EPOCH, "sampleItem", 1))));
+        producer.start();
+
+        result.close();
+        producer.join(5000);
+
+        assertThat(producer.isAlive(), is(false));
+        assertThat(added.get(), is(false));
+        assertThat(cancelled.get(), greaterThanOrEqualTo(1));
+        assertThat(result.hasNext(), is(false));
+    }
+
+    @Test
+    public void cancelQuerySetAfterCloseCancelsAtOnce() {
+        StreamingQueryResult result = new StreamingQueryResult(10);
+        result.close();
+        AtomicInteger cancelled = new AtomicInteger();
+
+        result.setCancelQuery(cancelled::incrementAndGet);
+
+        assertThat(cancelled.get(), is(1));
+        assertThat(result.add(new InfluxRow(Instant.EPOCH, "sampleItem", 1)), is(false));
+    }
+}
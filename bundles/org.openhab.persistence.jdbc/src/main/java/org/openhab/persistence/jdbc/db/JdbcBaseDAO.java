@@ -15,14 +15,19 @@ package org.openhab.persistence.jdbc.db;
 import java.math.BigDecimal;
 import java.sql.Timestamp;
 import java.time.Instant;
+import java.time.YearMonth;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 
 import org.knowm.yank.Yank;
 import org.openhab.core.items.GroupItem;
@@ -50,6 +55,7 @@ import org.openhab.persistence.jdbc.model.ItemVO;
 import org.openhab.persistence.jdbc.model.ItemsVO;
 import org.openhab.persistence.jdbc.model.JdbcHistoricItem;
 import org.openhab.persistence.jdbc.utils.DbMetaData;
+import org.openhab.persistence.jdbc.utils.QueryResultIterable;
 import org.openhab.persistence.jdbc.utils.StringUtilsExt;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -65,6 +71,7 @@ public class JdbcBaseDAO {
     public final Properties databaseProps = new Properties();
     protected String urlSuffix = "";
     public final Map<String, String> sqlTypes = new HashMap<>();
+    private final Map<String, String> sqlCache = new ConcurrentHashMap<>();
 
     // Get Database Meta data
     protected DbMetaData dbMeta;
@@ -79,6 +86,13 @@ public class JdbcBaseDAO {
     protected String sqlGetItemTables;
     protected String sqlCreateItemTable;
     protected String sqlInsertItemValue;
+    protected String sqlHistItemPaging;
+    protected String sqlCreateSingleTable;
+    protected String sqlSingleTablePartitioning;
+    protected String sqlIfSingleTablePartitionExists;
+    protected String sqlCreateSingleTablePartition;
+    protected String sqlInsertSingleTableValue;
+    protected String sqlCopyItemTableToSingleTable;
 
     /********
      * INIT *
@@ -138,6 +152,12 @@ public class JdbcBaseDAO {
         sqlGetItemTables = "SELECT table_name FROM information_schema.tables WHERE table_type='BASE TABLE' AND table_schema='#jdbcUriDatabaseName#' AND NOT table_name='#itemsManageTable#'";
         sqlCreateItemTable = "CREATE TABLE IF NOT EXISTS #tableName# (time #tablePrimaryKey# NOT NULL, value #dbType#, PRIMARY KEY(time))";
         sqlInsertItemValue = "INSERT INTO #tableName# (TIME, VALUE) VALUES( #tablePrimaryValue#, ? ) ON DUPLICATE KEY UPDATE VALUE= ?";
+        sqlHistItemPaging = " LIMIT ?,?";
+        // single table layout, values of all items are stored as text in one table
+        sqlCreateSingleTable = "CREATE TABLE IF NOT EXISTS #tableName# (itemid INT NOT NULL, time #tablePrimaryKey# NOT NULL, value #dbType#, PRIMARY KEY(itemid, time))";
+        sqlInsertSingleTableValue = "INSERT INTO #tableName# (ITEMID, TIME, VALUE) VALUES( ?, #tablePrimaryValue#, ? ) ON DUPLICATE KEY UPDATE VALUE=VALUES(VALUE)";
+        // values already copied by an earlier migration are skipped
+        sqlCopyItemTableToSingleTable = "INSERT IGNORE INTO #singleTable# (ITEMID, TIME, VALUE) SELECT #itemId#, TIME, CAST(VALUE AS CHAR) FROM #tableName#";
     }
 
     /**
@@ -321,19 +341,42 @@ public class JdbcBaseDAO {
 
     public void doStoreItemValue(Item item, ItemVO vo) {
         ItemVO storedVO = storeItemValueProvider(item, vo);
-        String sql = StringUtilsExt.replaceArrayMerge(sqlInsertItemValue,
-                new String[] { "#tableName#", "#tablePrimaryValue#" },
-                new String[] { storedVO.getTableName(), sqlTypes.get("tablePrimaryValue") });
+        String sql = cachedSql("insert:" + storedVO.getTableName(),
+                () -> StringUtilsExt.replaceArrayMerge(sqlInsertItemValue,
+                        new String[] { "#tableName#", "#tablePrimaryValue#" },
+                        new String[] { storedVO.getTableName(), sqlTypes.get("tablePrimaryValue") }));
         Object[] params = new Object[] { storedVO.getValue(), storedVO.getValue() };
         logger.debug("JDBC::doStoreItemValue sql={} value='{}'", sql, storedVO.getValue());
         Yank.execute(sql, params);
     }
 
+    /**
+     * Stores a batch of values for one item table. Unlike {@link #doStoreItemValue(Item, ItemVO)} the time of each
+     * row is bound from {@link ItemVO#getTime()}, since the values have been queued before.
+     *
+     * @param vol values prepared by {@link #storeItemValueProvider(Item, ItemVO)}, all for the same table
+     */
+    public void doStoreItemValues(List<ItemVO> vol) {
+        ItemVO first = vol.get(0);
+        String sql = cachedSql("insertBatch:" + first.getTableName(),
+                () -> StringUtilsExt.replaceArrayMerge(sqlInsertItemValue,
+                        new String[] { "#tableName#", "#tablePrimaryValue#" },
+                        new String[] { first.getTableName(), "?" }));
+        Object[][] params = new Object[vol.size()][];
+        for (int i = 0; i < vol.size(); i++) {
+            ItemVO vo = vol.get(i);
+            params[i] = new Object[] { storeItemValueTime(vo), vo.getValue(), vo.getValue() };
+        }
+        logger.debug("JDBC::doStoreItemValues sql={} count={}", sql, params.length);
+        executeBatch(sql, params);
+    }
+
     public List<HistoricItem> doGetHistItemFilterQuery(Item item, FilterCriteria filter, int numberDecimalcount,
             String table, String name, ZoneId timeZone) {
-        String sql = histItemFilterQueryProvider(filter, numberDecimalcount, table, name, timeZone);
-        logger.debug("JDBC::doGetHistItemFilterQuery sql={}", sql);
-        List<Object[]> m = Yank.queryObjectArrays(sql, null);
+        String sql = histItemFilterQuerySql(filter, numberDecimalcount, table, name);
+        Object[] params = histItemFilterQueryParams(filter, timeZone);
+        logger.debug("JDBC::doGetHistItemFilterQuery sql={} params={}", sql, Arrays.toString(params));
+        List<Object[]> m = Yank.queryObjectArrays(sql, params);
 
         List<HistoricItem> items = new ArrayList<>();
         for (int i = 0; i < m.size(); i++) {
@@ -342,13 +385,168 @@ public class JdbcBaseDAO {
         return items;
     }
 
+    /**
+     * Same query as {@link #doGetHistItemFilterQuery(Item, FilterCriteria, int, String, String, ZoneId)}, but the
+     * rows are read from an open cursor, {@code fetchSize} rows at a time, while the result is iterated.
+     */
+    public Iterable<HistoricItem> doStreamHistItemFilterQuery(Item item, FilterCriteria filter,
+            int numberDecimalcount, String table, String name, ZoneId timeZone, int fetchSize) {
+        String sql = histItemFilterQuerySql(filter, numberDecimalcount, table, name);
+        Object[] params = histItemFilterQueryParams(filter, timeZone);
+        logger.debug("JDBC::doStreamHistItemFilterQuery sql={} params={} fetchSize={}", sql, Arrays.toString(params),
+                fetchSize);
+        return new QueryResultIterable<>(sql, params, fetchSize,
+                row -> new JdbcHistoricItem(item.getName(), getState(item, row[1]), objectAsDate(row[0])));
+    }
+
+    /*********************
+     * SINGLE TABLE DAOs *
+     *********************/
+    public boolean isSingleTablePartitioningSupported() {
+        return sqlSingleTablePartitioning != null;
+    }
+
+    public void doCreateSingleTable(ItemVO vo, boolean partitioned) {
+        String sql = StringUtilsExt.replaceArrayMerge(sqlCreateSingleTable,
+                new String[] { "#tableName#", "#tablePrimaryKey#", "#dbType#" },
+                new String[] { vo.getTableName(), singleTableTimeType(partitioned), vo.getDbType() });
+        if (partitioned) {
+            sql += sqlSingleTablePartitioning;
+        }
+        logger.debug("JDBC::doCreateSingleTable sql={}", sql);
+        Yank.execute(sql, null);
+    }
+
+    /**
+     * Creates the partition holding all values of the given month, if it does not exist yet.
+     */
+    public void doCreateSingleTablePartition(String tableName, YearMonth month) {
+        String partitionName = "p" + PARTITION_NAME_FORMAT.format(month);
+        if (sqlIfSingleTablePartitionExists != null) {
+            String sql = StringUtilsExt.replaceArrayMerge(sqlIfSingleTablePartitionExists,
+                    new String[] { "#tableName#", "#partitionName#" }, new String[] { tableName, partitionName });
+            if (Yank.queryScalar(sql, String.class, null) != null) {
+                return;
+            }
+        }
+        String sql = StringUtilsExt.replaceArrayMerge(sqlCreateSingleTablePartition,
+                new String[] { "#tableName#", "#tableName#", "#partitionName#", "#partitionStart#", "#partitionEnd#" },
+                new String[] { tableName, tableName, partitionName, month.atDay(1) + " 00:00:00",
+                        month.plusMonths(1).atDay(1) + " 00:00:00" });
+        logger.debug("JDBC::doCreateSingleTablePartition sql={}", sql);
+        Yank.execute(sql, null);
+    }
+
+    /**
+     * Checks if a per-item table exists, e.g. before it is copied into the single table.
+     */
+    public boolean doIfItemTableExists(String tableName) {
+        ItemsVO vo = new ItemsVO();
+        vo.setItemsManageTable(tableName);
+        return doIfTableExists(vo);
+    }
+
+    /**
+     * Copies all values of a per-item table into the single table. Values which are already in the single table are
+     * skipped, so the copy can be repeated.
+     *
+     * @param vo table name of the per-item table and item id
+     */
+    public void doCopyItemTableToSingleTable(ItemVO vo, String singleTable) {
+        String itemId = String.valueOf(vo.getItemId());
+        String sql = StringUtilsExt.replaceArrayMerge(sqlCopyItemTableToSingleTable,
+                new String[] { "#singleTable#", "#itemId#", "#dbType#", "#tableName#", "#singleTable#", "#itemId#" },
+                new String[] { singleTable, itemId, vo.getDbType(), vo.getTableName(), singleTable, itemId });
+        logger.debug("JDBC::doCopyItemTableToSingleTable sql={}", sql);
+        Yank.execute(sql, null);
+    }
+
+    public void doStoreSingleTableValue(Item item, ItemVO vo) {
+        ItemVO storedVO = storeItemValueProvider(item, vo);
+        String sql = cachedSql("insertSingle:" + storedVO.getTableName(),
+                () -> StringUtilsExt.replaceArrayMerge(sqlInsertSingleTableValue,
+                        new String[] { "#tableName#", "#tablePrimaryValue#" },
+                        new String[] { storedVO.getTableName(), sqlTypes.get("tablePrimaryValue") }));
+        Object[] params = new Object[] { storedVO.getItemId(), singleTableValue(storedVO) };
+        logger.debug("JDBC::doStoreSingleTableValue sql={} itemId={} value='{}'", sql, storedVO.getItemId(),
+                storedVO.getValue());
+        Yank.execute(sql, params);
+    }
+
+    public void doStoreSingleTableValues(List<ItemVO> vol) {
+        ItemVO first = vol.get(0);
+        String sql = cachedSql("insertSingleBatch:" + first.getTableName(),
+                () -> StringUtilsExt.replaceArrayMerge(sqlInsertSingleTableValue,
+                        new String[] { "#tableName#", "#tablePrimaryValue#" },
+                        new String[] { first.getTableName(), "?" }));
+        Object[][] params = new Object[vol.size()][];
+        for (int i = 0; i < vol.size(); i++) {
+            ItemVO vo = vol.get(i);
+            params[i] = new Object[] { vo.getItemId(), storeItemValueTime(vo), singleTableValue(vo) };
+        }
+        logger.debug("JDBC::doStoreSingleTableValues sql={} count={}", sql, params.length);
+        executeBatch(sql, params);
+    }
+
+    public List<HistoricItem> doGetSingleTableHistItemFilterQuery(Item item, FilterCriteria filter, String table,
+            int itemId, ZoneId timeZone) {
+        String sql = cachedSql("single" + histItemFilterQueryKey(filter, -1, table, ""),
+                () -> singleTableHistItemFilterQueryProvider(filter, table));
+        Object[] params = singleTableHistItemFilterQueryParams(filter, itemId, timeZone);
+        logger.debug("JDBC::doGetSingleTableHistItemFilterQuery sql={} params={}", sql, Arrays.toString(params));
+        List<Object[]> m = Yank.queryObjectArrays(sql, params);
+
+        List<HistoricItem> items = new ArrayList<>();
+        for (int i = 0; i < m.size(); i++) {
+            items.add(new JdbcHistoricItem(item.getName(), getState(item, singleTableObject(item, m.get(i)[1])),
+                    objectAsDate(m.get(i)[0])));
+        }
+        return items;
+    }
+
+    /**
+     * Same query as {@link #doGetSingleTableHistItemFilterQuery(Item, FilterCriteria, String, int, ZoneId)}, but
+     * the rows are read from an open cursor, {@code fetchSize} rows at a time, while the result is iterated.
+     */
+    public Iterable<HistoricItem> doStreamSingleTableHistItemFilterQuery(Item item, FilterCriteria filter,
+            String table, int itemId, ZoneId timeZone, int fetchSize) {
+        String sql = cachedSql("single" + histItemFilterQueryKey(filter, -1, table, ""),
+                () -> singleTableHistItemFilterQueryProvider(filter, table));
+        Object[] params = singleTableHistItemFilterQueryParams(filter, itemId, timeZone);
+        logger.debug("JDBC::doStreamSingleTableHistItemFilterQuery sql={} params={} fetchSize={}", sql,
+                Arrays.toString(params), fetchSize);
+        return new QueryResultIterable<>(sql, params, fetchSize, row -> new JdbcHistoricItem(item.getName(),
+                getState(item, singleTableObject(item, row[1])), objectAsDate(row[0])));
+    }
+
     /*************
      * Providers *
      *************/
     static final DateTimeFormatter JDBC_DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    static final DateTimeFormatter PARTITION_NAME_FORMAT = DateTimeFormatter.ofPattern("yyyyMM");
+
+    /**
+     * The history query only depends on the table and on which filter criteria are set, all values are bound by
+     * {@link #histItemFilterQueryParams(FilterCriteria, ZoneId)}.
+     */
+    protected String histItemFilterQueryKey(FilterCriteria filter, int numberDecimalcount, String table,
+            String simpleName) {
+        return "query:" + table + ":" + simpleName + ":" + numberDecimalcount + ":" + (filter.getBeginDate() != null)
+                + ":" + (filter.getEndDate() != null) + ":" + filter.getOrdering() + ":"
+                + (filter.getPageSize() != 0x7fffffff);
+    }
+
+    /**
+     * Returns the history query for the filter, built once per {@link #histItemFilterQueryKey}.
+     */
+    protected String histItemFilterQuerySql(FilterCriteria filter, int numberDecimalcount, String table,
+            String simpleName) {
+        return cachedSql(histItemFilterQueryKey(filter, numberDecimalcount, table, simpleName),
+                () -> histItemFilterQueryProvider(filter, numberDecimalcount, table, simpleName));
+    }
 
     private String histItemFilterQueryProvider(FilterCriteria filter, int numberDecimalcount, String table,
-            String simpleName, ZoneId timeZone) {
+            String simpleName) {
         logger.debug(
                 "JDBC::getHistItemFilterQueryProvider filter = {}, numberDecimalcount = {}, table = {}, simpleName = {}",
                 filter.toString(), numberDecimalcount, table, simpleName);
@@ -356,17 +554,15 @@ public class JdbcBaseDAO {
         String filterString = "";
         if (filter.getBeginDate() != null) {
             filterString += filterString.isEmpty() ? " WHERE" : " AND";
-            filterString += " TIME>'" + JDBC_DATE_FORMAT.format(filter.getBeginDate().withZoneSameInstant(timeZone))
-                    + "'";
+            filterString += " TIME>?";
         }
         if (filter.getEndDate() != null) {
             filterString += filterString.isEmpty() ? " WHERE" : " AND";
-            filterString += " TIME<'" + JDBC_DATE_FORMAT.format(filter.getEndDate().withZoneSameInstant(timeZone))
-                    + "'";
+            filterString += " TIME<?";
         }
         filterString += (filter.getOrdering() == Ordering.ASCENDING) ? " ORDER BY time ASC" : " ORDER BY time DESC ";
         if (filter.getPageSize() != 0x7fffffff) {
-            filterString += " LIMIT " + filter.getPageNumber() * filter.getPageSize() + "," + filter.getPageSize();
+            filterString += sqlHistItemPaging;
         }
         // SELECT time, ROUND(value,3) FROM number_item_0114 ORDER BY time DESC LIMIT 0,1
         // rounding HALF UP
@@ -380,6 +576,63 @@ public class JdbcBaseDAO {
         return queryString;
     }
 
+    private String singleTableHistItemFilterQueryProvider(FilterCriteria filter, String table) {
+        String queryString = "SELECT time, value FROM " + table + " WHERE itemid=?";
+        if (filter.getBeginDate() != null) {
+            queryString += " AND TIME>?";
+        }
+        if (filter.getEndDate() != null) {
+            queryString += " AND TIME<?";
+        }
+        queryString += (filter.getOrdering() == Ordering.ASCENDING) ? " ORDER BY time ASC" : " ORDER BY time DESC";
+        if (filter.getPageSize() != 0x7fffffff) {
+            queryString += sqlHistItemPaging;
+        }
+        logger.debug("JDBC::query queryString = {}", queryString);
+        return queryString;
+    }
+
+    /**
+     * Returns the bind values for the placeholders of the history query: begin date, end date and the paging
+     * values, each only if set in the filter.
+     */
+    protected Object[] histItemFilterQueryParams(FilterCriteria filter, ZoneId timeZone) {
+        List<Object> params = new ArrayList<>(4);
+        if (filter.getBeginDate() != null) {
+            params.add(filterTimeParam(filter.getBeginDate(), timeZone));
+        }
+        if (filter.getEndDate() != null) {
+            params.add(filterTimeParam(filter.getEndDate(), timeZone));
+        }
+        if (filter.getPageSize() != 0x7fffffff) {
+            params.addAll(histItemFilterPageParams(filter));
+        }
+        return params.toArray();
+    }
+
+    private Object[] singleTableHistItemFilterQueryParams(FilterCriteria filter, int itemId, ZoneId timeZone) {
+        Object[] filterParams = histItemFilterQueryParams(filter, timeZone);
+        Object[] params = new Object[filterParams.length + 1];
+        params[0] = itemId;
+        System.arraycopy(filterParams, 0, params, 1, filterParams.length);
+        return params;
+    }
+
+    /**
+     * Returns the paging values in the order of the placeholders, here offset and row count.
+     */
+    protected List<Object> histItemFilterPageParams(FilterCriteria filter) {
+        return List.of(filter.getPageNumber() * filter.getPageSize(), filter.getPageSize());
+    }
+
+    /**
+     * Returns the bind value for a time filter, with second precision in the configured time zone.
+     */
+    protected Object filterTimeParam(ZonedDateTime date, ZoneId timeZone) {
+        return Timestamp
+                .valueOf(date.withZoneSameInstant(timeZone).toLocalDateTime().truncatedTo(ChronoUnit.SECONDS));
+    }
+
     private String updateItemTableNamesProvider(List<ItemVO> namesList) {
         logger.debug("JDBC::updateItemTableNamesProvider namesList.size = {}", namesList.size());
         String queryString = "";
@@ -391,7 +644,7 @@ public class JdbcBaseDAO {
         return queryString;
     }
 
-    protected ItemVO storeItemValueProvider(Item item, ItemVO vo) {
+    public ItemVO storeItemValueProvider(Item item, ItemVO vo) {
         String itemType = getItemType(item);
 
         logger.debug("JDBC::storeItemValueProvider: item '{}' as Type '{}' in '{}' with state '{}'", item.getName(),
@@ -461,6 +714,79 @@ public class JdbcBaseDAO {
     /*****************
      * H E L P E R S *
      *****************/
+    /**
+     * Returns the SQL statement for the given key, building it only once. The key has to contain everything the
+     * statement text depends on, e.g. operation and table; values are always bound as parameters so that the
+     * driver can reuse its prepared statements.
+     */
+    protected String cachedSql(String key, Supplier<String> provider) {
+        return sqlCache.computeIfAbsent(key, k -> provider.get());
+    }
+
+    /**
+     * Clears the statement cache, needed whenever {@link #sqlTypes} change.
+     */
+    public void clearSqlCache() {
+        sqlCache.clear();
+    }
+
+    /**
+     * Executes a batch statement. If the batch fails as a whole (e.g. one duplicate primary key), the rows are
+     * retried one by one so that a single bad row does not discard the others.
+     */
+    protected void executeBatch(String sql, Object[][] params) {
+        int[] result = Yank.executeBatch(sql, params);
+        if (result == null && params.length > 1) {
+            logger.debug("JDBC::executeBatch: batch failed, retrying {} rows one by one", params.length);
+            for (Object[] p : params) {
+                Yank.execute(sql, p);
+            }
+        }
+    }
+
+    /**
+     * Returns the bind value for the time column of a queued row.
+     */
+    protected Object storeItemValueTime(ItemVO vo) {
+        return new Timestamp(vo.getTime().getTime());
+    }
+
+    protected String singleTableTimeType(boolean partitioned) {
+        return sqlTypes.get("tablePrimaryKey");
+    }
+
+    /**
+     * Returns the text stored in the single table for a value prepared by
+     * {@link #storeItemValueProvider(Item, ItemVO)}.
+     */
+    protected Object singleTableValue(ItemVO vo) {
+        return String.valueOf(vo.getValue());
+    }
+
+    /**
+     * Converts text read from the single table to the object {@link #getState(Item, Object)} expects for the item
+     * type, i.e. the inverse of {@link #singleTableValue(ItemVO)}.
+     */
+    protected Object singleTableObject(Item item, Object v) {
+        String s = v.toString();
+        String itemType = getItemType(item);
+        if ("NUMBERITEM".equals(itemType)) {
+            String it = getSqlTypes().get(itemType).toUpperCase();
+            if (it.contains("DOUBLE")) {
+                return Double.valueOf(s);
+            } else if (it.contains("DECIMAL") || it.contains("NUMERIC")) {
+                return new BigDecimal(s);
+            } else if (it.contains("INT")) {
+                return Integer.valueOf(s);
+            }
+        } else if ("ROLLERSHUTTERITEM".equals(itemType) || "DIMMERITEM".equals(itemType)) {
+            return Integer.valueOf(s);
+        } else if ("DATETIMEITEM".equals(itemType)) {
+            return Timestamp.valueOf(s);
+        }
+        return s;
+    }
+
     protected State getState(Item item, Object v) {
         String clazz = v.getClass().getSimpleName();
         logger.debug("JDBC::ItemResultHandler::handleResult getState value = '{}', getClass = '{}', clazz = '{}'",
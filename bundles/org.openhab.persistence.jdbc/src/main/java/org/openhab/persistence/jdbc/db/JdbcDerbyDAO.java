@@ -12,19 +12,18 @@
  */
 package org.openhab.persistence.jdbc.db;
 
-import java.time.ZoneId;
-import java.time.format.DateTimeFormatter;
-import java.util.ArrayList;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
 import java.util.List;
 
 import org.knowm.yank.Yank;
 import org.openhab.core.items.Item;
 import org.openhab.core.persistence.FilterCriteria;
 import org.openhab.core.persistence.FilterCriteria.Ordering;
-import org.openhab.core.persistence.HistoricItem;
 import org.openhab.persistence.jdbc.model.ItemVO;
 import org.openhab.persistence.jdbc.model.ItemsVO;
-import org.openhab.persistence.jdbc.model.JdbcHistoricItem;
 import org.openhab.persistence.jdbc.utils.StringUtilsExt;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -59,6 +58,16 @@ public class JdbcDerbyDAO extends JdbcBaseDAO {
         // Prevent error against duplicate time value (seldom): No powerful Merge found:
         // http://www.codeproject.com/Questions/162627/how-to-insert-new-record-in-my-table-if-not-exists
         sqlInsertItemValue = "INSERT INTO #tableName# (TIME, VALUE) VALUES( #tablePrimaryValue#, CAST( ? as #dbType#) )";
+        sqlHistItemPaging = " OFFSET ? ROWS FETCH FIRST ? ROWS ONLY";
+        sqlCreateSingleTable = "CREATE TABLE #tableName# (itemid INTEGER NOT NULL, time #tablePrimaryKey# NOT NULL, value #dbType#, PRIMARY KEY(itemid, time))";
+        // MERGE (Derby >= 10.11) only accepts a table as source, the values are bound twice
+        sqlInsertSingleTableValue = "MERGE INTO #tableName# t USING SYSIBM.SYSDUMMY1 "
+                + "ON t.ITEMID=CAST( ? as INTEGER) AND t.TIME=#tablePrimaryValue# "
+                + "WHEN MATCHED THEN UPDATE SET VALUE=CAST( ? as #dbType#) "
+                + "WHEN NOT MATCHED THEN INSERT (ITEMID, TIME, VALUE) VALUES (CAST( ? as INTEGER), #tablePrimaryValue#, CAST( ? as #dbType#))";
+        // Derby does not cast numeric values to VARCHAR, #value# depends on the type of the per-item VALUE column
+        sqlCopyItemTableToSingleTable = "INSERT INTO #singleTable# (ITEMID, TIME, VALUE) SELECT #itemId#, src.TIME, CAST(#value# AS #dbType#) FROM #tableName# src "
+                + "WHERE NOT EXISTS (SELECT 1 FROM #singleTable# dst WHERE dst.ITEMID=#itemId# AND dst.TIME=src.TIME)";
     }
 
     private void initSqlTypes() {
@@ -146,38 +155,132 @@ public class JdbcDerbyDAO extends JdbcBaseDAO {
 
     @Override
     public void doStoreItemValue(Item item, ItemVO vo) {
-        vo = storeItemValueProvider(item, vo);
-        String sql = StringUtilsExt.replaceArrayMerge(sqlInsertItemValue,
-                new String[] { "#tableName#", "#dbType#", "#tablePrimaryValue#" },
-                new String[] { vo.getTableName().toUpperCase(), vo.getDbType(), sqlTypes.get("tablePrimaryValue") });
-        Object[] params = new Object[] { vo.getValue() };
-        logger.debug("JDBC::doStoreItemValue sql={} value='{}'", sql, vo.getValue());
+        ItemVO storedVO = storeItemValueProvider(item, vo);
+        String sql = cachedSql("insert:" + storedVO.getTableName(),
+                () -> StringUtilsExt.replaceArrayMerge(sqlInsertItemValue,
+                        new String[] { "#tableName#", "#dbType#", "#tablePrimaryValue#" },
+                        new String[] { storedVO.getTableName().toUpperCase(), storedVO.getDbType(),
+                                sqlTypes.get("tablePrimaryValue") }));
+        Object[] params = new Object[] { storedVO.getValue() };
+        logger.debug("JDBC::doStoreItemValue sql={} value='{}'", sql, storedVO.getValue());
         Yank.execute(sql, params);
     }
 
     @Override
-    public List<HistoricItem> doGetHistItemFilterQuery(Item item, FilterCriteria filter, int numberDecimalcount,
-            String table, String name, ZoneId timeZone) {
-        String sql = histItemFilterQueryProvider(filter, numberDecimalcount, table, name, timeZone);
-        List<Object[]> m = Yank.queryObjectArrays(sql, null);
+    public void doStoreItemValues(List<ItemVO> vol) {
+        ItemVO first = vol.get(0);
+        String sql = cachedSql("insertBatch:" + first.getTableName(),
+                () -> StringUtilsExt.replaceArrayMerge(sqlInsertItemValue,
+                        new String[] { "#tableName#", "#dbType#", "#tablePrimaryValue#" },
+                        new String[] { first.getTableName().toUpperCase(), first.getDbType(), "?" }));
+        Object[][] params = new Object[vol.size()][];
+        for (int i = 0; i < vol.size(); i++) {
+            params[i] = new Object[] { storeItemValueTime(vol.get(i)), vol.get(i).getValue() };
+        }
+        logger.debug("JDBC::doStoreItemValues sql={} count={}", sql, params.length);
+        executeBatch(sql, params);
+    }
 
-        logger.debug("JDBC::doGetHistItemFilterQuery got Array length={}", m.size());
+    @Override
+    public void doCreateSingleTable(ItemVO vo, boolean partitioned) {
+        String sql = StringUtilsExt.replaceArrayMerge(sqlIfTableExists, new String[] { "#searchTable#" },
+                new String[] { vo.getTableName().toUpperCase() });
+        if (Yank.queryScalar(sql, String.class, null) == null) {
+            super.doCreateSingleTable(vo, partitioned);
+        }
+    }
 
-        List<HistoricItem> items = new ArrayList<>();
-        for (int i = 0; i < m.size(); i++) {
-            logger.debug("JDBC::doGetHistItemFilterQuery 0='{}' 1='{}'", m.get(i)[0], m.get(i)[1]);
-            items.add(new JdbcHistoricItem(item.getName(), getState(item, m.get(i)[1]), objectAsDate(m.get(i)[0])));
+    @Override
+    public void doCopyItemTableToSingleTable(ItemVO vo, String singleTable) {
+        String tableName = vo.getTableName().toUpperCase();
+        String itemId = String.valueOf(vo.getItemId());
+        String sql = StringUtilsExt.replaceArrayMerge(sqlCopyItemTableToSingleTable,
+                new String[] { "#singleTable#", "#itemId#", "#value#", "#dbType#", "#tableName#", "#singleTable#",
+                        "#itemId#" },
+                new String[] { singleTable, itemId, copyValueExpression(tableName), vo.getDbType(), tableName,
+                        singleTable, itemId });
+        logger.debug("JDBC::doCopyItemTableToSingleTable sql={}", sql);
+        Yank.execute(sql, null);
+    }
+
+    @Override
+    public void doStoreSingleTableValue(Item item, ItemVO vo) {
+        ItemVO storedVO = storeItemValueProvider(item, vo);
+        String sql = cachedSql("insertSingle:" + storedVO.getTableName(),
+                () -> singleTableMergeSql(storedVO.getTableName(), sqlTypes.get("tablePrimaryValue")));
+        Object[] params = new Object[] { storedVO.getItemId(), singleTableValue(storedVO), storedVO.getItemId(),
+                singleTableValue(storedVO) };
+        logger.debug("JDBC::doStoreSingleTableValue sql={} itemId={} value='{}'", sql, storedVO.getItemId(),
+                storedVO.getValue());
+        Yank.execute(sql, params);
+    }
+
+    @Override
+    public void doStoreSingleTableValues(List<ItemVO> vol) {
+        ItemVO first = vol.get(0);
+        String sql = cachedSql("insertSingleBatch:" + first.getTableName(),
+                () -> singleTableMergeSql(first.getTableName(),
+                        "CAST( ? as " + sqlTypes.get("tablePrimaryKey") + ")"));
+        Object[][] params = new Object[vol.size()][];
+        for (int i = 0; i < vol.size(); i++) {
+            ItemVO vo = vol.get(i);
+            Object time = storeItemValueTime(vo);
+            params[i] = new Object[] { vo.getItemId(), time, singleTableValue(vo), vo.getItemId(), time,
+                    singleTableValue(vo) };
         }
-        return items;
+        logger.debug("JDBC::doStoreSingleTableValues sql={} count={}", sql, params.length);
+        executeBatch(sql, params);
+    }
+
+    @Override
+    protected String histItemFilterQuerySql(FilterCriteria filter, int numberDecimalcount, String table,
+            String simpleName) {
+        return cachedSql(histItemFilterQueryKey(filter, numberDecimalcount, table, simpleName),
+                () -> histItemFilterQueryProvider(filter, numberDecimalcount, table, simpleName));
     }
 
     /****************************
      * SQL generation Providers *
      ****************************/
-    static final DateTimeFormatter JDBC_DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    /**
+     * Derby neither casts numeric values to VARCHAR nor converts character values longer than 254 characters with
+     * CHAR(), so the conversion is chosen by the JDBC type of the per-item VALUE column.
+     */
+    private String copyValueExpression(String tableName) {
+        int valueType = Types.VARCHAR;
+        try (Connection connection = Yank.getDefaultConnectionPool().getConnection();
+                ResultSet columns = connection.getMetaData().getColumns(null, null, tableName, "VALUE")) {
+            if (columns.next()) {
+                valueType = columns.getInt("DATA_TYPE");
+            }
+        } catch (SQLException e) {
+            logger.warn("JDBC::copyValueExpression: cannot read the column type of table '{}': {}", tableName,
+                    e.getMessage());
+        }
+        switch (valueType) {
+            case Types.SMALLINT:
+            case Types.INTEGER:
+            case Types.BIGINT:
+            case Types.DECIMAL:
+            case Types.NUMERIC:
+            case Types.REAL:
+            case Types.FLOAT:
+            case Types.DOUBLE:
+                return "TRIM(CHAR(src.VALUE))";
+            default:
+                return "src.VALUE";
+        }
+    }
+
+    private String singleTableMergeSql(String tableName, String timeValue) {
+        String dbType = sqlTypes.get("STRINGITEM");
+        return StringUtilsExt.replaceArrayMerge(sqlInsertSingleTableValue,
+                new String[] { "#tableName#", "#tablePrimaryValue#", "#dbType#", "#tablePrimaryValue#", "#dbType#" },
+                new String[] { tableName, timeValue, dbType, timeValue, dbType });
+    }
 
     private String histItemFilterQueryProvider(FilterCriteria filter, int numberDecimalcount, String table,
-            String simpleName, ZoneId timeZone) {
+            String simpleName) {
         logger.debug(
                 "JDBC::getHistItemFilterQueryProvider filter = {}, numberDecimalcount = {}, table = {}, simpleName = {}",
                 StringUtilsExt.filterToString(filter), numberDecimalcount, table, simpleName);
@@ -185,13 +288,11 @@ public class JdbcDerbyDAO extends JdbcBaseDAO {
         String filterString = "";
         if (filter.getBeginDate() != null) {
             filterString += filterString.isEmpty() ? " WHERE" : " AND";
-            filterString += " TIME>'" + JDBC_DATE_FORMAT.format(filter.getBeginDate().withZoneSameInstant(timeZone))
-                    + "'";
+            filterString += " TIME>?";
         }
         if (filter.getEndDate() != null) {
             filterString += filterString.isEmpty() ? " WHERE" : " AND";
-            filterString += " TIME<'" + JDBC_DATE_FORMAT.format(filter.getEndDate().withZoneSameInstant(timeZone))
-                    + "'";
+            filterString += " TIME<?";
         }
         filterString += (filter.getOrdering() == Ordering.ASCENDING) ? " ORDER BY time ASC" : " ORDER BY time DESC";
         if (filter.getPageSize() != 0x7fffffff) {
@@ -203,8 +304,7 @@ public class JdbcDerbyDAO extends JdbcBaseDAO {
             // filterString += " OFFSET " + filter.getPageSize() +" ROWS FETCH
             // FIRST||NEXT " + filter.getPageNumber() * filter.getPageSize() + "
             // ROWS ONLY";
-            filterString += " OFFSET " + filter.getPageSize() + " ROWS FETCH FIRST "
-                    + (filter.getPageNumber() * filter.getPageSize() + 1) + " ROWS ONLY";
+            filterString += sqlHistItemPaging;
         }
 
         // http://www.seemoredata.com/en/showthread.php?132-Round-function-in-Apache-Derby
@@ -231,6 +331,11 @@ public class JdbcDerbyDAO extends JdbcBaseDAO {
         return queryString;
     }
 
+    @Override
+    protected List<Object> histItemFilterPageParams(FilterCriteria filter) {
+        return List.of(filter.getPageSize(), filter.getPageNumber() * filter.getPageSize() + 1);
+    }
+
     /*****************
      * H E L P E R S *
      *****************/
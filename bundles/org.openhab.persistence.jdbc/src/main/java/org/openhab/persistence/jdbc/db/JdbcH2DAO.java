@@ -12,6 +12,8 @@
  */
 package org.openhab.persistence.jdbc.db;
 
+import java.util.List;
+
 import org.knowm.yank.Yank;
 import org.openhab.core.items.Item;
 import org.openhab.persistence.jdbc.model.ItemVO;
@@ -45,6 +47,9 @@ public class JdbcH2DAO extends JdbcBaseDAO {
         // SQL_INSERT_ITEM_VALUE = "INSERT INTO #tableName# (TIME, VALUE) VALUES( NOW(), CAST( ? as #dbType#) )";
         // http://stackoverflow.com/questions/19768051/h2-sql-database-insert-if-the-record-does-not-exist
         sqlInsertItemValue = "MERGE INTO #tableName# (TIME, VALUE) VALUES( #tablePrimaryValue#, CAST( ? as #dbType#) )";
+        sqlInsertSingleTableValue = "MERGE INTO #tableName# (ITEMID, TIME, VALUE) KEY(ITEMID, TIME) VALUES( ?, #tablePrimaryValue#, ? )";
+        sqlCopyItemTableToSingleTable = "INSERT INTO #singleTable# (ITEMID, TIME, VALUE) SELECT #itemId#, src.TIME, CAST(src.VALUE AS #dbType#) FROM #tableName# src "
+                + "WHERE NOT EXISTS (SELECT 1 FROM #singleTable# dst WHERE dst.ITEMID=#itemId# AND dst.TIME=src.TIME)";
     }
 
     /**
@@ -72,15 +77,37 @@ public class JdbcH2DAO extends JdbcBaseDAO {
      *************/
     @Override
     public void doStoreItemValue(Item item, ItemVO vo) {
-        vo = storeItemValueProvider(item, vo);
-        String sql = StringUtilsExt.replaceArrayMerge(sqlInsertItemValue,
-                new String[] { "#tableName#", "#dbType#", "#tablePrimaryValue#" },
-                new String[] { vo.getTableName(), vo.getDbType(), sqlTypes.get("tablePrimaryValue") });
-        Object[] params = new Object[] { vo.getValue() };
-        logger.debug("JDBC::doStoreItemValue sql={} value='{}'", sql, vo.getValue());
+        ItemVO storedVO = storeItemValueProvider(item, vo);
+        String sql = cachedSql("insert:" + storedVO.getTableName(),
+                () -> StringUtilsExt.replaceArrayMerge(sqlInsertItemValue,
+                        new String[] { "#tableName#", "#dbType#", "#tablePrimaryValue#" },
+                        new String[] { storedVO.getTableName(), storedVO.getDbType(),
+                                sqlTypes.get("tablePrimaryValue") }));
+        Object[] params = new Object[] { storedVO.getValue() };
+        logger.debug("JDBC::doStoreItemValue sql={} value='{}'", sql, storedVO.getValue());
         Yank.execute(sql, params);
     }
 
+    @Override
+    public void doStoreItemValues(List<ItemVO> vol) {
+        ItemVO first = vol.get(0);
+        String sql = cachedSql("insertBatch:" + first.getTableName(),
+                () -> StringUtilsExt.replaceArrayMerge(sqlInsertItemValue,
+                        new String[] { "#tableName#", "#dbType#", "#tablePrimaryValue#" },
+                        new String[] { first.getTableName(), first.getDbType(), "?" }));
+        Object[][] params = new Object[vol.size()][];
+        for (int i = 0; i < vol.size(); i++) {
+            params[i] = new Object[] { storeItemValueTime(vol.get(i)), vol.get(i).getValue() };
+        }
+        logger.debug("JDBC::doStoreItemValues sql={} count={}", sql, params.length);
+        executeBatch(sql, params);
+    }
+
+    @Override
+    public boolean doIfItemTableExists(String tableName) {
+        return super.doIfItemTableExists(tableName.toUpperCase());
+    }
+
     /****************************
      * SQL generation Providers *
      ****************************/
@@ -12,6 +12,8 @@
  */
 package org.openhab.persistence.jdbc.db;
 
+import java.util.List;
+
 import org.knowm.yank.Yank;
 import org.openhab.core.items.Item;
 import org.openhab.persistence.jdbc.model.ItemVO;
@@ -54,6 +56,12 @@ public class JdbcHsqldbDAO extends JdbcBaseDAO {
         sqlInsertItemValue = "MERGE INTO #tableName# "
                 + "USING (VALUES #tablePrimaryValue#, CAST( ? as #dbType#)) temp (TIME, VALUE) ON (#tableName#.TIME=temp.TIME) "
                 + "WHEN NOT MATCHED THEN INSERT (TIME, VALUE) VALUES (temp.TIME, temp.VALUE)";
+        sqlInsertSingleTableValue = "MERGE INTO #tableName# t "
+                + "USING (VALUES (CAST( ? as INT), #tablePrimaryValue#, CAST( ? as #dbType#))) temp (ITEMID, TIME, VALUE) "
+                + "ON (t.ITEMID=temp.ITEMID AND t.TIME=temp.TIME) WHEN MATCHED THEN UPDATE SET t.VALUE=temp.VALUE "
+                + "WHEN NOT MATCHED THEN INSERT (ITEMID, TIME, VALUE) VALUES (temp.ITEMID, temp.TIME, temp.VALUE)";
+        sqlCopyItemTableToSingleTable = "INSERT INTO #singleTable# (ITEMID, TIME, VALUE) SELECT #itemId#, src.TIME, CAST(src.VALUE AS #dbType#) FROM #tableName# src "
+                + "WHERE NOT EXISTS (SELECT 1 FROM #singleTable# dst WHERE dst.ITEMID=#itemId# AND dst.TIME=src.TIME)";
     }
 
     /**
@@ -102,15 +110,69 @@ public class JdbcHsqldbDAO extends JdbcBaseDAO {
      *************/
     @Override
     public void doStoreItemValue(Item item, ItemVO vo) {
-        vo = storeItemValueProvider(item, vo);
-        String sql = StringUtilsExt.replaceArrayMerge(sqlInsertItemValue,
-                new String[] { "#tableName#", "#dbType#", "#tableName#", "#tablePrimaryValue#" }, new String[] {
-                        vo.getTableName(), vo.getDbType(), vo.getTableName(), sqlTypes.get("tablePrimaryValue") });
-        Object[] params = new Object[] { vo.getValue() };
-        logger.debug("JDBC::doStoreItemValue sql={} value='{}'", sql, vo.getValue());
+        ItemVO storedVO = storeItemValueProvider(item, vo);
+        String sql = cachedSql("insert:" + storedVO.getTableName(),
+                () -> StringUtilsExt.replaceArrayMerge(sqlInsertItemValue,
+                        new String[] { "#tableName#", "#dbType#", "#tableName#", "#tablePrimaryValue#" },
+                        new String[] { storedVO.getTableName(), storedVO.getDbType(), storedVO.getTableName(),
+                                sqlTypes.get("tablePrimaryValue") }));
+        Object[] params = new Object[] { storedVO.getValue() };
+        logger.debug("JDBC::doStoreItemValue sql={} value='{}'", sql, storedVO.getValue());
+        Yank.execute(sql, params);
+    }
+
+    @Override
+    public void doStoreItemValues(List<ItemVO> vol) {
+        ItemVO first = vol.get(0);
+        String sql = cachedSql("insertBatch:" + first.getTableName(),
+                () -> StringUtilsExt.replaceArrayMerge(sqlInsertItemValue,
+                        new String[] { "#tableName#", "#dbType#", "#tableName#", "#tablePrimaryValue#" },
+                        new String[] { first.getTableName(), first.getDbType(), first.getTableName(),
+                                "CAST( ? as " + sqlTypes.get("tablePrimaryKey") + ")" }));
+        Object[][] params = new Object[vol.size()][];
+        for (int i = 0; i < vol.size(); i++) {
+            params[i] = new Object[] { storeItemValueTime(vol.get(i)), vol.get(i).getValue() };
+        }
+        logger.debug("JDBC::doStoreItemValues sql={} count={}", sql, params.length);
+        executeBatch(sql, params);
+    }
+
+    @Override
+    public boolean doIfItemTableExists(String tableName) {
+        return super.doIfItemTableExists(tableName.toUpperCase());
+    }
+
+    @Override
+    public void doStoreSingleTableValue(Item item, ItemVO vo) {
+        ItemVO storedVO = storeItemValueProvider(item, vo);
+        String sql = cachedSql("insertSingle:" + storedVO.getTableName(),
+                () -> StringUtilsExt.replaceArrayMerge(sqlInsertSingleTableValue,
+                        new String[] { "#tableName#", "#tablePrimaryValue#", "#dbType#" },
+                        new String[] { storedVO.getTableName(), sqlTypes.get("tablePrimaryValue"),
+                                sqlTypes.get("STRINGITEM") }));
+        Object[] params = new Object[] { storedVO.getItemId(), singleTableValue(storedVO) };
+        logger.debug("JDBC::doStoreSingleTableValue sql={} itemId={} value='{}'", sql, storedVO.getItemId(),
+                storedVO.getValue());
         Yank.execute(sql, params);
     }
 
+    @Override
+    public void doStoreSingleTableValues(List<ItemVO> vol) {
+        ItemVO first = vol.get(0);
+        String sql = cachedSql("insertSingleBatch:" + first.getTableName(),
+                () -> StringUtilsExt.replaceArrayMerge(sqlInsertSingleTableValue,
+                        new String[] { "#tableName#", "#tablePrimaryValue#", "#dbType#" },
+                        new String[] { first.getTableName(), "CAST( ? as " + sqlTypes.get("tablePrimaryKey") + ")",
+                                sqlTypes.get("STRINGITEM") }));
+        Object[][] params = new Object[vol.size()][];
+        for (int i = 0; i < vol.size(); i++) {
+            ItemVO vo = vol.get(i);
+            params[i] = new Object[] { vo.getItemId(), storeItemValueTime(vo), singleTableValue(vo) };
+        }
+        logger.debug("JDBC::doStoreSingleTableValues sql={} count={}", sql, params.length);
+        executeBatch(sql, params);
+    }
+
     /****************************
      * SQL generation Providers *
      ****************************/
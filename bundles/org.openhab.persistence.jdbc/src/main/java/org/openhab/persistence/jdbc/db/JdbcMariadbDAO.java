@@ -39,6 +39,10 @@ public class JdbcMariadbDAO extends JdbcBaseDAO {
 
     private void initSqlQueries() {
         logger.debug("JDBC::initSqlQueries: '{}'", this.getClass().getSimpleName());
+        // range partitioning by month, new months are split off the pmax partition
+        sqlSingleTablePartitioning = " PARTITION BY RANGE COLUMNS(time) (PARTITION pmax VALUES LESS THAN (MAXVALUE))";
+        sqlIfSingleTablePartitionExists = "SELECT partition_name FROM information_schema.partitions WHERE table_schema=DATABASE() AND table_name='#tableName#' AND partition_name='#partitionName#'";
+        sqlCreateSingleTablePartition = "ALTER TABLE #tableName# REORGANIZE PARTITION pmax INTO (PARTITION #partitionName# VALUES LESS THAN ('#partitionEnd#'), PARTITION pmax VALUES LESS THAN (MAXVALUE))";
     }
 
     /**
@@ -58,6 +62,8 @@ public class JdbcMariadbDAO extends JdbcBaseDAO {
         databaseProps.setProperty("dataSource.cachePrepStmts", "true");
         databaseProps.setProperty("dataSource.prepStmtCacheSize", "250");
         databaseProps.setProperty("dataSource.prepStmtCacheSqlLimit", "2048");
+        databaseProps.setProperty("dataSource.useServerPrepStmts", "true");
+        databaseProps.setProperty("dataSource.rewriteBatchedStatements", "true");// batched INSERTs as multi-row INSERT
         databaseProps.setProperty("dataSource.jdbcCompliantTruncation", "false");// jdbc standard max varchar max length
         // of 21845
 
@@ -82,6 +88,15 @@ public class JdbcMariadbDAO extends JdbcBaseDAO {
         }
     }
 
+    /**
+     * RANGE COLUMNS partitioning is not possible on TIMESTAMP columns.
+     */
+    @Override
+    protected String singleTableTimeType(boolean partitioned) {
+        String type = super.singleTableTimeType(partitioned);
+        return partitioned ? type.toUpperCase().replace("TIMESTAMP", "DATETIME") : type;
+    }
+
     /**************
      * ITEMS DAOs *
      **************/
@@ -43,6 +43,10 @@ public class JdbcMysqlDAO extends JdbcBaseDAO {
 
     private void initSqlQueries() {
         logger.debug("JDBC::initSqlQueries: '{}'", this.getClass().getSimpleName());
+        // range partitioning by month, new months are split off the pmax partition
+        sqlSingleTablePartitioning = " PARTITION BY RANGE COLUMNS(time) (PARTITION pmax VALUES LESS THAN (MAXVALUE))";
+        sqlIfSingleTablePartitionExists = "SELECT partition_name FROM information_schema.partitions WHERE table_schema=DATABASE() AND table_name='#tableName#' AND partition_name='#partitionName#'";
+        sqlCreateSingleTablePartition = "ALTER TABLE #tableName# REORGANIZE PARTITION pmax INTO (PARTITION #partitionName# VALUES LESS THAN ('#partitionEnd#'), PARTITION pmax VALUES LESS THAN (MAXVALUE))";
     }
 
     /**
@@ -61,6 +65,9 @@ public class JdbcMysqlDAO extends JdbcBaseDAO {
         databaseProps.setProperty("dataSource.cachePrepStmts", "true");
         databaseProps.setProperty("dataSource.prepStmtCacheSize", "250");
         databaseProps.setProperty("dataSource.prepStmtCacheSqlLimit", "2048");
+        databaseProps.setProperty("dataSource.useServerPrepStmts", "true");
+        databaseProps.setProperty("dataSource.rewriteBatchedStatements", "true");// batched INSERTs as multi-row INSERT
+        databaseProps.setProperty("dataSource.useCursorFetch", "true");// fetch size is only used with server cursors
         databaseProps.setProperty("dataSource.jdbcCompliantTruncation", "false");// jdbc standard max varchar max length
                                                                                  // of 21845
 
@@ -85,6 +92,15 @@ public class JdbcMysqlDAO extends JdbcBaseDAO {
         }
     }
 
+    /**
+     * RANGE COLUMNS partitioning is not possible on TIMESTAMP columns.
+     */
+    @Override
+    protected String singleTableTimeType(boolean partitioned) {
+        String type = super.singleTableTimeType(partitioned);
+        return partitioned ? type.toUpperCase().replace("TIMESTAMP", "DATETIME") : type;
+    }
+
     /**************
      * ITEMS DAOs *
      **************/
@@ -0,0 +1,152 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.jdbc.internal;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.openhab.core.common.NamedThreadFactory;
+import org.openhab.persistence.jdbc.model.ItemVO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Write-behind queue for item values. Values are collected in a bounded queue and flushed
+ * grouped per item table, either when {@code batchSize} values are pending or at the latest every
+ * {@code maxLinger} milliseconds.
+ *
+ * If the queue is full, the caller writes its value synchronously (back-pressure).
+ *
+ * @author Markus Vogler - Initial contribution
+ */
+@NonNullByDefault
+public class JdbcBatchWriter {
+    private final Logger logger = LoggerFactory.getLogger(JdbcBatchWriter.class);
+
+    private static final String THREADPOOL_NAME = "JDBC-batch";
+
+    private final int batchSize;
+    private final long maxLinger;
+    private final BlockingQueue<ItemVO> queue;
+    private final Consumer<List<ItemVO>> tableWriter;
+    private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(1,
+            new NamedThreadFactory(THREADPOOL_NAME));
+    private final AtomicBoolean flushScheduled = new AtomicBoolean(false);
+    private volatile boolean stopped = false;
+
+    /**
+     * @param batchSize number of pending values that triggers a flush
+     * @param maxLinger maximum time in milliseconds a value is kept in the queue
+     * @param queueCapacity maximum number of pending values
+     * @param tableWriter writes a list of values, all belonging to the same item table
+     */
+    public JdbcBatchWriter(int batchSize, long maxLinger, int queueCapacity, Consumer<List<ItemVO>> tableWriter) {
+        this.batchSize = batchSize;
+        this.maxLinger = maxLinger;
+        this.queue = new ArrayBlockingQueue<>(Math.max(batchSize, queueCapacity));
+        this.tableWriter = tableWriter;
+        scheduler.scheduleWithFixedDelay(this::flush, maxLinger, maxLinger, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Adds a value to the queue. Blocks up to {@code maxLinger} milliseconds if the queue is full and
+     * writes the value on the calling thread if there is still no space. Values added after
+     * {@link #shutdown()} are written on the calling thread too.
+     *
+     * @param vo the value to store, with table name, value and time set
+     */
+    public void add(ItemVO vo) {
+        if (stopped) {
+            tableWriter.accept(List.of(vo));
+            return;
+        }
+        boolean queued;
+        try {
+            queued = queue.offer(vo, maxLinger, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            queued = false;
+        }
+        if (!queued) {
+            logger.debug("JDBC::add: write queue is full, storing value for table '{}' synchronously",
+                    vo.getTableName());
+            tableWriter.accept(List.of(vo));
+            return;
+        }
+        if (stopped) {
+            // shutdown() may have flushed before the value was queued
+            flush();
+            return;
+        }
+        if (queue.size() >= batchSize && flushScheduled.compareAndSet(false, true)) {
+            try {
+                scheduler.execute(() -> {
+                    flushScheduled.set(false);
+                    flush();
+                });
+            } catch (RejectedExecutionException e) {
+                flushScheduled.set(false);
+                flush();
+            }
+        }
+    }
+
+    /**
+     * Writes all pending values, one batch per item table.
+     */
+    public synchronized void flush() {
+        List<ItemVO> pending = new ArrayList<>(queue.size());
+        queue.drainTo(pending);
+        if (pending.isEmpty()) {
+            return;
+        }
+        Map<String, List<ItemVO>> tables = new LinkedHashMap<>();
+        for (ItemVO vo : pending) {
+            tables.computeIfAbsent(vo.getTableName(), t -> new ArrayList<>()).add(vo);
+        }
+        logger.debug("JDBC::flush: writing {} values to {} tables", pending.size(), tables.size());
+        for (List<ItemVO> vol : tables.values()) {
+            try {
+                tableWriter.accept(vol);
+            } catch (RuntimeException e) {
+                logger.warn("JDBC::flush: failed to write {} values to table '{}': {}", vol.size(),
+                        vol.get(0).getTableName(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Stops the flush timer and writes all pending values.
+     */
+    public void shutdown() {
+        stopped = true;
+        scheduler.shutdown();
+        try {
+            scheduler.awaitTermination(maxLinger + 5000, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+    }
+}
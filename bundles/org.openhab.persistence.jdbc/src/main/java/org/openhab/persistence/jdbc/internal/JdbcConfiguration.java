@@ -58,8 +58,22 @@ public class JdbcConfiguration {
     private int tableIdDigitCount = 4;
     private boolean rebuildTableNames = false;
 
+    // single table layout: values of all items in one table
+    private boolean singleTable = false;
+    private String singleTableName = "itemdata";
+    private boolean singleTablePartitioning = false;
+    private boolean singleTableMigrate = false;
+
     private int errReconnectThreshold = 0;
 
+    // write-behind queue, disabled if batchSize is 0
+    private int batchSize = 0;
+    private int batchMaxLinger = 1000;
+    private int batchQueueCapacity = 10000;
+
+    // cursor based query results, disabled if queryFetchSize is 0
+    private int queryFetchSize = 0;
+
     public int timerCount = 0;
     public int time1000Statements = 0;
     public long timer1000 = 0;
@@ -173,6 +187,54 @@ public class JdbcConfiguration {
             logger.debug("JDBC::updateConfig: rebuildTableNames={}", rebuildTableNames);
         }
 
+        String st = (String) configuration.get("singleTable");
+        if (st != null && !st.isBlank()) {
+            singleTable = Boolean.parseBoolean(st);
+            logger.debug("JDBC::updateConfig: singleTable={}", singleTable);
+        }
+
+        String sn = (String) configuration.get("singleTableName");
+        if (sn != null && !sn.isBlank()) {
+            singleTableName = sn.replaceAll("[^a-zA-Z_0-9]", "");
+            logger.debug("JDBC::updateConfig: singleTableName={}", singleTableName);
+        }
+
+        String sp = (String) configuration.get("singleTablePartitioning");
+        if (sp != null && !sp.isBlank()) {
+            singleTablePartitioning = Boolean.parseBoolean(sp);
+            logger.debug("JDBC::updateConfig: singleTablePartitioning={}", singleTablePartitioning);
+        }
+
+        String sm = (String) configuration.get("singleTableMigrate");
+        if (sm != null && !sm.isBlank()) {
+            singleTableMigrate = Boolean.parseBoolean(sm);
+            logger.debug("JDBC::updateConfig: singleTableMigrate={}", singleTableMigrate);
+        }
+
+        String bs = (String) configuration.get("batchSize");
+        if (bs != null && !bs.isBlank() && isNumericPattern.matcher(bs).matches()) {
+            batchSize = Integer.parseInt(bs);
+            logger.debug("JDBC::updateConfig: batchSize={}", batchSize);
+        }
+
+        String bl = (String) configuration.get("batchMaxLinger");
+        if (bl != null && !bl.isBlank() && isNumericPattern.matcher(bl).matches()) {
+            batchMaxLinger = Math.max(1, Integer.parseInt(bl));
+            logger.debug("JDBC::updateConfig: batchMaxLinger={}", batchMaxLinger);
+        }
+
+        String bq = (String) configuration.get("batchQueueCapacity");
+        if (bq != null && !bq.isBlank() && isNumericPattern.matcher(bq).matches()) {
+            batchQueueCapacity = Integer.parseInt(bq);
+            logger.debug("JDBC::updateConfig: batchQueueCapacity={}", batchQueueCapacity);
+        }
+
+        String qf = (String) configuration.get("queryFetchSize");
+        if (qf != null && !qf.isBlank() && isNumericPattern.matcher(qf).matches()) {
+            queryFetchSize = Integer.parseInt(qf);
+            logger.debug("JDBC::updateConfig: queryFetchSize={}", queryFetchSize);
+        }
+
         // undocumented
         String ac = (String) configuration.get("maximumPoolSize");
         if (ac != null && !ac.isBlank()) {
@@ -350,6 +412,38 @@ public class JdbcConfiguration {
         return tableIdDigitCount;
     }
 
+    public boolean getSingleTable() {
+        return singleTable;
+    }
+
+    public String getSingleTableName() {
+        return singleTableName;
+    }
+
+    public boolean getSingleTablePartitioning() {
+        return singleTablePartitioning;
+    }
+
+    public boolean getSingleTableMigrate() {
+        return singleTableMigrate;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public int getBatchMaxLinger() {
+        return batchMaxLinger;
+    }
+
+    public int getBatchQueueCapacity() {
+        return batchQueueCapacity;
+    }
+
+    public int getQueryFetchSize() {
+        return queryFetchSize;
+    }
+
     public JdbcBaseDAO getDBDAO() {
         return dBDAO;
     }
@@ -373,6 +467,8 @@ public class JdbcConfiguration {
         dBDAO.initAfterFirstDbConnection();
         // Running once again to prior external configured SqlTypes!
         setSqlTypes();
+        // cached statements may contain the previous SqlTypes
+        dBDAO.clearSqlCache();
         this.dbConnected = dbConnected;
     }
 
@@ -12,7 +12,9 @@
  */
 package org.openhab.persistence.jdbc.internal;
 
+import java.time.YearMonth;
 import java.util.ArrayList;
+import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -46,6 +48,10 @@ public class JdbcMapper {
     protected boolean initialized = false;
     protected JdbcConfiguration conf = null;
     protected final Map<String, String> sqlTables = new HashMap<>();
+    protected final Map<String, Integer> sqlItemIds = new HashMap<>();
+    private boolean singleTablePartitioned = false;
+    private volatile YearMonth partitionedUntil = null;
+    protected volatile JdbcBatchWriter batchWriter = null;
     private long afterAccessMin = 10000;
     private long afterAccessMax = 0;
     private static final String ITEM_NAME_PATTERN = "[^a-zA-Z_0-9\\-]";
@@ -145,6 +151,65 @@ public class JdbcMapper {
         return vo;
     }
 
+    public void createSingleTable() {
+        logger.debug("JDBC::createSingleTable");
+        long timerStart = System.currentTimeMillis();
+        ItemVO vo = new ItemVO(conf.getSingleTableName(), null);
+        vo.setDbType(conf.getDBDAO().getSqlTypes().get("STRINGITEM"));
+        singleTablePartitioned = conf.getSingleTablePartitioning()
+                && conf.getDBDAO().isSingleTablePartitioningSupported();
+        if (conf.getSingleTablePartitioning() && !singleTablePartitioned) {
+            logger.warn("JDBC::createSingleTable: partitioning is not supported for '{}', using a plain table",
+                    conf.getServiceName());
+        }
+        conf.getDBDAO().doCreateSingleTable(vo, singleTablePartitioned);
+        partitionedUntil = null;
+        checkSingleTablePartitions();
+        logTime("createSingleTable", timerStart, System.currentTimeMillis());
+    }
+
+    /**
+     * Makes sure partitions exist for the current and the next month, so that no value arrives before its
+     * partition. Cheap if nothing has to be done.
+     */
+    protected void checkSingleTablePartitions() {
+        if (!singleTablePartitioned) {
+            return;
+        }
+        YearMonth now = YearMonth.now();
+        YearMonth until = partitionedUntil;
+        if (until != null && now.isBefore(until)) {
+            return;
+        }
+        synchronized (this) {
+            for (YearMonth month = now; !month.isAfter(now.plusMonths(1)); month = month.plusMonths(1)) {
+                conf.getDBDAO().doCreateSingleTablePartition(conf.getSingleTableName(), month);
+            }
+            partitionedUntil = now.plusMonths(1);
+        }
+    }
+
+    /**
+     * Copies the values of a per-item table into the single table. Values copied before are skipped.
+     *
+     * @return false if the per-item table doesn't exist
+     */
+    public boolean copyItemTableToSingleTable(int itemId, String tableName) {
+        if (!conf.getDBDAO().doIfItemTableExists(tableName)) {
+            logger.debug("JDBC::copyItemTableToSingleTable: table '{}' does not exist, nothing to copy", tableName);
+            return false;
+        }
+        logger.info("JDBC::copyItemTableToSingleTable: copying table '{}' into '{}'", tableName,
+                conf.getSingleTableName());
+        long timerStart = System.currentTimeMillis();
+        ItemVO vo = new ItemVO(tableName, null);
+        vo.setItemId(itemId);
+        vo.setDbType(conf.getDBDAO().getSqlTypes().get("STRINGITEM"));
+        conf.getDBDAO().doCopyItemTableToSingleTable(vo, conf.getSingleTableName());
+        logTime("copyItemTableToSingleTable", timerStart, System.currentTimeMillis());
+        return true;
+    }
+
     public Item storeItemValue(Item item) {
         logger.debug("JDBC::storeItemValue: item={}", item.toString());
         String tableName = getTable(item);
@@ -153,12 +218,79 @@ public class JdbcMapper {
             return item;
         }
         long timerStart = System.currentTimeMillis();
-        conf.getDBDAO().doStoreItemValue(item, new ItemVO(tableName, null));
+        if (conf.getSingleTable()) {
+            checkSingleTablePartitions();
+            ItemVO vo = new ItemVO(tableName, null);
+            vo.setItemId(sqlItemIds.get(item.getName()));
+            conf.getDBDAO().doStoreSingleTableValue(item, vo);
+        } else {
+            conf.getDBDAO().doStoreItemValue(item, new ItemVO(tableName, null));
+        }
         logTime("storeItemValue", timerStart, System.currentTimeMillis());
         errCnt = 0;
         return item;
     }
 
+    /**
+     * Queues the current state of the item for a batched write. The value and time are captured now,
+     * the write happens in {@link #storeItemValues(List)}.
+     *
+     * @param writer the batch writer read once by the caller, it writes synchronously once it is stopped
+     */
+    public Item queueItemValue(Item item, JdbcBatchWriter writer) {
+        logger.debug("JDBC::queueItemValue: item={}", item.toString());
+        String tableName = getTable(item);
+        if (tableName == null) {
+            logger.error("JDBC::store: Unable to store item '{}'.", item.getName());
+            return item;
+        }
+        ItemVO vo = conf.getDBDAO().storeItemValueProvider(item, new ItemVO(tableName, null));
+        if (conf.getSingleTable()) {
+            vo.setItemId(sqlItemIds.get(item.getName()));
+        }
+        vo.setTime(new Date());
+        writer.add(vo);
+        return item;
+    }
+
+    public void storeItemValues(List<ItemVO> vol) {
+        logger.debug("JDBC::storeItemValues: table={} count={}", vol.get(0).getTableName(), vol.size());
+        if (!checkDBAccessability()) {
+            logger.warn(
+                    "JDBC::storeItemValues: No connection to database. Cannot persist {} values of table '{}'! Will retry connecting to database when error count:{} equals errReconnectThreshold:{}",
+                    vol.size(), vol.get(0).getTableName(), errCnt, conf.getErrReconnectThreshold());
+            return;
+        }
+        long timerStart = System.currentTimeMillis();
+        if (conf.getSingleTable()) {
+            checkSingleTablePartitions();
+            conf.getDBDAO().doStoreSingleTableValues(vol);
+        } else {
+            conf.getDBDAO().doStoreItemValues(vol);
+        }
+        logTime("storeItemValues", timerStart, System.currentTimeMillis());
+        errCnt = 0;
+    }
+
+    protected void startBatchWriter() {
+        stopBatchWriter();
+        if (conf.getBatchSize() > 0) {
+            logger.debug("JDBC::startBatchWriter: batchSize={} batchMaxLinger={} batchQueueCapacity={}",
+                    conf.getBatchSize(), conf.getBatchMaxLinger(), conf.getBatchQueueCapacity());
+            batchWriter = new JdbcBatchWriter(conf.getBatchSize(), conf.getBatchMaxLinger(),
+                    conf.getBatchQueueCapacity(), this::storeItemValues);
+        }
+    }
+
+    protected void stopBatchWriter() {
+        JdbcBatchWriter writer = batchWriter;
+        batchWriter = null;
+        if (writer != null) {
+            logger.debug("JDBC::stopBatchWriter: flushing pending values");
+            writer.shutdown();
+        }
+    }
+
     public List<HistoricItem> getHistItemFilterQuery(FilterCriteria filter, int numberDecimalcount, String table,
             Item item) {
         logger.debug(
@@ -166,8 +298,16 @@ public class JdbcMapper {
                 (filter != null), numberDecimalcount, table, item, item.getName());
         if (table != null) {
             long timerStart = System.currentTimeMillis();
-            List<HistoricItem> r = conf.getDBDAO().doGetHistItemFilterQuery(item, filter, numberDecimalcount, table,
-                    item.getName(), timeZoneProvider.getTimeZone());
+            List<HistoricItem> r;
+            if (conf.getSingleTable()) {
+                Integer itemId = sqlItemIds.get(item.getName());
+                r = itemId == null ? List.of()
+                        : conf.getDBDAO().doGetSingleTableHistItemFilterQuery(item, filter, table, itemId,
+                                timeZoneProvider.getTimeZone());
+            } else {
+                r = conf.getDBDAO().doGetHistItemFilterQuery(item, filter, numberDecimalcount, table, item.getName(),
+                        timeZoneProvider.getTimeZone());
+            }
             logTime("insertItemValue", timerStart, System.currentTimeMillis());
             return r;
         } else {
@@ -176,6 +316,24 @@ public class JdbcMapper {
         return null;
     }
 
+    /**
+     * Returns a result that reads the rows from an open cursor while it is iterated, see
+     * {@link JdbcConfiguration#getQueryFetchSize()}.
+     */
+    public Iterable<HistoricItem> streamHistItemFilterQuery(FilterCriteria filter, int numberDecimalcount,
+            String table, Item item) {
+        logger.debug("JDBC::streamHistItemFilterQuery table='{}' itemName='{}' fetchSize='{}'", table,
+                item.getName(), conf.getQueryFetchSize());
+        if (conf.getSingleTable()) {
+            Integer itemId = sqlItemIds.get(item.getName());
+            return itemId == null ? List.of()
+                    : conf.getDBDAO().doStreamSingleTableHistItemFilterQuery(item, filter, table, itemId,
+                            timeZoneProvider.getTimeZone(), conf.getQueryFetchSize());
+        }
+        return conf.getDBDAO().doStreamHistItemFilterQuery(item, filter, numberDecimalcount, table, item.getName(),
+                timeZoneProvider.getTimeZone(), conf.getQueryFetchSize());
+    }
+
     /***********************
      * DATABASE CONNECTION *
      ***********************/
@@ -225,7 +383,9 @@ public class JdbcMapper {
     protected void checkDBSchema() {
         // Create Items Table if does not exist
         createItemsTableIfNot(new ItemsVO());
-        if (conf.getRebuildTableNames()) {
+        if (conf.getSingleTable()) {
+            checkSingleTableSchema();
+        } else if (conf.getRebuildTableNames()) {
             formatTableNames();
             logger.info(
                     "JDBC::checkDBSchema: Rebuild complete, configure the 'rebuildTableNames' setting to 'false' to stop rebuilds on startup");
@@ -241,6 +401,30 @@ public class JdbcMapper {
         }
     }
 
+    /**
+     * Single table layout: only the items table has to be read, independent of the number of items.
+     */
+    private void checkSingleTableSchema() {
+        createSingleTable();
+        // Reset the error counter
+        errCnt = 0;
+        List<ItemsVO> al = getItemIDTableNames();
+        int copied = 0;
+        for (ItemsVO vo : al) {
+            if (conf.getSingleTableMigrate()
+                    && copyItemTableToSingleTable(vo.getItemid(), getTableName(vo.getItemid(), vo.getItemname()))) {
+                copied++;
+            }
+            sqlItemIds.put(vo.getItemname(), vo.getItemid());
+            sqlTables.put(vo.getItemname(), conf.getSingleTableName());
+        }
+        if (conf.getSingleTableMigrate()) {
+            logger.info(
+                    "JDBC::checkDBSchema: Migration of {} item tables complete, configure the 'singleTableMigrate' setting to 'false' to stop migrations on startup",
+                    copied);
+        }
+    }
+
     protected String getTable(Item item) {
         int rowId = 0;
         ItemsVO isvo;
@@ -264,6 +448,16 @@ public class JdbcMapper {
         if (rowId == 0) {
             logger.error("JDBC::getTable: Creating table for item '{}' failed.", itemName);
         }
+
+        // Single table layout, the item id is all that is needed
+        if (conf.getSingleTable()) {
+            if (rowId == 0) {
+                return null;
+            }
+            sqlItemIds.put(itemName, rowId);
+            sqlTables.put(itemName, conf.getSingleTableName());
+            return conf.getSingleTableName();
+        }
         // Create the table name
         logger.debug("JDBC::getTable: getTableName with rowId={} itemName={}", rowId, itemName);
         tableName = getTableName(rowId, itemName);
@@ -103,6 +103,7 @@ public class JdbcPersistenceService extends JdbcMapper implements QueryablePersi
     @Deactivate
     public void deactivate(final int reason) {
         logger.debug("JDBC::deactivate:  persistence bundle stopping. Disconnecting from database. reason={}", reason);
+        stopBatchWriter();
         // closeConnection();
         initialized = false;
     }
@@ -140,6 +141,13 @@ public class JdbcPersistenceService extends JdbcMapper implements QueryablePersi
             return;
         }
         long timerStart = System.currentTimeMillis();
+        JdbcBatchWriter writer = batchWriter;
+        if (writer != null) {
+            queueItemValue(item, writer);
+            logger.debug("JDBC: Queued item '{}' as '{}' in {} ms.", item.getName(), item.getState(),
+                    System.currentTimeMillis() - timerStart);
+            return;
+        }
         storeItemValue(item);
         logger.debug("JDBC: Stored item '{}' as '{}' in SQL database at {} in {} ms.", item.getName(),
                 item.getState().toString(), (new java.util.Date()).toString(), System.currentTimeMillis() - timerStart);
@@ -167,14 +175,38 @@ public class JdbcPersistenceService extends JdbcMapper implements QueryablePersi
 
         // Get the item name from the filter
         // Also get the Item object so we can determine the type
-        Item item = null;
         String itemName = filter.getItemName();
+        Item item = getQueryItem(itemName);
+        if (item == null) {
+            return List.of();
+        }
+        String table = getQueryTable(itemName, item);
+
+        if (conf.getQueryFetchSize() > 0 && filter.getPageSize() == Integer.MAX_VALUE) {
+            // unpaged results can be large, they are read while the caller iterates
+            errCnt = 0;
+            return streamHistItemFilterQuery(filter, conf.getNumberDecimalcount(), table, item);
+        }
+
+        long timerStart = System.currentTimeMillis();
+        List<HistoricItem> items = getHistItemFilterQuery(filter, conf.getNumberDecimalcount(), table, item);
+
+        logger.debug("JDBC::query: query for {} returned {} rows in {} ms", item.getName(), items.size(),
+                System.currentTimeMillis() - timerStart);
+
+        // Success
+        errCnt = 0;
+        return items;
+    }
+
+    private @Nullable Item getQueryItem(String itemName) {
+        Item item = null;
         logger.debug("JDBC::query: item is {}", itemName);
         try {
             item = itemRegistry.getItem(itemName);
         } catch (ItemNotFoundException e1) {
             logger.error("JDBC::query: unable to get item for itemName: '{}'. Ignore and give up!", itemName);
-            return List.of();
+            return null;
         }
 
         if (item instanceof GroupItem) {
@@ -183,14 +215,17 @@ public class JdbcPersistenceService extends JdbcMapper implements QueryablePersi
             logger.debug("JDBC::query: item is instanceof GroupItem '{}'", itemName);
             if (item == null) {
                 logger.debug("JDBC::query: BaseItem of GroupItem is null. Ignore and give up!");
-                return List.of();
+                return null;
             }
             if (item instanceof GroupItem) {
                 logger.debug("JDBC::query: BaseItem of GroupItem is a GroupItem too. Ignore and give up!");
-                return List.of();
+                return null;
             }
         }
+        return item;
+    }
 
+    private String getQueryTable(String itemName, Item item) {
         String table = sqlTables.get(itemName);
         if (table == null) {
             logger.warn(
@@ -200,24 +235,17 @@ public class JdbcPersistenceService extends JdbcMapper implements QueryablePersi
             logger.warn("JDBC::query: try to generate the table for item '{}'", itemName);
             table = getTable(item);
         }
-
-        long timerStart = System.currentTimeMillis();
-        List<HistoricItem> items = getHistItemFilterQuery(filter, conf.getNumberDecimalcount(), table, item);
-
-        logger.debug("JDBC::query: query for {} returned {} rows in {} ms", item.getName(), items.size(),
-                System.currentTimeMillis() - timerStart);
-
-        // Success
-        errCnt = 0;
-        return items;
+        return table;
     }
 
     public void updateConfig(Map<Object, Object> configuration) {
         logger.debug("JDBC::updateConfig");
 
+        stopBatchWriter();
         conf = new JdbcConfiguration(configuration);
         if (conf.valid && checkDBAccessability()) {
             checkDBSchema();
+            startBatchWriter();
             // connection has been established ... initialization completed!
             initialized = true;
         } else {
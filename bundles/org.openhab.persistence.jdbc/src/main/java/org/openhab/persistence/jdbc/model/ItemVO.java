@@ -30,6 +30,7 @@ public class ItemVO implements Serializable {
 
     private String tableName;
     private String newTableName;
+    private int itemId;
     private String dbType;
     private String jdbcType;
     private String itemType;
@@ -68,6 +69,14 @@ public class ItemVO implements Serializable {
         this.newTableName = newTableName;
     }
 
+    public int getItemId() {
+        return itemId;
+    }
+
+    public void setItemId(int itemId) {
+        this.itemId = itemId;
+    }
+
     public String getDbType() {
         return dbType;
     }
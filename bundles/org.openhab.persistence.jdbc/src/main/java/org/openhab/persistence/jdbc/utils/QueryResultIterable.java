@@ -0,0 +1,233 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.jdbc.utils;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import javax.sql.DataSource;
+
+import org.knowm.yank.Yank;
+import org.openhab.core.common.ThreadPoolManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Query result that is read lazily from an open cursor. The query runs on a connection of the pool each time
+ * {@link #iterator()} is called, and {@code fetchSize} rows at a time are read while iterating.
+ *
+ * The connection of an iterator is returned to the pool when the last row has been read, reading fails, the result
+ * is closed, or the iterator has not been advanced for {@code idleTimeout} milliseconds, so a caller that stops
+ * iterating early doesn't keep the connection.
+ *
+ * @author Markus Vogler - Initial contribution
+ */
+public class QueryResultIterable<T> implements Iterable<T>, AutoCloseable {
+    public static final long IDLE_TIMEOUT_MILLIS = 60000;
+
+    private static final String THREADPOOL_NAME = "jdbc-query";
+
+    private final Logger logger = LoggerFactory.getLogger(QueryResultIterable.class);
+
+    private final Supplier<DataSource> dataSource;
+    private final ScheduledExecutorService scheduler;
+    private final long idleTimeout;
+    private final String sql;
+    private final Object[] params;
+    private final int fetchSize;
+    private final Function<Object[], T> rowMapper;
+
+    private final Set<RowIterator> openIterators = ConcurrentHashMap.newKeySet();
+
+    /**
+     * @param sql the query
+     * @param params values of the query placeholders
+     * @param fetchSize number of rows the driver reads at once
+     * @param rowMapper converts the column values of one row
+     */
+    public QueryResultIterable(String sql, Object[] params, int fetchSize, Function<Object[], T> rowMapper) {
+        this(Yank::getDefaultConnectionPool, ThreadPoolManager.getScheduledPool(THREADPOOL_NAME),
+                IDLE_TIMEOUT_MILLIS, sql, params, fetchSize, rowMapper);
+    }
+
+    QueryResultIterable(Supplier<DataSource> dataSource, ScheduledExecutorService scheduler, long idleTimeout, String sql,
+            Object[] params, int fetchSize, Function<Object[], T> rowMapper) {
+        this.dataSource = dataSource;
+        this.scheduler = scheduler;
+        this.idleTimeout = idleTimeout;
+        this.sql = sql;
+        this.params = params;
+        this.fetchSize = fetchSize;
+        this.rowMapper = rowMapper;
+    }
+
+    /**
+     * Runs the query. The iterator is empty if the database isn't connected or the query fails.
+     */
+    @Override
+    public Iterator<T> iterator() {
+        DataSource pool = dataSource.get();
+        if (pool == null) {
+            logger.warn("JDBC::QueryResultIterable: no connection pool, the database is not connected sql={}", sql);
+            return Collections.emptyIterator();
+        }
+        RowIterator iterator = new RowIterator(pool);
+        openIterators.add(iterator);
+        if (iterator.done) {
+            openIterators.remove(iterator);
+        }
+        return iterator;
+    }
+
+    /**
+     * Returns the connections of the iterators that are still being read to the pool.
+     */
+    @Override
+    public void close() {
+        for (RowIterator iterator : new ArrayList<>(openIterators)) {
+            iterator.close();
+        }
+    }
+
+    private class RowIterator implements Iterator<T> {
+        private Connection connection;
+        private PreparedStatement statement;
+        private ResultSet resultSet;
+        private boolean autoCommit = true;
+        private int columnCount;
+        private T next;
+        private volatile boolean done;
+        private long lastAccess = System.nanoTime();
+        private ScheduledFuture<?> idleCheck;
+
+        RowIterator(DataSource pool) {
+            try {
+                connection = pool.getConnection();
+                autoCommit = connection.getAutoCommit();
+                // PostgreSQL only reads with a cursor within a transaction
+                connection.setAutoCommit(false);
+                statement = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY,
+                        ResultSet.CONCUR_READ_ONLY);
+                statement.setFetchSize(fetchSize);
+                for (int i = 0; i < params.length; i++) {
+                    statement.setObject(i + 1, params[i]);
+                }
+                resultSet = statement.executeQuery();
+                columnCount = resultSet.getMetaData().getColumnCount();
+                idleCheck = scheduler.schedule(this::checkIdle, idleTimeout, TimeUnit.MILLISECONDS);
+            } catch (SQLException e) {
+                logger.warn("JDBC::QueryResultIterable: query failed sql={}: {}", sql, e.getMessage());
+                close();
+            }
+        }
+
+        @Override
+        public synchronized boolean hasNext() {
+            if (next != null) {
+                return true;
+            }
+            if (done) {
+                return false;
+            }
+            try {
+                lastAccess = System.nanoTime();
+                if (resultSet.next()) {
+                    Object[] row = new Object[columnCount];
+                    for (int i = 0; i < columnCount; i++) {
+                        row[i] = resultSet.getObject(i + 1);
+                    }
+                    next = rowMapper.apply(row);
+                    lastAccess = System.nanoTime();
+                    return true;
+                }
+            } catch (SQLException e) {
+                logger.warn("JDBC::QueryResultIterable: reading result failed sql={}: {}", sql, e.getMessage());
+            }
+            close();
+            return false;
+        }
+
+        @Override
+        public synchronized T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            T result = next;
+            next = null;
+            return result;
+        }
+
+        private synchronized void checkIdle() {
+            if (done) {
+                return;
+            }
+            long idle = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - lastAccess);
+            if (idle < idleTimeout) {
+                idleCheck = scheduler.schedule(this::checkIdle, idleTimeout - idle, TimeUnit.MILLISECONDS);
+                return;
+            }
+            logger.warn("JDBC::QueryResultIterable: result wasn't read for {} ms, releasing connection sql={}", idle,
+                    sql);
+            close();
+        }
+
+        synchronized void close() {
+            done = true;
+            openIterators.remove(this);
+            next = null;
+            if (idleCheck != null) {
+                idleCheck.cancel(false);
+                idleCheck = null;
+            }
+            try {
+                if (resultSet != null) {
+                    resultSet.close();
+                }
+                if (statement != null) {
+                    statement.close();
+                }
+            } catch (SQLException e) {
+                logger.debug("JDBC::QueryResultIterable: closing statement failed: {}", e.getMessage());
+            }
+            if (connection != null) {
+                try {
+                    connection.rollback();
+                    connection.setAutoCommit(autoCommit);
+                } catch (SQLException e) {
+                    logger.debug("JDBC::QueryResultIterable: ending transaction failed: {}", e.getMessage());
+                }
+                try {
+                    connection.close();
+                } catch (SQLException e) {
+                    logger.debug("JDBC::QueryResultIterable: releasing connection failed: {}", e.getMessage());
+                }
+            }
+            resultSet = null;
+            statement = null;
+            connection = null;
+        }
+    }
+}
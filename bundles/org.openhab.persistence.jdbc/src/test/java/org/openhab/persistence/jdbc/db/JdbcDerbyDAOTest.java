@@ -0,0 +1,100 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.jdbc.db;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+import java.util.List;
+import java.util.Properties;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.knowm.yank.Yank;
+import org.openhab.persistence.jdbc.model.ItemVO;
+
+/**
+ * Tests cases for the single table migration of {@link JdbcDerbyDAO}.
+ *
+ * @author Markus Vogler - Initial contribution
+ */
+public class JdbcDerbyDAOTest {
+
+    private static final String SINGLE_TABLE = "ITEMS_DATA";
+
+    private final JdbcDerbyDAO dao = new JdbcDerbyDAO();
+
+    @BeforeEach
+    public void setUp() {
+        Properties props = new Properties();
+        props.setProperty("driverClassName", "org.apache.derby.jdbc.EmbeddedDriver");
+        props.setProperty("jdbcUrl", "jdbc:derby:memory:JdbcDerbyDAOTest;create=true");
+        Yank.setupDefaultConnectionPool(props);
+        Yank.execute("CREATE TABLE " + SINGLE_TABLE
+                + " (ITEMID INTEGER NOT NULL, TIME TIMESTAMP NOT NULL, VALUE VARCHAR(32000), PRIMARY KEY(ITEMID, TIME))",
+                null);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        Yank.execute("DROP TABLE " + SINGLE_TABLE, null);
+        Yank.execute("DROP TABLE ITEM0001", null);
+        Yank.releaseDefaultConnectionPool();
+    }
+
+    @Test
+    public void copyNumberItemTable() {
+        Yank.execute("CREATE TABLE ITEM0001 (TIME TIMESTAMP NOT NULL, VALUE DOUBLE, PRIMARY KEY(TIME))", null);
+        Yank.execute("INSERT INTO ITEM0001 (TIME, VALUE) VALUES ('2020-01-01 10:00:00', 21.5)", null);
+        Yank.execute("INSERT INTO ITEM0001 (TIME, VALUE) VALUES ('2020-01-01 11:00:00', -3)", null);
+
+        dao.doCopyItemTableToSingleTable(itemVO(), SINGLE_TABLE);
+
+        assertThat(copiedValues().stream().map(Double::valueOf).collect(Collectors.toList()), contains(21.5, -3.0));
+    }
+
+    @Test
+    public void copyStringItemTable() {
+        Yank.execute("CREATE TABLE ITEM0001 (TIME TIMESTAMP NOT NULL, VALUE VARCHAR(32000), PRIMARY KEY(TIME))", null);
+        Yank.execute("INSERT INTO ITEM0001 (TIME, VALUE) VALUES ('2020-01-01 10:00:00', 'ON')", null);
+
+        dao.doCopyItemTableToSingleTable(itemVO(), SINGLE_TABLE);
+
+        assertThat(copiedValues(), contains("ON"));
+    }
+
+    @Test
+    public void copyTwiceDoesNotDuplicateRows() {
+        Yank.execute("CREATE TABLE ITEM0001 (TIME TIMESTAMP NOT NULL, VALUE DOUBLE, PRIMARY KEY(TIME))", null);
+        Yank.execute("INSERT INTO ITEM0001 (TIME, VALUE) VALUES ('2020-01-01 10:00:00', 21.5)", null);
+
+        dao.doCopyItemTableToSingleTable(itemVO(), SINGLE_TABLE);
+        dao.doCopyItemTableToSingleTable(itemVO(), SINGLE_TABLE);
+
+        assertThat(copiedValues(), hasSize(1));
+    }
+
+    private ItemVO itemVO() {
+        ItemVO vo = new ItemVO("item0001", null);
+        vo.setItemId(1);
+        vo.setDbType(dao.getSqlTypes().get("STRINGITEM"));
+        return vo;
+    }
+
+    private List<String> copiedValues() {
+        return Yank.queryColumn("SELECT VALUE FROM " + SINGLE_TABLE + " WHERE ITEMID=1 ORDER BY TIME", "VALUE",
+                String.class, null);
+    }
+}
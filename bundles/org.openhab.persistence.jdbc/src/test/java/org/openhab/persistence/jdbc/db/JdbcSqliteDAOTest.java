@@ -0,0 +1,80 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.jdbc.db;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Date;
+import java.util.List;
+import java.util.Properties;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.knowm.yank.Yank;
+import org.openhab.persistence.jdbc.model.ItemVO;
+
+/**
+ * Tests cases for the single table writes of {@link JdbcSqliteDAO}.
+ *
+ * @author Markus Vogler - Initial contribution
+ */
+public class JdbcSqliteDAOTest {
+
+    private static final String SINGLE_TABLE = "items_data";
+
+    private final JdbcSqliteDAO dao = new JdbcSqliteDAO();
+
+    private Path dbFile;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        // a file database, in-memory databases are not shared between the connections of the pool
+        dbFile = Files.createTempFile("JdbcSqliteDAOTest", ".db");
+        Properties props = new Properties();
+        props.setProperty("driverClassName", "org.sqlite.JDBC");
+        props.setProperty("jdbcUrl", "jdbc:sqlite:" + dbFile);
+        Yank.setupDefaultConnectionPool(props);
+        Yank.execute("CREATE TABLE " + SINGLE_TABLE
+                + " (itemid INTEGER NOT NULL, time TIMESTAMP NOT NULL, value TEXT, PRIMARY KEY(itemid, time))", null);
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        Yank.releaseDefaultConnectionPool();
+        Files.deleteIfExists(dbFile);
+    }
+
+    @Test
+    public void storeSameTimeReplacesValue() {
+        Date time = new Date();
+
+        dao.doStoreSingleTableValues(List.of(itemVO(time, 1.0)));
+        dao.doStoreSingleTableValues(List.of(itemVO(time, 2.0)));
+
+        assertThat(Yank.queryColumn("SELECT value FROM " + SINGLE_TABLE + " WHERE itemid=1", "value", String.class,
+                null), contains("2.0"));
+    }
+
+    private ItemVO itemVO(Date time, double value) {
+        ItemVO vo = new ItemVO(SINGLE_TABLE, null);
+        vo.setItemId(1);
+        vo.setTime(time);
+        vo.setValue(value);
+        return vo;
+    }
+}
@@ -0,0 +1,132 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.jdbc.internal;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.openhab.persistence.jdbc.model.ItemVO;
+
+/**
+ * Tests cases for {@link JdbcBatchWriter}.
+ *
+ * @author Markus Vogler - Initial contribution
+ */
+public class JdbcBatchWriterTest {
+
+    private static final long LONG_LINGER = 60000;
+
+    private final List<List<String>> writes = Collections.synchronizedList(new ArrayList<>());
+    private JdbcBatchWriter writer;
+
+    @AfterEach
+    public void tearDown() {
+        if (writer != null) {
+            writer.shutdown();
+        }
+    }
+
+    @Test
+    public void flushWritesOneBatchPerTable() {
+        writer = new JdbcBatchWriter(100, LONG_LINGER, 100, this::write);
+        writer.add(value("item0001"));
+        writer.add(value("item0002"));
+        writer.add(value("item0001"));
+        assertThat(writes, is(empty()));
+
+        writer.flush();
+
+        assertThat(writes, contains(List.of("item0001", "item0001"), List.of("item0002")));
+    }
+
+    @Test
+    public void batchSizeTriggersFlush() throws InterruptedException {
+        CountDownLatch written = new CountDownLatch(1);
+        writer = new JdbcBatchWriter(2, LONG_LINGER, 100, vol -> {
+            write(vol);
+            written.countDown();
+        });
+        writer.add(value("item0001"));
+        writer.add(value("item0001"));
+
+        assertTrue(written.await(5, TimeUnit.SECONDS));
+        assertThat(writes, contains(List.of("item0001", "item0001")));
+    }
+
+    @Test
+    public void maxLingerTriggersFlush() throws InterruptedException {
+        CountDownLatch written = new CountDownLatch(1);
+        writer = new JdbcBatchWriter(100, 50, 100, vol -> {
+            write(vol);
+            written.countDown();
+        });
+        writer.add(value("item0001"));
+
+        assertTrue(written.await(5, TimeUnit.SECONDS));
+        assertThat(writes, contains(List.of("item0001")));
+    }
+
+    @Test
+    public void failingTableDoesNotPreventOtherTables() {
+        writer = new JdbcBatchWriter(100, LONG_LINGER, 100, vol -> {
+            if ("item0001".equals(vol.get(0).getTableName())) {
+                throw new IllegalStateException("table is locked");
+            }
+            write(vol);
+        });
+        writer.add(value("item0001"));
+        writer.add(value("item0002"));
+
+        writer.flush();
+
+        assertThat(writes, contains(List.of("item0002")));
+    }
+
+    @Test
+    public void shutdownWritesPendingValues() {
+        writer = new JdbcBatchWriter(100, LONG_LINGER, 100, this::write);
+        writer.add(value("item0001"));
+
+        writer.shutdown();
+
+        assertThat(writes, contains(List.of("item0001")));
+    }
+
+    @Test
+    public void valuesAddedAfterShutdownAreWrittenDirectly() {
+        writer = new JdbcBatchWriter(100, LONG_LINGER, 100, this::write);
+        writer.shutdown();
+
+        writer.add(value("item0001"));
+
+        assertThat(writes, contains(List.of("item0001")));
+    }
+
+    private void write(List<ItemVO> vol) {
+        writes.add(vol.stream().map(ItemVO::getTableName).collect(Collectors.toList()));
+    }
+
+    private static ItemVO value(String tableName) {
+        return new ItemVO(tableName, null);
+    }
+}
@@ -0,0 +1,168 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.jdbc.utils;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+/**
+ * Tests cases for {@link QueryResultIterable}.
+ *
+ * @author Markus Vogler - Initial contribution
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.WARN)
+public class QueryResultIterableTest {
+
+    private static final long LONG_IDLE_TIMEOUT = 60000;
+
+    private @Mock DataSource dataSource;
+    private @Mock Connection connection;
+    private @Mock PreparedStatement statement;
+    private @Mock ResultSet resultSet;
+    private @Mock ResultSetMetaData metaData;
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+
+    @BeforeEach
+    public void setUp() throws SQLException {
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.getAutoCommit()).thenReturn(true);
+        when(connection.prepareStatement(anyString(), anyInt(), anyInt())).thenReturn(statement);
+        when(statement.executeQuery()).thenReturn(resultSet);
+        when(resultSet.getMetaData()).thenReturn(metaData);
+        when(metaData.getColumnCount()).thenReturn(1);
+        when(resultSet.next()).thenReturn(true, true, true, false);
+        when(resultSet.getObject(1)).thenReturn(1, 2, 3);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    public void completeIterationReturnsConnection() throws SQLException {
+        QueryResultIterable<Object> result = createResult(LONG_IDLE_TIMEOUT);
+
+        List<Object> values = new ArrayList<>();
+        result.forEach(values::add);
+
+        assertThat(values, contains(1, 2, 3));
+        verify(connection).close();
+        verify(connection).setAutoCommit(true);
+    }
+
+    @Test
+    public void partialIterationReturnsConnectionOnClose() throws SQLException {
+        QueryResultIterable<Object> result = createResult(LONG_IDLE_TIMEOUT);
+
+        Iterator<Object> iterator = result.iterator();
+        assertThat(iterator.next(), is(1));
+        verify(connection, never()).close();
+
+        result.close();
+
+        verify(resultSet).close();
+        verify(statement).close();
+        verify(connection).close();
+        assertThat(iterator.hasNext(), is(false));
+    }
+
+    @Test
+    public void abandonedIterationReturnsConnectionAfterIdleTimeout() throws SQLException {
+        QueryResultIterable<Object> result = createResult(50);
+
+        Iterator<Object> iterator = result.iterator();
+        assertThat(iterator.next(), is(1));
+
+        verify(connection, timeout(5000)).close();
+        assertThat(iterator.hasNext(), is(false));
+    }
+
+    @Test
+    public void eachIterationRunsTheQuery() throws SQLException {
+        QueryResultIterable<Object> result = createResult(LONG_IDLE_TIMEOUT);
+
+        List<Object> first = new ArrayList<>();
+        result.forEach(first::add);
+        when(resultSet.next()).thenReturn(true, true, true, false);
+        when(resultSet.getObject(1)).thenReturn(1, 2, 3);
+        List<Object> second = new ArrayList<>();
+        result.forEach(second::add);
+
+        assertThat(first, contains(1, 2, 3));
+        assertThat(second, contains(1, 2, 3));
+        verify(dataSource, times(2)).getConnection();
+        verify(connection, times(2)).close();
+    }
+
+    @Test
+    public void closeReturnsConnectionsOfAllIterators() throws SQLException {
+        QueryResultIterable<Object> result = createResult(LONG_IDLE_TIMEOUT);
+
+        Iterator<Object> first = result.iterator();
+        Iterator<Object> second = result.iterator();
+        result.close();
+
+        verify(connection, times(2)).close();
+        assertThat(first.hasNext(), is(false));
+        assertThat(second.hasNext(), is(false));
+    }
+
+    @Test
+    public void missingConnectionPoolReturnsEmptyResult() {
+        QueryResultIterable<Object> result = new QueryResultIterable<>(() -> null, scheduler, LONG_IDLE_TIMEOUT,
+                "SELECT value FROM item0001", new Object[0], 100, row -> row[0]);
+
+        assertThat(result.iterator().hasNext(), is(false));
+    }
+
+    @Test
+    public void failedQueryReturnsConnection() throws SQLException {
+        when(statement.executeQuery()).thenThrow(new SQLException("syntax error"));
+        QueryResultIterable<Object> result = createResult(LONG_IDLE_TIMEOUT);
+
+        assertThat(result.iterator().hasNext(), is(false));
+        verify(connection).close();
+    }
+
+    private QueryResultIterable<Object> createResult(long idleTimeout) {
+        return new QueryResultIterable<>(() -> dataSource, scheduler, idleTimeout, "SELECT value FROM item0001",
+                new Object[0], 100, row -> row[0]);
+    }
+}
@@ -15,9 +15,11 @@ package org.openhab.persistence.jpa.internal;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Set;
 
 import javax.persistence.EntityManager;
@@ -59,6 +61,8 @@ import org.slf4j.LoggerFactory;
 public class JpaPersistenceService implements QueryablePersistenceService {
     private final Logger logger = LoggerFactory.getLogger(JpaPersistenceService.class);
 
+    private static final int QUERY_PAGE_SIZE = 1000;
+
     private final ItemRegistry itemRegistry;
 
     private @Nullable EntityManagerFactory emf = null;
@@ -184,22 +188,67 @@ public class JpaPersistenceService implements QueryablePersistenceService {
             sortOrder = "DESC";
         }
 
-        boolean hasBeginDate = false;
-        boolean hasEndDate = false;
         String queryString = "SELECT n FROM " + JpaPersistentItem.class.getSimpleName()
                 + " n WHERE n.realName = :itemName";
         if (filter.getBeginDate() != null) {
             queryString += " AND n.timestamp >= :beginDate";
-            hasBeginDate = true;
         }
         if (filter.getEndDate() != null) {
             queryString += " AND n.timestamp <= :endDate";
-            hasEndDate = true;
         }
-        queryString += " ORDER BY n.timestamp " + sortOrder;
+        // the id orders rows with the same timestamp, so that a page can continue after the last row of another
+        String orderBy = " ORDER BY n.timestamp " + sortOrder + ", n.id " + sortOrder;
+        String firstPageQueryString = queryString + orderBy;
+
+        logger.debug("The query: {}", firstPageQueryString);
+
+        int firstResult = filter.getPageNumber() * filter.getPageSize();
+        int maxResults = filter.getPageSize();
+        if (maxResults <= QUERY_PAGE_SIZE) {
+            return JpaHistoricItem.fromResultList(
+                    queryPage(firstPageQueryString, filter, item, null, firstResult, maxResults), item);
+        }
+
+        // large results are read page by page while they are iterated, each page continues after the last row of the
+        // previous one instead of at an offset, so rows stored meanwhile are neither skipped nor returned twice
+        String comparison = filter.getOrdering() == Ordering.ASCENDING ? ">" : "<";
+        String nextPageQueryString = queryString + " AND (n.timestamp " + comparison
+                + " :lastTimestamp OR (n.timestamp = :lastTimestamp AND n.id " + comparison + " :lastId))" + orderBy;
+        return () -> new Iterator<HistoricItem>() {
+            private Iterator<HistoricItem> page = Collections.emptyIterator();
+            private @Nullable JpaPersistentItem last;
+            private int remaining = maxResults;
+
+            @Override
+            public boolean hasNext() {
+                if (!page.hasNext() && remaining > 0) {
+                    int size = Math.min(QUERY_PAGE_SIZE, remaining);
+                    JpaPersistentItem after = last;
+                    List<JpaPersistentItem> result = after == null
+                            ? queryPage(firstPageQueryString, filter, item, null, firstResult, size)
+                            : queryPage(nextPageQueryString, filter, item, after, 0, size);
+                    // a short page is the last one
+                    remaining = result.size() < size ? 0 : remaining - size;
+                    if (!result.isEmpty()) {
+                        last = result.get(result.size() - 1);
+                    }
+                    page = JpaHistoricItem.fromResultList(result, item).iterator();
+                }
+                return page.hasNext();
+            }
 
-        logger.debug("The query: {}", queryString);
+            @Override
+            public HistoricItem next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return page.next();
+            }
+        };
+    }
 
+    private List<JpaPersistentItem> queryPage(String queryString, FilterCriteria filter, Item item,
+            @Nullable JpaPersistentItem after, int firstResult, int maxResults) {
         EntityManager em = getEntityManagerFactory().createEntityManager();
         try {
             // In RESOURCE_LOCAL calls to EntityManager require a begin/commit
@@ -208,15 +257,19 @@ public class JpaPersistenceService implements QueryablePersistenceService {
             logger.debug("Creating query...");
             Query query = em.createQuery(queryString);
             query.setParameter("itemName", item.getName());
-            if (hasBeginDate) {
+            if (filter.getBeginDate() != null) {
                 query.setParameter("beginDate", Date.from(filter.getBeginDate().toInstant()));
             }
-            if (hasEndDate) {
+            if (filter.getEndDate() != null) {
                 query.setParameter("endDate", Date.from(filter.getEndDate().toInstant()));
             }
+            if (after != null) {
+                query.setParameter("lastTimestamp", Date.from(after.getTimestamp().toInstant()));
+                query.setParameter("lastId", after.getId());
+            }
 
-            query.setFirstResult(filter.getPageNumber() * filter.getPageSize());
-            query.setMaxResults(filter.getPageSize());
+            query.setFirstResult(firstResult);
+            query.setMaxResults(maxResults);
             logger.debug("Creating query...done");
 
             logger.debug("Retrieving result list...");
@@ -224,12 +277,9 @@ public class JpaPersistenceService implements QueryablePersistenceService {
             List<JpaPersistentItem> result = query.getResultList();
             logger.debug("Retrieving result list...done");
 
-            List<HistoricItem> historicList = JpaHistoricItem.fromResultList(result, item);
-            logger.debug("{}", String.format("Convert to HistoricItem: %d", historicList.size()));
-
             em.getTransaction().commit();
 
-            return historicList;
+            return result;
         } catch (Exception e) {
             logger.error("Error on querying database!", e);
             em.getTransaction().rollback();
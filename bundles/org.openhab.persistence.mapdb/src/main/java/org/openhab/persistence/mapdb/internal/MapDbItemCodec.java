@@ -0,0 +1,130 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.mapdb.internal;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.List;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.core.library.types.DateTimeType;
+import org.openhab.core.library.types.DecimalType;
+import org.openhab.core.library.types.HSBType;
+import org.openhab.core.library.types.OnOffType;
+import org.openhab.core.library.types.OpenClosedType;
+import org.openhab.core.library.types.PercentType;
+import org.openhab.core.library.types.PlayPauseType;
+import org.openhab.core.library.types.PointType;
+import org.openhab.core.library.types.QuantityType;
+import org.openhab.core.library.types.RawType;
+import org.openhab.core.library.types.RewindFastforwardType;
+import org.openhab.core.library.types.StringListType;
+import org.openhab.core.library.types.StringType;
+import org.openhab.core.library.types.UpDownType;
+import org.openhab.core.types.State;
+import org.openhab.core.types.TypeParser;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Binary encoding of the persisted state and timestamp of an item. Compared to the JSON written by
+ * {@link StateTypeAdapter}, the state type is written as a single byte for the common types and the timestamp as a
+ * number.
+ *
+ * @author Markus Vogler - Initial contribution
+ */
+@NonNullByDefault
+public class MapDbItemCodec {
+    private static final byte FORMAT_VERSION = 1;
+
+    private static final byte OTHER_TYPE = -1;
+
+    // the index is written as type code, so types must only be added at the end
+    private static final List<Class<? extends State>> TYPES = List.of(DecimalType.class, QuantityType.class,
+            OnOffType.class, OpenClosedType.class, PercentType.class, HSBType.class, StringType.class,
+            DateTimeType.class, UpDownType.class, PlayPauseType.class, RewindFastforwardType.class, PointType.class,
+            RawType.class, StringListType.class);
+
+    private final Logger logger = LoggerFactory.getLogger(MapDbItemCodec.class);
+
+    public byte[] encode(State state, Date timestamp) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(32);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(FORMAT_VERSION);
+            out.writeLong(timestamp.getTime());
+            int typeCode = TYPES.indexOf(state.getClass());
+            if (typeCode == -1) {
+                out.writeByte(OTHER_TYPE);
+                writeString(out, state.getClass().getName());
+            } else {
+                out.writeByte(typeCode);
+            }
+            writeString(out, state.toFullString());
+        } catch (IOException e) {
+            // not thrown by a ByteArrayOutputStream
+            throw new IllegalStateException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    public @Nullable MapDbItem decode(String name, byte[] data) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+            byte version = in.readByte();
+            if (version != FORMAT_VERSION) {
+                logger.warn("Couldn't deserialize state of '{}': unknown format version {}", name, version);
+                return null;
+            }
+            long timestamp = in.readLong();
+            byte typeCode = in.readByte();
+            Class<? extends State> valueType;
+            if (typeCode == OTHER_TYPE) {
+                @SuppressWarnings("unchecked")
+                Class<? extends State> otherType = (Class<? extends State>) Class.forName(readString(in));
+                valueType = otherType;
+            } else {
+                valueType = TYPES.get(typeCode);
+            }
+            State state = TypeParser.parseState(List.of(valueType), readString(in));
+            if (state == null) {
+                logger.warn("Couldn't deserialize state of '{}' as {}", name, valueType.getSimpleName());
+                return null;
+            }
+            MapDbItem item = new MapDbItem();
+            item.setName(name);
+            item.setState(state);
+            item.setTimestamp(new Date(timestamp));
+            return item;
+        } catch (Exception e) {
+            logger.warn("Couldn't deserialize state of '{}': {}", name, e.getMessage());
+            return null;
+        }
+    }
+
+    private void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private String readString(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
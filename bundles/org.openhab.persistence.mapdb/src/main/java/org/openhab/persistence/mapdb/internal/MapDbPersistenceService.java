@@ -24,14 +24,17 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
 import org.mapdb.DB;
 import org.mapdb.DBMaker;
+import org.mapdb.Serializer;
 import org.openhab.core.OpenHAB;
 import org.openhab.core.common.ThreadPoolManager;
 import org.openhab.core.items.Item;
@@ -45,22 +48,29 @@ import org.openhab.core.types.State;
 import org.openhab.core.types.UnDefType;
 import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.ConfigurationPolicy;
 import org.osgi.service.component.annotations.Deactivate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
 
 /**
  * This is the implementation of the MapDB {@link PersistenceService}. To learn more about MapDB please visit their
  * <a href="http://www.mapdb.org/">website</a>.
  *
+ * States are stored with {@link MapDbItemCodec} and additionally kept in memory, so queries don't read the database.
+ * Changes are committed at most every {@code commitInterval} milliseconds (configuration {@code org.openhab.mapdb},
+ * 0 commits every change).
+ *
  * @author Jens Viebig - Initial contribution
  * @author Martin Kühl - Port to 3.x
  */
 @NonNullByDefault
-@Component(service = { PersistenceService.class, QueryablePersistenceService.class })
+@Component(service = { PersistenceService.class,
+        QueryablePersistenceService.class }, configurationPid = "org.openhab.mapdb", configurationPolicy = ConfigurationPolicy.OPTIONAL)
 public class MapDbPersistenceService implements QueryablePersistenceService {
 
     private static final String SERVICE_ID = "mapdb";
@@ -68,23 +78,46 @@ public class MapDbPersistenceService implements QueryablePersistenceService {
     private static final Path DB_DIR = new File(OpenHAB.getUserDataFolder(), "persistence").toPath().resolve("mapdb");
     private static final Path BACKUP_DIR = DB_DIR.resolve("backup");
     private static final String DB_FILE_NAME = "storage.mapdb";
+    private static final String JSON_MAP_NAME = "itemStore";
+    private static final String MAP_NAME = "itemStates";
+    private static final String COMMIT_INTERVAL_PARAM = "commitInterval";
+    private static final long DEFAULT_COMMIT_INTERVAL = 1000;
 
     private final Logger logger = LoggerFactory.getLogger(MapDbPersistenceService.class);
 
     private final ExecutorService threadPool = ThreadPoolManager.getPool(getClass().getSimpleName());
+    private final ScheduledExecutorService scheduler = ThreadPoolManager
+            .getScheduledPool(getClass().getSimpleName());
 
     /** holds the local instance of the MapDB database */
 
     private @NonNullByDefault({}) DB db;
-    private @NonNullByDefault({}) Map<String, String> map;
+    private @NonNullByDefault({}) Map<String, byte[]> map;
+
+    /** holds the stored items, so they don't need to be deserialized on every query */
+    private final Map<String, MapDbItem> items = new ConcurrentHashMap<>();
+
+    private final MapDbItemCodec codec = new MapDbItemCodec();
+
+    private long commitInterval = DEFAULT_COMMIT_INTERVAL;
+    private final AtomicBoolean commitScheduled = new AtomicBoolean();
 
     private transient Gson mapper = new GsonBuilder().registerTypeHierarchyAdapter(State.class, new StateTypeAdapter())
             .create();
 
     @Activate
-    public void activate() {
+    public void activate(final Map<String, Object> config) {
         logger.debug("MapDB persistence service is being activated");
 
+        Object interval = config.get(COMMIT_INTERVAL_PARAM);
+        if (interval != null) {
+            try {
+                commitInterval = Long.parseLong(interval.toString().trim());
+            } catch (NumberFormatException e) {
+                logger.warn("Ignoring invalid commit interval '{}'", interval);
+            }
+        }
+
         try {
             Files.createDirectories(DB_DIR);
         } catch (IOException e) {
@@ -96,7 +129,7 @@ public class MapDbPersistenceService implements QueryablePersistenceService {
         File dbFile = DB_DIR.resolve(DB_FILE_NAME).toFile();
         try {
             db = DBMaker.newFileDB(dbFile).closeOnJvmShutdown().make();
-            map = db.createTreeMap("itemStore").makeOrGet();
+            map = db.createTreeMap(MAP_NAME).valueSerializer(Serializer.BYTE_ARRAY).makeOrGet();
         } catch (RuntimeException re) {
             Throwable cause = re.getCause();
             if (cause instanceof ClassNotFoundException) {
@@ -129,21 +162,66 @@ public class MapDbPersistenceService implements QueryablePersistenceService {
                 }
 
                 db = DBMaker.newFileDB(dbFile).closeOnJvmShutdown().make();
-                map = db.createTreeMap("itemStore").makeOrGet();
+                map = db.createTreeMap(MAP_NAME).valueSerializer(Serializer.BYTE_ARRAY).makeOrGet();
             } else {
                 logger.warn("Failed to create or open the MapDB: {}", re.getMessage());
                 logger.warn("MapDB persistence service activation has failed.");
+                return;
             }
         }
-        logger.debug("MapDB persistence service is now activated");
+        migrateJsonMap();
+        map.forEach((name, data) -> {
+            MapDbItem item = codec.decode(name, data);
+            if (item != null) {
+                items.put(name, item);
+            }
+        });
+        logger.debug("MapDB persistence service is now activated with {} items", items.size());
     }
 
     @Deactivate
     public void deactivate() {
         logger.debug("MapDB persistence service deactivated");
         if (db != null) {
-            db.close();
+            synchronized (db) {
+                db.commit();
+                db.close();
+            }
+        }
+        items.clear();
+    }
+
+    /**
+     * Converts the JSON strings written by former versions to the binary format
+     */
+    private void migrateJsonMap() {
+        if (!db.exists(JSON_MAP_NAME)) {
+            return;
         }
+        Map<String, String> jsonMap = db.getTreeMap(JSON_MAP_NAME);
+        int converted = 0;
+        for (Map.Entry<String, String> entry : jsonMap.entrySet()) {
+            Optional<MapDbItem> item;
+            try {
+                item = deserialize(entry.getValue());
+            } catch (JsonParseException e) {
+                logger.warn("Dropped '{}' stored by a former version of the MapDB persistence service: {}",
+                        entry.getKey(), e.getMessage());
+                continue;
+            }
+            if (item.isPresent()) {
+                map.put(item.get().getName(),
+                        codec.encode(item.get().getState(), Date.from(item.get().getTimestamp().toInstant())));
+                converted++;
+            } else {
+                logger.warn("Dropped '{}' stored by a former version of the MapDB persistence service: {}",
+                        entry.getKey(), entry.getValue());
+            }
+        }
+        logger.info("Converted {} of {} items stored by a former version of the MapDB persistence service", converted,
+                jsonMap.size());
+        db.delete(JSON_MAP_NAME);
+        db.commit();
     }
 
     @Override
@@ -158,8 +236,7 @@ public class MapDbPersistenceService implements QueryablePersistenceService {
 
     @Override
     public Set<PersistenceItemInfo> getItemInfo() {
-        return map.values().stream().map(this::deserialize).flatMap(MapDbPersistenceService::streamOptional)
-                .collect(Collectors.<PersistenceItemInfo> toUnmodifiableSet());
+        return Set.<PersistenceItemInfo> copyOf(items.values());
     }
 
     @Override
@@ -181,27 +258,18 @@ public class MapDbPersistenceService implements QueryablePersistenceService {
         MapDbItem mItem = new MapDbItem();
         mItem.setName(localAlias);
         mItem.setState(state);
-        mItem.setTimestamp(new Date());
-        String json = serialize(mItem);
-        map.put(localAlias, json);
+        Date timestamp = new Date();
+        mItem.setTimestamp(timestamp);
+        items.put(localAlias, mItem);
+        map.put(localAlias, codec.encode(state, timestamp));
         commit();
-        if (logger.isDebugEnabled()) {
-            logger.debug("Stored '{}' with state '{}' as '{}' in MapDB database", localAlias, state, json);
-        }
+        logger.debug("Stored '{}' with state '{}' in MapDB database", localAlias, state);
     }
 
     @Override
     public Iterable<HistoricItem> query(FilterCriteria filter) {
-        String json = map.get(filter.getItemName());
-        if (json == null) {
-            return List.of();
-        }
-        Optional<MapDbItem> item = deserialize(json);
-        return item.isPresent() ? List.of(item.get()) : List.of();
-    }
-
-    private String serialize(MapDbItem item) {
-        return mapper.toJson(item);
+        MapDbItem item = items.get(filter.getItemName());
+        return item != null ? List.of(item) : List.of();
     }
 
     @SuppressWarnings("null")
@@ -218,11 +286,27 @@ public class MapDbPersistenceService implements QueryablePersistenceService {
     }
 
     private void commit() {
-        threadPool.submit(() -> db.commit());
+        if (commitInterval <= 0) {
+            threadPool.submit(this::doCommit);
+        } else if (commitScheduled.compareAndSet(false, true)) {
+            // changes stored until the commit runs are committed with it
+            scheduler.schedule(() -> {
+                commitScheduled.set(false);
+                doCommit();
+            }, commitInterval, TimeUnit.MILLISECONDS);
+        }
     }
 
-    private static <T> Stream<T> streamOptional(Optional<T> opt) {
-        return opt.isPresent() ? Stream.of(opt.get()) : Stream.empty();
+    private void doCommit() {
+        DB localDb = db;
+        if (localDb == null) {
+            return;
+        }
+        synchronized (localDb) {
+            if (!localDb.isClosed()) {
+                localDb.commit();
+            }
+        }
     }
 
     @Override
@@ -0,0 +1,71 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.mapdb;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.math.BigDecimal;
+import java.util.Date;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.openhab.core.library.types.DecimalType;
+import org.openhab.core.library.types.HSBType;
+import org.openhab.core.library.types.OnOffType;
+import org.openhab.core.library.types.PercentType;
+import org.openhab.core.library.types.QuantityType;
+import org.openhab.core.library.types.StringType;
+import org.openhab.core.library.unit.SIUnits;
+import org.openhab.core.types.State;
+import org.openhab.persistence.mapdb.internal.MapDbItem;
+import org.openhab.persistence.mapdb.internal.MapDbItemCodec;
+
+/**
+ *
+ * @author Markus Vogler - Initial contribution
+ */
+@NonNullByDefault
+public class MapDbItemCodecTest {
+    private MapDbItemCodec codec = new MapDbItemCodec();
+
+    @ParameterizedTest
+    @MethodSource
+    public void encodeDecodeRoundtripShouldRecreateTheStoredItem(State state) {
+        Date timestamp = new Date(1600000000123L);
+        byte[] data = codec.encode(state, timestamp);
+        MapDbItem item = Objects.requireNonNull(codec.decode("item", data));
+
+        assertThat(item.getName(), is("item"));
+        assertThat(item.getState(), is(equalTo(state)));
+        assertThat(item.getTimestamp().toInstant(), is(timestamp.toInstant()));
+    }
+
+    public static Stream<State> encodeDecodeRoundtripShouldRecreateTheStoredItem() {
+        return Stream.of(DecimalType.ZERO, new DecimalType(1.123), HSBType.fromRGB(11, 22, 33), OnOffType.ON,
+                PercentType.valueOf("99.999"), new QuantityType<>(new BigDecimal("21.23"), SIUnits.CELSIUS),
+                StringType.valueOf("@@@###   @@@"), StringType.valueOf(""));
+    }
+
+    @Test
+    public void decodeShouldIgnoreUnknownFormat() {
+        byte[] data = codec.encode(OnOffType.ON, new Date());
+        data[0] = 42;
+
+        assertThat(codec.decode("item", data), is(nullValue()));
+    }
+}
@@ -14,17 +14,22 @@ package org.openhab.persistence.mongodb.internal;
 
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
-import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Set;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 
 import org.bson.types.ObjectId;
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.core.common.ThreadPoolManager;
 import org.openhab.core.items.Item;
 import org.openhab.core.items.ItemNotFoundException;
 import org.openhab.core.items.ItemRegistry;
@@ -82,11 +87,18 @@ public class MongoDBPersistenceService implements QueryablePersistenceService {
     private static final String FIELD_TIMESTAMP = "timestamp";
     private static final String FIELD_VALUE = "value";
 
+    private static final int DEFAULT_QUERY_BATCH_SIZE = 1000;
+    private static final long CURSOR_IDLE_TIMEOUT_MILLIS = 60000;
+
     private final Logger logger = LoggerFactory.getLogger(MongoDBPersistenceService.class);
 
+    private final ScheduledExecutorService scheduler = ThreadPoolManager
+            .getScheduledPool(getClass().getSimpleName());
+
     private @NonNullByDefault({}) String url;
     private @NonNullByDefault({}) String db;
     private @NonNullByDefault({}) String collection;
+    private int queryBatchSize = DEFAULT_QUERY_BATCH_SIZE;
 
     private boolean initialized = false;
 
@@ -122,6 +134,16 @@ public class MongoDBPersistenceService implements QueryablePersistenceService {
             return;
         }
 
+        Object batchSize = config.get("queryBatchSize");
+        try {
+            queryBatchSize = batchSize == null ? DEFAULT_QUERY_BATCH_SIZE
+                    : Integer.parseInt(batchSize.toString().trim());
+        } catch (NumberFormatException e) {
+            logger.warn("Invalid MongoDB query batch size '{}', using {}", batchSize, DEFAULT_QUERY_BATCH_SIZE);
+            queryBatchSize = DEFAULT_QUERY_BATCH_SIZE;
+        }
+        logger.debug("MongoDB query batch size {}", queryBatchSize);
+
         disconnectFromDatabase();
         connectToDatabase();
 
@@ -269,7 +291,6 @@ public class MongoDBPersistenceService implements QueryablePersistenceService {
         String name = filter.getItemName();
         Item item = getItem(name);
 
-        List<HistoricItem> items = new ArrayList<>();
         DBObject query = new BasicDBObject();
         if (filter.getItemName() != null) {
             query.put(FIELD_ITEM, filter.getItemName());
@@ -287,35 +308,37 @@ public class MongoDBPersistenceService implements QueryablePersistenceService {
         }
 
         Integer sortDir = (filter.getOrdering() == Ordering.ASCENDING) ? 1 : -1;
-        DBCursor cursor = this.mongoCollection.find(query).sort(new BasicDBObject(FIELD_TIMESTAMP, sortDir))
-                .skip(filter.getPageNumber() * filter.getPageSize()).limit(filter.getPageSize());
-
-        while (cursor.hasNext()) {
-            BasicDBObject obj = (BasicDBObject) cursor.next();
-
-            final State state;
-            if (item instanceof NumberItem) {
-                state = new DecimalType(obj.getDouble(FIELD_VALUE));
-            } else if (item instanceof DimmerItem) {
-                state = new PercentType(obj.getInt(FIELD_VALUE));
-            } else if (item instanceof SwitchItem) {
-                state = OnOffType.valueOf(obj.getString(FIELD_VALUE));
-            } else if (item instanceof ContactItem) {
-                state = OpenClosedType.valueOf(obj.getString(FIELD_VALUE));
-            } else if (item instanceof RollershutterItem) {
-                state = new PercentType(obj.getInt(FIELD_VALUE));
-            } else if (item instanceof DateTimeItem) {
-                state = new DateTimeType(
-                        ZonedDateTime.ofInstant(obj.getDate(FIELD_VALUE).toInstant(), ZoneId.systemDefault()));
-            } else {
-                state = new StringType(obj.getString(FIELD_VALUE));
-            }
+        DBCollection currentCollection = this.mongoCollection;
+        int currentBatchSize = this.queryBatchSize;
+
+        // the cursor reads the documents in batches while they are iterated
+        return () -> new CursorIterator(name, item,
+                currentCollection.find(query).sort(new BasicDBObject(FIELD_TIMESTAMP, sortDir))
+                        .skip(filter.getPageNumber() * filter.getPageSize()).limit(filter.getPageSize())
+                        .batchSize(currentBatchSize));
+    }
 
-            items.add(new MongoDBItem(name, state,
-                    ZonedDateTime.ofInstant(obj.getDate(FIELD_TIMESTAMP).toInstant(), ZoneId.systemDefault())));
+    private HistoricItem toHistoricItem(String name, @Nullable Item item, BasicDBObject obj) {
+        final State state;
+        if (item instanceof NumberItem) {
+            state = new DecimalType(obj.getDouble(FIELD_VALUE));
+        } else if (item instanceof DimmerItem) {
+            state = new PercentType(obj.getInt(FIELD_VALUE));
+        } else if (item instanceof SwitchItem) {
+            state = OnOffType.valueOf(obj.getString(FIELD_VALUE));
+        } else if (item instanceof ContactItem) {
+            state = OpenClosedType.valueOf(obj.getString(FIELD_VALUE));
+        } else if (item instanceof RollershutterItem) {
+            state = new PercentType(obj.getInt(FIELD_VALUE));
+        } else if (item instanceof DateTimeItem) {
+            state = new DateTimeType(
+                    ZonedDateTime.ofInstant(obj.getDate(FIELD_VALUE).toInstant(), ZoneId.systemDefault()));
+        } else {
+            state = new StringType(obj.getString(FIELD_VALUE));
         }
 
-        return items;
+        return new MongoDBItem(name, state,
+                ZonedDateTime.ofInstant(obj.getDate(FIELD_TIMESTAMP).toInstant(), ZoneId.systemDefault()));
     }
 
     private @Nullable String convertOperator(Operator operator) {
@@ -350,4 +373,74 @@ public class MongoDBPersistenceService implements QueryablePersistenceService {
     public List<PersistenceStrategy> getDefaultStrategies() {
         return Collections.emptyList();
     }
+
+    /**
+     * Iterates a cursor and closes it when the last document has been read, reading fails, or the iterator has not
+     * been advanced for {@link #CURSOR_IDLE_TIMEOUT_MILLIS}, so the cursor of an abandoned result is released.
+     */
+    private class CursorIterator implements Iterator<HistoricItem> {
+        private final String name;
+        private final @Nullable Item item;
+        private final DBCursor cursor;
+        private boolean closed = false;
+        private long lastAccess = System.nanoTime();
+        private @Nullable ScheduledFuture<?> idleCheck;
+
+        CursorIterator(String name, @Nullable Item item, DBCursor cursor) {
+            this.name = name;
+            this.item = item;
+            this.cursor = cursor;
+            idleCheck = scheduler.schedule(this::checkIdle, CURSOR_IDLE_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public synchronized boolean hasNext() {
+            if (closed) {
+                return false;
+            }
+            lastAccess = System.nanoTime();
+            try {
+                if (cursor.hasNext()) {
+                    return true;
+                }
+            } catch (RuntimeException e) {
+                logger.warn("Reading query result failed: {}", e.getMessage());
+            }
+            close();
+            return false;
+        }
+
+        @Override
+        public synchronized HistoricItem next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            lastAccess = System.nanoTime();
+            return toHistoricItem(name, item, (BasicDBObject) cursor.next());
+        }
+
+        private synchronized void checkIdle() {
+            if (closed) {
+                return;
+            }
+            long idle = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - lastAccess);
+            if (idle < CURSOR_IDLE_TIMEOUT_MILLIS) {
+                idleCheck = scheduler.schedule(this::checkIdle, CURSOR_IDLE_TIMEOUT_MILLIS - idle,
+                        TimeUnit.MILLISECONDS);
+                return;
+            }
+            logger.debug("Query result wasn't read for {} ms, closing cursor", idle);
+            close();
+        }
+
+        private void close() {
+            closed = true;
+            ScheduledFuture<?> check = idleCheck;
+            if (check != null) {
+                check.cancel(false);
+                idleCheck = null;
+            }
+            cursor.close();
+        }
+    }
 }
@@ -0,0 +1,231 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.rrd4j.internal;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.rrd4j.core.RrdDb;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keeps a bounded number of {@link RrdDb} handles open, so that storing and querying does not open and parse the
+ * database file every time. The least recently used handle is closed when the capacity is exceeded.
+ *
+ * Access to a database has to be guarded by the lock returned by {@link #getLock(String)}. Locks are striped by
+ * name, so different databases can be accessed in parallel. A handle is only closed after it has been released by
+ * all users, even if it has been evicted in the meantime.
+ *
+ * @author Markus Vogler - Initial contribution
+ */
+@NonNullByDefault
+public class RRD4jDbCache {
+
+    public static final int DEFAULT_CAPACITY = 256;
+
+    private static final int LOCK_STRIPES = 64;
+
+    /**
+     * Opens a database that is not in the cache
+     */
+    @FunctionalInterface
+    public interface Opener {
+        @Nullable
+        RrdDb open(String name);
+    }
+
+    private final Logger logger = LoggerFactory.getLogger(RRD4jDbCache.class);
+
+    private final Lock[] locks = new Lock[LOCK_STRIPES];
+
+    // access ordered, guarded by itself
+    private final Map<String, Handle> handles = new LinkedHashMap<>(16, 0.75f, true);
+
+    // evicted handles that are still in use, guarded by handles
+    private final Map<RrdDb, Handle> evictedHandles = new IdentityHashMap<>();
+
+    private volatile int capacity;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public RRD4jDbCache(int capacity) {
+        this.capacity = Math.max(1, capacity);
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Returns the lock that guards the database with the given name
+     *
+     * @param name name of the database
+     * @return the lock of the stripe the name belongs to
+     */
+    public Lock getLock(String name) {
+        return locks[(name.hashCode() & 0x7fffffff) % LOCK_STRIPES];
+    }
+
+    /**
+     * Returns the open database handle, opening the database if it is not cached. The caller has to hold the lock of
+     * the name and has to {@link #release(String, RrdDb)} the handle afterwards instead of closing it.
+     *
+     * @param name name of the database
+     * @param opener opens the database if it is not cached
+     * @return the database or null if it could not be opened
+     */
+    public @Nullable RrdDb acquire(String name, Opener opener) {
+        synchronized (handles) {
+            Handle handle = handles.get(name);
+            if (handle != null) {
+                handle.users++;
+                hits.incrementAndGet();
+                return handle.db;
+            }
+        }
+        misses.incrementAndGet();
+        // the caller holds the lock of the name, so no other thread opens the same database concurrently
+        RrdDb db = opener.open(name);
+        if (db == null) {
+            return null;
+        }
+        List<Handle> evicted = new ArrayList<>();
+        synchronized (handles) {
+            Handle handle = new Handle(name, db);
+            handle.users++;
+            handles.put(name, handle);
+            Iterator<Handle> iterator = handles.values().iterator();
+            while (handles.size() > capacity && iterator.hasNext()) {
+                Handle eldest = iterator.next();
+                if (eldest != handle) {
+                    iterator.remove();
+                    evictions.incrementAndGet();
+                    if (eldest.users == 0) {
+                        evicted.add(eldest);
+                    } else {
+                        evictedHandles.put(eldest.db, eldest);
+                    }
+                }
+            }
+        }
+        evicted.forEach(this::close);
+        return db;
+    }
+
+    /**
+     * Releases a handle returned by {@link #acquire(String, Opener)}
+     *
+     * @param name name of the database
+     * @param db the database handle
+     */
+    public void release(String name, RrdDb db) {
+        Handle closeable = null;
+        synchronized (handles) {
+            Handle handle = handles.get(name);
+            if (handle != null && handle.db == db) {
+                handle.users--;
+                return;
+            }
+            handle = evictedHandles.get(db);
+            if (handle != null && --handle.users == 0) {
+                evictedHandles.remove(db);
+                closeable = handle;
+            }
+        }
+        if (closeable != null) {
+            close(closeable);
+        }
+    }
+
+    /**
+     * Closes all handles that are not in use, handles in use are closed when they are released
+     */
+    public void clear() {
+        List<Handle> closeable = new ArrayList<>();
+        synchronized (handles) {
+            for (Handle handle : handles.values()) {
+                if (handle.users == 0) {
+                    closeable.add(handle);
+                } else {
+                    evictedHandles.put(handle.db, handle);
+                }
+            }
+            handles.clear();
+        }
+        closeable.forEach(this::close);
+    }
+
+    public void setCapacity(int capacity) {
+        this.capacity = Math.max(1, capacity);
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public int getSize() {
+        synchronized (handles) {
+            return handles.size();
+        }
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    @Override
+    public String toString() {
+        return "RRD4jDbCache [size=" + getSize() + ", capacity=" + capacity + ", hits=" + hits + ", misses=" + misses
+                + ", evictions=" + evictions + "]";
+    }
+
+    private void close(Handle handle) {
+        try {
+            handle.db.close();
+            logger.trace("Closed rrd4j database '{}'", handle.name);
+        } catch (IOException e) {
+            logger.debug("Error closing rrd4j database '{}': {}", handle.name, e.getMessage());
+        }
+    }
+
+    private static class Handle {
+        private final String name;
+        private final RrdDb db;
+        private int users;
+
+        private Handle(String name, RrdDb db) {
+            this.name = name;
+            this.db = db;
+        }
+    }
+}
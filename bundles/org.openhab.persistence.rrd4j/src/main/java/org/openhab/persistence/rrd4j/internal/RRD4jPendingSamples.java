@@ -0,0 +1,98 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.rrd4j.internal;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * Samples of one database that are not written yet, at most one per second. The step of the database is kept along
+ * with the samples, so that the database only has to be opened when samples are written.
+ *
+ * @author Markus Vogler - Initial contribution
+ */
+@NonNullByDefault
+class RRD4jPendingSamples {
+
+    static class PendingSample {
+        final long time;
+        final double value;
+
+        PendingSample(long time, double value) {
+            this.time = time;
+            this.value = value;
+        }
+    }
+
+    private final Deque<PendingSample> samples = new ArrayDeque<>();
+
+    private long step;
+
+    public synchronized void add(long time, double value) {
+        PendingSample last = samples.peekLast();
+        if (last != null && last.time >= time) {
+            samples.removeLast();
+        }
+        samples.addLast(new PendingSample(time, value));
+    }
+
+    /**
+     * Removes the samples of all steps that ended before the given time. Like rrd4j, a sample belongs to the step that
+     * ends at or after its time.
+     *
+     * @return the latest sample of each of these steps
+     */
+    public synchronized List<PendingSample> drain(long until) {
+        List<PendingSample> result = new ArrayList<>();
+        if (step <= 0) {
+            return result;
+        }
+        while (!samples.isEmpty()) {
+            PendingSample sample = samples.peekFirst();
+            long stepEnd = (sample.time + step - 1) / step * step;
+            if (stepEnd >= until) {
+                break;
+            }
+            samples.removeFirst();
+            PendingSample next = samples.peekFirst();
+            if (next == null || next.time > stepEnd) {
+                result.add(sample);
+            }
+        }
+        return result;
+    }
+
+    public synchronized @Nullable PendingSample getLatest() {
+        return samples.peekLast();
+    }
+
+    public synchronized boolean isEmpty() {
+        return samples.isEmpty();
+    }
+
+    /**
+     * @return the step of the database in seconds, or 0 if the database has not been opened yet
+     */
+    public synchronized long getStep() {
+        return step;
+    }
+
+    public synchronized void setStep(long step) {
+        this.step = step;
+    }
+}
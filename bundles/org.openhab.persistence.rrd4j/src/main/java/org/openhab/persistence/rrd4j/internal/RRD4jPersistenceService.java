@@ -18,7 +18,6 @@ import java.time.Instant;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
@@ -30,6 +29,7 @@ import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
 
 import javax.measure.Quantity;
 import javax.measure.Unit;
@@ -64,9 +64,11 @@ import org.openhab.core.persistence.QueryablePersistenceService;
 import org.openhab.core.persistence.strategy.PersistenceCronStrategy;
 import org.openhab.core.persistence.strategy.PersistenceStrategy;
 import org.openhab.core.types.State;
+import org.openhab.persistence.rrd4j.internal.RRD4jPendingSamples.PendingSample;
 import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
 import org.osgi.service.component.annotations.ConfigurationPolicy;
+import org.osgi.service.component.annotations.Deactivate;
 import org.osgi.service.component.annotations.Modified;
 import org.osgi.service.component.annotations.Reference;
 import org.rrd4j.ConsolFun;
@@ -97,6 +99,8 @@ public class RRD4jPersistenceService implements QueryablePersistenceService {
     private static final String DEFAULT_NUMERIC = "default_numeric";
     private static final String DEFAULT_QUANTIFIABLE = "default_quantifiable";
 
+    private static final String CACHE_SIZE = "cachesize";
+
     private static final Set<String> SUPPORTED_TYPES = Set.of(CoreItemFactory.SWITCH, CoreItemFactory.CONTACT,
             CoreItemFactory.DIMMER, CoreItemFactory.NUMBER, CoreItemFactory.ROLLERSHUTTER, CoreItemFactory.COLOR);
 
@@ -111,7 +115,14 @@ public class RRD4jPersistenceService implements QueryablePersistenceService {
 
     private final Logger logger = LoggerFactory.getLogger(RRD4jPersistenceService.class);
 
-    private final Map<String, ScheduledFuture<?>> scheduledJobs = new HashMap<>();
+    private static final int FLUSH_INTERVAL_SECONDS = 1;
+
+    // one entry per database, kept when all samples are written to remember the step of the database
+    private final Map<String, RRD4jPendingSamples> pendingSamples = new ConcurrentHashMap<>();
+
+    private @Nullable ScheduledFuture<?> flushJob;
+
+    private final RRD4jDbCache dbCache = new RRD4jDbCache(RRD4jDbCache.DEFAULT_CAPACITY);
 
     protected final ItemRegistry itemRegistry;
 
@@ -131,96 +142,152 @@ public class RRD4jPersistenceService implements QueryablePersistenceService {
     }
 
     @Override
-    public synchronized void store(final Item item, @Nullable final String alias) {
+    public void store(final Item item, @Nullable final String alias) {
         if (!isSupportedItemType(item)) {
             logger.trace("Ignoring item '{}' since its type {} is not supported", item.getName(), item.getType());
             return;
         }
         final String name = alias == null ? item.getName() : alias;
-        RrdDb db = getDB(name);
-        if (db != null) {
-            ConsolFun function = getConsolidationFunction(db);
-            long now = System.currentTimeMillis() / 1000;
-            if (function != ConsolFun.AVERAGE) {
-                try {
-                    // we store the last value again, so that the value change
-                    // in the database is not interpolated, but
-                    // happens right at this spot
-                    if (now - 1 > db.getLastUpdateTime()) {
-                        // only do it if there is not already a value
-                        double lastValue = db.getLastDatasourceValue(DATASOURCE_STATE);
-                        if (!Double.isNaN(lastValue)) {
-                            Sample sample = db.createSample();
-                            sample.setTime(now - 1);
-                            sample.setValue(DATASOURCE_STATE, lastValue);
-                            sample.update();
-                            logger.debug("Stored '{}' as value '{}' in rrd4j database (again)", name, lastValue);
-                        }
-                    }
-                } catch (IOException e) {
-                    logger.debug("Error storing last value (again): {}", e.getMessage());
+        Double value = getValue(item);
+        if (value == null) {
+            return;
+        }
+        long now = System.currentTimeMillis() / 1000;
+        pendingSamples.compute(name, (key, samples) -> {
+            RRD4jPendingSamples result = samples != null ? samples : new RRD4jPendingSamples();
+            result.add(now, value);
+            return result;
+        });
+        logger.trace("Queued '{}' as value '{}' for rrd4j database", name, value);
+    }
+
+    private @Nullable Double getValue(Item item) {
+        if (item instanceof NumberItem && item.getState() instanceof QuantityType) {
+            NumberItem nItem = (NumberItem) item;
+            QuantityType<?> qState = (QuantityType<?>) item.getState();
+            Unit<? extends Quantity<?>> unit = nItem.getUnit();
+            if (unit != null) {
+                QuantityType<?> convertedState = qState.toUnit(unit);
+                if (convertedState != null) {
+                    return convertedState.doubleValue();
+                } else {
+                    logger.warn(
+                            "Failed to convert state '{}' to unit '{}'. Please check your item definition for correctness.",
+                            qState, unit);
+                    return null;
                 }
+            } else {
+                return qState.doubleValue();
             }
+        } else {
+            DecimalType state = item.getStateAs(DecimalType.class);
+            if (state != null) {
+                return state.toBigDecimal().doubleValue();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Writes the queued samples to the databases. Of all samples within one step of a database only the latest one is
+     * written, and only after the step has passed, so every database is updated at most once per step.
+     *
+     * @param all write all queued samples, including the ones of the current step
+     */
+    private void flush(boolean all) {
+        long now = System.currentTimeMillis() / 1000;
+        int count = 0;
+        for (Map.Entry<String, RRD4jPendingSamples> entry : pendingSamples.entrySet()) {
+            String name = entry.getKey();
+            RRD4jPendingSamples pending = entry.getValue();
+            Lock lock = dbCache.getLock(name);
+            lock.lock();
+            RrdDb db = null;
             try {
-                Sample sample = db.createSample();
-                sample.setTime(now);
-
-                Double value = null;
-
-                if (item instanceof NumberItem && item.getState() instanceof QuantityType) {
-                    NumberItem nItem = (NumberItem) item;
-                    QuantityType<?> qState = (QuantityType<?>) item.getState();
-                    Unit<? extends Quantity<?>> unit = nItem.getUnit();
-                    if (unit != null) {
-                        QuantityType<?> convertedState = qState.toUnit(unit);
-                        if (convertedState != null) {
-                            value = convertedState.doubleValue();
-                        } else {
-                            logger.warn(
-                                    "Failed to convert state '{}' to unit '{}'. Please check your item definition for correctness.",
-                                    qState, unit);
-                        }
-                    } else {
-                        value = qState.doubleValue();
-                    }
-                } else {
-                    DecimalType state = item.getStateAs(DecimalType.class);
-                    if (state != null) {
-                        value = state.toBigDecimal().doubleValue();
+                if (pending.getStep() <= 0) {
+                    // the step is read once when the database is opened first, afterwards the database is only
+                    // acquired if there are samples to write
+                    db = dbCache.acquire(name, this::getDB);
+                    if (db == null) {
+                        pendingSamples.remove(name);
+                        continue;
                     }
+                    pending.setStep(db.getHeader().getStep());
                 }
-                if (value != null) {
-                    if (db.getDatasource(DATASOURCE_STATE).getType() == DsType.COUNTER) { // counter values must be
-                                                                                          // adjusted by stepsize
-                        value = value * db.getRrdDef().getStep();
-                    }
-                    sample.setValue(DATASOURCE_STATE, value);
-                    sample.update();
-                    logger.debug("Stored '{}' as value '{}' in rrd4j database", name, value);
+                List<PendingSample> samples = pending.drain(all ? Long.MAX_VALUE : now);
+                if (samples.isEmpty()) {
+                    continue;
                 }
-            } catch (IllegalArgumentException e) {
-                String message = e.getMessage();
-                if (message != null && message.contains("at least one second step is required")) {
-                    // we try to store the value one second later
-                    ScheduledFuture<?> job = scheduledJobs.get(name);
-                    if (job != null) {
-                        job.cancel(true);
-                        scheduledJobs.remove(name);
+                if (db == null) {
+                    db = dbCache.acquire(name, this::getDB);
+                    if (db == null) {
+                        pendingSamples.remove(name);
+                        continue;
                     }
-                    job = scheduler.schedule(() -> store(item, name), 1, TimeUnit.SECONDS);
-                    scheduledJobs.put(name, job);
-                } else {
-                    logger.warn("Could not persist '{}' to rrd4j database: {}", name, e.getMessage());
                 }
-            } catch (Exception e) {
+                for (PendingSample sample : samples) {
+                    write(db, name, sample, pending.getStep());
+                }
+                count += samples.size();
+            } catch (IOException e) {
                 logger.warn("Could not persist '{}' to rrd4j database: {}", name, e.getMessage());
+            } finally {
+                if (db != null) {
+                    dbCache.release(name, db);
+                }
+                lock.unlock();
             }
-            try {
-                db.close();
-            } catch (IOException e) {
-                logger.debug("Error closing rrd4j database: {}", e.getMessage());
+        }
+        if (count > 0) {
+            logger.trace("Wrote {} samples to rrd4j databases", count);
+        }
+    }
+
+    /**
+     * Writes one sample, so that every step of the database is updated at most once. A sample belongs to the step
+     * that ends at or after its time, as in rrd4j.
+     */
+    void write(RrdDb db, String name, PendingSample pending, long step) {
+        try {
+            long lastUpdateTime = db.getLastUpdateTime();
+            if (pending.time <= lastUpdateTime) {
+                logger.debug("Ignoring value '{}' of '{}' since the rrd4j database was already updated at {}",
+                        pending.value, name, lastUpdateTime);
+                return;
             }
+            double value = toDatasourceValue(db, pending.value);
+            if (getConsolidationFunction(db) != ConsolFun.AVERAGE) {
+                // we store the last value again, so that the value change
+                // in the database is not interpolated, but
+                // happens right at this spot
+                // this is only needed if the value changed and earlier steps would be affected, the last value is
+                // written at the end of the previous step, unless that step has already been updated
+                double lastValue = db.getLastDatasourceValue(DATASOURCE_STATE);
+                long previousStepEnd = (pending.time + step - 1) / step * step - step;
+                if (!Double.isNaN(lastValue) && lastValue != value && lastUpdateTime <= previousStepEnd - step) {
+                    Sample sample = db.createSample();
+                    sample.setTime(previousStepEnd);
+                    sample.setValue(DATASOURCE_STATE, lastValue);
+                    sample.update();
+                    logger.debug("Stored '{}' as value '{}' in rrd4j database (again)", name, lastValue);
+                }
+            }
+            Sample sample = db.createSample();
+            sample.setTime(pending.time);
+            sample.setValue(DATASOURCE_STATE, value);
+            sample.update();
+            logger.debug("Stored '{}' as value '{}' in rrd4j database", name, value);
+        } catch (Exception e) {
+            logger.warn("Could not persist '{}' to rrd4j database: {}", name, e.getMessage());
+        }
+    }
+
+    private double toDatasourceValue(RrdDb db, double value) throws IOException {
+        if (db.getDatasource(DATASOURCE_STATE).getType() == DsType.COUNTER) {
+            // counter values must be adjusted by stepsize
+            return value * db.getHeader().getStep();
         }
+        return value;
     }
 
     @Override
@@ -231,13 +298,26 @@ public class RRD4jPersistenceService implements QueryablePersistenceService {
     @Override
     public Iterable<HistoricItem> query(FilterCriteria filter) {
         String itemName = filter.getItemName();
-
-        RrdDb db = getDB(itemName);
-        if (db == null) {
-            logger.debug("Could not find item '{}' in rrd4j database", itemName);
-            return List.of();
+        Lock lock = dbCache.getLock(itemName);
+        lock.lock();
+        try {
+            RrdDb db = dbCache.acquire(itemName, this::getDB);
+            if (db == null) {
+                logger.debug("Could not find item '{}' in rrd4j database", itemName);
+                return List.of();
+            }
+            try {
+                return query(db, filter);
+            } finally {
+                dbCache.release(itemName, db);
+            }
+        } finally {
+            lock.unlock();
         }
+    }
 
+    private Iterable<HistoricItem> query(RrdDb db, FilterCriteria filter) {
+        String itemName = filter.getItemName();
         Item item = null;
         Unit<?> unit = null;
         try {
@@ -267,6 +347,16 @@ public class RRD4jPersistenceService implements QueryablePersistenceService {
                         && filter.getPageNumber() == 0) {
                     if (filter.getEndDate() == null) {
                         // we are asked only for the most recent value!
+                        RRD4jPendingSamples pending = pendingSamples.get(itemName);
+                        PendingSample latest = pending != null ? pending.getLatest() : null;
+                        if (latest != null) {
+                            // not written yet
+                            HistoricItem rrd4jItem = new RRD4jItem(itemName,
+                                    mapToState(toDatasourceValue(db, latest.value), item, unit),
+                                    ZonedDateTime.ofInstant(Instant.ofEpochSecond(latest.time),
+                                            ZoneId.systemDefault()));
+                            return List.of(rrd4jItem);
+                        }
                         double lastValue = db.getLastDatasourceValue(DATASOURCE_STATE);
                         if (!Double.isNaN(lastValue)) {
                             HistoricItem rrd4jItem = new RRD4jItem(itemName, mapToState(lastValue, item, unit),
@@ -313,7 +403,14 @@ public class RRD4jPersistenceService implements QueryablePersistenceService {
         return Set.of();
     }
 
-    protected synchronized @Nullable RrdDb getDB(String alias) {
+    /**
+     * Opens or creates the database of an item. The returned handle is not cached, callers within this service
+     * use {@link RRD4jDbCache#acquire(String, RRD4jDbCache.Opener)} instead.
+     *
+     * @param alias name of the database
+     * @return the database or null if it could not be opened
+     */
+    protected @Nullable RrdDb getDB(String alias) {
         RrdDb db = null;
         File file = new File(DB_FOLDER + File.separator + alias + ".rrd");
         try {
@@ -441,12 +538,31 @@ public class RRD4jPersistenceService implements QueryablePersistenceService {
     @Activate
     protected void activate(final Map<String, Object> config) {
         modified(config);
+        flushJob = scheduler.scheduleWithFixedDelay(() -> flush(false), FLUSH_INTERVAL_SECONDS,
+                FLUSH_INTERVAL_SECONDS, TimeUnit.SECONDS);
+    }
+
+    @Deactivate
+    protected void deactivate() {
+        ScheduledFuture<?> job = flushJob;
+        if (job != null) {
+            job.cancel(false);
+            flushJob = null;
+        }
+        flush(true);
+        logger.debug("Closing rrd4j databases: {}", dbCache);
+        dbCache.clear();
     }
 
     @Modified
     protected void modified(final Map<String, Object> config) {
         // clean existing definitions
         rrdDefs.clear();
+        // databases are opened again with the current definitions
+        flush(true);
+        logger.debug("Closing rrd4j databases: {}", dbCache);
+        dbCache.clear();
+        dbCache.setCapacity(RRD4jDbCache.DEFAULT_CAPACITY);
 
         // add default configurations
 
@@ -501,6 +617,15 @@ public class RRD4jPersistenceService implements QueryablePersistenceService {
                 continue;
             }
 
+            if (key.equalsIgnoreCase(CACHE_SIZE)) {
+                try {
+                    dbCache.setCapacity(Integer.parseInt(String.valueOf(config.get(key)).trim()));
+                } catch (NumberFormatException e) {
+                    logger.warn("Ignoring illegal cache size '{}'", config.get(key));
+                }
+                continue;
+            }
+
             String[] subkeys = key.split("\\.");
             if (subkeys.length != 2) {
                 logger.debug("config '{}' should have the format 'name.configkey'", key);
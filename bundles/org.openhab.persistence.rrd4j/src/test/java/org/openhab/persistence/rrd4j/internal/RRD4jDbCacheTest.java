@@ -0,0 +1,122 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.rrd4j.internal;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.Mockito.*;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.junit.jupiter.api.Test;
+import org.rrd4j.core.RrdDb;
+
+/**
+ * Tests cases for {@link RRD4jDbCache}.
+ *
+ * @author Markus Vogler - Initial contribution
+ */
+@NonNullByDefault
+public class RRD4jDbCacheTest {
+
+    private final Map<String, RrdDb> databases = new HashMap<>();
+    private final Map<String, Integer> openCounts = new HashMap<>();
+
+    private @Nullable RrdDb open(String name) {
+        openCounts.merge(name, 1, Integer::sum);
+        return databases.computeIfAbsent(name, n -> mock(RrdDb.class));
+    }
+
+    private RrdDb acquireAndRelease(RRD4jDbCache cache, String name) {
+        RrdDb db = cache.acquire(name, this::open);
+        assertThat(db, is(notNullValue()));
+        cache.release(name, db);
+        return db;
+    }
+
+    @Test
+    public void cachedDatabaseIsNotOpenedAgain() throws IOException {
+        RRD4jDbCache cache = new RRD4jDbCache(2);
+
+        RrdDb first = acquireAndRelease(cache, "a");
+        RrdDb second = acquireAndRelease(cache, "a");
+
+        assertThat(second, is(sameInstance(first)));
+        assertThat(openCounts.get("a"), is(1));
+        assertThat(cache.getHits(), is(1L));
+        assertThat(cache.getMisses(), is(1L));
+        verify(first, never()).close();
+    }
+
+    @Test
+    public void leastRecentlyUsedDatabaseIsClosed() throws IOException {
+        RRD4jDbCache cache = new RRD4jDbCache(2);
+
+        RrdDb a = acquireAndRelease(cache, "a");
+        RrdDb b = acquireAndRelease(cache, "b");
+        acquireAndRelease(cache, "a");
+        RrdDb c = acquireAndRelease(cache, "c");
+
+        verify(b).close();
+        verify(a, never()).close();
+        verify(c, never()).close();
+        assertThat(cache.getSize(), is(2));
+        assertThat(cache.getEvictions(), is(1L));
+
+        // the evicted database is opened again
+        acquireAndRelease(cache, "b");
+        assertThat(openCounts.get("b"), is(2));
+    }
+
+    @Test
+    public void evictedDatabaseIsClosedWhenReleased() throws IOException {
+        RRD4jDbCache cache = new RRD4jDbCache(1);
+
+        RrdDb a = cache.acquire("a", this::open);
+        assertThat(a, is(notNullValue()));
+        acquireAndRelease(cache, "b");
+
+        verify(a, never()).close();
+        cache.release("a", a);
+        verify(a).close();
+    }
+
+    @Test
+    public void clearClosesDatabasesWhenReleased() throws IOException {
+        RRD4jDbCache cache = new RRD4jDbCache(2);
+
+        RrdDb a = acquireAndRelease(cache, "a");
+        RrdDb b = cache.acquire("b", this::open);
+        assertThat(b, is(notNullValue()));
+
+        cache.clear();
+        verify(a).close();
+        verify(b, never()).close();
+        assertThat(cache.getSize(), is(0));
+
+        cache.release("b", b);
+        verify(b).close();
+    }
+
+    @Test
+    public void databaseThatCannotBeOpenedIsNotCached() {
+        RRD4jDbCache cache = new RRD4jDbCache(2);
+
+        assertThat(cache.acquire("a", name -> null), is(nullValue()));
+        assertThat(cache.getSize(), is(0));
+    }
+}
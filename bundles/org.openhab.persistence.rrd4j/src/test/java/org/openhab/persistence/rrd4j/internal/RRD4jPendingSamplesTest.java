@@ -0,0 +1,109 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.rrd4j.internal;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.Test;
+import org.openhab.persistence.rrd4j.internal.RRD4jPendingSamples.PendingSample;
+
+/**
+ * Tests cases for {@link RRD4jPendingSamples}.
+ *
+ * @author Markus Vogler - Initial contribution
+ */
+@NonNullByDefault
+public class RRD4jPendingSamplesTest {
+
+    private static List<Double> values(List<PendingSample> samples) {
+        return samples.stream().map(sample -> sample.value).collect(Collectors.toList());
+    }
+
+    @Test
+    public void nothingIsDrainedBeforeStepIsKnown() {
+        RRD4jPendingSamples pending = new RRD4jPendingSamples();
+        pending.add(100, 1);
+
+        assertThat(pending.drain(Long.MAX_VALUE).isEmpty(), is(true));
+        assertThat(pending.isEmpty(), is(false));
+    }
+
+    @Test
+    public void latestSampleOfEachStepIsWritten() {
+        RRD4jPendingSamples pending = new RRD4jPendingSamples();
+        pending.setStep(10);
+        pending.add(101, 1);
+        pending.add(103, 2);
+        pending.add(110, 3);
+        pending.add(112, 4);
+        pending.add(115, 5);
+        pending.add(121, 6);
+
+        // the step of the last sample hasn't ended yet
+        assertThat(values(pending.drain(121)), is(equalTo(List.of(3.0, 5.0))));
+        assertThat(pending.isEmpty(), is(false));
+
+        assertThat(values(pending.drain(131)), is(equalTo(List.of(6.0))));
+        assertThat(pending.isEmpty(), is(true));
+    }
+
+    @Test
+    public void currentStepIsNotWrittenBeforeItEnds() {
+        RRD4jPendingSamples pending = new RRD4jPendingSamples();
+        pending.setStep(10);
+        pending.add(101, 1);
+        pending.add(105, 2);
+
+        // a sample can still arrive in the last second of the step
+        assertThat(pending.drain(110).isEmpty(), is(true));
+        assertThat(values(pending.drain(111)), is(equalTo(List.of(2.0))));
+    }
+
+    @Test
+    public void sampleAtStepEndBelongsToEndingStep() {
+        RRD4jPendingSamples pending = new RRD4jPendingSamples();
+        pending.setStep(10);
+        pending.add(105, 1);
+        pending.add(110, 2);
+        pending.add(111, 3);
+
+        assertThat(values(pending.drain(111)), is(equalTo(List.of(2.0))));
+    }
+
+    @Test
+    public void drainingAllWritesCurrentStep() {
+        RRD4jPendingSamples pending = new RRD4jPendingSamples();
+        pending.setStep(60);
+        pending.add(100, 1);
+        pending.add(101, 2);
+
+        assertThat(values(pending.drain(Long.MAX_VALUE)), is(equalTo(List.of(2.0))));
+    }
+
+    @Test
+    public void sampleOfTheSameSecondIsReplaced() {
+        RRD4jPendingSamples pending = new RRD4jPendingSamples();
+        pending.setStep(1);
+        pending.add(100, 1);
+        pending.add(100, 2);
+
+        PendingSample latest = pending.getLatest();
+        assertThat(latest == null ? null : latest.value, is(2.0));
+        assertThat(values(pending.drain(Long.MAX_VALUE)), is(equalTo(List.of(2.0))));
+    }
+}
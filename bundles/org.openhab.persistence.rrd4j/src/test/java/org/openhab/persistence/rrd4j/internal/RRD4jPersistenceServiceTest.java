@@ -0,0 +1,114 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.rrd4j.internal;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.Mockito.*;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.Test;
+import org.openhab.core.items.ItemRegistry;
+import org.openhab.persistence.rrd4j.internal.RRD4jPendingSamples.PendingSample;
+import org.rrd4j.ConsolFun;
+import org.rrd4j.DsType;
+import org.rrd4j.core.RrdDb;
+import org.rrd4j.core.RrdDef;
+import org.rrd4j.core.RrdMemoryBackendFactory;
+import org.rrd4j.core.Sample;
+
+/**
+ * Tests cases for the writes of {@link RRD4jPersistenceService}.
+ *
+ * @author Markus Vogler - Initial contribution
+ */
+@NonNullByDefault
+public class RRD4jPersistenceServiceTest {
+
+    private static final long STEP = 60;
+
+    private final RRD4jPersistenceService service = new RRD4jPersistenceService(mock(ItemRegistry.class));
+    private final List<Long> updateTimes = new ArrayList<>();
+
+    private RrdDb createDb(ConsolFun consolFun) throws IOException {
+        RrdDef def = new RrdDef("test", 0, STEP);
+        def.addDatasource("state", DsType.GAUGE, 86400, Double.NaN, Double.NaN);
+        def.addArchive(consolFun, 0.5, 1, 1000);
+        RrdDb db = spy(new RrdDb(def, new RrdMemoryBackendFactory()));
+        doAnswer(invocation -> {
+            Sample sample = spy((Sample) invocation.callRealMethod());
+            doAnswer(update -> {
+                updateTimes.add(sample.getTime());
+                return update.callRealMethod();
+            }).when(sample).update();
+            return sample;
+        }).when(db).createSample();
+        return db;
+    }
+
+    private void write(RrdDb db, long time, double value) {
+        service.write(db, "test", new PendingSample(time, value), STEP);
+    }
+
+    private List<Long> updatedSteps() {
+        return updateTimes.stream().map(time -> (time + STEP - 1) / STEP).collect(Collectors.toList());
+    }
+
+    @Test
+    public void changedValueAfterGapIsWrittenOncePerStep() throws IOException {
+        RrdDb db = createDb(ConsolFun.MAX);
+
+        write(db, 30, 1);
+        write(db, 400, 2);
+
+        // the last value is written again at the end of the step before the change
+        assertThat(updateTimes, is(equalTo(List.of(30L, 360L, 400L))));
+        assertThat(updatedSteps(), is(equalTo(List.of(1L, 6L, 7L))));
+    }
+
+    @Test
+    public void changedValueInNextStepIsNotWrittenTwice() throws IOException {
+        RrdDb db = createDb(ConsolFun.MAX);
+
+        write(db, 30, 1);
+        write(db, 70, 2);
+
+        assertThat(updateTimes, is(equalTo(List.of(30L, 70L))));
+    }
+
+    @Test
+    public void changedValueAtStepEndIsNotWrittenTwice() throws IOException {
+        RrdDb db = createDb(ConsolFun.LAST);
+
+        write(db, 30, 1);
+        write(db, 360, 2);
+
+        assertThat(updateTimes, is(equalTo(List.of(30L, 300L, 360L))));
+        assertThat(updatedSteps(), is(equalTo(List.of(1L, 5L, 6L))));
+    }
+
+    @Test
+    public void averageIsWrittenOncePerStep() throws IOException {
+        RrdDb db = createDb(ConsolFun.AVERAGE);
+
+        write(db, 30, 1);
+        write(db, 400, 2);
+
+        assertThat(updateTimes, is(equalTo(List.of(30L, 400L))));
+    }
+}
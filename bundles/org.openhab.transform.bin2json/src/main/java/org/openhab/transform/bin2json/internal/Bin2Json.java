@@ -12,10 +12,13 @@
  */
 package org.openhab.transform.bin2json.internal;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
 
 import org.openhab.core.util.HexUtils;
 import org.slf4j.Logger;
@@ -66,14 +69,35 @@ import com.igormaznitsa.jbbp.model.JBBPFieldUShort;
  * json.toString() = {"a":3,"b":-6,"c":255}
  * </pre>
  *
+ * <p>
+ * A prepared instance is immutable and can be reused by several threads. {@link #convertToString(String)} writes the
+ * JSON text directly, without building a {@link JsonObject} first.
+ *
  * @author Pauli Anttila - Initial contribution
  *
  */
 public class Bin2Json {
 
+    private static final int MAX_RETAINED_BUFFER_SIZE = 65536;
+
+    // decoded hex data, reused by the thread
+    private static final ThreadLocal<byte[]> BUFFERS = ThreadLocal.withInitial(() -> new byte[256]);
+
     private final Logger logger = LoggerFactory.getLogger(Bin2Json.class);
 
-    private JBBPParser parser;
+    private final JBBPParser parser;
+
+    /**
+     * Thrown if a struct contains several fields with the same name. The {@link JsonObject} keeps only the last of
+     * them, so such data is converted by the tree based conversion.
+     */
+    private static class DuplicateFieldNameException extends Exception {
+        private static final long serialVersionUID = 1L;
+
+        private DuplicateFieldNameException() {
+            super(null, null, false, false);
+        }
+    }
 
     /**
      *
@@ -137,6 +161,66 @@ public class Bin2Json {
         }
     }
 
+    /**
+     * Convert {@link String} in hexadecimal string format to JSON text. Gives the same result as
+     * {@code convert(hexString).toString()}.
+     *
+     * @param hexString Data in hexadecimal string format. Example data: 03FAFF
+     * @return JSON text
+     * @throws ConversionException
+     */
+    public String convertToString(String hexString) throws ConversionException {
+        JBBPFieldStruct data;
+        try {
+            int length = hexString.length() / 2;
+            byte[] buffer = BUFFERS.get();
+            if (buffer.length < length) {
+                buffer = new byte[Math.max(length, buffer.length * 2)];
+                if (buffer.length <= MAX_RETAINED_BUFFER_SIZE) {
+                    BUFFERS.set(buffer);
+                }
+            }
+            decodeHex(hexString, buffer);
+            data = parser.parse(new ByteArrayInputStream(buffer, 0, length));
+        } catch (IllegalArgumentException e) {
+            throw new ConversionException(String.format("Illegal hexstring , reason: %s", e.getMessage(), e));
+        } catch (IOException e) {
+            throw new ConversionException(String.format("Unexpected error, reason: %s", e.getMessage(), e));
+        } catch (JBBPException e) {
+            throw new ConversionException(String.format("Unexpected error, reason: %s", e.getMessage(), e));
+        }
+
+        try {
+            LocalDateTime start = LocalDateTime.now();
+            final StringBuilder json = new StringBuilder(64);
+            appendFields(json, data);
+            if (logger.isTraceEnabled()) {
+                Duration duration = Duration.between(start, LocalDateTime.now());
+                logger.trace("Conversion time={}, json={}", duration, json);
+            }
+            return json.toString();
+        } catch (DuplicateFieldNameException e) {
+            return convert(data).toString();
+        } catch (JBBPException e) {
+            throw new ConversionException(String.format("Unexpected error, reason: %s", e.getMessage(), e));
+        }
+    }
+
+    private static void decodeHex(String hexString, byte[] buffer) {
+        int length = hexString.length();
+        if (length % 2 != 0) {
+            throw new IllegalArgumentException("Hex string length must be even");
+        }
+        for (int i = 0; i < length; i += 2) {
+            int high = Character.digit(hexString.charAt(i), 16);
+            int low = Character.digit(hexString.charAt(i + 1), 16);
+            if (high < 0 || low < 0) {
+                throw new IllegalArgumentException("Illegal hex character at position " + i);
+            }
+            buffer[i / 2] = (byte) ((high << 4) | low);
+        }
+    }
+
     private JsonObject convert(JBBPFieldStruct data) throws ConversionException {
         try {
             LocalDateTime start = LocalDateTime.now();
@@ -236,4 +320,119 @@ public class Bin2Json {
         }
         return jsn;
     }
+
+    private void appendFields(final StringBuilder json, final JBBPFieldStruct struct)
+            throws ConversionException, DuplicateFieldNameException {
+        final Set<String> names = new HashSet<>();
+        json.append('{');
+        for (final JBBPAbstractField field : struct.getArray()) {
+            final String fieldName = getFieldName(field);
+            if (!names.add(fieldName)) {
+                throw new DuplicateFieldNameException();
+            }
+            if (names.size() > 1) {
+                json.append(',');
+            }
+            appendName(json, fieldName);
+            appendValue(json, field);
+        }
+        json.append('}');
+    }
+
+    private void appendValue(final StringBuilder json, final JBBPAbstractField field)
+            throws ConversionException, DuplicateFieldNameException {
+        if (field instanceof JBBPAbstractArrayField) {
+            json.append('[');
+            if (field instanceof JBBPFieldArrayBit) {
+                for (final byte b : ((JBBPFieldArrayBit) field).getArray()) {
+                    json.append(b).append(',');
+                }
+            } else if (field instanceof JBBPFieldArrayBoolean) {
+                for (final boolean b : ((JBBPFieldArrayBoolean) field).getArray()) {
+                    json.append(b).append(',');
+                }
+            } else if (field instanceof JBBPFieldArrayByte) {
+                for (final byte b : ((JBBPFieldArrayByte) field).getArray()) {
+                    json.append(b).append(',');
+                }
+            } else if (field instanceof JBBPFieldArrayInt) {
+                for (final int b : ((JBBPFieldArrayInt) field).getArray()) {
+                    json.append(b).append(',');
+                }
+            } else if (field instanceof JBBPFieldArrayLong) {
+                for (final long b : ((JBBPFieldArrayLong) field).getArray()) {
+                    json.append(b).append(',');
+                }
+            } else if (field instanceof JBBPFieldArrayShort) {
+                for (final short b : ((JBBPFieldArrayShort) field).getArray()) {
+                    json.append(b).append(',');
+                }
+            } else if (field instanceof JBBPFieldArrayStruct) {
+                final JBBPFieldArrayStruct array = (JBBPFieldArrayStruct) field;
+                for (int i = 0; i < array.size(); i++) {
+                    // like convertToJSon, every element is wrapped in an object with the name of the struct
+                    final JBBPFieldStruct element = array.getElementAt(i);
+                    json.append('{');
+                    appendName(json, getFieldName(element));
+                    appendFields(json, element);
+                    json.append('}').append(',');
+                }
+            } else if (field instanceof JBBPFieldArrayUByte) {
+                for (final byte b : ((JBBPFieldArrayUByte) field).getArray()) {
+                    json.append(b & 0xFF).append(',');
+                }
+            } else if (field instanceof JBBPFieldArrayUShort) {
+                for (final short b : ((JBBPFieldArrayUShort) field).getArray()) {
+                    json.append(b & 0xFFFF).append(',');
+                }
+            } else {
+                throw new ConversionException(String.format("Unexpected field type '%s'", field));
+            }
+            if (json.charAt(json.length() - 1) == ',') {
+                json.setLength(json.length() - 1);
+            }
+            json.append(']');
+        } else {
+            if (field instanceof JBBPFieldBit) {
+                json.append(((JBBPFieldBit) field).getAsInt());
+            } else if (field instanceof JBBPFieldBoolean) {
+                json.append(((JBBPFieldBoolean) field).getAsBool());
+            } else if (field instanceof JBBPFieldByte) {
+                json.append(((JBBPFieldByte) field).getAsInt());
+            } else if (field instanceof JBBPFieldInt) {
+                json.append(((JBBPFieldInt) field).getAsInt());
+            } else if (field instanceof JBBPFieldLong) {
+                json.append(((JBBPFieldLong) field).getAsLong());
+            } else if (field instanceof JBBPFieldShort) {
+                json.append(((JBBPFieldShort) field).getAsInt());
+            } else if (field instanceof JBBPFieldStruct) {
+                appendFields(json, (JBBPFieldStruct) field);
+            } else if (field instanceof JBBPFieldUByte) {
+                json.append(((JBBPFieldUByte) field).getAsInt());
+            } else if (field instanceof JBBPFieldUShort) {
+                json.append(((JBBPFieldUShort) field).getAsInt());
+            } else {
+                throw new ConversionException(String.format("Unexpected field '%s'", field));
+            }
+        }
+    }
+
+    private static String getFieldName(final JBBPAbstractField field) {
+        return field.getFieldName() == null ? "nonamed" : field.getFieldName();
+    }
+
+    private static void appendName(final StringBuilder json, final String name) {
+        json.append('"');
+        for (int i = 0; i < name.length(); i++) {
+            final char c = name.charAt(i);
+            if (c == '"' || c == '\\') {
+                json.append('\\').append(c);
+            } else if (c < 0x20 || c == '\u2028' || c == '\u2029') {
+                json.append(String.format("\\u%04x", (int) c));
+            } else {
+                json.append(c);
+            }
+        }
+        json.append("\":");
+    }
 }
@@ -12,6 +12,9 @@
  */
 package org.openhab.transform.bin2json.internal;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
 import org.openhab.core.transform.TransformationException;
@@ -23,6 +26,7 @@ import org.slf4j.LoggerFactory;
 /**
  * The implementation of {@link TransformationService} which transforms the
  * hexa string formatted binary data by Binary Block Parser syntax to JSON format.
+ * The prepared parsers are cached per syntax.
  *
  * @author Pauli Anttila - Initial contribution
  */
@@ -30,8 +34,20 @@ import org.slf4j.LoggerFactory;
 @Component(property = { "openhab.transform=BIN2JSON" })
 public class Bin2JsonTransformationService implements TransformationService {
 
+    private static final int CACHE_SIZE = 64;
+
     private Logger logger = LoggerFactory.getLogger(Bin2JsonTransformationService.class);
 
+    // access ordered, guarded by itself
+    private final Map<String, Bin2Json> converters = new LinkedHashMap<>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.@Nullable Entry<String, Bin2Json> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    };
+
     /**
      * Transforms the input <code>source</code> by Java Binary Block Parser syntax.
      *
@@ -46,7 +62,7 @@ public class Bin2JsonTransformationService implements TransformationService {
         String result = "";
 
         try {
-            result = String.valueOf(new Bin2Json(syntax).convert(source));
+            result = getConverter(syntax).convertToString(source);
             logger.debug("transformation resulted '{}'", result);
             return result;
         } catch (ConversionException e) {
@@ -56,4 +72,19 @@ public class Bin2JsonTransformationService implements TransformationService {
                     result);
         }
     }
+
+    private Bin2Json getConverter(String syntax) throws ConversionException {
+        Bin2Json converter;
+        synchronized (converters) {
+            converter = converters.get(syntax);
+        }
+        if (converter == null) {
+            // preparing the same syntax twice concurrently is harmless, so don't hold the lock while preparing
+            converter = new Bin2Json(syntax);
+            synchronized (converters) {
+                converters.put(syntax, converter);
+            }
+        }
+        return converter;
+    }
 }
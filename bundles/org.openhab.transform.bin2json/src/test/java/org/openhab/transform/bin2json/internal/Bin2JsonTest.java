@@ -0,0 +1,96 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.bin2json.internal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests cases for {@link Bin2Json}.
+ *
+ * @author Markus Vogler - Initial contribution
+ */
+public class Bin2JsonTest {
+
+    private static final String DATA = "80A5CAEF14395E83A8CDF2173C6186ABD0F51A3F6489AED3F81D42678CB1D6FB20456A8FB4D9FE23486D92B7DC01264B";
+
+    private static void assertSameJson(String rule, String hexString) throws ConversionException {
+        Bin2Json bin2Json = new Bin2Json(rule);
+        assertEquals(bin2Json.convert(hexString).toString(), bin2Json.convertToString(hexString));
+    }
+
+    @Test
+    public void testReadmeExample() throws ConversionException {
+        Bin2Json bin2Json = new Bin2Json("byte a; byte b; ubyte c;");
+        assertEquals("{\"a\":3,\"b\":-6,\"c\":255}", bin2Json.convertToString("03FAFF"));
+        assertEquals("{\"a\":3,\"b\":-6,\"c\":255}", bin2Json.convert("03FAFF").toString());
+    }
+
+    @Test
+    public void testScalarFields() throws ConversionException {
+        assertSameJson("bit:3 a; bool b; byte c; ubyte d; short e; ushort f; int g; long h;", DATA);
+    }
+
+    @Test
+    public void testArrayFields() throws ConversionException {
+        assertSameJson("bit:4 [2] a; bool [2] b; byte [2] c; ubyte [2] d; short [2] e; ushort [2] f; int [2] g; "
+                + "long [1] h;", DATA);
+    }
+
+    @Test
+    public void testEmptyArray() throws ConversionException {
+        assertSameJson("ubyte n; byte [n] a; ubyte b;", "00FF");
+    }
+
+    @Test
+    public void testStructs() throws ConversionException {
+        assertSameJson("byte a; s { ubyte b; inner { short c; } } int d;", DATA);
+    }
+
+    @Test
+    public void testStructArrays() throws ConversionException {
+        assertSameJson("ubyte n; s [3] { byte a; ushort b; } t [2] { byte [2] c; }", "03" + DATA);
+    }
+
+    @Test
+    public void testDuplicateFieldNamesFallBackToTreeConversion() throws ConversionException {
+        // unnamed fields are all called "nonamed"
+        assertSameJson("byte; byte b; byte;", "010203");
+        assertSameJson("s [2] { byte; ubyte; }", DATA);
+    }
+
+    @Test
+    public void testDataLargerThanReusedBuffer() throws ConversionException {
+        StringBuilder hexString = new StringBuilder();
+        for (int i = 0; i < 300; i++) {
+            hexString.append(String.format("%02X", i & 0xFF));
+        }
+        assertSameJson("ubyte [300] a;", hexString.toString());
+        // a following shorter conversion is not affected by the longer data
+        assertSameJson("ubyte [_] a;", "0102");
+    }
+
+    @Test
+    public void testIllegalHexString() throws ConversionException {
+        Bin2Json bin2Json = new Bin2Json("byte a;");
+        assertThrows(ConversionException.class, () -> bin2Json.convertToString("0G"));
+        assertThrows(ConversionException.class, () -> bin2Json.convertToString("012"));
+    }
+
+    @Test
+    public void testNotEnoughData() throws ConversionException {
+        Bin2Json bin2Json = new Bin2Json("int a;");
+        assertThrows(ConversionException.class, () -> bin2Json.convertToString("0102"));
+    }
+}
@@ -13,6 +13,8 @@
 package org.openhab.transform.exec.internal;
 
 import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
@@ -21,6 +23,7 @@ import org.openhab.core.transform.TransformationException;
 import org.openhab.core.transform.TransformationService;
 import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Deactivate;
 import org.osgi.service.component.annotations.Reference;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -35,8 +38,16 @@ import org.slf4j.LoggerFactory;
 @NonNullByDefault
 @Component(property = { "openhab.transform=EXEC" })
 public class ExecTransformationService implements TransformationService {
+    /** Prefix of command lines which are started once and then fed with the inputs line by line */
+    public static final String WORKER_PREFIX = "worker:";
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
     private final Logger logger = LoggerFactory.getLogger(ExecTransformationService.class);
     private final ExecTransformationWhitelistWatchService execTransformationWhitelistWatchService;
+    private final Map<String, ExecWorker> workers = new ConcurrentHashMap<>();
+    // guarded by workers
+    private boolean deactivated;
 
     @Activate
     public ExecTransformationService(
@@ -44,11 +55,22 @@ public class ExecTransformationService implements TransformationService {
         this.execTransformationWhitelistWatchService = execTransformationWhitelistWatchService;
     }
 
+    @Deactivate
+    public void deactivate() {
+        // no worker is created while the workers are stopped, and none afterwards
+        synchronized (workers) {
+            deactivated = true;
+            workers.values().forEach(ExecWorker::stop);
+            workers.clear();
+        }
+    }
+
     /**
      * Transforms the input <code>source</code> by the command line.
      *
      * @param commandLine the command to execute. Command line should contain %s string, which will be replaced by the
-     *            input data.
+     *            input data. If it starts with {@link #WORKER_PREFIX}, the command is started once and the input is
+     *            sent to it as one line, see {@link ExecWorker}.
      * @param source the input to transform
      */
     @Override
@@ -59,15 +81,32 @@ public class ExecTransformationService implements TransformationService {
 
         if (!execTransformationWhitelistWatchService.isWhitelisted(commandLine)) {
             logger.warn("Tried to execute '{}', but it is not contained in whitelist.", commandLine);
+            ExecWorker worker = workers.remove(commandLine);
+            if (worker != null) {
+                worker.stop();
+            }
             return null;
         }
         logger.debug("about to transform '{}' by the commandline '{}'", source, commandLine);
 
         long startTime = System.currentTimeMillis();
 
+        if (commandLine.startsWith(WORKER_PREFIX)) {
+            ExecWorker worker;
+            synchronized (workers) {
+                if (deactivated) {
+                    throw new TransformationException("EXEC transformation service is deactivated");
+                }
+                worker = workers.computeIfAbsent(commandLine,
+                        key -> new ExecWorker(key.substring(WORKER_PREFIX.length()).trim(), TIMEOUT));
+            }
+            String result = worker.transform(source);
+            logger.trace("exec worker elapsed {} ms", System.currentTimeMillis() - startTime);
+            return result;
+        }
+
         String formattedCommandLine = String.format(commandLine, source);
-        String result = ExecUtil.executeCommandLineAndWaitResponse(Duration.ofSeconds(5),
-                formattedCommandLine.split(" "));
+        String result = ExecUtil.executeCommandLineAndWaitResponse(TIMEOUT, formattedCommandLine.split(" "));
         logger.trace("command line execution elapsed {} ms", System.currentTimeMillis() - startTime);
 
         return result;
@@ -0,0 +1,251 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.exec.internal;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.core.common.NamedThreadFactory;
+import org.openhab.core.transform.TransformationException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A long-lived process which transforms values sent to it line by line.
+ *
+ * Every input is written as one line to the standard input of the process, which has to answer with exactly one line
+ * on its standard output, in the order of the requests. Concurrent transformations don't wait for each other, their
+ * requests are pipelined and the answers are assigned to them in order. Output on the standard error is logged.
+ *
+ * The process is started with the first transformation and restarted with the next one after it exited, but not more
+ * often than every {@link #RESTART_DELAY}. If an answer takes longer than the timeout, the process is considered hung
+ * and killed.
+ *
+ * @author Markus Vogler - Initial contribution
+ */
+@NonNullByDefault
+public class ExecWorker {
+
+    static final Duration RESTART_DELAY = Duration.ofSeconds(1);
+
+    private static final ThreadFactory THREAD_FACTORY = new NamedThreadFactory("exec-worker");
+
+    private final Logger logger = LoggerFactory.getLogger(ExecWorker.class);
+
+    private final String commandLine;
+    private final Duration timeout;
+
+    // guarded by this
+    private @Nullable Process process;
+    private @Nullable Writer writer;
+    // answers expected from the current process
+    private Queue<CompletableFuture<String>> pending = new ConcurrentLinkedQueue<>();
+    private long lastStart;
+    private volatile boolean stopped;
+
+    /**
+     * @param commandLine the command to start, arguments separated by spaces
+     * @param timeout maximum time to wait for the answer to a request
+     */
+    public ExecWorker(String commandLine, Duration timeout) {
+        this.commandLine = commandLine;
+        this.timeout = timeout;
+    }
+
+    /**
+     * Sends the input to the process and waits for its answer
+     *
+     * @param input the input, must not contain line breaks
+     * @return the line answered by the process
+     * @throws TransformationException if the process could not be started, exited or did not answer in time
+     */
+    public String transform(String input) throws TransformationException {
+        if (input.indexOf('\n') >= 0 || input.indexOf('\r') >= 0) {
+            throw new TransformationException("Input for an exec worker must not contain line breaks");
+        }
+
+        Request request = send(input);
+        try {
+            return request.answer.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            logger.warn("Exec worker '{}' did not answer within {} ms, killing it", commandLine, timeout.toMillis());
+            // the process may have been restarted by another request meanwhile, which must not be killed
+            kill(request.process);
+            throw new TransformationException("Exec worker '" + commandLine + "' did not answer in time");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw new TransformationException(
+                    "Exec worker '" + commandLine + "' failed: " + (cause != null ? cause.getMessage() : e.getMessage()),
+                    cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TransformationException("Interrupted while waiting for exec worker '" + commandLine + "'");
+        }
+    }
+
+    private synchronized Request send(String input) throws TransformationException {
+        Writer writer = this.writer;
+        Process process = this.process;
+        if (writer == null || process == null) {
+            process = start();
+            writer = this.writer;
+            if (writer == null) {
+                throw new TransformationException("Exec worker '" + commandLine + "' could not be started");
+            }
+        }
+        Request request = new Request(process);
+        try {
+            // enqueue and write under the same lock, so that the answers are assigned in order
+            pending.add(request.answer);
+            writer.write(input);
+            writer.write('\n');
+            writer.flush();
+        } catch (IOException e) {
+            request.answer.completeExceptionally(e);
+            kill(process);
+        }
+        return request;
+    }
+
+    private Process start() throws TransformationException {
+        if (stopped) {
+            throw new TransformationException("Exec worker '" + commandLine + "' is stopped");
+        }
+        long now = System.nanoTime();
+        if (lastStart != 0 && now - lastStart < RESTART_DELAY.toNanos()) {
+            throw new TransformationException("Exec worker '" + commandLine + "' exited and is not restarted yet");
+        }
+        lastStart = now;
+
+        Process process;
+        try {
+            process = new ProcessBuilder(commandLine.split(" ")).start();
+        } catch (IOException e) {
+            throw new TransformationException("Cannot start exec worker '" + commandLine + "': " + e.getMessage(), e);
+        }
+        logger.debug("Started exec worker '{}'", commandLine);
+
+        Queue<CompletableFuture<String>> pending = new ConcurrentLinkedQueue<>();
+        Writer writer = new BufferedWriter(new OutputStreamWriter(process.getOutputStream(), StandardCharsets.UTF_8));
+        this.process = process;
+        this.writer = writer;
+        this.pending = pending;
+        THREAD_FACTORY.newThread(() -> readAnswers(process, pending)).start();
+        THREAD_FACTORY.newThread(() -> logErrors(process)).start();
+        return process;
+    }
+
+    private void readAnswers(Process process, Queue<CompletableFuture<String>> pending) {
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                CompletableFuture<String> answer = pending.poll();
+                if (answer != null) {
+                    // completing a request which timed out has no effect
+                    answer.complete(line);
+                } else {
+                    logger.debug("Exec worker '{}' sent unexpected output '{}'", commandLine, line);
+                }
+            }
+        } catch (IOException e) {
+            logger.debug("Reading from exec worker '{}' failed: {}", commandLine, e.getMessage());
+        }
+        exited(process, pending);
+    }
+
+    private void logErrors(Process process) {
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(process.getErrorStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                logger.warn("Exec worker '{}': {}", commandLine, line);
+            }
+        } catch (IOException e) {
+            // process exited
+        }
+    }
+
+    private void exited(Process process, Queue<CompletableFuture<String>> pending) {
+        synchronized (this) {
+            if (this.process == process) {
+                this.process = null;
+                this.writer = null;
+            }
+        }
+        process.destroy();
+        try {
+            if (process.waitFor(timeout.toMillis(), TimeUnit.MILLISECONDS) && !stopped) {
+                logger.warn("Exec worker '{}' exited with code {}", commandLine, process.exitValue());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        IOException exited = new IOException("process exited");
+        CompletableFuture<String> answer;
+        while ((answer = pending.poll()) != null) {
+            answer.completeExceptionally(exited);
+        }
+    }
+
+    private synchronized void kill(Process process) {
+        // the reader thread fails the pending requests and the next request restarts the process
+        process.destroyForcibly();
+        if (this.process == process) {
+            this.process = null;
+            this.writer = null;
+        }
+    }
+
+    /**
+     * Stops the process, it is not restarted anymore. A process is never started after this method returned, since
+     * both are synchronized.
+     */
+    public synchronized void stop() {
+        stopped = true;
+        Process process = this.process;
+        if (process != null) {
+            logger.debug("Stopping exec worker '{}'", commandLine);
+            process.destroy();
+            this.process = null;
+            this.writer = null;
+        }
+    }
+
+    /**
+     * A request and the process it was sent to
+     */
+    private static class Request {
+        private final CompletableFuture<String> answer = new CompletableFuture<>();
+        private final Process process;
+
+        private Request(Process process) {
+            this.process = process;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.exec.internal;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.openhab.core.transform.TransformationException;
+
+/**
+ * Tests cases for {@link ExecTransformationService}.
+ *
+ * @author Markus Vogler - Initial contribution
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.WARN)
+public class ExecTransformationServiceTest {
+
+    private @Mock ExecTransformationWhitelistWatchService whitelist;
+
+    @Test
+    public void noWorkerIsStartedAfterDeactivation() {
+        when(whitelist.isWhitelisted(anyString())).thenReturn(true);
+        ExecTransformationService service = new ExecTransformationService(whitelist);
+
+        service.deactivate();
+
+        assertThrows(TransformationException.class,
+                () -> service.transform(ExecTransformationService.WORKER_PREFIX + "/bin/cat", "a"));
+    }
+}
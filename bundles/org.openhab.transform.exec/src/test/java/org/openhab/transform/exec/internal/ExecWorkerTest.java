@@ -0,0 +1,113 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.exec.internal;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.openhab.core.transform.TransformationException;
+
+/**
+ * Tests cases for {@link ExecWorker}.
+ *
+ * @author Markus Vogler - Initial contribution
+ */
+@NonNullByDefault
+public class ExecWorkerTest {
+
+    // answers every line with the process id and the line, and doesn't answer "hang"
+    private static final String SCRIPT = "while read line; do\n" //
+            + "  if [ \"$line\" = hang ]; then sleep 60; fi\n" //
+            + "  echo \"$$:$line\"\n" //
+            + "done\n";
+
+    private static final Duration TIMEOUT = Duration.ofMillis(500);
+
+    private @NonNullByDefault({}) ExecWorker worker;
+
+    @BeforeEach
+    public void setUp(@TempDir Path tempDir) throws IOException {
+        assumeTrue(new File("/bin/sh").canExecute(), "No shell available");
+        Path script = tempDir.resolve("worker.sh");
+        Files.write(script, SCRIPT.getBytes(StandardCharsets.UTF_8));
+        worker = new ExecWorker("/bin/sh " + script, TIMEOUT);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        if (worker != null) {
+            worker.stop();
+        }
+    }
+
+    private static String pid(String answer) {
+        return answer.substring(0, answer.indexOf(':'));
+    }
+
+    private static String value(String answer) {
+        return answer.substring(answer.indexOf(':') + 1);
+    }
+
+    private String transformAfterRestartDelay(String input) throws Exception {
+        Thread.sleep(ExecWorker.RESTART_DELAY.toMillis() + 100);
+        return worker.transform(input);
+    }
+
+    @Test
+    public void processIsReused() throws TransformationException {
+        String first = worker.transform("a");
+        String second = worker.transform("b");
+
+        assertEquals("a", value(first));
+        assertEquals("b", value(second));
+        assertEquals(pid(first), pid(second));
+    }
+
+    @Test
+    public void hungProcessIsKilledAndRestarted() throws Exception {
+        String before = worker.transform("a");
+
+        assertThrows(TransformationException.class, () -> worker.transform("hang"));
+        // the process is not restarted right away
+        assertThrows(TransformationException.class, () -> worker.transform("b"));
+
+        String after = transformAfterRestartDelay("c");
+        assertEquals("c", value(after));
+        assertNotEquals(pid(before), pid(after));
+    }
+
+    @Test
+    public void stoppedWorkerIsNotRestarted() throws TransformationException {
+        worker.transform("a");
+        worker.stop();
+
+        assertThrows(TransformationException.class, () -> worker.transform("b"));
+    }
+
+    @Test
+    public void inputWithLineBreaksIsRejected() {
+        assertThrows(TransformationException.class, () -> worker.transform("a\nb"));
+    }
+}
@@ -0,0 +1,96 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.javascript.internal;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+
+/**
+ * Lock-free histogram of script execution times with fixed buckets.
+ *
+ * @author Markus Vogler - Initial contribution
+ */
+@NonNullByDefault
+public class ExecutionTimeHistogram {
+
+    /** upper bounds of the buckets in ms, the last bucket holds all longer executions */
+    private static final long[] BOUNDS_MILLIS = { 1, 2, 5, 10, 20, 50, 100, 200, 500, 1000 };
+
+    private final AtomicLongArray counts = new AtomicLongArray(BOUNDS_MILLIS.length + 1);
+    private final AtomicLongArray totals = new AtomicLongArray(2);
+
+    /**
+     * Records an execution
+     *
+     * @param nanos execution time in nanoseconds
+     */
+    public void record(long nanos) {
+        long micros = nanos / 1000;
+        int bucket = 0;
+        while (bucket < BOUNDS_MILLIS.length && micros >= BOUNDS_MILLIS[bucket] * 1000) {
+            bucket++;
+        }
+        counts.incrementAndGet(bucket);
+        totals.incrementAndGet(0);
+        totals.addAndGet(1, micros);
+    }
+
+    public long getCount() {
+        return totals.get(0);
+    }
+
+    /**
+     * @return the mean execution time in ms
+     */
+    public double getMeanMillis() {
+        long count = totals.get(0);
+        return count == 0 ? 0 : totals.get(1) / 1000.0 / count;
+    }
+
+    /**
+     * Returns an upper bound of the given percentile
+     *
+     * @param percentile percentile between 0 and 100
+     * @return upper bound of the bucket containing the percentile in ms, or -1 if it is in the last bucket
+     */
+    public long getPercentileMillis(double percentile) {
+        long count = totals.get(0);
+        if (count == 0) {
+            return 0;
+        }
+        long threshold = (long) Math.ceil(count * percentile / 100);
+        long sum = 0;
+        for (int i = 0; i < BOUNDS_MILLIS.length; i++) {
+            sum += counts.get(i);
+            if (sum >= threshold) {
+                return BOUNDS_MILLIS[i];
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        builder.append("count=").append(getCount()).append(String.format(", mean=%.2fms [", getMeanMillis()));
+        for (int i = 0; i < counts.length(); i++) {
+            if (i > 0) {
+                builder.append(", ");
+            }
+            builder.append(i < BOUNDS_MILLIS.length ? "<" + BOUNDS_MILLIS[i] : ">=" + BOUNDS_MILLIS[i - 1]);
+            builder.append("ms: ").append(counts.get(i));
+        }
+        return builder.append(']').toString();
+    }
+}
@@ -17,8 +17,12 @@ import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.Reader;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.script.Compilable;
 import javax.script.CompiledScript;
@@ -27,13 +31,19 @@ import javax.script.ScriptEngineManager;
 import javax.script.ScriptException;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
 import org.openhab.core.transform.TransformationException;
 import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Deactivate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * Simple cache for compiled JavaScript files.
+ * Pool of JavaScript engines with a cache of compiled JavaScript files per engine.
+ *
+ * Script engines are not thread-safe, so every transformation borrows an engine exclusively. Up to
+ * {@link #MAX_ENGINES} engines are created on demand, so that transformations run in parallel instead of waiting for
+ * each other. Each engine compiles a script once and keeps it until the file is modified.
  *
  * @author Thomas Kordelle - pre compiled scripts
  *
@@ -42,42 +52,134 @@ import org.slf4j.LoggerFactory;
 @Component(service = JavaScriptEngineManager.class)
 public class JavaScriptEngineManager {
 
-    private final Logger logger = LoggerFactory.getLogger(JavaScriptEngineManager.class);
-    private final ScriptEngineManager manager = new ScriptEngineManager();
-    /* keep memory foot print low. max 2 concurrent threads are estimated */
-    private final Map<String, CompiledScript> compiledScriptMap = new ConcurrentHashMap<>(4, 0.5f, 2);
+    static final int MAX_ENGINES = Math.max(1, Math.min(8, Runtime.getRuntime().availableProcessors()));
 
     /**
-     * Get a pre compiled script {@link CompiledScript} from cache. If it is not in the cache, then load it from
-     * storage and put a pre compiled version into the cache.
-     *
-     * @param filename name of the JavaScript file to load
-     * @return a pre compiled script {@link CompiledScript}
-     * @throws TransformationException if compile of JavaScript failed
+     * A script engine with the scripts compiled for it
      */
-    protected CompiledScript getScript(final String filename) throws TransformationException {
-        synchronized (compiledScriptMap) {
+    protected class EngineContext {
+        private final ScriptEngine engine;
+        private final Map<String, CompiledScript> compiledScriptMap = new ConcurrentHashMap<>(4, 0.5f, 1);
+
+        private EngineContext(ScriptEngine engine) {
+            this.engine = engine;
+        }
+
+        /**
+         * Get a pre compiled script {@link CompiledScript} from cache. If it is not in the cache, then load it from
+         * storage and put a pre compiled version into the cache.
+         *
+         * @param filename name of the JavaScript file to load
+         * @return a pre compiled script {@link CompiledScript}
+         * @throws TransformationException if compile of JavaScript failed
+         */
+        protected CompiledScript getScript(final String filename) throws TransformationException {
             CompiledScript compiledScript = compiledScriptMap.get(filename);
             if (compiledScript != null) {
-                logger.debug("Loading JavaScript {} from cache.", filename);
+                logger.trace("Loading JavaScript {} from cache.", filename);
                 return compiledScript;
-            } else {
-                final String path = TransformationScriptWatcher.TRANSFORM_FOLDER + File.separator + filename;
-                logger.debug("Loading script {} from storage ", path);
-                try (final Reader reader = new InputStreamReader(new FileInputStream(path))) {
-                    final ScriptEngine engine = manager.getEngineByName("javascript");
-                    final CompiledScript cScript = ((Compilable) engine).compile(reader);
-                    logger.debug("Putting compiled JavaScript {} to cache.", cScript);
-                    compiledScriptMap.put(filename, cScript);
-                    return cScript;
-                } catch (IOException | ScriptException e) {
-                    throw new TransformationException("An error occurred while loading JavaScript. " + e.getMessage(),
-                            e);
+            }
+            try {
+                // removeFromCache waits for a running compilation, so a modified file is never kept
+                return compiledScriptMap.computeIfAbsent(filename, this::compile);
+            } catch (CompileException e) {
+                throw new TransformationException("An error occurred while loading JavaScript. " + e.getMessage(),
+                        e.getCause());
+            }
+        }
+
+        private CompiledScript compile(String filename) {
+            final String path = TransformationScriptWatcher.TRANSFORM_FOLDER + File.separator + filename;
+            logger.debug("Loading script {} from storage ", path);
+            try (final Reader reader = new InputStreamReader(new FileInputStream(path))) {
+                final CompiledScript cScript = ((Compilable) engine).compile(reader);
+                logger.debug("Putting compiled JavaScript {} to cache.", cScript);
+                return cScript;
+            } catch (IOException | ScriptException e) {
+                throw new CompileException(e);
+            }
+        }
+    }
+
+    private static class CompileException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        private CompileException(Exception cause) {
+            super(cause.getMessage(), cause);
+        }
+    }
+
+    private final Logger logger = LoggerFactory.getLogger(JavaScriptEngineManager.class);
+    private final ScriptEngineManager manager = new ScriptEngineManager();
+
+    private final List<EngineContext> engines = new CopyOnWriteArrayList<>();
+    private final LinkedBlockingDeque<EngineContext> idleEngines = new LinkedBlockingDeque<>();
+    private final AtomicInteger engineCount = new AtomicInteger();
+
+    private final Map<String, ExecutionTimeHistogram> histograms = new ConcurrentHashMap<>();
+
+    @Deactivate
+    public void deactivate() {
+        if (logger.isDebugEnabled()) {
+            histograms.forEach((filename, histogram) -> logger.debug("Execution times of JavaScript {}: {}",
+                    filename, histogram));
+        }
+    }
+
+    /**
+     * Borrows an engine for exclusive use, creating a new one if all engines are in use and the maximum is not
+     * reached yet. Has to be returned with {@link #returnEngine(EngineContext)}.
+     *
+     * @return the engine
+     * @throws TransformationException if no engine is available or the thread was interrupted while waiting
+     */
+    protected EngineContext borrowEngine() throws TransformationException {
+        EngineContext context = idleEngines.pollFirst();
+        if (context != null) {
+            return context;
+        }
+        int count = engineCount.get();
+        while (count < MAX_ENGINES) {
+            if (engineCount.compareAndSet(count, count + 1)) {
+                ScriptEngine engine = manager.getEngineByName("javascript");
+                if (engine == null) {
+                    engineCount.decrementAndGet();
+                    throw new TransformationException("No JavaScript engine available.");
                 }
+                context = new EngineContext(engine);
+                engines.add(context);
+                logger.debug("Created JavaScript engine {} of {}", count + 1, MAX_ENGINES);
+                return context;
             }
+            count = engineCount.get();
+        }
+        try {
+            return idleEngines.takeFirst();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TransformationException("Interrupted while waiting for a JavaScript engine.", e);
         }
     }
 
+    protected void returnEngine(EngineContext context) {
+        // LIFO, so that the most recently used engines with their compiled scripts are reused
+        idleEngines.offerFirst(context);
+    }
+
+    /**
+     * Records the execution time of a script
+     *
+     * @param filename name of the JavaScript file
+     * @param nanos execution time in nanoseconds
+     */
+    protected void recordExecutionTime(String filename, long nanos) {
+        histograms.computeIfAbsent(filename, f -> new ExecutionTimeHistogram()).record(nanos);
+    }
+
+    protected @Nullable ExecutionTimeHistogram getExecutionTimes(String filename) {
+        return histograms.get(filename);
+    }
+
     /**
      * remove a pre compiled script from cache.
      *
@@ -85,6 +187,8 @@ public class JavaScriptEngineManager {
      */
     protected void removeFromCache(String fileName) {
         logger.debug("Removing JavaScript {} from cache.", fileName);
-        compiledScriptMap.remove(fileName);
+        for (EngineContext context : engines) {
+            context.compiledScriptMap.remove(fileName);
+        }
     }
 }
@@ -20,6 +20,7 @@ import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
 import org.openhab.core.transform.TransformationException;
 import org.openhab.core.transform.TransformationService;
+import org.openhab.transform.javascript.internal.JavaScriptEngineManager.EngineContext;
 import org.osgi.service.component.annotations.Component;
 import org.osgi.service.component.annotations.Reference;
 import org.slf4j.Logger;
@@ -27,7 +28,7 @@ import org.slf4j.LoggerFactory;
 
 /**
  * The implementation of {@link TransformationService} which transforms the
- * input by Java Script.
+ * input by Java Script. Transformations run in parallel on the engines pooled by the {@link JavaScriptEngineManager}.
  *
  * @author Pauli Anttila - Initial contribution
  * @author Thomas Kordelle - pre compiled scripts
@@ -65,13 +66,14 @@ public class JavaScriptTransformationService implements TransformationService {
             throw new TransformationException("the given parameters 'filename' and 'source' must not be null");
         }
 
-        final long startTime = System.currentTimeMillis();
         logger.debug("about to transform '{}' by the JavaScript '{}'", source, filename);
 
         String result = "";
 
+        final EngineContext context = manager.borrowEngine();
+        final long startTime = System.nanoTime();
         try {
-            final CompiledScript cScript = manager.getScript(filename);
+            final CompiledScript cScript = context.getScript(filename);
             final Bindings bindings = cScript.getEngine().createBindings();
             bindings.put("input", source);
             result = String.valueOf(cScript.eval(bindings));
@@ -79,8 +81,10 @@ public class JavaScriptTransformationService implements TransformationService {
         } catch (ScriptException e) {
             throw new TransformationException("An error occurred while executing script. " + e.getMessage(), e);
         } finally {
-            logger.trace("JavaScript execution elapsed {} ms. Result: {}", System.currentTimeMillis() - startTime,
-                    result);
+            final long elapsed = System.nanoTime() - startTime;
+            manager.returnEngine(context);
+            manager.recordExecutionTime(filename, elapsed);
+            logger.trace("JavaScript execution elapsed {} ms. Result: {}", elapsed / 1000000, result);
         }
     }
 }
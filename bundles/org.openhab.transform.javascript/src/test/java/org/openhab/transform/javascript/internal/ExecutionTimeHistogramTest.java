@@ -0,0 +1,71 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.javascript.internal;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests cases for {@link ExecutionTimeHistogram}.
+ *
+ * @author Markus Vogler - Initial contribution
+ */
+@NonNullByDefault
+public class ExecutionTimeHistogramTest {
+
+    private static long micros(long micros) {
+        return TimeUnit.MICROSECONDS.toNanos(micros);
+    }
+
+    @Test
+    public void emptyHistogram() {
+        ExecutionTimeHistogram histogram = new ExecutionTimeHistogram();
+
+        assertThat(histogram.getCount(), is(0L));
+        assertThat(histogram.getMeanMillis(), is(0.0));
+        assertThat(histogram.getPercentileMillis(99), is(0L));
+    }
+
+    @Test
+    public void executionsAreRecordedInBuckets() {
+        ExecutionTimeHistogram histogram = new ExecutionTimeHistogram();
+        histogram.record(micros(500));
+        histogram.record(micros(1500));
+        histogram.record(micros(3000));
+        histogram.record(micros(7000));
+
+        assertThat(histogram.getCount(), is(4L));
+        assertThat(histogram.getMeanMillis(), is(3.0));
+        assertThat(histogram.getPercentileMillis(25), is(1L));
+        assertThat(histogram.getPercentileMillis(50), is(2L));
+        assertThat(histogram.getPercentileMillis(75), is(5L));
+        assertThat(histogram.getPercentileMillis(100), is(10L));
+    }
+
+    @Test
+    public void timedOutExecutionsAreRecordedInLastBucket() {
+        ExecutionTimeHistogram histogram = new ExecutionTimeHistogram();
+        histogram.record(micros(500));
+        histogram.record(TimeUnit.SECONDS.toNanos(30));
+
+        assertThat(histogram.getCount(), is(2L));
+        assertThat(histogram.getPercentileMillis(50), is(1L));
+        assertThat(histogram.getPercentileMillis(100), is(-1L));
+        assertThat(histogram.toString(), containsString(">=1000ms: 1"));
+    }
+}
@@ -0,0 +1,98 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.javascript.internal;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import javax.script.ScriptEngineManager;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.openhab.core.transform.TransformationException;
+import org.openhab.transform.javascript.internal.JavaScriptEngineManager.EngineContext;
+
+/**
+ * Tests cases for {@link JavaScriptEngineManager}.
+ *
+ * @author Markus Vogler - Initial contribution
+ */
+@NonNullByDefault
+public class JavaScriptEngineManagerTest {
+
+    private final JavaScriptEngineManager manager = new JavaScriptEngineManager();
+
+    @BeforeEach
+    public void setUp() {
+        assumeTrue(new ScriptEngineManager().getEngineByName("javascript") != null,
+                "No JavaScript engine available");
+    }
+
+    @Test
+    public void returnedEngineIsReused() throws TransformationException {
+        EngineContext first = manager.borrowEngine();
+        manager.returnEngine(first);
+
+        assertThat(manager.borrowEngine(), is(sameInstance(first)));
+    }
+
+    @Test
+    public void borrowedEnginesAreNotShared() throws TransformationException {
+        assumeTrue(JavaScriptEngineManager.MAX_ENGINES > 1);
+
+        EngineContext first = manager.borrowEngine();
+        EngineContext second = manager.borrowEngine();
+
+        assertThat(second, is(not(sameInstance(first))));
+    }
+
+    @Test
+    public void borrowWaitsForReturnedEngineWhenAllEnginesAreInUse() throws Exception {
+        List<EngineContext> borrowed = new ArrayList<>();
+        for (int i = 0; i < JavaScriptEngineManager.MAX_ENGINES; i++) {
+            borrowed.add(manager.borrowEngine());
+        }
+
+        CompletableFuture<EngineContext> waiting = CompletableFuture.supplyAsync(() -> {
+            try {
+                return manager.borrowEngine();
+            } catch (TransformationException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        assertThrows(TimeoutException.class, () -> waiting.get(200, TimeUnit.MILLISECONDS));
+
+        EngineContext returned = borrowed.get(0);
+        manager.returnEngine(returned);
+        assertThat(waiting.get(5, TimeUnit.SECONDS), is(sameInstance(returned)));
+    }
+
+    @Test
+    public void executionTimesAreRecordedPerScript() {
+        manager.recordExecutionTime("a.js", TimeUnit.MILLISECONDS.toNanos(3));
+        manager.recordExecutionTime("a.js", TimeUnit.SECONDS.toNanos(10));
+
+        ExecutionTimeHistogram histogram = manager.getExecutionTimes("a.js");
+        assertThat(histogram == null ? 0 : histogram.getCount(), is(2L));
+        assertThat(manager.getExecutionTimes("b.js"), is(nullValue()));
+    }
+}
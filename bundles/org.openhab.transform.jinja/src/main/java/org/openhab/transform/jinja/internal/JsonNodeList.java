@@ -0,0 +1,49 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.jinja.internal;
+
+import java.util.AbstractList;
+import java.util.RandomAccess;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * Read-only list view of a JSON array. Elements are converted when they are accessed.
+ *
+ * @author Markus Vogler - Initial contribution
+ */
+@NonNullByDefault
+public class JsonNodeList extends AbstractList<@Nullable Object> implements RandomAccess {
+
+    private final JsonNode node;
+
+    public JsonNodeList(JsonNode node) {
+        this.node = node;
+    }
+
+    @Override
+    public @Nullable Object get(int index) {
+        if (index < 0 || index >= node.size()) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + node.size());
+        }
+        return JsonNodeMap.toObject(node.get(index));
+    }
+
+    @Override
+    public int size() {
+        return node.size();
+    }
+}
@@ -0,0 +1,111 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.jinja.internal;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map.Entry;
+import java.util.Set;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * Read-only map view of a JSON object. Values are converted when they are accessed, so a template only pays for the
+ * fields it uses.
+ *
+ * @author Markus Vogler - Initial contribution
+ */
+@NonNullByDefault
+public class JsonNodeMap extends AbstractMap<String, @Nullable Object> {
+
+    private final JsonNode node;
+
+    public JsonNodeMap(JsonNode node) {
+        this.node = node;
+    }
+
+    /**
+     * Converts a JSON node to the object that is passed to the template: objects and arrays to views, numbers to
+     * {@link java.math.BigDecimal}, strings and booleans to their Java type and null to null.
+     *
+     * @param node JSON node
+     * @return converted value
+     */
+    public static @Nullable Object toObject(JsonNode node) {
+        switch (node.getNodeType()) {
+            case ARRAY:
+                return new JsonNodeList(node);
+            case NUMBER:
+                return node.decimalValue();
+            case OBJECT:
+                return new JsonNodeMap(node);
+            case STRING:
+                return node.asText();
+            case BOOLEAN:
+                return node.asBoolean();
+            case NULL:
+            default:
+                return null;
+        }
+    }
+
+    @Override
+    public @Nullable Object get(@Nullable Object key) {
+        if (!(key instanceof String)) {
+            return null;
+        }
+        JsonNode value = node.get((String) key);
+        return value == null ? null : toObject(value);
+    }
+
+    @Override
+    public boolean containsKey(@Nullable Object key) {
+        return key instanceof String && node.has((String) key);
+    }
+
+    @Override
+    public int size() {
+        return node.size();
+    }
+
+    @Override
+    public Set<Entry<String, @Nullable Object>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Entry<String, @Nullable Object>> iterator() {
+                Iterator<Entry<String, JsonNode>> fields = node.fields();
+                return new Iterator<>() {
+                    @Override
+                    public boolean hasNext() {
+                        return fields.hasNext();
+                    }
+
+                    @Override
+                    public Entry<String, @Nullable Object> next() {
+                        Entry<String, JsonNode> field = fields.next();
+                        return new SimpleImmutableEntry<>(field.getKey(), toObject(field.getValue()));
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return node.size();
+            }
+        };
+    }
+}
@@ -59,4 +59,23 @@ public class JinjaTransformationServiceTest {
         // Asserts
         assertEquals("Hello world!", transformedResponse);
     }
+
+    @Test
+    public void testCachedTemplateWithDifferentValues() throws TransformationException {
+        String template = "{{ value_json.state }}";
+
+        assertEquals("ON", processor.transform(template, "{\"state\":\"ON\"}"));
+        assertEquals("OFF", processor.transform(template, "{\"state\":\"OFF\"}"));
+        assertEquals("", processor.transform(template, "{\"other\":1}"));
+    }
+
+    @Test
+    public void testArraysAndIteration() throws TransformationException {
+        String json = "{\"values\":[1,2.5,3],\"nested\":[{\"name\":\"a\"},{\"name\":\"b\"}],\"flag\":true}";
+
+        assertEquals("2.5", processor.transform("{{ value_json['values'][1] }}", json));
+        assertEquals("3", processor.transform("{{ value_json['values'] | length }}", json));
+        assertEquals("ab", processor.transform("{% for n in value_json.nested %}{{ n.name }}{% endfor %}", json));
+        assertEquals("yes", processor.transform("{% if value_json.flag %}yes{% endif %}", json));
+    }
 }
@@ -0,0 +1,195 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.jsonpath.internal;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+
+import com.jayway.jsonpath.Configuration;
+import com.jayway.jsonpath.InvalidJsonException;
+import com.jayway.jsonpath.InvalidPathException;
+import com.jayway.jsonpath.JsonPath;
+
+/**
+ * Caches compiled {@link JsonPath} expressions and parsed JSON documents.
+ *
+ * Things often apply many different expressions to the same payload, e.g. one per channel of an MQTT or HTTP thing.
+ * The documents parsed most recently are therefore kept for a short time, so that the payload is only parsed once for
+ * all of these transformations. Parsed documents are only read, never modified, so they can be shared between threads.
+ *
+ * @author Markus Vogler - Initial contribution
+ */
+@NonNullByDefault
+public class JSonPathCache {
+
+    public static final int DEFAULT_PATH_CAPACITY = 256;
+    public static final int DEFAULT_DOCUMENT_CAPACITY = 16;
+    public static final long DEFAULT_DOCUMENT_TTL_MILLIS = 1000;
+
+    private final Configuration configuration = Configuration.defaultConfiguration();
+
+    private final int pathCapacity;
+    private final int documentCapacity;
+    private final long documentTtlMillis;
+
+    // access ordered, guarded by itself
+    private final Map<String, JsonPath> paths = new LinkedHashMap<>(16, 0.75f, true);
+    // insertion ordered, guarded by itself
+    private final Map<String, Document> documents = new LinkedHashMap<>();
+
+    private final AtomicLong pathHits = new AtomicLong();
+    private final AtomicLong pathMisses = new AtomicLong();
+    private final AtomicLong documentHits = new AtomicLong();
+    private final AtomicLong documentMisses = new AtomicLong();
+
+    public JSonPathCache() {
+        this(DEFAULT_PATH_CAPACITY, DEFAULT_DOCUMENT_CAPACITY, DEFAULT_DOCUMENT_TTL_MILLIS);
+    }
+
+    public JSonPathCache(int pathCapacity, int documentCapacity, long documentTtlMillis) {
+        this.pathCapacity = Math.max(1, pathCapacity);
+        this.documentCapacity = Math.max(1, documentCapacity);
+        this.documentTtlMillis = documentTtlMillis;
+    }
+
+    /**
+     * Returns the compiled expression
+     *
+     * @param expression JsonPath expression
+     * @return the compiled expression
+     * @throws InvalidPathException if the expression is invalid
+     */
+    public JsonPath getPath(String expression) {
+        synchronized (paths) {
+            JsonPath path = paths.get(expression);
+            if (path != null) {
+                pathHits.incrementAndGet();
+                return path;
+            }
+        }
+        pathMisses.incrementAndGet();
+        JsonPath path = JsonPath.compile(expression);
+        synchronized (paths) {
+            paths.put(expression, path);
+            Iterator<String> iterator = paths.keySet().iterator();
+            while (paths.size() > pathCapacity && iterator.hasNext()) {
+                iterator.next();
+                iterator.remove();
+            }
+        }
+        return path;
+    }
+
+    /**
+     * Returns the parsed document
+     *
+     * @param source String which contains JSON
+     * @return the parsed document, must not be modified
+     * @throws InvalidJsonException if the source is not valid JSON
+     */
+    public @Nullable Object getDocument(String source) {
+        long now = System.currentTimeMillis();
+        synchronized (documents) {
+            removeExpiredDocuments(now);
+            Document document = documents.get(source);
+            if (document != null) {
+                documentHits.incrementAndGet();
+                return document.json;
+            }
+        }
+        documentMisses.incrementAndGet();
+        Object json = configuration.jsonProvider().parse(source);
+        synchronized (documents) {
+            // re-insert so that the document expires last
+            documents.remove(source);
+            documents.put(source, new Document(json, now + documentTtlMillis));
+            Iterator<Document> iterator = documents.values().iterator();
+            while (documents.size() > documentCapacity && iterator.hasNext()) {
+                iterator.next();
+                iterator.remove();
+            }
+        }
+        return json;
+    }
+
+    /**
+     * Evaluates the expression on the source, using the cached compiled expression and parsed document if available
+     *
+     * @param expression JsonPath expression
+     * @param source String which contains JSON
+     * @return result of the expression
+     */
+    public @Nullable Object read(String expression, String source) {
+        JsonPath path = getPath(expression);
+        return path.read(getDocument(source), configuration);
+    }
+
+    private void removeExpiredDocuments(long now) {
+        Iterator<Document> iterator = documents.values().iterator();
+        while (iterator.hasNext() && iterator.next().expiry <= now) {
+            iterator.remove();
+        }
+    }
+
+    public void clear() {
+        synchronized (paths) {
+            paths.clear();
+        }
+        synchronized (documents) {
+            documents.clear();
+        }
+    }
+
+    public long getPathHits() {
+        return pathHits.get();
+    }
+
+    public long getPathMisses() {
+        return pathMisses.get();
+    }
+
+    public long getDocumentHits() {
+        return documentHits.get();
+    }
+
+    public long getDocumentMisses() {
+        return documentMisses.get();
+    }
+
+    @Override
+    public String toString() {
+        return "JSonPathCache [pathHits=" + pathHits + ", pathMisses=" + pathMisses + ", pathHitRate="
+                + hitRate(pathHits.get(), pathMisses.get()) + "%, documentHits=" + documentHits + ", documentMisses="
+                + documentMisses + ", documentHitRate=" + hitRate(documentHits.get(), documentMisses.get()) + "%]";
+    }
+
+    private static long hitRate(long hits, long misses) {
+        long total = hits + misses;
+        return total == 0 ? 0 : hits * 100 / total;
+    }
+
+    private static class Document {
+        private final @Nullable Object json;
+        private final long expiry;
+
+        private Document(@Nullable Object json, long expiry) {
+            this.json = json;
+            this.expiry = expiry;
+        }
+    }
+}
@@ -21,17 +21,18 @@ import org.openhab.core.transform.TransformationException;
 import org.openhab.core.transform.TransformationService;
 import org.openhab.core.types.UnDefType;
 import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Deactivate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.jayway.jsonpath.InvalidJsonException;
 import com.jayway.jsonpath.InvalidPathException;
-import com.jayway.jsonpath.JsonPath;
 import com.jayway.jsonpath.PathNotFoundException;
 
 /**
  * <p>
  * The implementation of {@link TransformationService} which transforms the input by JSonPath Expressions.
+ * Compiled expressions and recently parsed documents are cached in a {@link JSonPathCache}.
  *
  * @author Gaël L'hopital
  * @author Sebastian Janzen
@@ -43,6 +44,14 @@ public class JSonPathTransformationService implements TransformationService {
 
     private final Logger logger = LoggerFactory.getLogger(JSonPathTransformationService.class);
 
+    private final JSonPathCache cache = new JSonPathCache();
+
+    @Deactivate
+    public void deactivate() {
+        logger.debug("Deactivating, cache statistics: {}", cache);
+        cache.clear();
+    }
+
     /**
      * Transforms the input <code>source</code> by JSonPath expression.
      *
@@ -60,7 +69,7 @@ public class JSonPathTransformationService implements TransformationService {
         logger.debug("about to transform '{}' by the function '{}'", source, jsonPathExpression);
 
         try {
-            Object transformationResult = JsonPath.read(source, jsonPathExpression);
+            Object transformationResult = cache.read(jsonPathExpression, source);
             logger.debug("transformation resulted in '{}'", transformationResult);
             if (transformationResult == null) {
                 return null;
@@ -76,6 +85,10 @@ public class JSonPathTransformationService implements TransformationService {
         }
     }
 
+    JSonPathCache getCache() {
+        return cache;
+    }
+
     private String flattenList(List<?> list) {
         if (list.size() == 1) {
             return list.get(0).toString();
@@ -127,4 +127,28 @@ public class JSonPathTransformationServiceTest {
         String transformedResponse = processor.transform("$.data", json);
         assertEquals(list, transformedResponse);
     }
+
+    @Test
+    public void testDocumentIsParsedOnceForMultiplePaths() throws TransformationException {
+        assertEquals("bob", processor.transform("$[0].name", jsonArray));
+        assertEquals("2", processor.transform("$[1].id", jsonArray));
+        assertEquals("alice", processor.transform("$[1].name", jsonArray));
+        assertEquals("bob", processor.transform("$[0].name", jsonArray));
+
+        JSonPathCache cache = processor.getCache();
+        assertEquals(1, cache.getDocumentMisses());
+        assertEquals(3, cache.getDocumentHits());
+        assertEquals(3, cache.getPathMisses());
+        assertEquals(1, cache.getPathHits());
+    }
+
+    @Test
+    public void testExpiredDocumentIsParsedAgain() throws InterruptedException {
+        JSonPathCache cache = new JSonPathCache(10, 10, 0);
+        cache.read("$[0].name", jsonArray);
+        Thread.sleep(5);
+        assertEquals("bob", cache.read("$[0].name", jsonArray));
+        assertEquals(2, cache.getDocumentMisses());
+        assertEquals(0, cache.getDocumentHits());
+    }
 }
@@ -12,6 +12,8 @@
  */
 package org.openhab.transform.regex.internal;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -40,6 +42,14 @@ public class RegExTransformationService implements TransformationService {
 
     private static final Pattern SUBSTR_PATTERN = Pattern.compile("^s/(.*?[^\\\\])/(.*?[^\\\\])/(.*)$");
 
+    /** Maximum number of compiled patterns kept per form */
+    static final int PATTERN_CACHE_SIZE = 256;
+
+    // access ordered, guarded by itself
+    private final Map<String, Pattern> substitutionPatterns = createPatternCache();
+    // access ordered, guarded by itself
+    private final Map<String, Pattern> matchPatterns = createPatternCache();
+
     @Override
     public @Nullable String transform(String regExpression, String source) throws TransformationException {
         if (regExpression == null || source == null) {
@@ -56,17 +66,18 @@ public class RegExTransformationService implements TransformationService {
             String regex = substMatcher.group(1);
             String substitution = substMatcher.group(2);
             String options = substMatcher.group(3);
+            Matcher matcher = getPattern(substitutionPatterns, regex, 0).matcher(source.trim());
             if (options.equals("g")) {
-                result = source.trim().replaceAll(regex, substitution);
+                result = matcher.replaceAll(substitution);
             } else {
-                result = source.trim().replaceFirst(regex, substitution);
+                result = matcher.replaceFirst(substitution);
             }
             if (result != null) {
                 return result;
             }
         }
 
-        Matcher matcher = Pattern.compile("^" + regExpression + "$", Pattern.DOTALL).matcher(source.trim());
+        Matcher matcher = getPattern(matchPatterns, "^" + regExpression + "$", Pattern.DOTALL).matcher(source.trim());
         if (!matcher.matches()) {
             logger.debug(
                     "the given regex '^{}$' doesn't match the given content '{}' -> couldn't compute transformation",
@@ -94,4 +105,34 @@ public class RegExTransformationService implements TransformationService {
 
         return result;
     }
+
+    private static Pattern getPattern(Map<String, Pattern> cache, String regex, int flags) {
+        synchronized (cache) {
+            Pattern pattern = cache.get(regex);
+            if (pattern == null) {
+                pattern = Pattern.compile(regex, flags);
+                cache.put(regex, pattern);
+            }
+            return pattern;
+        }
+    }
+
+    int getCachedPatternCount() {
+        synchronized (substitutionPatterns) {
+            synchronized (matchPatterns) {
+                return substitutionPatterns.size() + matchPatterns.size();
+            }
+        }
+    }
+
+    private static Map<String, Pattern> createPatternCache() {
+        return new LinkedHashMap<String, Pattern>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.@Nullable Entry<String, Pattern> eldest) {
+                return size() > PATTERN_CACHE_SIZE;
+            }
+        };
+    }
 }
@@ -75,4 +75,25 @@ public class RegExTransformationServiceTest extends AbstractTransformationServic
         // Asserts
         assertEquals("varX=12 varY=54 ", transformedResponse);
     }
+
+    @Test
+    public void testTransformByRegex_cachedPatternIsReused() throws TransformationException {
+        for (int i = 0; i < 3; i++) {
+            assertEquals("12", processor.transform("temp=(.*?)'C", "temp=12'C"));
+            assertEquals("varX=12 ", processor.transform("s/([A-Z]+)([0-9]+),*/var$1=$2 /", "X12,Y54"));
+        }
+
+        // Asserts
+        assertEquals(2, processor.getCachedPatternCount());
+    }
+
+    @Test
+    public void testTransformByRegex_patternCacheIsBounded() throws TransformationException {
+        for (int i = 0; i < 2 * RegExTransformationService.PATTERN_CACHE_SIZE; i++) {
+            assertEquals(String.valueOf(i), processor.transform("value" + i + "=(.*)", "value" + i + "=" + i));
+        }
+
+        // Asserts
+        assertEquals(RegExTransformationService.PATTERN_CACHE_SIZE, processor.getCachedPatternCount());
+    }
 }
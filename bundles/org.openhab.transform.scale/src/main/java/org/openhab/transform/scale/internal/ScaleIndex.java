@@ -0,0 +1,128 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.scale.internal;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * Sorted index over the ranges of a scale file.
+ *
+ * All range bounds split the number line into the bounds themselves and the open intervals between them. Every range
+ * contains either all or none of the values of such an elementary interval, so the label of the first range (in file
+ * order) containing it can be computed once when the file is loaded. A lookup is then a binary search over the bounds
+ * and gives the same result as evaluating the ranges from top to bottom.
+ *
+ * @author Markus Vogler - Initial contribution
+ */
+@NonNullByDefault
+public class ScaleIndex {
+
+    private static final BigDecimal HALF = new BigDecimal("0.5");
+
+    private final String format;
+    private final @Nullable String nonNumeric;
+
+    // sorted and distinct bounds of all ranges
+    private final BigDecimal[] bounds;
+    // label for each bound, null if no range contains it
+    private final @Nullable String[] boundLabels;
+    // label for the open interval below each bound and above the last bound, null if no range contains it
+    private final @Nullable String[] intervalLabels;
+
+    /**
+     * @param ranges ranges and their labels in evaluation order
+     * @param format presentation format of the result
+     * @param nonNumeric label for non numeric inputs, null if not defined
+     */
+    public ScaleIndex(Map<Range, String> ranges, String format, @Nullable String nonNumeric) {
+        this.format = format;
+        this.nonNumeric = nonNumeric;
+
+        List<BigDecimal> allBounds = new ArrayList<>();
+        for (Range range : ranges.keySet()) {
+            if (range.min != null) {
+                allBounds.add(range.min);
+            }
+            if (range.max != null) {
+                allBounds.add(range.max);
+            }
+        }
+        allBounds.sort(null);
+        List<BigDecimal> distinctBounds = new ArrayList<>();
+        for (BigDecimal bound : allBounds) {
+            if (distinctBounds.isEmpty() || distinctBounds.get(distinctBounds.size() - 1).compareTo(bound) != 0) {
+                distinctBounds.add(bound);
+            }
+        }
+        bounds = distinctBounds.toArray(new BigDecimal[0]);
+
+        boundLabels = new String[bounds.length];
+        intervalLabels = new String[bounds.length + 1];
+        for (int i = 0; i < bounds.length; i++) {
+            boundLabels[i] = findLabel(ranges, bounds[i]);
+        }
+        for (int i = 0; i <= bounds.length; i++) {
+            intervalLabels[i] = findLabel(ranges, representative(i));
+        }
+    }
+
+    /**
+     * Returns a value inside the open interval below the bound with the given index
+     */
+    private BigDecimal representative(int interval) {
+        if (bounds.length == 0) {
+            return BigDecimal.ZERO;
+        } else if (interval == 0) {
+            return bounds[0].subtract(BigDecimal.ONE);
+        } else if (interval == bounds.length) {
+            return bounds[bounds.length - 1].add(BigDecimal.ONE);
+        } else {
+            return bounds[interval - 1].add(bounds[interval]).multiply(HALF);
+        }
+    }
+
+    private static @Nullable String findLabel(Map<Range, String> ranges, BigDecimal value) {
+        for (Map.Entry<Range, String> entry : ranges.entrySet()) {
+            if (entry.getKey().contains(value)) {
+                return entry.getValue();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the label of the first range containing the value
+     *
+     * @param value the value to look up
+     * @return the label or null if no range contains the value
+     */
+    public @Nullable String getLabel(BigDecimal value) {
+        int index = Arrays.binarySearch(bounds, value);
+        return index >= 0 ? boundLabels[index] : intervalLabels[-index - 1];
+    }
+
+    public String getFormat() {
+        return format;
+    }
+
+    public @Nullable String getNonNumeric() {
+        return nonNumeric;
+    }
+}
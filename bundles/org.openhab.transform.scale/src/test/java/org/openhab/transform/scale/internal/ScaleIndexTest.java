@@ -0,0 +1,80 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.scale.internal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author Markus Vogler - Initial contribution
+ */
+public class ScaleIndexTest {
+
+    @Test
+    public void testBoundsAndIntervals() {
+        Map<Range, String> ranges = new LinkedHashMap<>();
+        ranges.put(Range.atMost(new BigDecimal(3)), "low");
+        ranges.put(Range.openClosed(new BigDecimal(3), new BigDecimal(6)), "mid");
+        ranges.put(Range.open(new BigDecimal(6), new BigDecimal(10)), "high");
+        ScaleIndex index = new ScaleIndex(ranges, "%label%", null);
+
+        assertEquals("low", index.getLabel(new BigDecimal(-100)));
+        assertEquals("low", index.getLabel(new BigDecimal("3.00")));
+        assertEquals("mid", index.getLabel(new BigDecimal("3.01")));
+        assertEquals("mid", index.getLabel(new BigDecimal(6)));
+        assertEquals("high", index.getLabel(new BigDecimal("6.5")));
+        assertNull(index.getLabel(new BigDecimal(10)));
+        assertNull(index.getLabel(new BigDecimal(11)));
+    }
+
+    @Test
+    public void testFirstMatchingRangeWins() {
+        Map<Range, String> ranges = new LinkedHashMap<>();
+        ranges.put(Range.lessThan(new BigDecimal(15)), "first");
+        ranges.put(Range.closedOpen(new BigDecimal(10), new BigDecimal(17)), "second");
+        ranges.put(Range.atLeast(new BigDecimal(15)), "last");
+        ScaleIndex index = new ScaleIndex(ranges, "%label%", null);
+
+        assertEquals("first", index.getLabel(new BigDecimal(12)));
+        assertEquals("last", index.getLabel(new BigDecimal(15)));
+        assertEquals("last", index.getLabel(new BigDecimal(16)));
+    }
+
+    @Test
+    public void testSameResultAsEvaluatingRangesInOrder() {
+        Random random = new Random(42);
+        for (int run = 0; run < 500; run++) {
+            Map<Range, String> ranges = new LinkedHashMap<>();
+            int count = random.nextInt(8);
+            for (int i = 0; i < count; i++) {
+                BigDecimal lower = random.nextInt(5) == 0 ? null : BigDecimal.valueOf(random.nextInt(20) - 5, 1);
+                BigDecimal upper = random.nextInt(5) == 0 ? null : BigDecimal.valueOf(random.nextInt(20) - 5, 1);
+                ranges.put(Range.range(lower, random.nextBoolean(), upper, random.nextBoolean()), "label" + i);
+            }
+            ScaleIndex index = new ScaleIndex(ranges, "%label%", null);
+
+            for (int i = -80; i <= 200; i++) {
+                BigDecimal value = BigDecimal.valueOf(i, 2);
+                String expected = ranges.entrySet().stream().filter(entry -> entry.getKey().contains(value))
+                        .map(Map.Entry::getValue).findFirst().orElse(null);
+                assertEquals(expected, index.getLabel(value), "value " + value + " in " + ranges.values());
+            }
+        }
+    }
+}
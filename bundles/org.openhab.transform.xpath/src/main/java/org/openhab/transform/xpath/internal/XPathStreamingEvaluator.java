@@ -0,0 +1,268 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.xpath.internal;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * Evaluates simple location paths on a StAX stream instead of building a DOM document.
+ *
+ * Supported are absolute paths of child ({@code /}) and descendant ({@code //}) steps with element names without
+ * prefix or {@code *}, optionally followed by a final {@code @attribute} or {@code text()} step, e.g.
+ * {@code //current_conditions/temp_c/@data} or {@code /PTZStatus/AbsoluteHigh/azimuth/text()}. The result is the
+ * string value of the first selected node in document order, as returned by XPath for {@code XPathConstants.STRING}.
+ *
+ * The whole document is read, so malformed documents are detected like with the DOM parser. Documents with a DTD and
+ * CDATA sections in {@code text()} results are left to the DOM implementation.
+ *
+ * @author Markus Vogler - Initial contribution
+ */
+@NonNullByDefault
+public class XPathStreamingEvaluator {
+
+    private static final Pattern SIMPLE_PATH = Pattern
+            .compile("(//?([A-Za-z_][A-Za-z0-9_.\\-]*|\\*))+(/@[A-Za-z_][A-Za-z0-9_.\\-]*|/text\\(\\))?");
+
+    private static final XMLInputFactory FACTORY = createFactory();
+
+    private enum Target {
+        ELEMENT,
+        ATTRIBUTE,
+        TEXT
+    }
+
+    private static class Step {
+        private final boolean descendant;
+        private final @Nullable String name;
+
+        private Step(boolean descendant, @Nullable String name) {
+            this.descendant = descendant;
+            this.name = name;
+        }
+
+        private boolean matches(Element element) {
+            String name = this.name;
+            return name == null || (element.noNamespace && name.equals(element.localName));
+        }
+    }
+
+    private static class Element {
+        private final String localName;
+        private final boolean noNamespace;
+
+        private Element(String localName, boolean noNamespace) {
+            this.localName = localName;
+            this.noNamespace = noNamespace;
+        }
+    }
+
+    private final Step[] steps;
+    private final Target target;
+    private final @Nullable String attribute;
+
+    private XPathStreamingEvaluator(Step[] steps, Target target, @Nullable String attribute) {
+        this.steps = steps;
+        this.target = target;
+        this.attribute = attribute;
+    }
+
+    /**
+     * Creates an evaluator for the expression
+     *
+     * @param expression XPath expression
+     * @return the evaluator or null if the expression is not a simple location path
+     */
+    public static @Nullable XPathStreamingEvaluator compile(String expression) {
+        String path = expression.trim();
+        if (!SIMPLE_PATH.matcher(path).matches()) {
+            return null;
+        }
+        Target target = Target.ELEMENT;
+        String attribute = null;
+        int lastSlash = path.lastIndexOf('/');
+        String last = path.substring(lastSlash + 1);
+        if (last.startsWith("@")) {
+            target = Target.ATTRIBUTE;
+            attribute = last.substring(1);
+            path = path.substring(0, lastSlash);
+        } else if ("text()".equals(last)) {
+            target = Target.TEXT;
+            path = path.substring(0, lastSlash);
+        }
+        List<Step> steps = new ArrayList<>();
+        int i = 0;
+        while (i < path.length()) {
+            boolean descendant = path.startsWith("//", i);
+            i += descendant ? 2 : 1;
+            int end = path.indexOf('/', i);
+            if (end < 0) {
+                end = path.length();
+            }
+            String name = path.substring(i, end);
+            steps.add(new Step(descendant, "*".equals(name) ? null : name));
+            i = end;
+        }
+        return new XPathStreamingEvaluator(steps.toArray(new Step[0]), target, attribute);
+    }
+
+    /**
+     * Evaluates the path on the document
+     *
+     * @param source XML document
+     * @return the string value of the first selected node, an empty string if no node is selected or null if the
+     *         document has to be evaluated by the DOM implementation
+     */
+    public @Nullable String evaluate(String source) {
+        XMLStreamReader reader;
+        try {
+            reader = FACTORY.createXMLStreamReader(new StringReader(source));
+        } catch (XMLStreamException e) {
+            return null;
+        }
+        try {
+            String result = null;
+            List<Element> stack = new ArrayList<>();
+            // depth of the selected element while its text is collected, -1 otherwise
+            int selectedDepth = -1;
+            StringBuilder text = new StringBuilder();
+            while (reader.hasNext()) {
+                int event = reader.next();
+                if (event == XMLStreamConstants.DTD) {
+                    return null;
+                }
+                if (result != null) {
+                    // only check that the rest of the document is well-formed
+                    continue;
+                }
+                switch (event) {
+                    case XMLStreamConstants.START_ELEMENT:
+                        if (target == Target.TEXT && selectedDepth >= 0 && text.length() > 0) {
+                            result = text.toString();
+                            continue;
+                        }
+                        String namespace = reader.getNamespaceURI();
+                        stack.add(new Element(reader.getLocalName(), namespace == null || namespace.isEmpty()));
+                        if (selectedDepth >= 0) {
+                            if (target == Target.TEXT && matches(stack)) {
+                                // the text of the nested element could come first in document order
+                                return null;
+                            }
+                        } else if (matches(stack)) {
+                            if (target == Target.ATTRIBUTE) {
+                                result = getAttribute(reader);
+                            } else {
+                                selectedDepth = stack.size();
+                            }
+                        }
+                        break;
+                    case XMLStreamConstants.END_ELEMENT:
+                        if (selectedDepth == stack.size()) {
+                            if (target == Target.ELEMENT || text.length() > 0) {
+                                result = text.toString();
+                            }
+                            selectedDepth = -1;
+                        } else if (target == Target.TEXT && selectedDepth >= 0 && text.length() > 0) {
+                            result = text.toString();
+                        }
+                        stack.remove(stack.size() - 1);
+                        break;
+                    case XMLStreamConstants.CHARACTERS:
+                    case XMLStreamConstants.SPACE:
+                        if (selectedDepth >= 0 && (target == Target.ELEMENT || selectedDepth == stack.size())) {
+                            text.append(reader.getText());
+                        }
+                        break;
+                    case XMLStreamConstants.CDATA:
+                        if (selectedDepth >= 0) {
+                            if (target == Target.TEXT) {
+                                // CDATA sections are separate nodes in the DOM
+                                return null;
+                            }
+                            text.append(reader.getText());
+                        }
+                        break;
+                    case XMLStreamConstants.ENTITY_REFERENCE:
+                        return null;
+                    default:
+                        // comments and processing instructions end a text node
+                        if (target == Target.TEXT && selectedDepth >= 0 && text.length() > 0) {
+                            result = text.toString();
+                        }
+                        break;
+                }
+            }
+            return result != null ? result : "";
+        } catch (XMLStreamException e) {
+            // let the DOM implementation report the error
+            return null;
+        } finally {
+            try {
+                reader.close();
+            } catch (XMLStreamException e) {
+                // ignore
+            }
+        }
+    }
+
+    private @Nullable String getAttribute(XMLStreamReader reader) {
+        for (int i = 0; i < reader.getAttributeCount(); i++) {
+            String namespace = reader.getAttributeNamespace(i);
+            if ((namespace == null || namespace.isEmpty()) && reader.getAttributeLocalName(i).equals(attribute)) {
+                return reader.getAttributeValue(i);
+            }
+        }
+        return null;
+    }
+
+    private boolean matches(List<Element> stack) {
+        return matches(steps.length - 1, stack.size() - 1, stack);
+    }
+
+    private boolean matches(int stepIndex, int stackIndex, List<Element> stack) {
+        Step step = steps[stepIndex];
+        if (!step.matches(stack.get(stackIndex))) {
+            return false;
+        }
+        if (stepIndex == 0) {
+            return step.descendant || stackIndex == 0;
+        }
+        if (!step.descendant) {
+            return stackIndex > 0 && matches(stepIndex - 1, stackIndex - 1, stack);
+        }
+        for (int i = stackIndex - 1; i >= 0; i--) {
+            if (matches(stepIndex - 1, i, stack)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static XMLInputFactory createFactory() {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, true);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, false);
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        return factory;
+    }
+}
@@ -13,12 +13,17 @@
 package org.openhab.transform.xpath.internal;
 
 import java.io.StringReader;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
 
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.xpath.XPath;
 import javax.xml.xpath.XPathConstants;
 import javax.xml.xpath.XPathExpression;
+import javax.xml.xpath.XPathExpressionException;
 import javax.xml.xpath.XPathFactory;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
@@ -35,14 +40,53 @@ import org.xml.sax.InputSource;
  * <p>
  * The implementation of {@link TransformationService} which transforms the input by XPath Expressions.
  *
+ * <p>
+ * Simple location paths are evaluated by the {@link XPathStreamingEvaluator} without building a DOM document. Other
+ * expressions are compiled once per thread and evaluated on a document parsed by a builder that is reused by the
+ * thread.
+ *
  * @author Thomas.Eichstaedt-Engelen
  */
 @NonNullByDefault
 @Component(property = { "openhab.transform=XPATH" })
 public class XPathTransformationService implements TransformationService {
 
+    private static final int CACHE_SIZE = 64;
+
     private final Logger logger = LoggerFactory.getLogger(XPathTransformationService.class);
 
+    private final DocumentBuilderFactory domFactory = createDocumentBuilderFactory();
+    private final XPathFactory xpathFactory = XPathFactory.newInstance();
+
+    private final ThreadLocal<@Nullable Engine> engines = new ThreadLocal<>();
+
+    // streaming evaluators are immutable and shared, an empty value marks expressions that aren't simple paths
+    private final Map<String, Optional<XPathStreamingEvaluator>> streamingEvaluators = createLruMap();
+
+    /**
+     * The parser and compiled expressions of a thread, as neither are thread-safe
+     */
+    private class Engine {
+        private final DocumentBuilder builder;
+        private final XPath xpath = xpathFactory.newXPath();
+        private final Map<String, XPathExpression> expressions = createLruMap();
+
+        private Engine() throws ParserConfigurationException {
+            synchronized (domFactory) {
+                builder = domFactory.newDocumentBuilder();
+            }
+        }
+
+        private XPathExpression getExpression(String xpathExpression) throws XPathExpressionException {
+            XPathExpression expr = expressions.get(xpathExpression);
+            if (expr == null) {
+                expr = xpath.compile(xpathExpression);
+                expressions.put(xpathExpression, expr);
+            }
+            return expr;
+        }
+    }
+
     @Override
     public @Nullable String transform(String xpathExpression, String source) throws TransformationException {
         if (xpathExpression == null || source == null) {
@@ -51,22 +95,32 @@ public class XPathTransformationService implements TransformationService {
 
         logger.debug("about to transform '{}' by the function '{}'", source, xpathExpression);
 
+        XPathStreamingEvaluator evaluator = getStreamingEvaluator(xpathExpression);
+        if (evaluator != null) {
+            String transformationResult = evaluator.evaluate(source);
+            if (transformationResult != null) {
+                logger.debug("transformation resulted in '{}'", transformationResult);
+                return transformationResult;
+            }
+        }
+
         StringReader stringReader = null;
 
         try {
-            DocumentBuilderFactory domFactory = DocumentBuilderFactory.newInstance();
-            domFactory.setNamespaceAware(true);
-            domFactory.setValidating(false);
-            DocumentBuilder builder = domFactory.newDocumentBuilder();
+            Engine engine = getEngine();
 
             stringReader = new StringReader(source);
             InputSource inputSource = new InputSource(stringReader);
             inputSource.setEncoding("UTF-8");
 
-            Document doc = builder.parse(inputSource);
+            Document doc;
+            try {
+                doc = engine.builder.parse(inputSource);
+            } finally {
+                engine.builder.reset();
+            }
 
-            XPath xpath = XPathFactory.newInstance().newXPath();
-            XPathExpression expr = xpath.compile(xpathExpression);
+            XPathExpression expr = engine.getExpression(xpathExpression);
 
             String transformationResult = (String) expr.evaluate(doc, XPathConstants.STRING);
 
@@ -81,4 +135,42 @@ public class XPathTransformationService implements TransformationService {
             }
         }
     }
+
+    private @Nullable XPathStreamingEvaluator getStreamingEvaluator(String xpathExpression) {
+        synchronized (streamingEvaluators) {
+            Optional<XPathStreamingEvaluator> evaluator = streamingEvaluators.get(xpathExpression);
+            if (evaluator == null) {
+                evaluator = Optional.ofNullable(XPathStreamingEvaluator.compile(xpathExpression));
+                streamingEvaluators.put(xpathExpression, evaluator);
+            }
+            return evaluator.orElse(null);
+        }
+    }
+
+    private Engine getEngine() throws ParserConfigurationException {
+        Engine engine = engines.get();
+        if (engine == null) {
+            engine = new Engine();
+            engines.set(engine);
+        }
+        return engine;
+    }
+
+    private static DocumentBuilderFactory createDocumentBuilderFactory() {
+        DocumentBuilderFactory domFactory = DocumentBuilderFactory.newInstance();
+        domFactory.setNamespaceAware(true);
+        domFactory.setValidating(false);
+        return domFactory;
+    }
+
+    private static <V> Map<String, V> createLruMap() {
+        return new LinkedHashMap<>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.@Nullable Entry<String, V> eldest) {
+                return size() > CACHE_SIZE;
+            }
+        };
+    }
 }
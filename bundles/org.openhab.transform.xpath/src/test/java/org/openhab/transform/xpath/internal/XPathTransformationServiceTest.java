@@ -38,4 +38,32 @@ public class XPathTransformationServiceTest extends AbstractTransformationServic
         // Asserts
         assertEquals("8", transformedResponse);
     }
+
+    @Test
+    public void testTransformByStreamedAndCompiledXPathGiveSameResult() throws TransformationException {
+        String xml = "<?xml version=\"1.0\"?><PTZStatus version=\"2.0\"><AbsoluteHigh><elevation>0</elevation>"
+                + "<azimuth>450</azimuth></AbsoluteHigh></PTZStatus>";
+
+        assertEquals("450", processor.transform("/PTZStatus/AbsoluteHigh/azimuth/text()", xml));
+        assertEquals("450", processor.transform("/PTZStatus/AbsoluteHigh/azimuth[1]/text()", xml));
+        assertEquals("0450", processor.transform("//AbsoluteHigh", xml));
+        assertEquals("0450", processor.transform("string(//AbsoluteHigh)", xml));
+        assertEquals("2.0", processor.transform("/*/@version", xml));
+        assertEquals("", processor.transform("/PTZStatus/unknown", xml));
+    }
+
+    @Test
+    public void testTransformWithNamespace() throws TransformationException {
+        String xml = "<PTZStatus xmlns=\"http://www.hikvision.com/ver20/XMLSchema\"><azimuth>450</azimuth></PTZStatus>";
+
+        assertEquals("", processor.transform("/PTZStatus/azimuth", xml));
+        assertEquals("450", processor.transform("/*/*[local-name()='azimuth']", xml));
+        assertEquals("450", processor.transform("/*/*", xml));
+    }
+
+    @Test
+    public void testInvalidXmlThrowsException() {
+        assertThrows(TransformationException.class,
+                () -> processor.transform("//current_conditions/temp_c/@data", source + "</invalid>"));
+    }
 }
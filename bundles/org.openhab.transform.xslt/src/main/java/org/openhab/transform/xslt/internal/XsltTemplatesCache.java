@@ -0,0 +1,99 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.xslt.internal;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.xml.transform.Templates;
+import javax.xml.transform.TransformerConfigurationException;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.stream.StreamSource;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.openhab.core.OpenHAB;
+import org.openhab.core.transform.TransformationException;
+import org.openhab.core.transform.TransformationService;
+import org.osgi.service.component.annotations.Component;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Cache for compiled XSLT stylesheets. {@link Templates} are thread-safe, so every transformation only has to create
+ * a new {@link javax.xml.transform.Transformer} from them. Entries are removed by the {@link XsltStylesheetWatcher}
+ * when a stylesheet is modified or deleted.
+ *
+ * @author Markus Vogler - Initial contribution
+ */
+@NonNullByDefault
+@Component(service = XsltTemplatesCache.class)
+public class XsltTemplatesCache {
+
+    public static final String TRANSFORM_FOLDER = OpenHAB.getConfigFolder() + File.separator
+            + TransformationService.TRANSFORM_FOLDER_NAME;
+
+    private final Logger logger = LoggerFactory.getLogger(XsltTemplatesCache.class);
+
+    private final Map<Path, Templates> templatesMap = new ConcurrentHashMap<>();
+
+    // TransformerFactory is not thread-safe, guarded by itself
+    private final TransformerFactory transformerFactory = TransformerFactory.newInstance();
+
+    /**
+     * Get the compiled stylesheet from cache. If it is not in the cache, then it is loaded from storage and compiled.
+     *
+     * @param filename name of the XSLT file, relative to the transform folder
+     * @return the compiled stylesheet
+     * @throws TransformationException if the stylesheet can't be compiled
+     */
+    public Templates getTemplates(String filename) throws TransformationException {
+        Path path = getPath(filename);
+        Templates templates = templatesMap.get(path);
+        if (templates != null) {
+            logger.trace("Loading stylesheet {} from cache.", path);
+            return templates;
+        }
+        synchronized (transformerFactory) {
+            templates = templatesMap.get(path);
+            if (templates != null) {
+                return templates;
+            }
+            logger.debug("Loading stylesheet {} from storage", path);
+            try {
+                templates = transformerFactory.newTemplates(new StreamSource(path.toFile()));
+            } catch (TransformerConfigurationException e) {
+                throw new TransformationException("An error occurred while loading stylesheet. " + e.getMessage(), e);
+            }
+            templatesMap.put(path, templates);
+            return templates;
+        }
+    }
+
+    /**
+     * Removes a stylesheet from the cache, it is loaded again with the next transformation
+     *
+     * @param path path of the modified or deleted file
+     */
+    public void removeFromCache(Path path) {
+        if (templatesMap.remove(path.toAbsolutePath().normalize()) != null) {
+            logger.debug("Removed stylesheet {} from cache.", path);
+        }
+    }
+
+    private Path getPath(String filename) {
+        return Paths.get(TRANSFORM_FOLDER, filename).toAbsolutePath().normalize();
+    }
+}
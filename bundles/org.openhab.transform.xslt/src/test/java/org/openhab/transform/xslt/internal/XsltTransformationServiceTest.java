@@ -28,6 +28,7 @@ public class XsltTransformationServiceTest extends AbstractTransformationService
     @BeforeEach
     public void init() {
         processor = new XsltTransformationService();
+        processor.setXsltTemplatesCache(new XsltTemplatesCache());
     }
 
     @Test
@@ -38,4 +39,15 @@ public class XsltTransformationServiceTest extends AbstractTransformationService
         // Asserts
         assertEquals("8", transformedResponse);
     }
+
+    @Test
+    public void testTransformByCachedXSLT() throws TransformationException {
+        assertEquals("8", processor.transform("http/google_weather.xsl", source));
+        assertEquals("8", processor.transform("http/../http/google_weather.xsl", source));
+    }
+
+    @Test
+    public void testMissingStylesheetThrowsException() {
+        assertThrows(TransformationException.class, () -> processor.transform("http/missing.xsl", source));
+    }
 }
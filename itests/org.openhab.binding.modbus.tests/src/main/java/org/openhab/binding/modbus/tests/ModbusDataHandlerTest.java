@@ -38,6 +38,7 @@ import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import org.openhab.binding.modbus.handler.EndpointNotInitializedException;
 import org.openhab.binding.modbus.handler.ModbusPollerThingHandler;
+import org.openhab.binding.modbus.internal.ReadRequestPlanner.Range;
 import org.openhab.binding.modbus.internal.handler.ModbusDataThingHandler;
 import org.openhab.binding.modbus.internal.handler.ModbusTcpThingHandler;
 import org.openhab.core.config.core.Configuration;
@@ -509,6 +510,77 @@ public class ModbusDataHandlerTest extends AbstractModbusOSGiTest {
         return dataHandler;
     }
 
+    /**
+     * Creates a data thing of a smart poller, which polls start 0 and length 1 when not in smart mode
+     */
+    private ModbusDataThingHandler createSmartPollerDataHandler(ModbusReadFunctionCode functionCode, String start,
+            ValueType valueType) {
+        ModbusSlaveEndpoint endpoint = new ModbusTCPSlaveEndpoint("thisishost", 502, false);
+
+        ModbusReadRequestBlueprint pollerRequest = Mockito.mock(ModbusReadRequestBlueprint.class);
+        doReturn(0).when(pollerRequest).getReference();
+        doReturn(1).when(pollerRequest).getDataLength();
+        doReturn(functionCode).when(pollerRequest).getFunctionCode();
+
+        PollTask task = Mockito.mock(PollTask.class);
+        doReturn(endpoint).when(task).getEndpoint();
+        doReturn(pollerRequest).when(task).getRequest();
+
+        Bridge poller = createPollerMock("poller1", task);
+        doReturn(true).when((ModbusPollerThingHandler) poller.getHandler()).isSmart();
+
+        Configuration dataConfig = new Configuration();
+        dataConfig.put("readStart", start);
+        dataConfig.put("readTransform", "default");
+        dataConfig.put("readValueType", valueType.getConfigValue());
+        ModbusDataThingHandler dataHandler = createDataHandler("read1", poller,
+                builder -> builder.withConfiguration(dataConfig));
+
+        // Outside of the poller start and length, but read by the smart poller
+        assertThat(dataHandler.getThing().getStatusInfo().getDescription(), dataHandler.getThing().getStatus(),
+                is(equalTo(ThingStatus.ONLINE)));
+        return dataHandler;
+    }
+
+    private ModbusReadRequestBlueprint createBlockRequest(ModbusReadFunctionCode functionCode, int start, int length) {
+        ModbusReadRequestBlueprint request = Mockito.mock(ModbusReadRequestBlueprint.class);
+        doReturn(start).when(request).getReference();
+        doReturn(length).when(request).getDataLength();
+        doReturn(functionCode).when(request).getFunctionCode();
+        return request;
+    }
+
+    @Test
+    public void testSmartPollerRegistersAtBlockOffset() {
+        ModbusDataThingHandler dataHandler = createSmartPollerDataHandler(
+                ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, "12", ModbusConstants.ValueType.INT16);
+        assertThat(dataHandler.getReadRange(), is(equalTo(new Range(12, 1))));
+
+        // Block of the smart poller starting at register 10
+        ModbusReadRequestBlueprint request = createBlockRequest(ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 10, 3);
+        dataHandler.onReadResult(new AsyncModbusReadResult(request,
+                new ModbusRegisterArray(new byte[] { 0, 1, 0, 2, 0, 3 })));
+
+        assertSingleStateUpdate(dataHandler, CHANNEL_LAST_READ_SUCCESS, is(notNullValue(State.class)));
+        assertSingleStateUpdate(dataHandler, CHANNEL_NUMBER, new DecimalType(3));
+        assertSingleStateUpdate(dataHandler, CHANNEL_STRING, new StringType("3"));
+    }
+
+    @Test
+    public void testSmartPollerBitsAtBlockOffset() {
+        ModbusDataThingHandler dataHandler = createSmartPollerDataHandler(ModbusReadFunctionCode.READ_COILS, "11",
+                ModbusConstants.ValueType.BIT);
+        assertThat(dataHandler.getReadRange(), is(equalTo(new Range(11, 1))));
+
+        // Block of the smart poller starting at coil 10
+        ModbusReadRequestBlueprint request = createBlockRequest(ModbusReadFunctionCode.READ_COILS, 10, 3);
+        dataHandler.onReadResult(new AsyncModbusReadResult(request, new BitArray(false, true, false)));
+
+        assertSingleStateUpdate(dataHandler, CHANNEL_LAST_READ_SUCCESS, is(notNullValue(State.class)));
+        assertSingleStateUpdate(dataHandler, CHANNEL_NUMBER, new DecimalType(1));
+        assertSingleStateUpdate(dataHandler, CHANNEL_SWITCH, OnOffType.ON);
+    }
+
     @Test
     public void testOnError() {
         ModbusDataThingHandler dataHandler = testReadHandlingGeneric(ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS,
@@ -21,7 +21,11 @@ import static org.mockito.Mockito.*;
 import static org.mockito.hamcrest.MockitoHamcrest.argThat;
 
 import java.lang.reflect.Field;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
 
 import org.hamcrest.Description;
 import org.hamcrest.TypeSafeMatcher;
@@ -33,6 +37,7 @@ import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.openhab.binding.modbus.handler.ModbusPollerThingHandler;
 import org.openhab.binding.modbus.internal.ModbusBindingConstantsInternal;
+import org.openhab.binding.modbus.internal.ReadRequestPlanner.Range;
 import org.openhab.binding.modbus.internal.handler.ModbusDataThingHandler;
 import org.openhab.core.config.core.Configuration;
 import org.openhab.core.io.transport.modbus.AsyncModbusFailure;
@@ -47,6 +52,7 @@ import org.openhab.core.io.transport.modbus.ModbusRegisterArray;
 import org.openhab.core.io.transport.modbus.PollTask;
 import org.openhab.core.io.transport.modbus.endpoint.ModbusSlaveEndpoint;
 import org.openhab.core.io.transport.modbus.endpoint.ModbusTCPSlaveEndpoint;
+import org.openhab.core.io.transport.modbus.exception.ModbusSlaveErrorResponseException;
 import org.openhab.core.thing.Bridge;
 import org.openhab.core.thing.Thing;
 import org.openhab.core.thing.ThingStatus;
@@ -66,6 +72,23 @@ public class ModbusPollerThingHandlerTest extends AbstractModbusOSGiTest {
     private static final String HOST = "thisishost";
     private static final int PORT = 44;
 
+    /**
+     * Regular poll of a block registered by a smart poller
+     */
+    private static class BlockPoll {
+        final ModbusReadRequestBlueprint request;
+        final ModbusReadCallback callback;
+        final ModbusFailureCallback<ModbusReadRequestBlueprint> failureCallback;
+        final PollTask pollTask = Mockito.mock(PollTask.class);
+
+        BlockPoll(ModbusReadRequestBlueprint request, ModbusReadCallback callback,
+                ModbusFailureCallback<ModbusReadRequestBlueprint> failureCallback) {
+            this.request = request;
+            this.callback = callback;
+            this.failureCallback = failureCallback;
+        }
+    }
+
     private final Logger logger = LoggerFactory.getLogger(ModbusPollerThingHandlerTest.class);
 
     private Bridge endpoint;
@@ -73,6 +96,8 @@ public class ModbusPollerThingHandlerTest extends AbstractModbusOSGiTest {
 
     private @Mock ThingHandlerCallback thingCallback;
 
+    private final List<BlockPoll> blockPolls = new CopyOnWriteArrayList<>();
+
     public static BridgeBuilder createTcpThingBuilder(String id) {
         return BridgeBuilder
                 .create(ModbusBindingConstantsInternal.THING_TYPE_MODBUS_TCP,
@@ -849,4 +874,203 @@ public class ModbusPollerThingHandlerTest extends AbstractModbusOSGiTest {
         thingHandler.refresh();
         verify(comms).submitOneTimePoll(any(), any(), any());
     }
+
+    private ModbusPollerThingHandler createSmartPoller() {
+        doAnswer(invocation -> {
+            BlockPoll blockPoll = new BlockPoll(invocation.getArgument(0), invocation.getArgument(3),
+                    invocation.getArgument(4));
+            blockPolls.add(blockPoll);
+            return blockPoll.pollTask;
+        }).when(comms).registerRegularPoll(notNull(), eq(150L), eq(0L), notNull(), notNull());
+
+        Configuration pollerConfig = new Configuration();
+        pollerConfig.put("refresh", 150L);
+        pollerConfig.put("length", ModbusConstants.MAX_REGISTERS_READ_COUNT);
+        pollerConfig.put("type", ModbusBindingConstantsInternal.READ_TYPE_HOLDING_REGISTER);
+        pollerConfig.put("smart", true);
+        pollerConfig.put("maxGap", 3);
+        poller = createPollerThingBuilder("poller").withConfiguration(pollerConfig).withBridge(endpoint.getUID())
+                .build();
+        addThing(poller);
+        verifyEndpointBasicInitInteraction();
+        assertThat(poller.getStatus(), is(equalTo(ThingStatus.ONLINE)));
+
+        ModbusPollerThingHandler thingHandler = (ModbusPollerThingHandler) poller.getHandler();
+        assertNotNull(thingHandler);
+        assertThat(thingHandler.isSmart(), is(true));
+        return thingHandler;
+    }
+
+    private ModbusDataThingHandler createSmartChild(int start, int length) {
+        ModbusDataThingHandler child = Mockito.mock(ModbusDataThingHandler.class);
+        doReturn(new Range(start, length)).when(child).getReadRange();
+        return child;
+    }
+
+    /**
+     * Adds the children to the smart poller and waits until the blocks are registered
+     */
+    private void initializeSmartChildren(ModbusPollerThingHandler thingHandler, int expectedBlocks,
+            ModbusDataThingHandler... children) {
+        for (ModbusDataThingHandler child : children) {
+            thingHandler.childHandlerInitialized(child, Mockito.mock(Thing.class));
+        }
+        verify(comms, timeout(5000).times(expectedBlocks)).registerRegularPoll(notNull(), eq(150L), eq(0L),
+                notNull(), notNull());
+    }
+
+    private List<Range> getBlocks(List<ModbusReadRequestBlueprint> requests) {
+        return requests.stream().map(request -> new Range(request.getReference(), request.getDataLength()))
+                .collect(Collectors.toList());
+    }
+
+    private BlockPoll getBlockPoll(int start, int length) {
+        return blockPolls.stream()
+                .filter(blockPoll -> blockPoll.request.getReference() == start
+                        && blockPoll.request.getDataLength() == length)
+                .reduce((first, second) -> second).orElseThrow(
+                        () -> new AssertionError(String.format("No poll registered for block %d/%d", start, length)));
+    }
+
+    private AsyncModbusFailure<ModbusReadRequestBlueprint> createIllegalAddressFailure(BlockPoll blockPoll) {
+        ModbusSlaveErrorResponseException error = Mockito.mock(ModbusSlaveErrorResponseException.class);
+        doReturn(ModbusSlaveErrorResponseException.ILLEGAL_DATA_ACCESS).when(error).getExceptionCode();
+        return new AsyncModbusFailure<>(blockPoll.request, error);
+    }
+
+    @Test
+    public void testSmartPollerRegistersBlocksOfChildren() {
+        ModbusPollerThingHandler thingHandler = createSmartPoller();
+
+        // Nothing is polled without children
+        verify(comms, never()).registerRegularPoll(any(), anyLong(), anyLong(), any(), any());
+
+        initializeSmartChildren(thingHandler, 3, createSmartChild(0, 1), createSmartChild(1, 1),
+                createSmartChild(10, 2), createSmartChild(40, 1));
+
+        // Adjacent registers and small gaps are read with one request, the request of the poller is kept
+        assertThat(getBlocks(thingHandler.getBlockRequests()),
+                is(equalTo(Arrays.asList(new Range(0, 2), new Range(10, 2), new Range(40, 1)))));
+        assertThat(getBlocks(blockPolls.stream().map(blockPoll -> blockPoll.request).collect(Collectors.toList())),
+                is(equalTo(Arrays.asList(new Range(0, 2), new Range(10, 2), new Range(40, 1)))));
+        blockPolls.forEach(blockPoll -> {
+            assertThat(blockPoll.request.getFunctionCode(),
+                    is(equalTo(ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS)));
+            assertThat(blockPoll.request.getUnitID(), is(equalTo(9)));
+        });
+        assertNotNull(thingHandler.getRequest());
+    }
+
+    @Test
+    public void testSmartPollerDebouncesChildChanges() throws InterruptedException {
+        ModbusPollerThingHandler thingHandler = createSmartPoller();
+
+        thingHandler.childHandlerInitialized(createSmartChild(0, 2), Mockito.mock(Thing.class));
+        Thread.sleep(500);
+        thingHandler.childHandlerInitialized(createSmartChild(10, 2), Mockito.mock(Thing.class));
+
+        // The blocks are computed once, one second after the last change
+        verify(comms, after(700).never()).registerRegularPoll(any(), anyLong(), anyLong(), any(), any());
+        verify(comms, timeout(5000).times(2)).registerRegularPoll(notNull(), eq(150L), eq(0L), notNull(), notNull());
+        verify(comms, after(1500).times(2)).registerRegularPoll(notNull(), eq(150L), eq(0L), notNull(), notNull());
+        verify(comms, never()).unregisterRegularPoll(any());
+
+        // Removing a child computes the blocks again
+        ModbusDataThingHandler child3 = createSmartChild(40, 1);
+        thingHandler.childHandlerInitialized(child3, Mockito.mock(Thing.class));
+        verify(comms, timeout(5000).times(5)).registerRegularPoll(notNull(), eq(150L), eq(0L), notNull(), notNull());
+        thingHandler.childHandlerDisposed(child3, Mockito.mock(Thing.class));
+        verify(comms, timeout(5000).times(7)).registerRegularPoll(notNull(), eq(150L), eq(0L), notNull(), notNull());
+        verify(comms, times(5)).unregisterRegularPoll(any());
+        assertThat(getBlocks(thingHandler.getBlockRequests()),
+                is(equalTo(Arrays.asList(new Range(0, 2), new Range(10, 2)))));
+    }
+
+    @Test
+    public void testSmartPollerPassesResultsOnlyToChildrenOfBlock() {
+        ModbusPollerThingHandler thingHandler = createSmartPoller();
+        ModbusDataThingHandler child1 = createSmartChild(0, 1);
+        ModbusDataThingHandler child2 = createSmartChild(1, 1);
+        ModbusDataThingHandler child3 = createSmartChild(10, 2);
+        ModbusDataThingHandler child4 = createSmartChild(40, 1);
+        initializeSmartChildren(thingHandler, 3, child1, child2, child3, child4);
+
+        BlockPoll firstBlock = getBlockPoll(0, 2);
+        AsyncModbusReadResult result = new AsyncModbusReadResult(firstBlock.request,
+                Mockito.mock(ModbusRegisterArray.class));
+        firstBlock.callback.handle(result);
+        verify(child1).onReadResult(result);
+        verify(child2).onReadResult(result);
+        verify(child3, never()).onReadResult(any());
+        verify(child4, never()).onReadResult(any());
+
+        BlockPoll lastBlock = getBlockPoll(40, 1);
+        AsyncModbusFailure<ModbusReadRequestBlueprint> failure = new AsyncModbusFailure<>(lastBlock.request,
+                new Exception("timeout"));
+        lastBlock.failureCallback.handle(failure);
+        verify(child4).handleReadError(failure);
+        verify(child1, never()).handleReadError(any());
+        verify(child2, never()).handleReadError(any());
+        verify(child3, never()).handleReadError(any());
+    }
+
+    @Test
+    public void testSmartPollerOfflineOnlyWhenAllBlocksFail() {
+        ModbusPollerThingHandler thingHandler = createSmartPoller();
+        initializeSmartChildren(thingHandler, 3, createSmartChild(0, 2), createSmartChild(10, 2),
+                createSmartChild(40, 1));
+
+        // One block failing leaves the poller online
+        BlockPoll lastBlock = getBlockPoll(40, 1);
+        lastBlock.failureCallback.handle(new AsyncModbusFailure<>(lastBlock.request, new Exception("timeout")));
+        assertThat(poller.getStatus(), is(equalTo(ThingStatus.ONLINE)));
+
+        BlockPoll middleBlock = getBlockPoll(10, 2);
+        middleBlock.failureCallback.handle(new AsyncModbusFailure<>(middleBlock.request, new Exception("timeout")));
+        assertThat(poller.getStatus(), is(equalTo(ThingStatus.ONLINE)));
+
+        // All blocks failing
+        BlockPoll firstBlock = getBlockPoll(0, 2);
+        firstBlock.failureCallback.handle(new AsyncModbusFailure<>(firstBlock.request, new Exception("timeout")));
+        waitForAssert(() -> {
+            assertThat(poller.getStatus(), is(equalTo(ThingStatus.OFFLINE)));
+            assertThat(poller.getStatusInfo().getStatusDetail(), is(equalTo(ThingStatusDetail.COMMUNICATION_ERROR)));
+        });
+
+        // One block recovering
+        middleBlock.callback
+                .handle(new AsyncModbusReadResult(middleBlock.request, Mockito.mock(ModbusRegisterArray.class)));
+        waitForAssert(() -> assertThat(poller.getStatus(), is(equalTo(ThingStatus.ONLINE))));
+    }
+
+    @Test
+    public void testSmartPollerSplitsRefusedBlock() {
+        ModbusPollerThingHandler thingHandler = createSmartPoller();
+        ModbusDataThingHandler child1 = createSmartChild(0, 1);
+        ModbusDataThingHandler child2 = createSmartChild(1, 1);
+        ModbusDataThingHandler child3 = createSmartChild(10, 2);
+        initializeSmartChildren(thingHandler, 2, child1, child2, child3);
+
+        // The slave refuses the block with an illegal address
+        BlockPoll firstBlock = getBlockPoll(0, 2);
+        firstBlock.failureCallback.handle(createIllegalAddressFailure(firstBlock));
+
+        // The block is replaced by the ranges of its children, which are not informed about the error
+        verify(comms).unregisterRegularPoll(firstBlock.pollTask);
+        verify(comms, times(4)).registerRegularPoll(notNull(), eq(150L), eq(0L), notNull(), notNull());
+        assertThat(getBlocks(thingHandler.getBlockRequests()),
+                is(equalTo(Arrays.asList(new Range(10, 2), new Range(0, 1), new Range(1, 1)))));
+        verify(child1, never()).handleReadError(any());
+        verify(child2, never()).handleReadError(any());
+        assertThat(poller.getStatus(), is(equalTo(ThingStatus.ONLINE)));
+
+        // A block with a single child can't be split, the error is passed to the child
+        BlockPoll singleBlock = getBlockPoll(1, 1);
+        AsyncModbusFailure<ModbusReadRequestBlueprint> failure = createIllegalAddressFailure(singleBlock);
+        singleBlock.failureCallback.handle(failure);
+        verify(child2).handleReadError(failure);
+        verify(child1, never()).handleReadError(any());
+        verify(comms, times(4)).registerRegularPoll(notNull(), eq(150L), eq(0L), notNull(), notNull());
+        verify(comms, never()).unregisterRegularPoll(singleBlock.pollTask);
+    }
 }
@@ -0,0 +1,113 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.benchmarks;
+
+import java.util.Locale;
+import java.util.function.Supplier;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.openhab.core.transform.TransformationService;
+import org.openhab.transform.bin2json.internal.Bin2JsonTransformationService;
+import org.openhab.transform.javascript.internal.JavaScriptEngineManager;
+import org.openhab.transform.javascript.internal.JavaScriptTransformationService;
+import org.openhab.transform.jinja.internal.JinjaTransformationService;
+import org.openhab.transform.jsonpath.internal.JSonPathTransformationService;
+import org.openhab.transform.map.internal.MapTransformationService;
+import org.openhab.transform.regex.internal.RegExTransformationService;
+import org.openhab.transform.scale.internal.ScaleTransformationService;
+import org.openhab.transform.xpath.internal.XPathTransformationService;
+import org.openhab.transform.xslt.internal.XsltTemplatesCache;
+import org.openhab.transform.xslt.internal.XsltTransformationService;
+
+/**
+ * The transformations measured by {@link TransformationServiceBenchmark}, each with a payload as sent by real devices.
+ *
+ * @author openHAB Contributors - Initial contribution
+ */
+@NonNullByDefault
+public enum TransformationCase {
+
+    JSONPATH_SHELLY(JSonPathTransformationService::new, "$.meters[0].power", "shelly-status.json"),
+    JSONPATH_TASMOTA(JSonPathTransformationService::new, "$.ENERGY.Power", "tasmota-sensor.json"),
+    JINJA_TASMOTA(JinjaTransformationService::new, "{{ value_json.AM2301.Temperature }}", "tasmota-sensor.json"),
+    JAVASCRIPT_SHELLY(TransformationCase::createJavaScriptService, "shelly-power.js", "shelly-status.json"),
+    REGEX_TASMOTA(RegExTransformationService::new, ".*\"Power\":([0-9.]+),.*", "tasmota-sensor.json"),
+    REGEX_SUBSTITUTION_TASMOTA(RegExTransformationService::new, "s/.*\"Voltage\":([0-9]+).*/$1 V/",
+            "tasmota-sensor.json"),
+    XPATH_SONOS(XPathTransformationService::new, "//RelTime/text()", "sonos-position-info.xml"),
+    XPATH_SONOS_LOCAL_NAME(XPathTransformationService::new,
+            "//*[local-name()='GetPositionInfoResponse']/TrackDuration/text()", "sonos-position-info.xml"),
+    XSLT_SONOS(TransformationCase::createXsltService, "sonos-reltime.xsl", "sonos-position-info.xml"),
+    MAP_SONOS(TransformationCase::createMapService, "sonos-transport.map", "sonos-transport-state.txt"),
+    SCALE_TASMOTA(TransformationCase::createScaleService, "humidity.scale", "am2301-humidity.txt"),
+    BIN2JSON_MODBUS(Bin2JsonTransformationService::new,
+            "ubyte address; ubyte function; ubyte byteCount; short[8] registers; <ushort crc;",
+            "modbus-holding-registers.hex");
+
+    private final Supplier<TransformationService> serviceFactory;
+    private final String function;
+    private final String payloadFile;
+
+    /**
+     * @param serviceFactory creates the service
+     * @param function the function passed to the service
+     * @param payloadFile name of the file in the payloads folder which contains the input
+     */
+    TransformationCase(Supplier<TransformationService> serviceFactory, String function, String payloadFile) {
+        this.serviceFactory = serviceFactory;
+        this.function = function;
+        this.payloadFile = payloadFile;
+    }
+
+    public TransformationService createService() {
+        return serviceFactory.get();
+    }
+
+    public String getFunction() {
+        return function;
+    }
+
+    public String readPayload() {
+        return TransformationFolder.readPayload(payloadFile);
+    }
+
+    private static TransformationService createJavaScriptService() {
+        JavaScriptTransformationService service = new JavaScriptTransformationService();
+        service.setJavaScriptEngineManager(new JavaScriptEngineManager());
+        return service;
+    }
+
+    private static TransformationService createXsltService() {
+        XsltTransformationService service = new XsltTransformationService();
+        service.setXsltTemplatesCache(new XsltTemplatesCache());
+        return service;
+    }
+
+    private static TransformationService createMapService() {
+        return new MapTransformationService() {
+            @Override
+            protected Locale getLocale() {
+                return Locale.US;
+            }
+        };
+    }
+
+    private static TransformationService createScaleService() {
+        return new ScaleTransformationService() {
+            @Override
+            protected Locale getLocale() {
+                return Locale.US;
+            }
+        };
+    }
+}
@@ -0,0 +1,95 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.benchmarks;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.core.OpenHAB;
+import org.openhab.core.transform.TransformationService;
+
+/**
+ * Provides the payloads and a temporary configuration folder with the transformation files of the benchmarks.
+ *
+ * The file based transformation services determine the transform folder when their classes are initialized, so
+ * {@link #prepare()} has to be called before any of them is created.
+ *
+ * @author openHAB Contributors - Initial contribution
+ */
+@NonNullByDefault
+public final class TransformationFolder {
+
+    private static final List<String> TRANSFORMATION_FILES = List.of("humidity.scale", "shelly-power.js",
+            "sonos-reltime.xsl", "sonos-transport.map");
+
+    private static @Nullable Path configFolder;
+
+    private TransformationFolder() {
+        // only static methods
+    }
+
+    /**
+     * Creates the configuration folder once per JVM and points openHAB to it
+     */
+    public static synchronized void prepare() {
+        if (configFolder != null) {
+            return;
+        }
+        try {
+            Path folder = Files.createTempDirectory("openhab-benchmarks");
+            Path transformFolder = Files.createDirectory(folder.resolve(TransformationService.TRANSFORM_FOLDER_NAME));
+            folder.toFile().deleteOnExit();
+            transformFolder.toFile().deleteOnExit();
+            for (String file : TRANSFORMATION_FILES) {
+                Path target = transformFolder.resolve(file);
+                try (InputStream in = openResource("/transform/" + file)) {
+                    Files.copy(in, target);
+                }
+                target.toFile().deleteOnExit();
+            }
+            System.setProperty(OpenHAB.CONFIG_DIR_PROG_ARGUMENT, folder.toString());
+            configFolder = folder;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Reads a payload from the classpath
+     *
+     * @param name file name in the payloads folder
+     * @return the content without the trailing line break
+     */
+    public static String readPayload(String name) {
+        try (InputStream in = openResource("/payloads/" + name)) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8).stripTrailing();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static InputStream openResource(String name) throws IOException {
+        InputStream in = TransformationFolder.class.getResourceAsStream(name);
+        if (in == null) {
+            throw new IOException("Resource " + name + " not found");
+        }
+        return in;
+    }
+}
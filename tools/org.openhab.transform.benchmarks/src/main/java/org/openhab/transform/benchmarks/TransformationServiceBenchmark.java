@@ -0,0 +1,74 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.core.transform.TransformationException;
+import org.openhab.core.transform.TransformationService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link TransformationService#transform(String, String)} of all transformation services.
+ *
+ * One service instance is shared by all benchmark threads, like in openHAB, so running with {@code -t} shows how well
+ * a service scales with concurrent transformations.
+ *
+ * @author openHAB Contributors - Initial contribution
+ */
+@NonNullByDefault
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dnashorn.args=--no-deprecation-warning")
+public class TransformationServiceBenchmark {
+
+    @Param
+    public @NonNullByDefault({}) TransformationCase transformation;
+
+    private @NonNullByDefault({}) TransformationService service;
+    private @NonNullByDefault({}) String function;
+    private @NonNullByDefault({}) String payload;
+
+    @Setup
+    public void setup() throws TransformationException {
+        TransformationFolder.prepare();
+        service = transformation.createService();
+        function = transformation.getFunction();
+        payload = transformation.readPayload();
+
+        // don't measure a transformation which fails
+        if (service.transform(function, payload) == null) {
+            throw new IllegalStateException("Transformation " + transformation + " returned null");
+        }
+    }
+
+    @Benchmark
+    public @Nullable String transform() throws TransformationException {
+        return service.transform(function, payload);
+    }
+}
@@ -0,0 +1,4 @@
+(function(i) {
+    var status = JSON.parse(i);
+    return status.meters[0].power * (status.relays[0].ison ? 1 : 0);
+})(input)
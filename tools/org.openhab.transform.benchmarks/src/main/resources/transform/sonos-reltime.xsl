@@ -0,0 +1,7 @@
+<?xml version="1.0"?>
+<xsl:stylesheet version="1.0" xmlns:xsl="http://www.w3.org/1999/XSL/Transform">
+	<xsl:output method="text" indent="no" encoding="UTF-8" omit-xml-declaration="yes"/>
+	<xsl:template match="/">
+		<xsl:value-of select="//RelTime"/>
+	</xsl:template>
+</xsl:stylesheet>